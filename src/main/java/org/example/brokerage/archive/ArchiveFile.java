@@ -0,0 +1,118 @@
+package org.example.brokerage.archive;
+
+import org.example.brokerage.model.Money;
+import org.example.brokerage.model.Order;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.model.TimeInForce;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * One immutable archive part: a gzip stream holding a header, one record per order and an end
+ * marker with the record count. Amounts are stored as {@link Money} hundredths and enums by
+ * ordinal; gzip's CRC-32 trailer catches corruption. A part is written to a temporary file, forced
+ * to disk and renamed into place, so a part that exists is complete.
+ */
+final class ArchiveFile {
+    private static final int MAGIC = 0x4F524441; // "ORDA"
+    private static final int FORMAT = 1;
+    private static final byte RECORD = 1;
+    private static final byte END = 0;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private static final OrderSide[] ORDER_SIDES = OrderSide.values();
+    private static final OrderStatus[] ORDER_STATUSES = OrderStatus.values();
+    private static final TimeInForce[] TIMES_IN_FORCE = TimeInForce.values();
+
+    private ArchiveFile() {
+    }
+
+    static void write(Path path, List<Order> orders) {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(temporary), BUFFER_BYTES), BUFFER_BYTES))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT);
+                for (Order order : orders) {
+                    out.writeByte(RECORD);
+                    out.writeLong(order.getId());
+                    out.writeLong(order.getCustomerId());
+                    out.writeUTF(order.getAssetName());
+                    out.writeByte(order.getOrderSide().ordinal());
+                    out.writeLong(order.getSize().units());
+                    out.writeLong(order.getFilledSize().units());
+                    out.writeLong(order.getPrice().units());
+                    out.writeByte(order.getStatus().ordinal());
+                    out.writeByte(order.getTimeInForce().ordinal());
+                    out.writeLong(order.getCreateDate().toEpochSecond(ZoneOffset.UTC));
+                    out.writeInt(order.getCreateDate().getNano());
+                }
+                out.writeByte(END);
+                out.writeInt(orders.size());
+            }
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write archive " + path, e);
+        }
+    }
+
+    /** Streams every order of the part into the consumer as a detached entity. */
+    static void read(Path path, Consumer<Order> consumer) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(path), BUFFER_BYTES), BUFFER_BYTES))) {
+            if (in.readInt() != MAGIC) {
+                throw new IllegalStateException(path + " is not an order archive");
+            }
+            int format = in.readInt();
+            if (format != FORMAT) {
+                throw new IllegalStateException("Archive " + path + " has unsupported format " + format);
+            }
+            int records = 0;
+            byte tag;
+            while ((tag = in.readByte()) == RECORD) {
+                consumer.accept(Order.builder()
+                        .id(in.readLong())
+                        .customerId(in.readLong())
+                        .assetName(in.readUTF())
+                        .orderSide(ORDER_SIDES[in.readByte()])
+                        .size(new Money(in.readLong()))
+                        .filledSize(new Money(in.readLong()))
+                        .price(new Money(in.readLong()))
+                        .status(ORDER_STATUSES[in.readByte()])
+                        .timeInForce(TIMES_IN_FORCE[in.readByte()])
+                        .createDate(LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC))
+                        .build());
+                records++;
+            }
+            if (tag != END || in.readInt() != records) {
+                throw new IllegalStateException("Archive " + path + " is corrupt");
+            }
+        } catch (EOFException e) {
+            throw new IllegalStateException("Archive " + path + " is truncated", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read archive " + path, e);
+        }
+    }
+}
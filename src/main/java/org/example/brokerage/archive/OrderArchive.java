@@ -0,0 +1,204 @@
+package org.example.brokerage.archive;
+
+import org.example.brokerage.model.Order;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Cold storage for terminal orders, partitioned by creation date and customer: one directory per
+ * day under {@code brokerage.archive.directory}, split into {@code customer-buckets} directories by
+ * customer id, each holding append-only {@link ArchiveFile} parts named after the lowest order id
+ * they contain. Parts are never rewritten, only added. A bucket directory is named after its index
+ * and the bucket count it was written with, so changing the count leaves older days readable.
+ * <p>
+ * A lookup reads only the customer's bucket of each day its date range covers, and the range may
+ * span at most {@code max-range-days} days, so a request decodes a bounded share of the archive. An
+ * order archived twice, by a run that crashed between writing its part and deleting the rows, is
+ * returned once.
+ */
+@Component
+public class OrderArchive {
+    private static final Pattern DAY = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
+    private static final Pattern BUCKET = Pattern.compile("(\\d+)-of-(\\d+)");
+    private static final String PREFIX = "part-";
+    private static final String SUFFIX = ".gz";
+
+    private final Path directory;
+    private final int buckets;
+    private final int maxRangeDays;
+
+    public OrderArchive(@Value("${brokerage.archive.directory:data/archive}") Path directory,
+                        @Value("${brokerage.archive.customer-buckets:64}") int buckets,
+                        @Value("${brokerage.archive.max-range-days:92}") int maxRangeDays) {
+        this.directory = directory;
+        this.buckets = Math.max(buckets, 1);
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    /**
+     * Writes the orders as one new part per creation date and customer bucket and returns once they
+     * are on disk.
+     */
+    public void append(List<Order> orders) {
+        Map<Path, List<Order>> byBucket = new TreeMap<>();
+        for (Order order : orders) {
+            Path bucketDirectory = directory.resolve(order.getCreateDate().toLocalDate().toString())
+                    .resolve(bucketName(bucketOf(order.getCustomerId(), buckets), buckets));
+            byBucket.computeIfAbsent(bucketDirectory, path -> new ArrayList<>()).add(order);
+        }
+        byBucket.forEach((bucketDirectory, bucketOrders) -> {
+            try {
+                Files.createDirectories(bucketDirectory);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create archive directory " + bucketDirectory, e);
+            }
+            long firstId = bucketOrders.stream().mapToLong(Order::getId).min().orElseThrow();
+            ArchiveFile.write(bucketDirectory.resolve(String.format("%s%019d%s", PREFIX, firstId, SUFFIX)),
+                    bucketOrders);
+        });
+    }
+
+    /**
+     * The customer's archived orders created between the two instants inclusive, by (createDate, id).
+     * Throws {@link IllegalArgumentException} if the range reaches into the archive and spans more
+     * than {@code max-range-days} days.
+     */
+    public List<Order> find(Long customerId, LocalDateTime startDate, LocalDateTime endDate) {
+        return findAfter(customerId, startDate, endDate, startDate, 0L, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Like {@link #find}, but only orders after the (afterDate, afterId) key, reading day by day and
+     * stopping at the first day that brings the count to {@code limit}. A keyset page costs the days
+     * it takes to fill it, not the whole range. May return more than {@code limit} orders.
+     */
+    public List<Order> findAfter(Long customerId, LocalDateTime startDate, LocalDateTime endDate,
+                                 LocalDateTime afterDate, long afterId, int limit) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        checkRange(startDate, endDate);
+        LocalDate first = startDate.toLocalDate();
+        LocalDate last = endDate.toLocalDate();
+        LocalDate firstAfter = afterDate.toLocalDate().isAfter(first) ? afterDate.toLocalDate() : first;
+        List<Order> found = new ArrayList<>();
+        for (Path dayDirectory : list(directory, path -> Files.isDirectory(path) && covers(path, firstAfter, last))) {
+            Map<Long, Order> day = new HashMap<>();
+            for (Path bucketDirectory : list(dayDirectory, path -> holds(path, customerId))) {
+                for (Path part : list(bucketDirectory, path -> path.getFileName().toString().startsWith(PREFIX)
+                        && path.getFileName().toString().endsWith(SUFFIX))) {
+                    ArchiveFile.read(part, order -> {
+                        if (order.getCustomerId().equals(customerId) && !order.getCreateDate().isBefore(startDate)
+                                && !order.getCreateDate().isAfter(endDate)
+                                && isAfter(order, afterDate, afterId)) {
+                            day.putIfAbsent(order.getId(), order);
+                        }
+                    });
+                }
+            }
+            day.values().stream()
+                    .sorted(Comparator.comparing(Order::getCreateDate).thenComparing(Order::getId))
+                    .forEach(found::add);
+            // Later days only hold later keys, so they cannot change the first limit orders
+            if (found.size() >= limit) {
+                break;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Throws {@link IllegalArgumentException} if an archive exists and the range spans more than
+     * {@code max-range-days} days, so a caller can reject it before it starts answering.
+     */
+    public void checkRange(LocalDateTime startDate, LocalDateTime endDate) {
+        if (Files.isDirectory(directory)
+                && ChronoUnit.DAYS.between(startDate.toLocalDate(), endDate.toLocalDate()) >= maxRangeDays) {
+            throw new IllegalArgumentException("Date range must not exceed " + maxRangeDays + " days");
+        }
+    }
+
+    /**
+     * Whether a keyset walk over the range has to merge the archive: only a range with both bounds
+     * does, and it must pass {@link #checkRange}. A range missing a bound that reaches into archived
+     * days would silently skip them, so it is rejected with {@link IllegalArgumentException}.
+     */
+    public boolean neededFor(LocalDateTime startDate, LocalDateTime endDate) {
+        if (startDate != null && endDate != null) {
+            checkRange(startDate, endDate);
+            return true;
+        }
+        if (reaches(startDate != null ? startDate : LocalDateTime.MIN, endDate != null ? endDate : LocalDateTime.MAX)) {
+            throw new IllegalArgumentException("Pass startDate and endDate to page through archived orders");
+        }
+        return false;
+    }
+
+    /**
+     * Whether any archived day falls between the two instants, whoever's orders it holds.
+     */
+    public boolean reaches(LocalDateTime startDate, LocalDateTime endDate) {
+        if (!Files.isDirectory(directory)) {
+            return false;
+        }
+        LocalDate first = startDate.toLocalDate();
+        LocalDate last = endDate.toLocalDate();
+        return !list(directory, path -> Files.isDirectory(path) && covers(path, first, last)).isEmpty();
+    }
+
+    private static boolean isAfter(Order order, LocalDateTime afterDate, long afterId) {
+        int byDate = order.getCreateDate().compareTo(afterDate);
+        return byDate > 0 || (byDate == 0 && order.getId() > afterId);
+    }
+
+    static int bucketOf(Long customerId, int buckets) {
+        return Math.floorMod(Long.hashCode(customerId), buckets);
+    }
+
+    private static String bucketName(int bucket, int buckets) {
+        return bucket + "-of-" + buckets;
+    }
+
+    private static boolean holds(Path bucketDirectory, Long customerId) {
+        Matcher matcher = BUCKET.matcher(bucketDirectory.getFileName().toString());
+        if (!matcher.matches() || !Files.isDirectory(bucketDirectory)) {
+            return false;
+        }
+        return bucketOf(customerId, Integer.parseInt(matcher.group(2))) == Integer.parseInt(matcher.group(1));
+    }
+
+    private static boolean covers(Path dayDirectory, LocalDate first, LocalDate last) {
+        String name = dayDirectory.getFileName().toString();
+        if (!DAY.matcher(name).matches()) {
+            return false;
+        }
+        LocalDate day = LocalDate.parse(name);
+        return !day.isBefore(first) && !day.isAfter(last);
+    }
+
+    private static List<Path> list(Path directory, Predicate<Path> filter) {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.filter(filter).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list " + directory, e);
+        }
+    }
+}
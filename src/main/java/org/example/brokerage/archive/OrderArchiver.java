@@ -0,0 +1,87 @@
+package org.example.brokerage.archive;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.brokerage.event.OrdersArchivedEvent;
+import org.example.brokerage.model.Order;
+import org.example.brokerage.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves MATCHED and CANCELED orders created more than {@code brokerage.archive.min-age} ago out of
+ * the orders table into the {@link OrderArchive}, so the table keeps only open and recent orders.
+ * Orders are taken in id order, {@code batch-size} at a time: each batch is written to the archive
+ * and forced to disk before its rows are deleted, so a crash in between leaves an order in both
+ * places, which readers return once, and never in neither. Each moved batch is announced with an
+ * {@link OrdersArchivedEvent}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "brokerage.archive", name = "enabled", havingValue = "true")
+public class OrderArchiver {
+    private final OrderRepository orderRepository;
+    private final OrderArchive orderArchive;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration minAge;
+    private final int batchSize;
+    private final LongAdder archived = new LongAdder();
+
+    public OrderArchiver(OrderRepository orderRepository, OrderArchive orderArchive,
+                         ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+                         @Value("${brokerage.archive.min-age:30d}") Duration minAge,
+                         @Value("${brokerage.archive.batch-size:10000}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.orderArchive = orderArchive;
+        this.eventPublisher = eventPublisher;
+        this.minAge = minAge;
+        this.batchSize = Math.max(batchSize, 1);
+
+        FunctionCounter.builder("brokerage.archive.orders", archived, LongAdder::sum)
+                .description("Terminal orders moved to the archive")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${brokerage.archive.interval-millis:3600000}",
+            initialDelayString = "${brokerage.archive.interval-millis:3600000}")
+    public void archive() {
+        archiveCreatedBefore(LocalDateTime.now().minus(minAge));
+    }
+
+    /** Archives every terminal order created before the instant and returns how many moved. */
+    public long archiveCreatedBefore(LocalDateTime createdBefore) {
+        long start = System.nanoTime();
+        long moved = 0;
+        long afterId = 0;
+        while (true) {
+            List<Order> batch = orderRepository.findTerminalCreatedBefore(createdBefore, afterId, Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            orderArchive.append(batch);
+            orderRepository.deleteAllByIdInBatch(batch.stream().map(Order::getId).toList());
+            eventPublisher.publishEvent(OrdersArchivedEvent.of(batch));
+            moved += batch.size();
+            archived.add(batch.size());
+            afterId = batch.getLast().getId();
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        if (moved > 0) {
+            log.info("Archived {} orders created before {} in {} ms", moved, createdBefore,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+        return moved;
+    }
+}
@@ -0,0 +1,167 @@
+package org.example.brokerage.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.brokerage.dto.AssetResponse;
+import org.example.brokerage.event.OrderEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache of each customer's holdings as returned by GET /api/assets.
+ * <p>
+ * Every balance mutation publishes an {@link OrderEvent} for the affected customer in the same
+ * transaction (reservation on create, refund on cancel, fills and admin matches), so the entry is
+ * dropped as soon as that transaction commits. Concurrent misses for one customer share a single
+ * load. A load that overlaps an invalidation still answers its callers but is not cached, so a
+ * read taken before the commit can never overwrite the invalidation.
+ * <p>
+ * Hits are lock-free. When full, the least recently used tenth of the entries is evicted.
+ */
+@Component
+public class HoldingsCache {
+    private final int maxSize;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<List<AssetResponse>>> loading = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public HoldingsCache(MeterRegistry meterRegistry,
+                         @Value("${brokerage.cache.holdings.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+
+        FunctionCounter.builder("brokerage.cache.holdings.requests", hits, LongAdder::sum)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("brokerage.cache.holdings.requests", misses, LongAdder::sum)
+                .tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("brokerage.cache.holdings.coalesced", coalesced, LongAdder::sum)
+                .description("Misses that waited for another caller's load").register(meterRegistry);
+        FunctionCounter.builder("brokerage.cache.holdings.evictions", evictions, LongAdder::sum)
+                .register(meterRegistry);
+        FunctionCounter.builder("brokerage.cache.holdings.invalidations", invalidations, LongAdder::sum)
+                .register(meterRegistry);
+        Gauge.builder("brokerage.cache.holdings.size", entries, Map::size)
+                .register(meterRegistry);
+    }
+
+    public List<AssetResponse> get(Long customerId, Supplier<List<AssetResponse>> loader) {
+        Entry entry = entries.get(customerId);
+        if (entry != null) {
+            entry.lastAccessNanos = System.nanoTime();
+            hits.increment();
+            return entry.holdings;
+        }
+        misses.increment();
+        if (maxSize <= 0) {
+            return loader.get();
+        }
+
+        CompletableFuture<List<AssetResponse>> load = new CompletableFuture<>();
+        CompletableFuture<List<AssetResponse>> running = loading.putIfAbsent(customerId, load);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+
+        try {
+            List<AssetResponse> holdings = List.copyOf(loader.get());
+            if (entries.size() >= maxSize) {
+                evict();
+            }
+            // Still registered means no invalidation arrived while loading. Publishing under the
+            // loading entry's lock makes an invalidation either unregister the load first or
+            // remove the published entry after it
+            loading.computeIfPresent(customerId, (id, current) -> {
+                if (current != load) {
+                    return current;
+                }
+                entries.put(customerId, new Entry(holdings));
+                return null;
+            });
+            load.complete(holdings);
+            return holdings;
+        } catch (RuntimeException e) {
+            loading.remove(customerId, load);
+            load.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void invalidate(Long customerId) {
+        invalidations.increment();
+        // Unregister any load before dropping the entry; see get()
+        loading.remove(customerId);
+        entries.remove(customerId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        invalidate(event.customerId());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int target = maxSize - Math.max(1, maxSize / 10);
+            int excess = entries.size() - target;
+            if (excess <= 0) {
+                return;
+            }
+            entries.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().lastAccessNanos))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(customerId -> {
+                        if (entries.remove(customerId) != null) {
+                            evictions.increment();
+                        }
+                    });
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static List<AssetResponse> await(CompletableFuture<List<AssetResponse>> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Entry {
+        private final List<AssetResponse> holdings;
+        private volatile long lastAccessNanos = System.nanoTime();
+
+        private Entry(List<AssetResponse> holdings) {
+            this.holdings = holdings;
+        }
+    }
+}
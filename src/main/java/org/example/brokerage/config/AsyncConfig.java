@@ -0,0 +1,15 @@
+package org.example.brokerage.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Async} and {@code @Scheduled}. Both run on Spring Boot's auto-configured task
+ * executor and scheduler, which switch to virtual threads with {@code spring.threads.virtual.enabled}.
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig {
+}
@@ -2,13 +2,13 @@ package org.example.brokerage.config;
 
 import org.example.brokerage.model.Asset;
 import org.example.brokerage.model.Customer;
+import org.example.brokerage.model.Money;
 import org.example.brokerage.repository.AssetRepository;
 import org.example.brokerage.repository.CustomerRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
-import java.math.BigDecimal;
 
 @Component
 @RequiredArgsConstructor
@@ -19,6 +19,11 @@ public class DataInitializer implements CommandLineRunner {
 
     @Override
     public void run(String... args) {
+        if (customerRepository.count() > 0) {
+            // State was restored from a snapshot
+            return;
+        }
+
         // Create admin user
         Customer admin = Customer.builder()
                 .username("admin")
@@ -46,16 +51,16 @@ public class DataInitializer implements CommandLineRunner {
         Asset tryAsset1 = Asset.builder()
                 .customerId(customer1.getId())
                 .assetName("TRY")
-                .size(new BigDecimal("100000"))
-                .usableSize(new BigDecimal("100000"))
+                .size(Money.of("100000"))
+                .usableSize(Money.of("100000"))
                 .build();
         assetRepository.save(tryAsset1);
 
         Asset tryAsset2 = Asset.builder()
                 .customerId(customer2.getId())
                 .assetName("TRY")
-                .size(new BigDecimal("50000"))
-                .usableSize(new BigDecimal("50000"))
+                .size(Money.of("50000"))
+                .usableSize(Money.of("50000"))
                 .build();
         assetRepository.save(tryAsset2);
 
@@ -63,8 +68,9 @@ public class DataInitializer implements CommandLineRunner {
         Asset stockAsset = Asset.builder()
                 .customerId(customer1.getId())
                 .assetName("AAPL")
-                .size(new BigDecimal("10"))
-                .usableSize(new BigDecimal("10"))
+                .size(Money.of("10"))
+                .usableSize(Money.of("10"))
+                .costBasis(Money.of("1500"))
                 .build();
         assetRepository.save(stockAsset);
     }
@@ -0,0 +1,36 @@
+package org.example.brokerage.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * Wraps the pooled DataSource in a {@link GuardedDataSource} unless
+     * {@code brokerage.datasource.guard.enabled} is false.
+     */
+    @Bean
+    public static BeanPostProcessor guardedDataSourcePostProcessor(Environment environment) {
+        Binder binder = Binder.get(environment);
+        boolean enabled = binder.bind("brokerage.datasource.guard.enabled", Boolean.class).orElse(true);
+        int permits = binder.bind("brokerage.datasource.guard.permits", Integer.class).orElse(10);
+        int maxWaiting = binder.bind("brokerage.datasource.guard.max-waiting", Integer.class).orElse(10_000);
+        long timeoutMillis = binder.bind("brokerage.datasource.guard.acquire-timeout-millis", Long.class).orElse(30_000L);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof DataSource dataSource && !(bean instanceof GuardedDataSource)) {
+                    return new GuardedDataSource(dataSource, permits, maxWaiting, timeoutMillis);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,164 @@
+package org.example.brokerage.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admits at most {@code permits} threads into the database at once, first come first served.
+ * With virtual threads the request count is no longer capped by a thread pool, so without this
+ * every request would pile onto the connection pool's wait list and time out together.
+ * <p>
+ * Permits are per thread, not per connection: a thread that already holds one (for example a
+ * REQUIRES_NEW settlement started from an after-commit listener) opens its nested connection
+ * without waiting again, so nested transactions can never deadlock on the guard. The connection
+ * pool should therefore be larger than {@code permits}. Threads beyond {@code maxWaiting}, or
+ * that wait longer than the timeout, fail fast with {@link SQLTransientConnectionException}.
+ */
+public class GuardedDataSource extends DelegatingDataSource {
+    private static final ThreadLocal<Holder> HOLDER = new ThreadLocal<>();
+
+    private final Semaphore permits;
+    private final int maxWaiting;
+    private final long acquireTimeoutMillis;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public GuardedDataSource(DataSource target, int permits, int maxWaiting, long acquireTimeoutMillis) {
+        super(target);
+        this.permits = new Semaphore(permits, true);
+        this.maxWaiting = maxWaiting;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Holder holder = enter();
+        try {
+            return guard(super.getConnection(), holder);
+        } catch (SQLException | RuntimeException e) {
+            holder.exit();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Holder holder = enter();
+        try {
+            return guard(super.getConnection(username, password), holder);
+        } catch (SQLException | RuntimeException e) {
+            holder.exit();
+            throw e;
+        }
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int waiting() {
+        return waiting.get();
+    }
+
+    private Holder enter() throws SQLException {
+        Holder holder = HOLDER.get();
+        if (holder != null && holder.reenter()) {
+            return holder;
+        }
+        try {
+            // the timed form honours fairness, plain tryAcquire() would jump the queue
+            if (!permits.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+                awaitPermit();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for a database connection", e);
+        }
+        holder = new Holder();
+        HOLDER.set(holder);
+        return holder;
+    }
+
+    private void awaitPermit() throws SQLException, InterruptedException {
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            throw new SQLTransientConnectionException("Too many threads waiting for a database connection");
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Timed out after " + acquireTimeoutMillis + "ms waiting for a database connection");
+            }
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private static Connection guard(Connection connection, Holder holder) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                        if (!closed.compareAndSet(false, true)) {
+                            return null;
+                        }
+                        try {
+                            connection.close();
+                        } finally {
+                            holder.exit();
+                        }
+                        return null;
+                    }
+                    if (method.getName().equals("isClosed") && method.getParameterCount() == 0 && closed.get()) {
+                        return true;
+                    }
+                    if (method.getName().equals("unwrap") && ((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    /**
+     * Open connections of the thread that took the permit; the permit goes back when the last one
+     * closes, even if that happens on another thread.
+     */
+    private final class Holder {
+        private final Thread owner = Thread.currentThread();
+        private int depth = 1;
+
+        private synchronized boolean reenter() {
+            if (depth == 0) {
+                return false;
+            }
+            depth++;
+            return true;
+        }
+
+        private void exit() {
+            synchronized (this) {
+                if (--depth > 0) {
+                    return;
+                }
+            }
+            if (Thread.currentThread() == owner) {
+                HOLDER.remove();
+            }
+            permits.release();
+        }
+    }
+}
@@ -1,30 +1,93 @@
 package org.example.brokerage.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
-import org.example.brokerage.model.Order;
+import org.example.brokerage.dto.FirmValuation;
+import org.example.brokerage.dto.OrderPage;
+import org.example.brokerage.eod.EndOfDayJob;
+import org.example.brokerage.eod.EndOfDayReport;
+import org.example.brokerage.execution.CustomerCommandExecutor;
+import org.example.brokerage.model.OrderSide;
 import org.example.brokerage.service.AdminService;
+import org.example.brokerage.service.ValuationService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/admin")
 @RequiredArgsConstructor
 public class AdminController {
     private final AdminService adminService;
+    private final ValuationService valuationService;
+    private final EndOfDayJob endOfDayJob;
+    private final CustomerCommandExecutor commandExecutor;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/orders/{orderId}/match")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> matchOrder(@PathVariable Long orderId) {
-        adminService.matchOrder(orderId);
+        Long customerId = adminService.getOrderCustomerId(orderId);
+        commandExecutor.run("matchOrder", customerId, () -> adminService.matchOrder(orderId));
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Firm-wide mark-to-market: every customer's holdings summed per asset, valued in TRY.
+     */
+    @GetMapping("/valuation")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<FirmValuation> getFirmValuation() {
+        return ResponseEntity.ok(valuationService.valueFirm());
+    }
+
+    /**
+     * Runs the end-of-day settlement for the date (today by default), resumes it if an earlier
+     * attempt stopped part way, or returns its report if it already completed.
+     */
+    @PostMapping("/eod")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<EndOfDayReport> runEndOfDay(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(endOfDayJob.run(date != null ? date : LocalDate.now()));
+    }
+
     @GetMapping("/orders/pending")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Order>> getPendingOrders() {
-        return ResponseEntity.ok(adminService.getPendingOrders());
+    public ResponseEntity<OrderPage> getPendingOrders(
+            @RequestParam(required = false) String assetName,
+            @RequestParam(required = false) OrderSide side,
+            @RequestParam(required = false) Duration minAge,
+            @RequestParam(required = false) Duration maxAge,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(adminService.getPendingOrders(assetName, side, minAge, maxAge, cursor, limit));
+    }
+
+    @GetMapping(value = "/orders/pending/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamPendingOrders(
+            @RequestParam(required = false) String assetName,
+            @RequestParam(required = false) OrderSide side,
+            @RequestParam(required = false) Duration minAge,
+            @RequestParam(required = false) Duration maxAge) {
+
+        StreamingResponseBody body = out -> adminService.streamPendingOrders(assetName, side, minAge, maxAge, order -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(order));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 }
@@ -1,9 +1,10 @@
 package org.example.brokerage.controller;
 
 import org.example.brokerage.dto.AssetResponse;
+import org.example.brokerage.readmodel.ReadModel;
 import org.example.brokerage.security.UserPrincipal;
 import org.example.brokerage.service.AssetService;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -12,14 +13,24 @@ import java.util.List;
 
 @RestController
 @RequestMapping("/api/assets")
-@RequiredArgsConstructor
 public class AssetController {
     private final AssetService assetService;
+    private final ReadModel readModel;
 
+    public AssetController(AssetService assetService, ObjectProvider<ReadModel> readModel) {
+        this.assetService = assetService;
+        this.readModel = readModel.getIfAvailable();
+    }
+
+    /**
+     * Served from the {@link ReadModel} when it is enabled; the {@value ReadModel#TOKEN_HEADER} a
+     * write returned makes the answer include that write.
+     */
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
     public ResponseEntity<List<AssetResponse>> listAssets(
             @RequestParam(required = false) Long customerId,
+            @RequestHeader(value = ReadModel.TOKEN_HEADER, required = false) String token,
             @AuthenticationPrincipal UserPrincipal principal) {
 
         Long targetCustomerId = customerId;
@@ -29,7 +40,9 @@ public class AssetController {
             return ResponseEntity.badRequest().build();
         }
 
-        List<AssetResponse> assets = assetService.listAssets(targetCustomerId);
+        List<AssetResponse> assets = readModel != null
+                ? readModel.holdings(targetCustomerId, token)
+                : assetService.listAssets(targetCustomerId);
         return ResponseEntity.ok(assets);
     }
 }
@@ -2,10 +2,13 @@ package org.example.brokerage.controller;
 
 import org.example.brokerage.dto.LoginRequest;
 import org.example.brokerage.dto.LoginResponse;
+import org.example.brokerage.dto.RefreshTokenRequest;
+import org.example.brokerage.security.UserPrincipal;
 import org.example.brokerage.service.AuthService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -18,4 +21,25 @@ public class AuthController {
     public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
         return ResponseEntity.ok(authService.login(request));
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authService.refresh(request));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequest request) {
+        authService.logout(request);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Revokes every refresh token of the signed-in customer, ending its sessions on all devices
+     * once their access tokens expire.
+     */
+    @PostMapping("/logout-all")
+    public ResponseEntity<Void> logoutAll(@AuthenticationPrincipal UserPrincipal principal) {
+        authService.logoutAll(principal.getCustomerId());
+        return ResponseEntity.noContent().build();
+    }
 }
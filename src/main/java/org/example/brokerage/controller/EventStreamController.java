@@ -0,0 +1,39 @@
+package org.example.brokerage.controller;
+
+import org.example.brokerage.push.PushHub;
+import org.example.brokerage.security.UserPrincipal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+public class EventStreamController {
+    private final PushHub pushHub;
+
+    /**
+     * Server-Sent Events stream of the customer's committed order and balance changes. Undelivered
+     * updates to the same order or asset are coalesced to the latest state; a client that falls too
+     * far behind is disconnected and should reconnect and reread its orders and assets.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    public ResponseEntity<SseEmitter> subscribe(
+            @RequestParam(required = false) Long customerId,
+            @AuthenticationPrincipal UserPrincipal principal) {
+
+        Long targetCustomerId = customerId;
+        if (principal.getRole().equals("CUSTOMER")) {
+            targetCustomerId = principal.getCustomerId();
+        } else if (targetCustomerId == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(pushHub.subscribe(targetCustomerId));
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.brokerage.controller;
+
+import org.example.brokerage.market.Candle;
+import org.example.brokerage.market.CandleAggregator;
+import org.example.brokerage.market.CandleInterval;
+import org.example.brokerage.market.MarketData;
+import org.example.brokerage.market.MarketSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/market")
+@RequiredArgsConstructor
+public class MarketDataController {
+    private final MarketData marketData;
+    private final CandleAggregator candleAggregator;
+
+    /**
+     * Best bid and ask, aggregated pending depth per price level and the last trade for the asset.
+     * Served from an in-memory snapshot; an asset without orders returns an empty book.
+     */
+    @GetMapping("/{assetName}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    public ResponseEntity<MarketSnapshot> getMarket(
+            @PathVariable String assetName,
+            @RequestParam(defaultValue = "10") int levels) {
+
+        if (levels < 0 || levels > marketData.depth()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(marketData.snapshot(assetName, levels));
+    }
+
+    /**
+     * OHLCV candles of 1s, 1m, 1h or 1d, oldest first; the latest {@code limit} whose interval
+     * starts between {@code from} and {@code to}. Intervals without trades are omitted.
+     */
+    @GetMapping("/{assetName}/candles")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    public ResponseEntity<List<Candle>> getCandles(
+            @PathVariable String assetName,
+            @RequestParam(defaultValue = "1m") String interval,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "100") int limit) {
+
+        CandleInterval candleInterval = CandleInterval.parse(interval);
+        if (limit < 1 || limit > candleAggregator.retention(candleInterval)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(candleAggregator.candles(assetName, candleInterval, from, to, limit));
+    }
+}
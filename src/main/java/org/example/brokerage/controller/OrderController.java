@@ -1,30 +1,85 @@
 package org.example.brokerage.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.brokerage.dto.BatchOrderResponse;
+import org.example.brokerage.dto.BatchOrderResult;
 import org.example.brokerage.dto.CreateOrderRequest;
+import org.example.brokerage.dto.IntakeReceipt;
+import org.example.brokerage.dto.IntakeTicket;
+import org.example.brokerage.dto.OrderPage;
 import org.example.brokerage.dto.OrderResponse;
+import org.example.brokerage.execution.CustomerCommandExecutor;
+import org.example.brokerage.idempotency.IdempotencyStore;
+import org.example.brokerage.intake.OrderIntake;
+import org.example.brokerage.readmodel.ReadModel;
 import org.example.brokerage.security.UserPrincipal;
 import org.example.brokerage.service.OrderService;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/orders")
-@RequiredArgsConstructor
 public class OrderController {
     private final OrderService orderService;
+    private final CustomerCommandExecutor commandExecutor;
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final OrderIntake orderIntake;
+    private final ReadModel readModel;
+    private final int maxBatchSize;
 
+    public OrderController(OrderService orderService, CustomerCommandExecutor commandExecutor,
+                           IdempotencyStore idempotencyStore, ObjectMapper objectMapper, Validator validator,
+                           ObjectProvider<OrderIntake> orderIntake, ObjectProvider<ReadModel> readModel,
+                           @Value("${brokerage.orders.batch.max-size:1000}") int maxBatchSize) {
+        this.orderService = orderService;
+        this.commandExecutor = commandExecutor;
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.orderIntake = orderIntake.getIfAvailable();
+        this.readModel = readModel.getIfAvailable();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * A retry carrying the same {@value IdempotencyStore#HEADER} as an earlier request returns that
+     * request's order or intake ticket instead of placing the order again; 410 if that ticket is no
+     * longer kept.
+     */
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
-    public ResponseEntity<OrderResponse> createOrder(
+    public ResponseEntity<?> createOrder(
             @Valid @RequestBody CreateOrderRequest request,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
             @AuthenticationPrincipal UserPrincipal principal) {
 
         if (principal.getRole().equals("CUSTOMER") &&
@@ -32,36 +87,232 @@ public class OrderController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        OrderResponse response = orderService.createOrder(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        if (orderIntake != null) {
+            IntakeReceipt receipt = idempotencyStore.execute("queueOrder", request.getCustomerId(), idempotencyKey,
+                    request, IntakeReceipt.class,
+                    () -> new IntakeReceipt(orderIntake.epoch(), orderIntake.publish(request)));
+            IntakeTicket ticket = orderIntake.ticket(receipt.epoch(), receipt.sequence());
+            if (ticket == null || !ticket.getCustomerId().equals(request.getCustomerId())) {
+                return ResponseEntity.status(HttpStatus.GONE).build();
+            }
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/orders/intake/" + receipt.sequence() + "?epoch=" + receipt.epoch()))
+                    .body(ticket);
+        }
+
+        OrderResponse response = idempotencyStore.execute("createOrder", request.getCustomerId(), idempotencyKey,
+                request, OrderResponse.class, () -> commandExecutor.execute("createOrder",
+                        request.getCustomerId(), () -> orderService.createOrder(request)));
+        return withToken(ResponseEntity.status(HttpStatus.CREATED)).body(response);
     }
 
+    /**
+     * Outcome of an order accepted by the asynchronous intake: QUEUED until the sequencer has
+     * applied it, then PLACED with the order or REJECTED with the reason. With the {@code epoch} of
+     * the Location header, a sequence issued before a restart answers 410 rather than a newer ticket.
+     */
+    @GetMapping("/intake/{sequence}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    public ResponseEntity<IntakeTicket> getIntakeTicket(
+            @PathVariable long sequence,
+            @RequestParam(required = false) Long epoch,
+            @AuthenticationPrincipal UserPrincipal principal) {
+
+        if (orderIntake != null && epoch != null && epoch != orderIntake.epoch()) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+        IntakeTicket ticket = orderIntake != null ? orderIntake.ticket(sequence) : null;
+        if (ticket == null || principal.getRole().equals("CUSTOMER")
+                && !ticket.getCustomerId().equals(principal.getCustomerId())) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(ticket);
+    }
+
+    /**
+     * Places a list of orders. Each customer's orders run as one command on that customer's
+     * executor, so one transaction per customer. Items that fail validation or do not fit the
+     * balance come back REJECTED and the rest are still placed.
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    public ResponseEntity<BatchOrderResponse> createOrders(
+            @RequestBody List<CreateOrderRequest> requests,
+            @AuthenticationPrincipal UserPrincipal principal) {
+
+        if (requests.isEmpty() || requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch must contain between 1 and " + maxBatchSize + " orders");
+        }
+
+        BatchOrderResult[] results = new BatchOrderResult[requests.size()];
+        Map<Long, List<Integer>> indicesByCustomer = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateOrderRequest request = requests.get(i);
+            Set<ConstraintViolation<CreateOrderRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                results[i] = BatchOrderResult.rejected(i, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                continue;
+            }
+            if (principal.getRole().equals("CUSTOMER") &&
+                    !request.getCustomerId().equals(principal.getCustomerId())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            indicesByCustomer.computeIfAbsent(request.getCustomerId(), id -> new ArrayList<>()).add(i);
+        }
+
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        indicesByCustomer.forEach((customerId, indices) -> {
+            List<CreateOrderRequest> basket = indices.stream().map(requests::get).toList();
+            CompletableFuture<Void> placed;
+            try {
+                placed = commandExecutor.submit("createOrders", customerId, () -> {
+                    List<BatchOrderResult> basketResults = orderService.createOrders(basket);
+                    for (int i = 0; i < basketResults.size(); i++) {
+                        BatchOrderResult result = basketResults.get(i);
+                        result.setIndex(indices.get(i));
+                        results[result.getIndex()] = result;
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                placed = CompletableFuture.failedFuture(e);
+            }
+            pending.add(placed.exceptionally(e -> {
+                String error = failureMessage(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                for (int index : indices) {
+                    results[index] = BatchOrderResult.rejected(index, error);
+                }
+                return null;
+            }));
+        });
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+
+        int accepted = (int) Arrays.stream(results)
+                .filter(result -> result.getStatus() == BatchOrderResult.Status.ACCEPTED)
+                .count();
+        return withToken(ResponseEntity.ok()).body(BatchOrderResponse.builder()
+                .accepted(accepted)
+                .rejected(results.length - accepted)
+                .results(Arrays.asList(results))
+                .build());
+    }
+
+    /**
+     * Served from the {@link ReadModel} when it is enabled; the {@value ReadModel#TOKEN_HEADER} a
+     * write returned makes the answer include that write.
+     */
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
     public ResponseEntity<List<OrderResponse>> listOrders(
             @RequestParam(required = false) Long customerId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestHeader(value = ReadModel.TOKEN_HEADER, required = false) String token,
             @AuthenticationPrincipal UserPrincipal principal) {
 
-        Long targetCustomerId = customerId;
-        if (principal.getRole().equals("CUSTOMER")) {
-            targetCustomerId = principal.getCustomerId();
-        } else if (targetCustomerId == null) {
+        Long targetCustomerId = resolveCustomerId(customerId, principal);
+        if (targetCustomerId == null) {
             return ResponseEntity.badRequest().build();
         }
 
-        List<OrderResponse> orders = orderService.listOrders(targetCustomerId, startDate, endDate);
+        List<OrderResponse> orders = readModel != null
+                ? readModel.orders(targetCustomerId, startDate, endDate, token)
+                : orderService.listOrders(targetCustomerId, startDate, endDate);
         return ResponseEntity.ok(orders);
     }
 
+    /** Served from the {@link ReadModel} when it is enabled, as {@link #listOrders} is. */
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    public ResponseEntity<OrderPage> listOrdersPage(
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestHeader(value = ReadModel.TOKEN_HEADER, required = false) String token,
+            @AuthenticationPrincipal UserPrincipal principal) {
+
+        Long targetCustomerId = resolveCustomerId(customerId, principal);
+        if (targetCustomerId == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        OrderPage page = readModel != null
+                ? readModel.ordersPage(targetCustomerId, startDate, endDate, cursor, limit, token)
+                : orderService.listOrdersPage(targetCustomerId, startDate, endDate, cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    /** Served from the {@link ReadModel} when it is enabled, as {@link #listOrders} is. */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    public ResponseEntity<StreamingResponseBody> streamOrders(
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestHeader(value = ReadModel.TOKEN_HEADER, required = false) String token,
+            @AuthenticationPrincipal UserPrincipal principal) {
+
+        Long targetCustomerId = resolveCustomerId(customerId, principal);
+        if (targetCustomerId == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body;
+        if (readModel != null) {
+            Stream<OrderResponse> orders = readModel.streamOrders(targetCustomerId, startDate, endDate, token);
+            body = out -> orders.forEach(order -> writeLine(out, order));
+        } else {
+            orderService.checkStreamRange(startDate, endDate);
+            body = out -> orderService.streamOrders(targetCustomerId, startDate, endDate,
+                    order -> writeLine(out, order));
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /** A retry with the same {@value IdempotencyStore#HEADER} answers 204 again instead of 400. */
     @DeleteMapping("/{orderId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
     public ResponseEntity<Void> deleteOrder(
             @PathVariable Long orderId,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
             @AuthenticationPrincipal UserPrincipal principal) {
 
-        orderService.deleteOrder(orderId, principal.getCustomerId());
-        return ResponseEntity.noContent().build();
+        idempotencyStore.execute("deleteOrder", principal.getCustomerId(), idempotencyKey, orderId, Void.class, () -> {
+            commandExecutor.run("deleteOrder", principal.getCustomerId(),
+                    () -> orderService.deleteOrder(orderId, principal.getCustomerId()));
+            return null;
+        });
+        return withToken(ResponseEntity.status(HttpStatus.NO_CONTENT)).build();
+    }
+
+    private ResponseEntity.BodyBuilder withToken(ResponseEntity.BodyBuilder response) {
+        return readModel != null ? response.header(ReadModel.TOKEN_HEADER, readModel.token()) : response;
+    }
+
+    private void writeLine(OutputStream out, OrderResponse order) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(order));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String failureMessage(Throwable e) {
+        if (e instanceof RejectedExecutionException) {
+            return "Too many pending commands, retry later";
+        }
+        return e.getMessage();
+    }
+
+    private Long resolveCustomerId(Long customerId, UserPrincipal principal) {
+        if (principal.getRole().equals("CUSTOMER")) {
+            return principal.getCustomerId();
+        }
+        return customerId;
     }
 }
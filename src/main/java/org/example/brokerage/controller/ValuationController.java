@@ -0,0 +1,36 @@
+package org.example.brokerage.controller;
+
+import org.example.brokerage.dto.PortfolioValuation;
+import org.example.brokerage.security.UserPrincipal;
+import org.example.brokerage.service.ValuationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/valuation")
+@RequiredArgsConstructor
+public class ValuationController {
+    private final ValuationService valuationService;
+
+    /**
+     * The customer's holdings marked to market in TRY, with reserved amounts and unrealized P&L.
+     */
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER')")
+    public ResponseEntity<PortfolioValuation> getValuation(
+            @RequestParam(required = false) Long customerId,
+            @AuthenticationPrincipal UserPrincipal principal) {
+
+        Long targetCustomerId = customerId;
+        if (principal.getRole().equals("CUSTOMER")) {
+            targetCustomerId = principal.getCustomerId();
+        } else if (targetCustomerId == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(valuationService.valueCustomer(targetCustomerId));
+    }
+}
@@ -11,4 +11,5 @@ public class AssetResponse {
     private String assetName;
     private BigDecimal size;
     private BigDecimal usableSize;
+    private BigDecimal costBasis;
 }
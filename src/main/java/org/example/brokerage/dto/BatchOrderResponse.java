@@ -0,0 +1,12 @@
+package org.example.brokerage.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@Builder
+public class BatchOrderResponse {
+    private int accepted;
+    private int rejected;
+    private List<BatchOrderResult> results;
+}
@@ -0,0 +1,24 @@
+package org.example.brokerage.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+public class BatchOrderResult {
+    private int index;
+    private Status status;
+    private OrderResponse order;
+    private String error;
+
+    public enum Status {
+        ACCEPTED, REJECTED
+    }
+
+    public static BatchOrderResult accepted(int index, OrderResponse order) {
+        return BatchOrderResult.builder().index(index).status(Status.ACCEPTED).order(order).build();
+    }
+
+    public static BatchOrderResult rejected(int index, String error) {
+        return BatchOrderResult.builder().index(index).status(Status.REJECTED).error(error).build();
+    }
+}
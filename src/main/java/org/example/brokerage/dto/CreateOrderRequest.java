@@ -1,6 +1,7 @@
 package org.example.brokerage.dto;
 
 import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.model.TimeInForce;
 import jakarta.validation.constraints.*;
 import lombok.Data;
 import java.math.BigDecimal;
@@ -18,9 +19,14 @@ public class CreateOrderRequest {
 
     @NotNull(message = "Size is required")
     @DecimalMin(value = "0.01", message = "Size must be greater than 0")
+    @Digits(integer = 16, fraction = 2, message = "Size must have at most 2 decimal places")
     private BigDecimal size;
 
     @NotNull(message = "Price is required")
     @DecimalMin(value = "0.01", message = "Price must be greater than 0")
+    @Digits(integer = 16, fraction = 2, message = "Price must have at most 2 decimal places")
     private BigDecimal price;
+
+    /** Optional; {@link TimeInForce#GTC} when absent. */
+    private TimeInForce timeInForce;
 }
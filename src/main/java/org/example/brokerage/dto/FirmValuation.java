@@ -0,0 +1,19 @@
+package org.example.brokerage.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class FirmValuation {
+    private long customers;
+    private long holdings;
+    private BigDecimal equity;
+    private BigDecimal reservedValue;
+    private BigDecimal unrealizedPnl;
+    private List<HoldingValuation> assets;
+    private List<String> unpricedAssets;
+    private LocalDateTime valuedAt;
+}
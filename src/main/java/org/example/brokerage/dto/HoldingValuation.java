@@ -0,0 +1,17 @@
+package org.example.brokerage.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+
+@Data
+@Builder
+public class HoldingValuation {
+    private String assetName;
+    private BigDecimal size;
+    private BigDecimal reserved;
+    private BigDecimal price;
+    private BigDecimal marketValue;
+    private BigDecimal reservedValue;
+    private BigDecimal costBasis;
+    private BigDecimal unrealizedPnl;
+}
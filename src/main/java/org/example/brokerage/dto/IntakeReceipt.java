@@ -0,0 +1,8 @@
+package org.example.brokerage.dto;
+
+/**
+ * What an idempotent replay of an intake request needs to find its ticket again: the sequence and
+ * the start time of the intake that issued it, since sequences restart at 0 with every instance.
+ */
+public record IntakeReceipt(long epoch, long sequence) {
+}
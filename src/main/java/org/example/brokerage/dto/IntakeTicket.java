@@ -0,0 +1,36 @@
+package org.example.brokerage.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+
+@Data
+@Builder
+public class IntakeTicket {
+    private long sequence;
+    private Status status;
+    private OrderResponse order;
+    private String error;
+    @JsonIgnore
+    private Long customerId;
+
+    public enum Status {
+        QUEUED, PLACED, REJECTED
+    }
+
+    public static IntakeTicket queued(long sequence, Long customerId) {
+        return IntakeTicket.builder().sequence(sequence).customerId(customerId).status(Status.QUEUED).build();
+    }
+
+    public static IntakeTicket rejected(long sequence, Long customerId, String error) {
+        return IntakeTicket.builder().sequence(sequence).customerId(customerId).status(Status.REJECTED)
+                .error(error).build();
+    }
+
+    public static IntakeTicket of(long sequence, Long customerId, BatchOrderResult result) {
+        if (result.getStatus() == BatchOrderResult.Status.REJECTED) {
+            return rejected(sequence, customerId, result.getError());
+        }
+        return IntakeTicket.builder().sequence(sequence).customerId(customerId).status(Status.PLACED)
+                .order(result.getOrder()).build();
+    }
+}
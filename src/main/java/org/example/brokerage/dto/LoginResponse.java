@@ -6,6 +6,7 @@ import lombok.*;
 @Builder
 public class LoginResponse {
     private String token;
+    private String refreshToken;
     private String username;
     private String role;
     private Long customerId;
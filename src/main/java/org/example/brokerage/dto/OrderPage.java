@@ -0,0 +1,11 @@
+package org.example.brokerage.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@Builder
+public class OrderPage {
+    private List<OrderResponse> orders;
+    private String nextCursor;
+}
@@ -2,11 +2,14 @@ package org.example.brokerage.dto;
 
 import org.example.brokerage.model.OrderSide;
 import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.model.TimeInForce;
 import lombok.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 @Builder
 public class OrderResponse {
     private Long id;
@@ -15,6 +18,8 @@ public class OrderResponse {
     private OrderSide orderSide;
     private BigDecimal size;
     private BigDecimal price;
+    private BigDecimal filledSize;
     private OrderStatus status;
+    private TimeInForce timeInForce;
     private LocalDateTime createDate;
 }
@@ -0,0 +1,18 @@
+package org.example.brokerage.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class PortfolioValuation {
+    private Long customerId;
+    private BigDecimal equity;
+    private BigDecimal reservedValue;
+    private BigDecimal unrealizedPnl;
+    private List<HoldingValuation> holdings;
+    private List<String> unpricedAssets;
+    private LocalDateTime valuedAt;
+}
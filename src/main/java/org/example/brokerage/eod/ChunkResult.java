@@ -0,0 +1,18 @@
+package org.example.brokerage.eod;
+
+import java.util.List;
+
+/**
+ * Outcome of one chunk of an end-of-day run. Its file doubles as the checkpoint: a chunk with a
+ * result file is complete and is skipped when the run is resumed.
+ */
+public record ChunkResult(
+        int index,
+        long fromCustomerId,
+        long toCustomerId,
+        long customers,
+        long holdings,
+        long pendingOrders,
+        long expiredOrders,
+        List<ReconciliationBreak> breaks) {
+}
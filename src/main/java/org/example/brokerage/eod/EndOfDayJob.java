@@ -0,0 +1,237 @@
+package org.example.brokerage.eod;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.brokerage.execution.CustomerCommandExecutor;
+import org.example.brokerage.repository.AssetRepository;
+import org.example.brokerage.service.OrderService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * End-of-day settlement: expires DAY orders and reconciles every customer's reserved balances
+ * against their PENDING orders, then writes a settlement report.
+ * <p>
+ * The customer id range is split into chunks of {@code brokerage.eod.chunk-size} customers that run
+ * in parallel on a dedicated fork/join pool. A chunk first expires its DAY orders placed before the
+ * run's cutoff, each through the customer's command executor like any other balance change, then
+ * reads its orders and balances through a {@link LedgerReader} and compares them. Memory is bounded
+ * by one chunk per worker.
+ * <p>
+ * Everything lives under {@code brokerage.eod.directory}/<i>businessDate</i>: {@code plan.json} fixes
+ * the cutoff and chunk layout, each finished chunk writes {@code chunk-NNNNNN.json} atomically, and
+ * {@code report.json} is written last. Running a date again skips the chunks that have a file, so a
+ * run interrupted by a crash or failure resumes where it stopped; running a completed date returns
+ * its report. A chunk that fails does not stop the others; the run throws the first failure once
+ * every chunk has been tried.
+ */
+@Slf4j
+@Component
+public class EndOfDayJob {
+    private static final String PLAN = "plan.json";
+    private static final String REPORT = "report.json";
+
+    private final AssetRepository assetRepository;
+    private final LedgerReader ledgerReader;
+    private final OrderService orderService;
+    private final CustomerCommandExecutor commandExecutor;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final int chunkSize;
+    private final int maxReportedBreaks;
+    private final ForkJoinPool pool;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public EndOfDayJob(AssetRepository assetRepository, LedgerReader ledgerReader, OrderService orderService,
+                       CustomerCommandExecutor commandExecutor, ObjectMapper objectMapper,
+                       @Value("${brokerage.eod.directory:data/eod}") Path directory,
+                       @Value("${brokerage.eod.chunk-size:10000}") int chunkSize,
+                       @Value("${brokerage.eod.parallelism:0}") int parallelism,
+                       @Value("${brokerage.eod.max-reported-breaks:1000}") int maxReportedBreaks) {
+        this.assetRepository = assetRepository;
+        this.ledgerReader = ledgerReader;
+        this.orderService = orderService;
+        this.commandExecutor = commandExecutor;
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+        this.chunkSize = Math.max(chunkSize, 1);
+        this.maxReportedBreaks = Math.max(maxReportedBreaks, 0);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @Scheduled(cron = "${brokerage.eod.cron:-}")
+    public void runScheduled() {
+        run(LocalDate.now());
+    }
+
+    /**
+     * Runs, resumes or returns the end-of-day run of the business date. Throws
+     * {@link IllegalStateException} if a run is already in progress.
+     */
+    public EndOfDayReport run(LocalDate businessDate) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("An end-of-day run is already in progress");
+        }
+        try {
+            return execute(businessDate);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private EndOfDayReport execute(LocalDate businessDate) {
+        Path runDirectory = directory.resolve(businessDate.toString());
+        Path reportFile = runDirectory.resolve(REPORT);
+        if (Files.exists(reportFile)) {
+            return read(reportFile, EndOfDayReport.class);
+        }
+
+        long start = System.nanoTime();
+        EndOfDayPlan plan = plan(businessDate, runDirectory);
+        List<Integer> remaining = IntStream.range(0, plan.chunks())
+                .filter(chunk -> !Files.exists(chunkFile(runDirectory, chunk)))
+                .boxed()
+                .toList();
+        int resumed = plan.chunks() - remaining.size();
+        if (resumed > 0) {
+            log.info("Resuming end-of-day run for {} with {} of {} chunks done", businessDate, resumed, plan.chunks());
+        }
+
+        // A failed chunk must not end the pass early: chunks still running would race a rerun
+        List<RuntimeException> failures = Collections.synchronizedList(new ArrayList<>());
+        pool.submit(() -> remaining.parallelStream().forEach(chunk -> {
+            try {
+                runChunk(plan, chunk, runDirectory);
+            } catch (RuntimeException e) {
+                log.warn("End-of-day chunk {} for {} failed", chunk, businessDate, e);
+                failures.add(e);
+            }
+        })).join();
+        if (!failures.isEmpty()) {
+            RuntimeException failure = failures.get(0);
+            failures.stream().skip(1).forEach(failure::addSuppressed);
+            throw failure;
+        }
+
+        EndOfDayReport report = report(plan, runDirectory, resumed);
+        write(reportFile, report);
+        log.info("End-of-day run for {}: {} customers in {} chunks, {} orders expired, {} breaks in {} ms",
+                businessDate, report.customers(), plan.chunks(), report.expiredOrders(), report.breakCount(),
+                (System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    private EndOfDayPlan plan(LocalDate businessDate, Path runDirectory) {
+        Path planFile = runDirectory.resolve(PLAN);
+        if (Files.exists(planFile)) {
+            return read(planFile, EndOfDayPlan.class);
+        }
+
+        // A run for an earlier date leaves alone the DAY orders placed after that date
+        LocalDateTime endOfDay = businessDate.plusDays(1).atStartOfDay();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.isBefore(endOfDay) ? now : endOfDay;
+        Long first = assetRepository.findMinCustomerId();
+        EndOfDayPlan plan;
+        if (first == null) {
+            plan = new EndOfDayPlan(businessDate, cutoff, 0, -1, chunkSize, 0);
+        } else {
+            long last = assetRepository.findMaxCustomerId();
+            plan = new EndOfDayPlan(businessDate, cutoff, first, last, chunkSize,
+                    Math.toIntExact((last - first) / chunkSize + 1));
+        }
+        try {
+            Files.createDirectories(runDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create " + runDirectory, e);
+        }
+        write(planFile, plan);
+        return plan;
+    }
+
+    private void runChunk(EndOfDayPlan plan, int chunk, Path runDirectory) {
+        long from = plan.fromCustomerId(chunk);
+        long to = plan.toCustomerId(chunk);
+        long expired = 0;
+        for (OpenOrder order : ledgerReader.expirableOrders(from, to, plan.cutoff())) {
+            if (commandExecutor.execute("expireOrder", order.customerId(), () -> orderService.expireOrder(order.id()))) {
+                expired++;
+            }
+        }
+        ChunkResult result = ledgerReader.reconcile(from, to).finish(chunk, from, to, expired);
+        if (!result.breaks().isEmpty()) {
+            log.warn("End-of-day chunk {} (customers {}..{}) has {} reconciliation breaks",
+                    chunk, from, to, result.breaks().size());
+        }
+        write(chunkFile(runDirectory, chunk), result);
+    }
+
+    /** Sums the chunk files one at a time, so the report never holds more than one chunk. */
+    private EndOfDayReport report(EndOfDayPlan plan, Path runDirectory, int resumed) {
+        long customers = 0;
+        long holdings = 0;
+        long pendingOrders = 0;
+        long expiredOrders = 0;
+        long breakCount = 0;
+        List<ReconciliationBreak> breaks = new ArrayList<>();
+        for (int chunk = 0; chunk < plan.chunks(); chunk++) {
+            ChunkResult result = read(chunkFile(runDirectory, chunk), ChunkResult.class);
+            customers += result.customers();
+            holdings += result.holdings();
+            pendingOrders += result.pendingOrders();
+            expiredOrders += result.expiredOrders();
+            breakCount += result.breaks().size();
+            for (ReconciliationBreak reconciliationBreak : result.breaks()) {
+                if (breaks.size() < maxReportedBreaks) {
+                    breaks.add(reconciliationBreak);
+                }
+            }
+        }
+        return new EndOfDayReport(plan.businessDate(), plan.cutoff(), LocalDateTime.now(), plan.chunks(), resumed,
+                customers, holdings, pendingOrders, expiredOrders, breakCount, breaks);
+    }
+
+    private static Path chunkFile(Path runDirectory, int chunk) {
+        return runDirectory.resolve(String.format("chunk-%06d.json", chunk));
+    }
+
+    private <T> T read(Path path, Class<T> type) {
+        try {
+            return objectMapper.readValue(path.toFile(), type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + path, e);
+        }
+    }
+
+    /** Writes to a temporary file and renames it, so a file that exists is always complete. */
+    private void write(Path path, Object value) {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(temporary.toFile(), value);
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write " + path, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.brokerage.eod;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The fixed layout of one end-of-day run, written before the first chunk so a resumed run walks
+ * exactly the same customer ranges and expires against the same cutoff. Customers whose id is
+ * above {@code lastCustomerId} were created after the run started and are left to the next one.
+ */
+public record EndOfDayPlan(
+        LocalDate businessDate,
+        LocalDateTime cutoff,
+        long firstCustomerId,
+        long lastCustomerId,
+        int chunkSize,
+        int chunks) {
+
+    public long fromCustomerId(int chunk) {
+        return firstCustomerId + (long) chunk * chunkSize;
+    }
+
+    public long toCustomerId(int chunk) {
+        return Math.min(lastCustomerId, fromCustomerId(chunk) + chunkSize - 1);
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.brokerage.eod;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Settlement report of a completed end-of-day run. {@code breaks} lists at most
+ * {@code brokerage.eod.max-reported-breaks} entries; {@code breakCount} is the full count and every
+ * break is kept in its chunk file.
+ */
+public record EndOfDayReport(
+        LocalDate businessDate,
+        LocalDateTime cutoff,
+        LocalDateTime completedAt,
+        int chunks,
+        int resumedChunks,
+        long customers,
+        long holdings,
+        long pendingOrders,
+        long expiredOrders,
+        long breakCount,
+        List<ReconciliationBreak> breaks) {
+}
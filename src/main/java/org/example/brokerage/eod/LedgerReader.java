@@ -0,0 +1,102 @@
+package org.example.brokerage.eod;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.model.TimeInForce;
+import org.example.brokerage.repository.AssetHolding;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Reads one customer range for the end-of-day run through a Hibernate {@link StatelessSession}:
+ * rows are streamed as projections with no persistence context, so memory is bounded by what the
+ * caller keeps, not by how many rows the range holds.
+ */
+@Component
+public class LedgerReader {
+    private static final int FETCH_SIZE = 1000;
+
+    private final SessionFactory sessionFactory;
+
+    public LedgerReader(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    /** PENDING DAY orders of the range placed before the cutoff. */
+    List<OpenOrder> expirableOrders(long fromCustomerId, long toCustomerId, LocalDateTime cutoff) {
+        return inTransaction(Connection.TRANSACTION_READ_COMMITTED, session -> session.createSelectionQuery(
+                        "select new org.example.brokerage.eod.OpenOrder("
+                                + "o.id, o.customerId, o.assetName, o.orderSide, o.size, o.filledSize, o.price) "
+                                + "from Order o where o.customerId between :fromCustomerId and :toCustomerId "
+                                + "and o.status = :status and o.timeInForce = :timeInForce and o.createDate < :cutoff "
+                                + "order by o.id", OpenOrder.class)
+                .setParameter("fromCustomerId", fromCustomerId)
+                .setParameter("toCustomerId", toCustomerId)
+                .setParameter("status", OrderStatus.PENDING)
+                .setParameter("timeInForce", TimeInForce.DAY)
+                .setParameter("cutoff", cutoff)
+                .getResultList());
+    }
+
+    /**
+     * Feeds the range's PENDING orders and then its balances into a new {@link Reconciliation}.
+     * Both reads share one read-only serializable transaction, which on H2 is a snapshot that
+     * blocks no writers; otherwise an order placed between the two reads would show as a break.
+     */
+    Reconciliation reconcile(long fromCustomerId, long toCustomerId) {
+        Reconciliation reconciliation = new Reconciliation();
+        return inTransaction(Connection.TRANSACTION_SERIALIZABLE, session -> {
+            try (Stream<OpenOrder> orders = session.createSelectionQuery(
+                            "select new org.example.brokerage.eod.OpenOrder("
+                                    + "o.id, o.customerId, o.assetName, o.orderSide, o.size, o.filledSize, o.price) "
+                                    + "from Order o where o.customerId between :fromCustomerId and :toCustomerId "
+                                    + "and o.status = :status", OpenOrder.class)
+                    .setParameter("fromCustomerId", fromCustomerId)
+                    .setParameter("toCustomerId", toCustomerId)
+                    .setParameter("status", OrderStatus.PENDING)
+                    .setFetchSize(FETCH_SIZE)
+                    .getResultStream()) {
+                orders.forEach(reconciliation::order);
+            }
+            try (Stream<AssetHolding> holdings = session.createSelectionQuery(
+                            "select new org.example.brokerage.repository.AssetHolding("
+                                    + "a.customerId, a.assetName, a.size, a.usableSize, a.costBasis) "
+                                    + "from Asset a where a.customerId between :fromCustomerId and :toCustomerId "
+                                    + "order by a.customerId", AssetHolding.class)
+                    .setParameter("fromCustomerId", fromCustomerId)
+                    .setParameter("toCustomerId", toCustomerId)
+                    .setFetchSize(FETCH_SIZE)
+                    .getResultStream()) {
+                holdings.forEach(reconciliation::holding);
+            }
+            return reconciliation;
+        });
+    }
+
+    private <T> T inTransaction(int isolation, Function<StatelessSession, T> work) {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            // The pool restores the connection's default isolation when it is returned
+            session.doWork(connection -> {
+                connection.setTransactionIsolation(isolation);
+                connection.setReadOnly(true);
+            });
+            Transaction transaction = session.beginTransaction();
+            try {
+                T result = work.apply(session);
+                transaction.commit();
+                return result;
+            } catch (RuntimeException e) {
+                transaction.rollback();
+                throw e;
+            }
+        }
+    }
+}
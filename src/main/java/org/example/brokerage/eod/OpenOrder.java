@@ -0,0 +1,23 @@
+package org.example.brokerage.eod;
+
+import org.example.brokerage.model.Money;
+import org.example.brokerage.model.OrderSide;
+
+/**
+ * The columns of a PENDING order row that the end-of-day run needs, read without loading managed
+ * entities.
+ */
+public record OpenOrder(Long id, Long customerId, String assetName, OrderSide orderSide, Money size,
+                        Money filledSize, Money price) {
+
+    /** The asset the order holds a reservation on: TRY for a buy, the asset itself for a sell. */
+    public String reservedAssetName() {
+        return orderSide == OrderSide.BUY ? "TRY" : assetName;
+    }
+
+    /** What is still reserved: remaining size times price for a buy, remaining size for a sell. */
+    public Money reserved() {
+        Money remaining = size.minus(filledSize);
+        return orderSide == OrderSide.BUY ? remaining.times(price) : remaining;
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.brokerage.eod;
+
+import org.example.brokerage.model.Money;
+import org.example.brokerage.repository.AssetHolding;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reconciles one chunk of customers: every PENDING order is added first, summing what each balance
+ * should have reserved, then every balance of the same customers, ordered by customer, is compared
+ * with its sum. Reservations are compared exactly in hundredths. An order whose reserved balance has
+ * no row at all is reported against a zero balance.
+ */
+final class Reconciliation {
+    private final Map<BalanceKey, Money> expected = new HashMap<>();
+    private final List<ReconciliationBreak> breaks = new ArrayList<>();
+    private long customers;
+    private long holdings;
+    private long pendingOrders;
+    private Long previousCustomerId;
+
+    void order(OpenOrder order) {
+        expected.merge(new BalanceKey(order.customerId(), order.reservedAssetName()), order.reserved(), Money::plus);
+        pendingOrders++;
+    }
+
+    void holding(AssetHolding holding) {
+        holdings++;
+        if (!holding.customerId().equals(previousCustomerId)) {
+            customers++;
+            previousCustomerId = holding.customerId();
+        }
+        Money held = expected.remove(new BalanceKey(holding.customerId(), holding.assetName()));
+        Money want = held != null ? held : Money.ZERO;
+        Money reserved = holding.size().minus(holding.usableSize());
+        if (!reserved.equals(want)) {
+            breaks.add(breakOf(holding.customerId(), holding.assetName(), holding.size(), holding.usableSize(), want));
+        }
+    }
+
+    /** Reports the orders left without a balance and returns the chunk's result. */
+    ChunkResult finish(int index, long fromCustomerId, long toCustomerId, long expiredOrders) {
+        expected.forEach((key, want) -> breaks.add(breakOf(key.customerId(), key.assetName(), Money.ZERO, Money.ZERO, want)));
+        expected.clear();
+        breaks.sort(Comparator.comparing(ReconciliationBreak::customerId).thenComparing(ReconciliationBreak::assetName));
+        return new ChunkResult(index, fromCustomerId, toCustomerId, customers, holdings, pendingOrders, expiredOrders,
+                List.copyOf(breaks));
+    }
+
+    private static ReconciliationBreak breakOf(Long customerId, String assetName, Money size, Money usableSize,
+                                               Money want) {
+        Money reserved = size.minus(usableSize);
+        return new ReconciliationBreak(customerId, assetName, size.toBigDecimal(), usableSize.toBigDecimal(),
+                reserved.toBigDecimal(), want.toBigDecimal(), reserved.minus(want).toBigDecimal());
+    }
+
+    private record BalanceKey(Long customerId, String assetName) {
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.brokerage.eod;
+
+import java.math.BigDecimal;
+
+/**
+ * A balance whose reserved amount ({@code size - usableSize}) differs from what its PENDING orders
+ * hold. {@code difference} is {@code reserved - expected}: positive means funds are locked with no
+ * order behind them, negative means orders are backed by less than they need.
+ */
+public record ReconciliationBreak(
+        Long customerId,
+        String assetName,
+        BigDecimal size,
+        BigDecimal usableSize,
+        BigDecimal reserved,
+        BigDecimal expected,
+        BigDecimal difference) {
+}
@@ -0,0 +1,51 @@
+package org.example.brokerage.event;
+
+import org.example.brokerage.model.Asset;
+import org.example.brokerage.model.Money;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One change to a customer's asset balance, with the deltas applied and the resulting totals,
+ * including the holding's cost basis.
+ * Published inside the transaction that saves the asset; {@code version} is the asset version that
+ * transaction started from, so replaying events orders them per asset even if commits interleave.
+ */
+public record BalanceEvent(
+        Long assetId,
+        Long customerId,
+        String assetName,
+        Long version,
+        Reason reason,
+        BigDecimal sizeDelta,
+        BigDecimal usableSizeDelta,
+        BigDecimal size,
+        BigDecimal usableSize,
+        BigDecimal costBasis,
+        LocalDateTime timestamp) {
+
+    public enum Reason {
+        /** Usable balance set aside for a new order. */
+        RESERVED,
+        /** Reservation handed back when an order is canceled. */
+        RELEASED,
+        /** Holdings moved by a match or trade settlement. */
+        SETTLED
+    }
+
+    public static BalanceEvent of(Asset asset, Reason reason, Money sizeDelta, Money usableSizeDelta) {
+        return new BalanceEvent(
+                asset.getId(),
+                asset.getCustomerId(),
+                asset.getAssetName(),
+                asset.getVersion(),
+                reason,
+                sizeDelta.toBigDecimal(),
+                usableSizeDelta.toBigDecimal(),
+                asset.getSize().toBigDecimal(),
+                asset.getUsableSize().toBigDecimal(),
+                asset.getCostBasis().toBigDecimal(),
+                LocalDateTime.now());
+    }
+}
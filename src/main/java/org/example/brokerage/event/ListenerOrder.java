@@ -0,0 +1,20 @@
+package org.example.brokerage.event;
+
+import org.springframework.core.Ordered;
+
+/**
+ * {@link org.springframework.core.annotation.Order} of the after-commit listeners of one event.
+ * The matching engine settles trades from inside its CREATED listener, and the settlement's own
+ * FILLED and MATCHED events are delivered before it returns. Listeners that track order state run
+ * first, so they never see an order's fill before its creation.
+ */
+public final class ListenerOrder {
+    /** In-memory views of order state and the push streams. */
+    public static final int PROJECTION = 0;
+
+    /** The matching engine. */
+    public static final int MATCHING = Ordered.LOWEST_PRECEDENCE;
+
+    private ListenerOrder() {
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.brokerage.event;
+
+import org.example.brokerage.model.Order;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.model.TimeInForce;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable snapshot of an order published whenever its lifecycle changes.
+ * Listeners receive it after the surrounding transaction commits.
+ */
+public record OrderEvent(
+        Type type,
+        Long orderId,
+        Long customerId,
+        String assetName,
+        OrderSide orderSide,
+        BigDecimal size,
+        BigDecimal filledSize,
+        BigDecimal price,
+        OrderStatus status,
+        TimeInForce timeInForce,
+        LocalDateTime createDate,
+        LocalDateTime timestamp) {
+
+    public enum Type {
+        CREATED, FILLED, MATCHED, CANCELED
+    }
+
+    public static OrderEvent of(Type type, Order order) {
+        return new OrderEvent(
+                type,
+                order.getId(),
+                order.getCustomerId(),
+                order.getAssetName(),
+                order.getOrderSide(),
+                order.getSize().toBigDecimal(),
+                order.getFilledSize().toBigDecimal(),
+                order.getPrice().toBigDecimal(),
+                order.getStatus(),
+                order.getTimeInForce(),
+                order.getCreateDate(),
+                LocalDateTime.now());
+    }
+
+    public BigDecimal remainingSize() {
+        return size.subtract(filledSize);
+    }
+}
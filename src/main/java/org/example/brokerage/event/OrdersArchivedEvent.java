@@ -0,0 +1,22 @@
+package org.example.brokerage.event;
+
+import org.example.brokerage.model.Order;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published once a batch of terminal orders has been written to the archive and deleted from the
+ * orders table.
+ */
+public record OrdersArchivedEvent(List<ArchivedOrder> orders, LocalDateTime timestamp) {
+
+    public record ArchivedOrder(Long orderId, Long customerId, LocalDateTime createDate) {
+    }
+
+    public static OrdersArchivedEvent of(List<Order> orders) {
+        return new OrdersArchivedEvent(orders.stream()
+                .map(order -> new ArchivedOrder(order.getId(), order.getCustomerId(), order.getCreateDate()))
+                .toList(), LocalDateTime.now());
+    }
+}
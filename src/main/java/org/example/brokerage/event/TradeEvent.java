@@ -0,0 +1,11 @@
+package org.example.brokerage.event;
+
+import org.example.brokerage.matching.Trade;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published once a trade produced by the matching engine has been settled.
+ */
+public record TradeEvent(Trade trade, LocalDateTime executedAt) {
+}
@@ -0,0 +1,9 @@
+package org.example.brokerage.exception;
+
+import java.util.concurrent.RejectedExecutionException;
+
+public class TooManyLoginsException extends RejectedExecutionException {
+    public TooManyLoginsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.brokerage.execution;
+
+import jakarta.annotation.PreDestroy;
+import org.example.brokerage.journal.JournalEventListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Runs balance-mutating commands for a customer. In {@link ExecutionMode#SHARDED} mode every
+ * customer is pinned to one single-threaded shard, so commands for the same customer apply
+ * serially without row locks while different customers spread across shards. In every mode the
+ * command is wrapped in {@link OptimisticRetry} so lost version races are replayed, and with the
+ * journal enabled the command only completes once its events are durable.
+ */
+@Component
+public class CustomerCommandExecutor {
+    private final ExecutionMode mode;
+    private final OptimisticRetry optimisticRetry;
+    private final JournalEventListener journal;
+    private final ThreadPoolExecutor[] shards;
+    private final ThreadLocal<Integer> currentShard = new ThreadLocal<>();
+
+    public CustomerCommandExecutor(OptimisticRetry optimisticRetry, ObjectProvider<JournalEventListener> journal,
+                                   @Value("${brokerage.execution.mode:DIRECT}") ExecutionMode mode,
+                                   @Value("${brokerage.execution.shards:0}") int shardCount,
+                                   @Value("${brokerage.execution.queue-capacity:10000}") int queueCapacity) {
+        this.optimisticRetry = optimisticRetry;
+        this.journal = journal.getIfAvailable();
+        this.mode = mode;
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        this.shards = new ThreadPoolExecutor[mode == ExecutionMode.SHARDED ? count : 0];
+        for (int i = 0; i < shards.length; i++) {
+            int index = i;
+            shards[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(() -> {
+                            currentShard.set(index);
+                            runnable.run();
+                        }, "customer-shard-" + index);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+    }
+
+    public ExecutionMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Runs the command for the customer and waits for its result.
+     */
+    public <T> T execute(String operation, Long customerId, Supplier<T> command) {
+        Supplier<T> retrying = () -> retry(operation, customerId, command);
+        if (mode == ExecutionMode.DIRECT) {
+            return retrying.get();
+        }
+
+        int shard = shardOf(customerId);
+        Integer current = currentShard.get();
+        if (current != null && current == shard) {
+            return retrying.get();
+        }
+        return join(CompletableFuture.supplyAsync(retrying, shards[shard]));
+    }
+
+    public void run(String operation, Long customerId, Runnable command) {
+        execute(operation, customerId, () -> {
+            command.run();
+            return null;
+        });
+    }
+
+    /**
+     * Queues the command for the customer without waiting. Safe to call from another shard.
+     */
+    public CompletableFuture<Void> submit(String operation, Long customerId, Runnable command) {
+        Runnable retrying = () -> retry(operation, customerId, () -> {
+            command.run();
+            return null;
+        });
+        if (mode == ExecutionMode.DIRECT) {
+            try {
+                retrying.run();
+                return CompletableFuture.completedFuture(null);
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return CompletableFuture.runAsync(retrying, shards[shardOf(customerId)]);
+    }
+
+    /**
+     * Waits for the journal after the command's transaction has released its connection, on
+     * whichever thread ran it.
+     */
+    private <T> T retry(String operation, Long customerId, Supplier<T> command) {
+        try {
+            return optimisticRetry.execute(operation, customerId, command);
+        } finally {
+            if (journal != null) {
+                journal.awaitDurable();
+            }
+        }
+    }
+
+    /**
+     * The shard that runs the customer's commands, always {@code 0} in {@link ExecutionMode#DIRECT}
+     * mode. Commands for customers of the same shard may share a transaction without breaking
+     * single-writer.
+     */
+    public int shardOf(Long customerId) {
+        if (shards.length == 0) {
+            return 0;
+        }
+        long h = customerId * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(h ^ (h >>> 32), (long) shards.length);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor shard : shards) {
+            shard.shutdown();
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.brokerage.execution;
+
+public enum ExecutionMode {
+    /** Commands run on the calling thread. */
+    DIRECT,
+    /** Commands run on a single-writer shard chosen by customer id. */
+    SHARDED
+}
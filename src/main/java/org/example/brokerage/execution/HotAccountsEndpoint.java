@@ -0,0 +1,23 @@
+package org.example.brokerage.execution;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Exposes the customers with the most optimistic-lock conflicts at /actuator/hotaccounts.
+ */
+@Component
+@Endpoint(id = "hotaccounts")
+@RequiredArgsConstructor
+public class HotAccountsEndpoint {
+    private final OptimisticRetry optimisticRetry;
+
+    @ReadOperation
+    public Map<Long, Long> hotAccounts() {
+        return optimisticRetry.hotAccounts(20);
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.brokerage.execution;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Replays a transactional command when a versioned {@link jakarta.persistence.Version} update loses
+ * a race, instead of locking rows up front. Uncontended commands run exactly once.
+ */
+@Slf4j
+@Component
+public class OptimisticRetry {
+    private static final int MAX_TRACKED_CUSTOMERS = 10_000;
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final Map<Long, LongAdder> conflictsByCustomer = new ConcurrentHashMap<>();
+    private final Map<String, Counter> executions = new ConcurrentHashMap<>();
+    private final Map<String, Counter> conflicts = new ConcurrentHashMap<>();
+    private final Map<String, Counter> retries = new ConcurrentHashMap<>();
+    private final Map<String, Counter> exhausted = new ConcurrentHashMap<>();
+
+    public OptimisticRetry(MeterRegistry meterRegistry,
+                           @Value("${brokerage.execution.retry.max-attempts:3}") int maxAttempts,
+                           @Value("${brokerage.execution.retry.backoff-millis:5}") long backoffMillis) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMillis = backoffMillis;
+    }
+
+    public <T> T execute(String operation, Long customerId, Supplier<T> command) {
+        counter(executions, "brokerage.optimistic.executions", operation).increment();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return command.get();
+            } catch (OptimisticLockingFailureException e) {
+                counter(conflicts, "brokerage.optimistic.conflicts", operation).increment();
+                recordConflict(customerId);
+
+                if (attempt >= maxAttempts) {
+                    counter(exhausted, "brokerage.optimistic.exhausted", operation).increment();
+                    throw e;
+                }
+
+                counter(retries, "brokerage.optimistic.retries", operation).increment();
+                log.debug("Optimistic conflict on {} for customer {}, attempt {}", operation, customerId, attempt);
+                backoff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Customers with the most optimistic conflicts since startup, highest first.
+     */
+    public Map<Long, Long> hotAccounts(int limit) {
+        Map<Long, Long> result = new LinkedHashMap<>();
+        conflictsByCustomer.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<Long, LongAdder> e) -> e.getValue().sum()).reversed())
+                .limit(limit)
+                .forEach(e -> result.put(e.getKey(), e.getValue().sum()));
+        return result;
+    }
+
+    private void recordConflict(Long customerId) {
+        if (customerId == null) {
+            return;
+        }
+        LongAdder adder = conflictsByCustomer.get(customerId);
+        if (adder == null) {
+            if (conflictsByCustomer.size() >= MAX_TRACKED_CUSTOMERS) {
+                return;
+            }
+            adder = conflictsByCustomer.computeIfAbsent(customerId, id -> new LongAdder());
+        }
+        adder.increment();
+    }
+
+    private Counter counter(Map<String, Counter> cache, String name, String operation) {
+        return cache.computeIfAbsent(operation,
+                key -> Counter.builder(name).tag("operation", key).register(meterRegistry));
+    }
+
+    private void backoff(int attempt) {
+        if (backoffMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMillis * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package org.example.brokerage.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.brokerage.model.IdempotencyKey;
+import org.example.brokerage.repository.IdempotencyKeyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the result of each command sent with an {@value #HEADER} header, so a client retrying
+ * after a lost response gets the original result instead of running the command again.
+ * <p>
+ * Keys are scoped by operation and customer. The first request with a key runs the command;
+ * concurrent duplicates wait for it and later ones get the stored result without touching the
+ * database. A command that fails releases its key, so the retry runs it again. Reusing a key for a
+ * different request is rejected; requests are compared by the SHA-256 of their JSON form.
+ * <p>
+ * Keys live in {@code stripes} hash-partitioned maps, each behind its own lock and held only for
+ * the map operation. A key expires {@code ttl} after first use; each stripe keeps its keys in that
+ * order, so expired ones are dropped from the head on access, and a full stripe evicts its oldest
+ * completed key. A key whose command is still running is never evicted; a stripe full of those
+ * rejects new keys with {@link RejectedExecutionException}.
+ * With {@code brokerage.idempotency.persistent=true} each result is also written through to the
+ * idempotency_keys table and reloaded on startup.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+    public static final String HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository repository;
+    private final ObjectMapper objectMapper;
+    private final long ttlMillis;
+    private final boolean persistent;
+    private final Stripe[] stripes;
+    private final int mask;
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder mismatched = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public IdempotencyStore(IdempotencyKeyRepository repository, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                            @Value("${brokerage.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${brokerage.idempotency.max-size:1000000}") int maxSize,
+                            @Value("${brokerage.idempotency.stripes:64}") int stripes,
+                            @Value("${brokerage.idempotency.persistent:false}") boolean persistent) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttlMillis = ttl.toMillis();
+        this.persistent = persistent;
+
+        int count = Integer.highestOneBit(Math.max(stripes, 2) - 1) << 1;
+        int capacity = Math.max(1, (Math.max(maxSize, 1) + count - 1) / count);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe(capacity);
+        }
+        this.mask = count - 1;
+
+        FunctionCounter.builder("brokerage.idempotency.requests", executed, LongAdder::sum)
+                .tag("result", "executed").register(meterRegistry);
+        FunctionCounter.builder("brokerage.idempotency.requests", replayed, LongAdder::sum)
+                .tag("result", "replayed").register(meterRegistry);
+        FunctionCounter.builder("brokerage.idempotency.requests", mismatched, LongAdder::sum)
+                .tag("result", "mismatched").register(meterRegistry);
+        FunctionCounter.builder("brokerage.idempotency.evictions", evictions, LongAdder::sum)
+                .description("Unexpired keys dropped because their stripe was full").register(meterRegistry);
+        Gauge.builder("brokerage.idempotency.size", this, IdempotencyStore::size)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!persistent) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        repository.findAll().stream()
+                .filter(key -> key.getExpiresAt() > now)
+                .sorted(Comparator.comparingLong(IdempotencyKey::getExpiresAt))
+                .forEach(key -> {
+                    Scope scope = new Scope(key.getOperation(), key.getCustomerId(), key.getIdempotencyKey());
+                    Entry entry = new Entry(key.getFingerprint(), key.getExpiresAt());
+                    entry.result.complete(new Stored(key.getResponse()));
+                    Stripe stripe = stripe(scope);
+                    stripe.lock.lock();
+                    try {
+                        stripe.put(scope, entry);
+                    } finally {
+                        stripe.lock.unlock();
+                    }
+                });
+    }
+
+    /**
+     * Runs the command, or returns the result it already produced for this key. A {@code null} key
+     * just runs the command. Throws {@link IllegalArgumentException} for a malformed key or one
+     * already used with a different request, and {@link RejectedExecutionException} if the key's
+     * stripe is full of commands still running.
+     */
+    public <T> T execute(String operation, Long customerId, String key, Object request, Class<T> type,
+                         Supplier<T> command) {
+        if (key == null) {
+            return command.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        Scope scope = new Scope(operation, customerId, key);
+        String fingerprint = fingerprint(request);
+        Stripe stripe = stripe(scope);
+        Entry entry;
+        boolean first = false;
+        stripe.lock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            stripe.expire(now);
+            entry = stripe.entries.get(scope);
+            if (entry != null && entry.expiresAt <= now && entry.result.isDone()) {
+                stripe.entries.remove(scope);
+                entry = null;
+            }
+            if (entry == null) {
+                entry = new Entry(fingerprint, now + ttlMillis);
+                stripe.put(scope, entry);
+                first = true;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        if (!entry.fingerprint.equals(fingerprint)) {
+            mismatched.increment();
+            throw new IllegalArgumentException(HEADER + " " + key + " was already used for a different request");
+        }
+        if (!first) {
+            replayed.increment();
+            return decode(await(entry.result), type);
+        }
+
+        executed.increment();
+        T result;
+        try {
+            result = command.get();
+        } catch (RuntimeException e) {
+            stripe.lock.lock();
+            try {
+                stripe.entries.remove(scope, entry);
+            } finally {
+                stripe.lock.unlock();
+            }
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+        entry.result.complete(result);
+        if (persistent) {
+            persist(scope, entry, result);
+        }
+        return result;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    @Scheduled(fixedDelayString = "${brokerage.idempotency.purge-interval-millis:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.expire(now);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        if (persistent) {
+            repository.deleteExpired(now);
+        }
+    }
+
+    private Stripe stripe(Scope scope) {
+        int hash = scope.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint request for " + HEADER, e);
+        }
+    }
+
+    /** A failed write only costs the key its restart survival; the command has already run. */
+    private void persist(Scope scope, Entry entry, Object result) {
+        try {
+            repository.save(IdempotencyKey.builder()
+                    .id(scope.operation() + "/" + scope.customerId() + "/" + scope.key())
+                    .operation(scope.operation())
+                    .customerId(scope.customerId())
+                    .idempotencyKey(scope.key())
+                    .fingerprint(entry.fingerprint)
+                    .response(objectMapper.writeValueAsString(result))
+                    .expiresAt(entry.expiresAt)
+                    .build());
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to persist {} {} for customer {}", HEADER, scope.key(), scope.customerId(), e);
+        }
+    }
+
+    /** Results reloaded from the table are kept as JSON until first replayed. */
+    private <T> T decode(Object result, Class<T> type) {
+        if (!(result instanceof Stored stored)) {
+            return type.cast(result);
+        }
+        try {
+            return objectMapper.readValue(stored.json(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored result of " + HEADER + " is unreadable", e);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private record Scope(String operation, Long customerId, String key) {
+    }
+
+    private record Stored(String json) {
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final long expiresAt;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /** Keys in expiry order; every access holds {@code lock}. */
+    private final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int capacity;
+        private final LinkedHashMap<Scope, Entry> entries = new LinkedHashMap<>();
+
+        private Stripe(int capacity) {
+            this.capacity = capacity;
+        }
+
+        private void put(Scope scope, Entry entry) {
+            if (entries.size() >= capacity) {
+                evictOldestDone();
+            }
+            entries.put(scope, entry);
+        }
+
+        /** Evicting a running command's key would let a concurrent duplicate run it again. */
+        private void evictOldestDone() {
+            Iterator<Entry> oldest = entries.values().iterator();
+            while (oldest.hasNext()) {
+                if (oldest.next().result.isDone()) {
+                    oldest.remove();
+                    evictions.increment();
+                    return;
+                }
+            }
+            throw new RejectedExecutionException("Too many " + HEADER + " requests in flight");
+        }
+
+        private void expire(long now) {
+            Iterator<Map.Entry<Scope, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Scope, Entry> next = iterator.next();
+                if (next.getValue().expiresAt > now || !next.getValue().result.isDone()) {
+                    return;
+                }
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package org.example.brokerage.intake;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.brokerage.dto.BatchOrderResult;
+import org.example.brokerage.dto.CreateOrderRequest;
+import org.example.brokerage.dto.IntakeTicket;
+import org.example.brokerage.execution.CustomerCommandExecutor;
+import org.example.brokerage.service.OrderService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous order intake. Request threads claim a slot in a pre-allocated ring with a CAS on the
+ * claim cursor, publish the request and return its sequence at once; a full ring is rejected
+ * instead of queueing. A single sequencer thread drains published slots in sequence order and
+ * records a ticket per sequence that clients poll.
+ * <p>
+ * A drain is split by the {@link CustomerCommandExecutor} shard of each customer, and each part is
+ * placed as one basket through {@link OrderService#createOrders} on that shard, so one transaction
+ * and one batched insert per shard and customers keep a single writer. In {@code DIRECT} mode that
+ * is the whole drain. A basket that still fails after the executor's retries is placed again
+ * customer by customer, so only the customers whose orders fail are rejected.
+ * <p>
+ * Tickets live in a second ring at least twice the size of the request ring, so a ticket stays
+ * readable until {@code results-retained} later requests have been published. Sequences restart at
+ * 0 with every instance, so a sequence is only meaningful together with the {@link #epoch()} of the
+ * intake that issued it.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "brokerage.intake", name = "enabled", havingValue = "true")
+public class OrderIntake {
+    private final OrderService orderService;
+    private final CustomerCommandExecutor commandExecutor;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final AtomicLong consumed = new AtomicLong(-1);
+    private volatile long applied = -1;
+
+    private final AtomicReferenceArray<IntakeTicket> tickets;
+    private final int ticketMask;
+    private final long epoch = System.currentTimeMillis();
+
+    private final CreateOrderRequest[] drain;
+    private final Thread sequencer;
+    private volatile boolean sleeping;
+    private volatile boolean running = true;
+
+    public OrderIntake(OrderService orderService, CustomerCommandExecutor commandExecutor,
+                       @Value("${brokerage.intake.ring-size:65536}") int ringSize,
+                       @Value("${brokerage.intake.batch-size:500}") int batchSize,
+                       @Value("${brokerage.intake.results-retained:262144}") int resultsRetained) {
+        this.orderService = orderService;
+        this.commandExecutor = commandExecutor;
+
+        int capacity = powerOfTwo(ringSize);
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+
+        int ticketCapacity = powerOfTwo(Math.max(resultsRetained, 2 * capacity));
+        this.tickets = new AtomicReferenceArray<>(ticketCapacity);
+        this.ticketMask = ticketCapacity - 1;
+
+        this.drain = new CreateOrderRequest[Math.min(Math.max(batchSize, 1), capacity)];
+        this.sequencer = Thread.ofPlatform().name("order-sequencer").daemon().unstarted(this::run);
+        sequencer.start();
+        log.info("Order intake started with {} slots, drains of up to {}", capacity, drain.length);
+    }
+
+    /**
+     * Queues the request and returns its sequence. Throws {@link RejectedExecutionException} when
+     * every slot is still waiting for the sequencer.
+     */
+    public long publish(CreateOrderRequest request) {
+        long sequence;
+        long current;
+        do {
+            current = claimed.get();
+            sequence = current + 1;
+            if (sequence - slots.length > consumed.get()) {
+                throw new RejectedExecutionException("Order intake is full");
+            }
+        } while (!claimed.compareAndSet(current, sequence));
+
+        tickets.set(ticketIndex(sequence), IntakeTicket.queued(sequence, request.getCustomerId()));
+        Slot slot = slots[(int) (sequence & mask)];
+        slot.request = request;
+        slot.published = sequence;
+
+        if (sleeping) {
+            LockSupport.unpark(sequencer);
+        }
+        return sequence;
+    }
+
+    /**
+     * The ticket for the sequence, or {@code null} if it was never issued or has been overwritten.
+     */
+    public IntakeTicket ticket(long sequence) {
+        if (sequence < 0 || sequence > claimed.get()) {
+            return null;
+        }
+        IntakeTicket ticket = tickets.get(ticketIndex(sequence));
+        return ticket != null && ticket.getSequence() == sequence ? ticket : null;
+    }
+
+    /**
+     * The ticket for a sequence issued under the given epoch, or {@code null} if it comes from
+     * another instance, was never issued or has been overwritten.
+     */
+    public IntakeTicket ticket(long epoch, long sequence) {
+        return epoch == this.epoch ? ticket(sequence) : null;
+    }
+
+    /** Start time of this intake, which tells its sequences from those of earlier instances. */
+    public long epoch() {
+        return epoch;
+    }
+
+    /** Highest sequence whose outcome is known. */
+    public long appliedSequence() {
+        return applied;
+    }
+
+    private void run() {
+        while (running || consumed.get() < claimed.get()) {
+            int count = drainPublished();
+            if (count == 0) {
+                idle();
+                continue;
+            }
+            long first = consumed.get() + 1;
+            // Slots are free to reuse as soon as the requests are copied out
+            consumed.set(first + count - 1);
+            apply(first, count);
+            Arrays.fill(drain, 0, count, null);
+            applied = first + count - 1;
+        }
+    }
+
+    private int drainPublished() {
+        long next = consumed.get() + 1;
+        int count = 0;
+        while (count < drain.length) {
+            Slot slot = slots[(int) ((next + count) & mask)];
+            if (slot.published != next + count) {
+                break;
+            }
+            drain[count] = slot.request;
+            slot.request = null;
+            count++;
+        }
+        return count;
+    }
+
+    private void idle() {
+        sleeping = true;
+        Slot slot = slots[(int) ((consumed.get() + 1) & mask)];
+        if (running && slot.published != consumed.get() + 1) {
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        sleeping = false;
+    }
+
+    private void apply(long first, int count) {
+        List<CreateOrderRequest> requests = Arrays.asList(drain).subList(0, count);
+        IntakeTicket[] results = new IntakeTicket[count];
+        Map<Integer, List<Integer>> byShard = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            byShard.computeIfAbsent(commandExecutor.shardOf(requests.get(i).getCustomerId()),
+                    shard -> new ArrayList<>()).add(i);
+        }
+        List<List<Integer>> baskets = new ArrayList<>(byShard.values());
+        List<CompletableFuture<Void>> placing = new ArrayList<>(baskets.size());
+        for (List<Integer> basket : baskets) {
+            placing.add(place(first, requests, basket, results));
+        }
+
+        for (int i = 0; i < baskets.size(); i++) {
+            try {
+                placing.get(i).join();
+            } catch (CompletionException e) {
+                placeByCustomer(first, requests, baskets.get(i), results, e.getCause());
+            }
+        }
+
+        // The executor has waited for the journal, so the tickets are only published once durable
+        for (int i = 0; i < count; i++) {
+            tickets.set(ticketIndex(first + i), results[i]);
+        }
+    }
+
+    private void placeByCustomer(long first, List<CreateOrderRequest> requests, List<Integer> basket,
+                                 IntakeTicket[] results, Throwable failure) {
+        Map<Long, List<Integer>> byCustomer = new LinkedHashMap<>();
+        for (int index : basket) {
+            byCustomer.computeIfAbsent(requests.get(index).getCustomerId(), id -> new ArrayList<>()).add(index);
+        }
+        if (byCustomer.size() == 1) {
+            reject(first, requests, basket, results, failure);
+            return;
+        }
+        log.warn("Failed to place {} intake orders of {} customers, placing them customer by customer",
+                basket.size(), byCustomer.size(), failure);
+        for (List<Integer> orders : byCustomer.values()) {
+            try {
+                place(first, requests, orders, results).join();
+            } catch (CompletionException e) {
+                reject(first, requests, orders, results, e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Places the requests at the given drain positions as one basket on the shard of their
+     * customers, filling in their tickets.
+     */
+    private CompletableFuture<Void> place(long first, List<CreateOrderRequest> requests, List<Integer> positions,
+                                          IntakeTicket[] results) {
+        List<CreateOrderRequest> basket = new ArrayList<>(positions.size());
+        for (int index : positions) {
+            basket.add(requests.get(index));
+        }
+        try {
+            return commandExecutor.submit("intake", basket.get(0).getCustomerId(), () -> {
+                List<BatchOrderResult> placed = orderService.createOrders(basket);
+                for (int i = 0; i < basket.size(); i++) {
+                    int index = positions.get(i);
+                    results[index] = IntakeTicket.of(first + index, basket.get(i).getCustomerId(), placed.get(i));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static void reject(long first, List<CreateOrderRequest> requests, List<Integer> positions,
+                               IntakeTicket[] results, Throwable failure) {
+        log.warn("Failed to place intake sequences {} of customer {}", positions.stream().map(i -> first + i).toList(),
+                requests.get(positions.get(0)).getCustomerId(), failure);
+        for (int index : positions) {
+            results[index] = IntakeTicket.rejected(first + index, requests.get(index).getCustomerId(),
+                    failure.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(sequencer);
+        sequencer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    private int ticketIndex(long sequence) {
+        return (int) (sequence & ticketMask);
+    }
+
+    private static int powerOfTwo(int size) {
+        return Integer.highestOneBit(Math.max(size, 2) - 1) << 1;
+    }
+
+    private static final class Slot {
+        private volatile long published = -1;
+        private CreateOrderRequest request;
+    }
+}
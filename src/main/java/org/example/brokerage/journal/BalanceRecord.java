@@ -0,0 +1,25 @@
+package org.example.brokerage.journal;
+
+import org.example.brokerage.event.BalanceEvent;
+
+import java.math.BigDecimal;
+
+/**
+ * One asset row as stored in a snapshot. {@code version} is the row version after the last change.
+ */
+public record BalanceRecord(
+        Long assetId,
+        long version,
+        Long customerId,
+        String assetName,
+        BigDecimal size,
+        BigDecimal usableSize,
+        BigDecimal costBasis) {
+
+    static BalanceRecord from(BalanceEvent event) {
+        // The event carries the version its transaction started from; committing bumps it by one
+        long version = event.version() == null ? 0 : event.version() + 1;
+        return new BalanceRecord(event.assetId(), version, event.customerId(), event.assetName(),
+                event.size(), event.usableSize(), event.costBasis());
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.brokerage.journal;
+
+/**
+ * A customer as stored in a snapshot; customers are not journaled, so snapshots carry them forward.
+ */
+public record CustomerRecord(Long id, String username, String password, String role) {
+}
@@ -0,0 +1,144 @@
+package org.example.brokerage.journal;
+
+import org.example.brokerage.model.Order;
+import org.example.brokerage.model.TimeInForce;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.function.LongFunction;
+
+/**
+ * Bulk-inserts snapshot records into empty customers, assets and orders tables with JDBC batches,
+ * keeping their ids, then moves each id generator (identity column, or the orders sequence) past the
+ * highest id restored. Everything runs in one transaction on the given connection; {@link #commit()}
+ * ends it.
+ */
+public class DatabaseLoader implements SnapshotSink {
+    private static final int BATCH_SIZE = 1000;
+
+    private final Connection connection;
+    private final Batch customers;
+    private final Batch assets;
+    private final Batch orders;
+
+    public DatabaseLoader(Connection connection) throws SQLException {
+        this.connection = connection;
+        connection.setAutoCommit(false);
+        customers = new Batch("customers", "INSERT INTO customers (id, username, password, role) VALUES (?, ?, ?, ?)");
+        assets = new Batch("assets", "INSERT INTO assets (id, version, customer_id, asset_name, size, usable_size, "
+                + "cost_basis) VALUES (?, ?, ?, ?, ?, ?, ?)");
+        orders = new Batch("orders", "INSERT INTO orders (id, version, customer_id, asset_name, order_side, size, "
+                + "price, filled_size, status, time_in_force, create_date) "
+                + "VALUES (?, 0, ?, ?, ?, ?, ?, ?, 'PENDING', ?, ?)",
+                // Hibernate's pooled optimizer hands out the block of ids ending at the value it reads
+                maxId -> "ALTER SEQUENCE orders_seq RESTART WITH " + (maxId + Order.ID_ALLOCATION_SIZE));
+    }
+
+    @Override
+    public void customer(CustomerRecord customer) {
+        customers.add(statement -> {
+            statement.setLong(1, customer.id());
+            statement.setString(2, customer.username());
+            statement.setString(3, customer.password());
+            statement.setString(4, customer.role());
+        }, customer.id());
+    }
+
+    @Override
+    public void balance(BalanceRecord balance) {
+        assets.add(statement -> {
+            statement.setLong(1, balance.assetId());
+            statement.setLong(2, balance.version());
+            statement.setLong(3, balance.customerId());
+            statement.setString(4, balance.assetName());
+            statement.setBigDecimal(5, balance.size());
+            statement.setBigDecimal(6, balance.usableSize());
+            statement.setBigDecimal(7, balance.costBasis());
+        }, balance.assetId());
+    }
+
+    @Override
+    public void order(OrderRecord order) {
+        orders.add(statement -> {
+            statement.setLong(1, order.id());
+            statement.setLong(2, order.customerId());
+            statement.setString(3, order.assetName());
+            if (order.orderSide() == null) {
+                statement.setNull(4, Types.VARCHAR);
+            } else {
+                statement.setString(4, order.orderSide().name());
+            }
+            statement.setBigDecimal(5, order.size());
+            statement.setBigDecimal(6, order.price());
+            statement.setBigDecimal(7, order.filledSize());
+            statement.setString(8, order.timeInForce() != null ? order.timeInForce().name() : TimeInForce.GTC.name());
+            statement.setTimestamp(9, Timestamp.valueOf(order.createDate()));
+        }, order.id());
+    }
+
+    /** Flushes the remaining batches, restarts the id generators and commits. */
+    public void commit() throws SQLException {
+        for (Batch batch : new Batch[]{customers, assets, orders}) {
+            batch.finish();
+        }
+        connection.commit();
+    }
+
+    public long rows() {
+        return customers.rows + assets.rows + orders.rows;
+    }
+
+    @FunctionalInterface
+    private interface Binder {
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+
+    private final class Batch {
+        private final String table;
+        private final LongFunction<String> restart;
+        private final PreparedStatement statement;
+        private int pending;
+        private long rows;
+        private long maxId;
+
+        private Batch(String table, String sql) throws SQLException {
+            this(table, sql, maxId -> "ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + (maxId + 1));
+        }
+
+        private Batch(String table, String sql, LongFunction<String> restart) throws SQLException {
+            this.table = table;
+            this.restart = restart;
+            this.statement = connection.prepareStatement(sql);
+        }
+
+        private void add(Binder binder, long id) {
+            try {
+                binder.bind(statement);
+                statement.addBatch();
+                maxId = Math.max(maxId, id);
+                rows++;
+                if (++pending == BATCH_SIZE) {
+                    statement.executeBatch();
+                    pending = 0;
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to restore " + table, e);
+            }
+        }
+
+        private void finish() throws SQLException {
+            if (pending > 0) {
+                statement.executeBatch();
+                pending = 0;
+            }
+            statement.close();
+            try (Statement alter = connection.createStatement()) {
+                alter.execute(restart.apply(maxId));
+            }
+        }
+    }
+}
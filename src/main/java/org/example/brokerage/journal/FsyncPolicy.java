@@ -0,0 +1,13 @@
+package org.example.brokerage.journal;
+
+/**
+ * When appended journal records are forced to disk.
+ */
+public enum FsyncPolicy {
+    /** Never forced by the journal; records survive a process crash but not a power loss. */
+    NONE,
+    /** A background flusher forces everything written in the last window at once; appenders wait for it. */
+    GROUP,
+    /** Every append is forced before it returns. */
+    ALWAYS
+}
@@ -0,0 +1,212 @@
+package org.example.brokerage.journal;
+
+import org.example.brokerage.event.BalanceEvent;
+import org.example.brokerage.event.OrderEvent;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.model.TimeInForce;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Binary payloads of journal records: a type byte followed by the event's fields in declaration
+ * order. Decimals are stored as scale plus unscaled two's-complement bytes, so values round-trip
+ * exactly; times are UTC epoch seconds plus nanos. The field encoders are shared with
+ * {@link SnapshotFile}.
+ */
+final class JournalCodec {
+    static final byte ORDER = 1;
+    static final byte BALANCE = 2;
+    /** Upper bound of one encoded record: three strings of the longest length a short can carry. */
+    static final int MAX_RECORD_BYTES = 128 * 1024;
+
+    private static final long NULL_LONG = Long.MIN_VALUE;
+    private static final OrderEvent.Type[] ORDER_TYPES = OrderEvent.Type.values();
+    private static final BalanceEvent.Reason[] REASONS = BalanceEvent.Reason.values();
+    private static final OrderSide[] ORDER_SIDES = OrderSide.values();
+    private static final OrderStatus[] ORDER_STATUSES = OrderStatus.values();
+    private static final TimeInForce[] TIMES_IN_FORCE = TimeInForce.values();
+
+    private JournalCodec() {
+    }
+
+    static byte[] encode(Object event) {
+        // Records are a few dozen bytes; only unusually long strings need the larger buffer
+        for (int capacity = 256; ; capacity = MAX_RECORD_BYTES) {
+            ByteBuffer out = ByteBuffer.allocate(capacity);
+            try {
+                encode(event, out);
+                return Arrays.copyOf(out.array(), out.position());
+            } catch (BufferOverflowException e) {
+                if (capacity == MAX_RECORD_BYTES) {
+                    throw new IllegalArgumentException("Journal event too large: " + event, e);
+                }
+            }
+        }
+    }
+
+    private static void encode(Object event, ByteBuffer out) {
+        switch (event) {
+            case OrderEvent e -> {
+                out.put(ORDER);
+                out.put((byte) e.type().ordinal());
+                putLong(out, e.orderId());
+                putLong(out, e.customerId());
+                putString(out, e.assetName());
+                putEnum(out, e.orderSide());
+                putDecimal(out, e.size());
+                putDecimal(out, e.filledSize());
+                putDecimal(out, e.price());
+                putEnum(out, e.status());
+                putEnum(out, e.timeInForce());
+                putTime(out, e.createDate());
+                putTime(out, e.timestamp());
+            }
+            case BalanceEvent e -> {
+                out.put(BALANCE);
+                putLong(out, e.assetId());
+                putLong(out, e.customerId());
+                putString(out, e.assetName());
+                putLong(out, e.version());
+                out.put((byte) e.reason().ordinal());
+                putDecimal(out, e.sizeDelta());
+                putDecimal(out, e.usableSizeDelta());
+                putDecimal(out, e.size());
+                putDecimal(out, e.usableSize());
+                putDecimal(out, e.costBasis());
+                putTime(out, e.timestamp());
+            }
+            default -> throw new IllegalArgumentException("Not a journal event: " + event.getClass().getName());
+        }
+    }
+
+    static Object decode(ByteBuffer in) {
+        byte type = in.get();
+        return switch (type) {
+            case ORDER -> new OrderEvent(
+                    ORDER_TYPES[in.get()],
+                    getLong(in),
+                    getLong(in),
+                    getString(in),
+                    getEnum(in, ORDER_SIDES),
+                    getDecimal(in),
+                    getDecimal(in),
+                    getDecimal(in),
+                    getEnum(in, ORDER_STATUSES),
+                    getEnum(in, TIMES_IN_FORCE),
+                    getTime(in),
+                    getTime(in));
+            case BALANCE -> new BalanceEvent(
+                    getLong(in),
+                    getLong(in),
+                    getString(in),
+                    getLong(in),
+                    REASONS[in.get()],
+                    getDecimal(in),
+                    getDecimal(in),
+                    getDecimal(in),
+                    getDecimal(in),
+                    getDecimal(in),
+                    getTime(in));
+            default -> throw new IllegalStateException("Unknown journal record type " + type);
+        };
+    }
+
+    static void putLong(ByteBuffer out, Long value) {
+        out.putLong(value == null ? NULL_LONG : value);
+    }
+
+    static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putShort((short) -1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("String too long to encode: " + utf8.length + " bytes");
+        }
+        out.putShort((short) utf8.length);
+        out.put(utf8);
+    }
+
+    static void putDecimal(ByteBuffer out, BigDecimal value) {
+        if (value == null) {
+            out.put((byte) -1);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        if (unscaled.length > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Decimal too large to encode: " + value);
+        }
+        out.put((byte) unscaled.length);
+        out.putInt(value.scale());
+        out.put(unscaled);
+    }
+
+    static void putEnum(ByteBuffer out, Enum<?> value) {
+        out.put((byte) (value == null ? -1 : value.ordinal()));
+    }
+
+    static void putTime(ByteBuffer out, LocalDateTime value) {
+        if (value == null) {
+            out.putLong(NULL_LONG);
+            return;
+        }
+        out.putLong(value.toEpochSecond(ZoneOffset.UTC));
+        out.putInt(value.getNano());
+    }
+
+    static Long getLong(ByteBuffer in) {
+        long value = in.getLong();
+        return value == NULL_LONG ? null : value;
+    }
+
+    static String getString(ByteBuffer in) {
+        short length = in.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    static BigDecimal getDecimal(ByteBuffer in) {
+        byte length = in.get();
+        if (length < 0) {
+            return null;
+        }
+        int scale = in.getInt();
+        if (length <= Long.BYTES) {
+            // Every column value fits a long; skip the intermediate BigInteger
+            long unscaled = in.get();
+            for (int i = 1; i < length; i++) {
+                unscaled = (unscaled << 8) | (in.get() & 0xff);
+            }
+            return BigDecimal.valueOf(unscaled, scale);
+        }
+        byte[] unscaled = new byte[length];
+        in.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    static LocalDateTime getTime(ByteBuffer in) {
+        long seconds = in.getLong();
+        if (seconds == NULL_LONG) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(seconds, in.getInt(), ZoneOffset.UTC);
+    }
+
+    static <E extends Enum<E>> E getEnum(ByteBuffer in, E[] values) {
+        byte ordinal = in.get();
+        return ordinal < 0 ? null : values[ordinal];
+    }
+}
@@ -0,0 +1,144 @@
+package org.example.brokerage.journal;
+
+import org.example.brokerage.event.BalanceEvent;
+import org.example.brokerage.event.OrderEvent;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Net effect of a run of journal records on balances and open orders, folded so it can be merged
+ * into the snapshot the run starts from. Memory grows with the run, not with the whole state.
+ * <p>
+ * Balances keep the highest row version seen, so two commits whose appends raced still resolve to
+ * the later one. Orders only move forward: a fill never lowers {@code filledSize} and a closed order
+ * stays closed.
+ */
+public final class JournalDelta {
+    private final Map<BalanceKey, BalanceRecord> balances = new LinkedHashMap<>();
+    private final Map<Long, OrderRecord> orders = new HashMap<>();
+    private final Set<Long> createdOrders = new HashSet<>();
+    private final Set<Long> closedOrders = new HashSet<>();
+    private long lastSequence;
+    private long records;
+
+    public JournalDelta(long fromSequence) {
+        this.lastSequence = fromSequence - 1;
+    }
+
+    public void apply(JournalEntry entry) {
+        switch (entry.event()) {
+            case BalanceEvent event -> balances.merge(new BalanceKey(event.customerId(), event.assetName()),
+                    BalanceRecord.from(event), JournalDelta::newer);
+            case OrderEvent event -> applyOrder(event);
+            default -> throw new IllegalStateException("Unexpected journal event " + entry.event());
+        }
+        lastSequence = entry.sequence();
+        records++;
+    }
+
+    /** Sequence of the last record applied; the sequence a snapshot merged with this delta is at. */
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    public long records() {
+        return records;
+    }
+
+    /**
+     * Returns a sink that passes a snapshot's records on to {@code target} with this delta applied.
+     * Call {@link Merge#finish()} once the snapshot has been read to emit what the snapshot lacked.
+     */
+    public Merge mergeInto(SnapshotSink target) {
+        return new Merge(target);
+    }
+
+    private void applyOrder(OrderEvent event) {
+        Long id = event.orderId();
+        if (closedOrders.contains(id)) {
+            return;
+        }
+        switch (event.type()) {
+            case CREATED, FILLED -> {
+                if (event.type() == OrderEvent.Type.CREATED) {
+                    createdOrders.add(id);
+                }
+                orders.merge(id, OrderRecord.from(event), JournalDelta::furtherFilled);
+            }
+            case MATCHED, CANCELED -> {
+                orders.remove(id);
+                closedOrders.add(id);
+            }
+        }
+    }
+
+    private static BalanceRecord newer(BalanceRecord current, BalanceRecord candidate) {
+        return candidate.version() >= current.version() ? candidate : current;
+    }
+
+    private static OrderRecord furtherFilled(OrderRecord current, OrderRecord candidate) {
+        return candidate.filledSize().compareTo(current.filledSize()) >= 0 ? candidate : current;
+    }
+
+    public final class Merge implements SnapshotSink {
+        private final SnapshotSink target;
+        private final Map<BalanceKey, BalanceRecord> pendingBalances = new LinkedHashMap<>(balances);
+        private final Map<Long, OrderRecord> pendingOrders = new HashMap<>(orders);
+        private boolean balancesFlushed;
+
+        private Merge(SnapshotSink target) {
+            this.target = target;
+        }
+
+        @Override
+        public void customer(CustomerRecord customer) {
+            target.customer(customer);
+        }
+
+        @Override
+        public void balance(BalanceRecord balance) {
+            BalanceRecord changed = pendingBalances.remove(new BalanceKey(balance.customerId(), balance.assetName()));
+            target.balance(changed == null ? balance : newer(balance, changed));
+        }
+
+        @Override
+        public void order(OrderRecord order) {
+            flushBalances();
+            if (closedOrders.contains(order.id())) {
+                return;
+            }
+            OrderRecord changed = pendingOrders.remove(order.id());
+            target.order(changed == null ? order : furtherFilled(order, changed));
+        }
+
+        /** Emits balances and orders that first appeared after the snapshot. */
+        public void finish() {
+            flushBalances();
+            for (Iterator<OrderRecord> it = pendingOrders.values().iterator(); it.hasNext(); ) {
+                OrderRecord order = it.next();
+                // A fill for an order the snapshot no longer has is a late append of an already closed order
+                if (createdOrders.contains(order.id())) {
+                    target.order(order);
+                }
+                it.remove();
+            }
+        }
+
+        private void flushBalances() {
+            if (balancesFlushed) {
+                return;
+            }
+            balancesFlushed = true;
+            pendingBalances.values().forEach(target::balance);
+            pendingBalances.clear();
+        }
+    }
+
+    private record BalanceKey(Long customerId, String assetName) {
+    }
+}
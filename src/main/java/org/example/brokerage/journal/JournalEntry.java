@@ -0,0 +1,8 @@
+package org.example.brokerage.journal;
+
+/**
+ * One record read back from the journal. {@code event} is an
+ * {@link org.example.brokerage.event.OrderEvent} or a {@link org.example.brokerage.event.BalanceEvent}.
+ */
+public record JournalEntry(long sequence, Object event) {
+}
@@ -0,0 +1,100 @@
+package org.example.brokerage.journal;
+
+import lombok.RequiredArgsConstructor;
+import org.example.brokerage.event.BalanceEvent;
+import org.example.brokerage.event.OrderEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes order and balance events to the {@link OrderJournal}. Events raised inside a transaction
+ * are collected and appended as one batch after it commits, so a rolled-back command leaves no
+ * trace and a command costs one append and at most one wait for the disk.
+ * <p>
+ * That wait never happens while the thread still holds a connection: after-commit callbacks run
+ * before the transaction releases it, so the appended sequence is only noted there and the caller
+ * waits for it through {@link #awaitDurable()} once the transaction has been cleaned up.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "brokerage.journal", name = "enabled", havingValue = "true")
+public class JournalEventListener {
+    private final OrderJournal journal;
+    private final ThreadLocal<Long> undurable = new ThreadLocal<>();
+
+    @EventListener
+    public void onOrderEvent(OrderEvent event) {
+        record(event);
+    }
+
+    @EventListener
+    public void onBalanceEvent(BalanceEvent event) {
+        record(event);
+    }
+
+    /**
+     * Blocks until every event this thread appended is on disk. Does nothing while the thread is
+     * still bound to a transaction's resources; the outermost caller waits instead.
+     */
+    public void awaitDurable() {
+        Long sequence = undurable.get();
+        if (sequence == null || !TransactionSynchronizationManager.getResourceMap().isEmpty()) {
+            return;
+        }
+        undurable.remove();
+        journal.awaitDurable(sequence);
+    }
+
+    private void record(Object event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            appended(journal.append(event));
+            return;
+        }
+        // Synchronizations, unlike bound resources, are suspended around REQUIRES_NEW transactions,
+        // so a nested settlement gets its own batch
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Batch batch && batch.journal == journal) {
+                batch.add(event);
+                return;
+            }
+        }
+        Batch batch = new Batch();
+        TransactionSynchronizationManager.registerSynchronization(batch);
+        batch.add(event);
+    }
+
+    /** Appends are sequenced, so waiting for the last one covers the earlier ones too. */
+    private void appended(long sequence) {
+        undurable.set(sequence);
+        awaitDurable();
+    }
+
+    private final class Batch implements TransactionSynchronization {
+        private final OrderJournal journal = JournalEventListener.this.journal;
+        private final List<Object> events = new ArrayList<>();
+        private boolean committed;
+
+        private void add(Object event) {
+            if (committed) {
+                // Raised by an after-commit callback of the same transaction
+                appended(journal.append(event));
+                return;
+            }
+            events.add(event);
+        }
+
+        @Override
+        public void afterCommit() {
+            committed = true;
+            if (!events.isEmpty()) {
+                appended(journal.append(events));
+            }
+        }
+    }
+}
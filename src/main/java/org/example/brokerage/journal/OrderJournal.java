@@ -0,0 +1,397 @@
+package org.example.brokerage.journal;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of order and balance events in memory-mapped segment files.
+ * <p>
+ * Each record is framed as {@code [int length][int crc32][long sequence][payload]}; sequences are
+ * gapless across segments. A segment is named after its first sequence and a new one is started
+ * when a record no longer fits. On startup the tail of the newest segment is validated frame by
+ * frame, and anything after the last intact record (a torn write) is discarded.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "brokerage.journal", name = "enabled", havingValue = "true")
+public class OrderJournal implements AutoCloseable {
+    static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES;
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final long groupCommitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pending = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+    private final Thread flusher;
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int position;
+    private int flushedPosition;
+    private long nextSequence;
+    private long durableSequence;
+    private boolean closed;
+
+    public OrderJournal(@Value("${brokerage.journal.directory:data/journal}") Path directory,
+                        @Value("${brokerage.journal.segment-size:64MB}") DataSize segmentSize,
+                        @Value("${brokerage.journal.fsync:GROUP}") FsyncPolicy fsyncPolicy,
+                        @Value("${brokerage.journal.group-commit-millis:2}") long groupCommitMillis) {
+        this.directory = directory;
+        this.segmentSize = Math.toIntExact(segmentSize.toBytes());
+        this.fsyncPolicy = fsyncPolicy;
+        this.groupCommitNanos = TimeUnit.MILLISECONDS.toNanos(groupCommitMillis);
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open journal in " + directory, e);
+        }
+        if (fsyncPolicy == FsyncPolicy.GROUP) {
+            flusher = Thread.ofPlatform().name("journal-flusher").daemon().start(this::flushLoop);
+        } else {
+            flusher = null;
+        }
+        log.info("Journal opened in {} at sequence {} (fsync {})", directory, nextSequence, fsyncPolicy);
+    }
+
+    /**
+     * Appends the events as consecutive records and returns the sequence of the last one. Under
+     * {@link FsyncPolicy#ALWAYS} the records are on disk when this returns; under
+     * {@link FsyncPolicy#GROUP} call {@link #awaitDurable(long)} with the returned sequence.
+     */
+    public long append(List<?> events) {
+        List<byte[]> payloads = new ArrayList<>(events.size());
+        for (Object event : events) {
+            payloads.add(JournalCodec.encode(event));
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            for (byte[] payload : payloads) {
+                write(payload);
+            }
+            long last = nextSequence - 1;
+            if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                segment.force(flushedPosition, position - flushedPosition);
+                flushedPosition = position;
+                durableSequence = last;
+            } else if (fsyncPolicy == FsyncPolicy.GROUP) {
+                pending.signal();
+            }
+            return last;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal append failed", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long append(Object event) {
+        return append(List.of(event));
+    }
+
+    /**
+     * Blocks until the record with the given sequence has been forced to disk by the group flusher.
+     * Returns immediately under the other policies.
+     */
+    public void awaitDurable(long sequence) {
+        if (fsyncPolicy != FsyncPolicy.GROUP) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (durableSequence < sequence && !closed) {
+                durable.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replays every intact record with a sequence of at least {@code fromSequence}, oldest first.
+     */
+    public void read(long fromSequence, Consumer<JournalEntry> consumer) {
+        List<Segment> segments = segments();
+        long expected = -1;
+        for (int i = 0; i < segments.size(); i++) {
+            if (i + 1 < segments.size() && segments.get(i + 1).firstSequence() <= fromSequence) {
+                continue;
+            }
+            Segment current = segments.get(i);
+            if (expected >= 0 && current.firstSequence() != expected) {
+                // The previous segment ended in a record still being written when it was scanned
+                return;
+            }
+            try (FileChannel file = FileChannel.open(current.path(), StandardOpenOption.READ)) {
+                ByteBuffer buffer = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+                long[] next = {current.firstSequence()};
+                scan(buffer, current.firstSequence(), (sequence, payload) -> {
+                    if (sequence >= fromSequence) {
+                        consumer.accept(new JournalEntry(sequence, JournalCodec.decode(payload)));
+                    }
+                    next[0] = sequence + 1;
+                });
+                expected = next[0];
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read journal segment " + current.path(), e);
+            }
+        }
+    }
+
+    /**
+     * Deletes segments holding only records below {@code sequence}, typically those already covered
+     * by the oldest retained snapshot. The segment being written is never deleted.
+     */
+    public void deleteSegmentsBefore(long sequence) {
+        List<Segment> segments = segments();
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (segments.get(i + 1).firstSequence() > sequence) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(segments.get(i).path());
+                log.info("Deleted journal segment {}", segments.get(i).path());
+            } catch (IOException e) {
+                log.warn("Failed to delete journal segment {}", segments.get(i).path(), e);
+            }
+        }
+    }
+
+    /** Sequence of the most recently appended record, or 0 if the journal is empty. */
+    public long lastSequence() {
+        lock.lock();
+        try {
+            return nextSequence - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            segment.force();
+            durableSequence = nextSequence - 1;
+            channel.close();
+            pending.signalAll();
+            durable.signalAll();
+        } catch (IOException e) {
+            log.warn("Failed to close journal", e);
+        } finally {
+            lock.unlock();
+        }
+        if (flusher != null) {
+            flusher.interrupt();
+        }
+    }
+
+    private void write(byte[] payload) throws IOException {
+        int length = Long.BYTES + payload.length;
+        if (HEADER_BYTES + length > segmentSize) {
+            throw new IllegalArgumentException("Journal record of " + length + " bytes exceeds segment size");
+        }
+        if (position + HEADER_BYTES + length > segmentSize) {
+            roll();
+        }
+        int body = position + HEADER_BYTES;
+        segment.putLong(body, nextSequence);
+        segment.put(body + Long.BYTES, payload);
+        CRC32 crc = new CRC32();
+        crc.update(segment.slice(body, length));
+        segment.putInt(position + Integer.BYTES, (int) crc.getValue());
+        // Length last: a reader never sees a frame whose body is still being written
+        segment.putInt(position, length);
+        position = body + length;
+        nextSequence++;
+    }
+
+    private void roll() throws IOException {
+        if (fsyncPolicy != FsyncPolicy.NONE) {
+            segment.force(flushedPosition, position - flushedPosition);
+            durableSequence = nextSequence - 1;
+            durable.signalAll();
+        }
+        channel.close();
+        map(segmentPath(nextSequence));
+        position = 0;
+        flushedPosition = 0;
+    }
+
+    private void flushLoop() {
+        while (true) {
+            lock.lock();
+            try {
+                while (!closed && durableSequence == nextSequence - 1) {
+                    pending.await();
+                }
+                if (closed) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            if (groupCommitNanos > 0) {
+                // Let concurrent appenders join this flush
+                try {
+                    TimeUnit.NANOSECONDS.sleep(groupCommitNanos);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            flush();
+        }
+    }
+
+    private void flush() {
+        MappedByteBuffer buffer;
+        int from;
+        int to;
+        long sequence;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            buffer = segment;
+            from = flushedPosition;
+            to = position;
+            sequence = nextSequence - 1;
+        } finally {
+            lock.unlock();
+        }
+        // Forced outside the lock so appenders keep writing while the disk catches up
+        buffer.force(from, to - from);
+        lock.lock();
+        try {
+            if (buffer == segment) {
+                flushedPosition = Math.max(flushedPosition, to);
+            }
+            if (sequence > durableSequence) {
+                durableSequence = sequence;
+                durable.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Segment> segments = segments();
+        if (segments.isEmpty()) {
+            nextSequence = 1;
+            map(segmentPath(nextSequence));
+            return;
+        }
+        Segment last = segments.getLast();
+        map(last.path());
+        long[] lastSequence = {last.firstSequence() - 1};
+        position = scan(segment, last.firstSequence(), (sequence, payload) -> lastSequence[0] = sequence);
+        nextSequence = lastSequence[0] + 1;
+        durableSequence = lastSequence[0];
+        if (position + HEADER_BYTES <= segmentSize && segment.getInt(position) != 0) {
+            log.warn("Discarding torn journal tail in {} after sequence {}", last.path(), lastSequence[0]);
+            segment.put(position, new byte[segmentSize - position]);
+            segment.force();
+        }
+        flushedPosition = position;
+    }
+
+    private void map(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    private List<Segment> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .map(path -> {
+                        String name = path.getFileName().toString();
+                        return new Segment(path, Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+                    })
+                    .sorted((a, b) -> Long.compare(a.firstSequence(), b.firstSequence()))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list journal segments in " + directory, e);
+        }
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX));
+    }
+
+    /**
+     * Walks intact frames from the start of a segment and returns the position after the last one.
+     * Stops at a zero length, a frame running past the end, a CRC mismatch or a sequence gap.
+     */
+    private static int scan(ByteBuffer buffer, long firstSequence, FrameConsumer consumer) {
+        int position = 0;
+        long expected = firstSequence;
+        CRC32 crc = new CRC32();
+        while (position + HEADER_BYTES + Long.BYTES <= buffer.limit()) {
+            int length = buffer.getInt(position);
+            int body = position + HEADER_BYTES;
+            if (length < Long.BYTES || length > buffer.limit() - body) {
+                break;
+            }
+            ByteBuffer frame = buffer.slice(body, length);
+            crc.reset();
+            crc.update(frame.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES) || frame.getLong(0) != expected) {
+                break;
+            }
+            consumer.accept(expected, frame.position(Long.BYTES));
+            position = body + length;
+            expected++;
+        }
+        return position;
+    }
+
+    @FunctionalInterface
+    private interface FrameConsumer {
+        void accept(long sequence, ByteBuffer payload);
+    }
+
+    private record Segment(Path path, long firstSequence) {
+    }
+}
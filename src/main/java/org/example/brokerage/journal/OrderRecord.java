@@ -0,0 +1,28 @@
+package org.example.brokerage.journal;
+
+import org.example.brokerage.event.OrderEvent;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.model.TimeInForce;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One open (PENDING) order as stored in a snapshot.
+ */
+public record OrderRecord(
+        Long id,
+        Long customerId,
+        String assetName,
+        OrderSide orderSide,
+        BigDecimal size,
+        BigDecimal filledSize,
+        BigDecimal price,
+        TimeInForce timeInForce,
+        LocalDateTime createDate) {
+
+    static OrderRecord from(OrderEvent event) {
+        return new OrderRecord(event.orderId(), event.customerId(), event.assetName(), event.orderSide(),
+                event.size(), event.filledSize(), event.price(), event.timeInForce(), event.createDate());
+    }
+}
@@ -0,0 +1,250 @@
+package org.example.brokerage.journal;
+
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.model.TimeInForce;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of customers, balances and open orders as of one journal sequence.
+ * <p>
+ * Layout: {@code [int magic][int format][long sequence][int crc32]}, then tagged records and an end
+ * tag; the checksum covers everything after the header. Files are written to a temporary name,
+ * forced and renamed into place, so a crash mid-write never leaves a partial snapshot behind.
+ * Records are encoded and decoded straight from a large buffer that is refilled whenever less than
+ * one maximum-size record is left, so a field costs a bounds check rather than a stream call.
+ */
+public final class SnapshotFile {
+    private static final int MAGIC = 0x424b534e;
+    private static final int FORMAT = 3;
+    private static final byte END = 0;
+    private static final byte CUSTOMER = 1;
+    private static final byte BALANCE = 2;
+    private static final byte ORDER = 3;
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int BUFFER_BYTES = 1 << 20;
+    private static final OrderSide[] ORDER_SIDES = OrderSide.values();
+    private static final TimeInForce[] TIMES_IN_FORCE = TimeInForce.values();
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Writes the records handed to the sink by {@code producer} and returns how many there were.
+     */
+    public static long write(Path path, long sequence, Consumer<SnapshotSink> producer) {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            long records = writeFile(temporary, sequence, producer);
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return records;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write snapshot " + path, e);
+        } finally {
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException ignored) {
+                // Best effort; a leftover .tmp is overwritten by the next snapshot
+            }
+        }
+    }
+
+    /**
+     * Streams every record into the sink and returns the snapshot's sequence. A snapshot whose
+     * checksum does not match raises {@link IllegalStateException} after its records were delivered,
+     * so callers loading into a database should do so in a transaction.
+     */
+    public static long read(Path path, SnapshotSink sink) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            fill(channel, header);
+            header.flip();
+            if (header.limit() < HEADER_BYTES || header.getInt() != MAGIC) {
+                throw new IllegalStateException(path + " is not a snapshot");
+            }
+            int format = header.getInt();
+            if (format != FORMAT) {
+                throw new IllegalStateException("Snapshot " + path + " has unsupported format " + format);
+            }
+            long sequence = header.getLong();
+            int expected = header.getInt();
+
+            CRC32 crc = new CRC32();
+            ByteBuffer in = ByteBuffer.allocate(BUFFER_BYTES).limit(0);
+            boolean eof = false;
+            while (true) {
+                if (!eof && in.remaining() < JournalCodec.MAX_RECORD_BYTES) {
+                    eof = refill(channel, in, crc);
+                }
+                byte tag = in.get();
+                switch (tag) {
+                    case CUSTOMER -> sink.customer(new CustomerRecord(
+                            JournalCodec.getLong(in),
+                            JournalCodec.getString(in),
+                            JournalCodec.getString(in),
+                            JournalCodec.getString(in)));
+                    case BALANCE -> sink.balance(new BalanceRecord(
+                            JournalCodec.getLong(in),
+                            in.getLong(),
+                            JournalCodec.getLong(in),
+                            JournalCodec.getString(in),
+                            JournalCodec.getDecimal(in),
+                            JournalCodec.getDecimal(in),
+                            JournalCodec.getDecimal(in)));
+                    case ORDER -> sink.order(new OrderRecord(
+                            JournalCodec.getLong(in),
+                            JournalCodec.getLong(in),
+                            JournalCodec.getString(in),
+                            JournalCodec.getEnum(in, ORDER_SIDES),
+                            JournalCodec.getDecimal(in),
+                            JournalCodec.getDecimal(in),
+                            JournalCodec.getDecimal(in),
+                            JournalCodec.getEnum(in, TIMES_IN_FORCE),
+                            JournalCodec.getTime(in)));
+                    case END -> {
+                        if (!eof) {
+                            eof = refill(channel, in, crc);
+                        }
+                        if (in.hasRemaining() || !eof || (int) crc.getValue() != expected) {
+                            throw new IllegalStateException("Snapshot " + path + " is corrupt (checksum mismatch)");
+                        }
+                        return sequence;
+                    }
+                    default -> throw new IllegalStateException("Snapshot " + path + " is corrupt (record tag " + tag + ")");
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalStateException("Snapshot " + path + " is truncated", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read snapshot " + path, e);
+        }
+    }
+
+    private static long writeFile(Path path, long sequence, Consumer<SnapshotSink> producer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(HEADER_BYTES);
+            Writer writer = new Writer(channel);
+            producer.accept(writer);
+            writer.finish();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                    .putInt(MAGIC)
+                    .putInt(FORMAT)
+                    .putLong(sequence)
+                    .putInt((int) writer.crc.getValue())
+                    .flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+            return writer.records;
+        }
+    }
+
+    /** Moves unread bytes to the front, reads until the buffer is full and returns whether the file ended. */
+    private static boolean refill(FileChannel channel, ByteBuffer in, CRC32 crc) throws IOException {
+        in.compact();
+        int start = in.position();
+        boolean eof = fill(channel, in);
+        crc.update(in.duplicate().flip().position(start));
+        in.flip();
+        return eof;
+    }
+
+    private static boolean fill(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Writer implements SnapshotSink {
+        private final FileChannel channel;
+        private final ByteBuffer out = ByteBuffer.allocate(BUFFER_BYTES);
+        private final CRC32 crc = new CRC32();
+        private long records;
+
+        private Writer(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void customer(CustomerRecord customer) {
+            ByteBuffer out = reserve();
+            records++;
+            out.put(CUSTOMER);
+            JournalCodec.putLong(out, customer.id());
+            JournalCodec.putString(out, customer.username());
+            JournalCodec.putString(out, customer.password());
+            JournalCodec.putString(out, customer.role());
+        }
+
+        @Override
+        public void balance(BalanceRecord balance) {
+            ByteBuffer out = reserve();
+            records++;
+            out.put(BALANCE);
+            JournalCodec.putLong(out, balance.assetId());
+            out.putLong(balance.version());
+            JournalCodec.putLong(out, balance.customerId());
+            JournalCodec.putString(out, balance.assetName());
+            JournalCodec.putDecimal(out, balance.size());
+            JournalCodec.putDecimal(out, balance.usableSize());
+            JournalCodec.putDecimal(out, balance.costBasis());
+        }
+
+        @Override
+        public void order(OrderRecord order) {
+            ByteBuffer out = reserve();
+            records++;
+            out.put(ORDER);
+            JournalCodec.putLong(out, order.id());
+            JournalCodec.putLong(out, order.customerId());
+            JournalCodec.putString(out, order.assetName());
+            JournalCodec.putEnum(out, order.orderSide());
+            JournalCodec.putDecimal(out, order.size());
+            JournalCodec.putDecimal(out, order.filledSize());
+            JournalCodec.putDecimal(out, order.price());
+            JournalCodec.putEnum(out, order.timeInForce());
+            JournalCodec.putTime(out, order.createDate());
+        }
+
+        /** Makes room for one more record of any size. */
+        private ByteBuffer reserve() {
+            if (out.remaining() < JournalCodec.MAX_RECORD_BYTES) {
+                flush();
+            }
+            return out;
+        }
+
+        private void finish() {
+            reserve().put(END);
+            flush();
+        }
+
+        private void flush() {
+            out.flip();
+            crc.update(out.duplicate());
+            try {
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            out.clear();
+        }
+    }
+}
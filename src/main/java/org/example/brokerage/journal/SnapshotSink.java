@@ -0,0 +1,14 @@
+package org.example.brokerage.journal;
+
+/**
+ * Receives the contents of a snapshot in file order: every customer, then every balance, then
+ * every open order.
+ */
+public interface SnapshotSink {
+
+    void customer(CustomerRecord customer);
+
+    void balance(BalanceRecord balance);
+
+    void order(OrderRecord order);
+}
@@ -0,0 +1,97 @@
+package org.example.brokerage.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Directory of {@link SnapshotFile}s named after the journal sequence they cover. Only the newest
+ * {@code retained} snapshots are kept.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = {"brokerage.journal.enabled", "brokerage.snapshot.enabled"}, havingValue = "true")
+public class SnapshotStore {
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    private final Path directory;
+    private final int retained;
+
+    public SnapshotStore(@Value("${brokerage.snapshot.directory:data/snapshots}") Path directory,
+                         @Value("${brokerage.snapshot.retained:2}") int retained) {
+        if (retained < 1) {
+            throw new IllegalArgumentException("brokerage.snapshot.retained must be at least 1");
+        }
+        this.directory = directory;
+        this.retained = retained;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create snapshot directory " + directory, e);
+        }
+    }
+
+    public Optional<Snapshot> latest() {
+        List<Snapshot> snapshots = list();
+        return snapshots.isEmpty() ? Optional.empty() : Optional.of(snapshots.getLast());
+    }
+
+    /** The oldest snapshot still kept; journal records before it are no longer needed. */
+    public Optional<Snapshot> oldest() {
+        return list().stream().findFirst();
+    }
+
+    public Snapshot write(long sequence, Consumer<SnapshotSink> producer) {
+        long start = System.nanoTime();
+        Snapshot snapshot = new Snapshot(directory.resolve(String.format("%s%020d%s", PREFIX, sequence, SUFFIX)), sequence);
+        long records = SnapshotFile.write(snapshot.path(), sequence, producer);
+        log.info("Wrote snapshot {} with {} records in {} ms", snapshot.path(), records,
+                (System.nanoTime() - start) / 1_000_000);
+        prune();
+        return snapshot;
+    }
+
+    private void prune() {
+        List<Snapshot> snapshots = list();
+        for (Snapshot snapshot : snapshots.subList(0, Math.max(0, snapshots.size() - retained))) {
+            try {
+                Files.deleteIfExists(snapshot.path());
+            } catch (IOException e) {
+                log.warn("Failed to delete snapshot {}", snapshot.path(), e);
+            }
+        }
+    }
+
+    private List<Snapshot> list() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .map(path -> {
+                        String name = path.getFileName().toString();
+                        return new Snapshot(path, Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+                    })
+                    .sorted(Comparator.comparingLong(Snapshot::sequence))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list snapshots in " + directory, e);
+        }
+    }
+
+    public record Snapshot(Path path, long sequence) {
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.brokerage.journal;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * Restores customers, balances and open orders at startup from the latest snapshot plus the journal
+ * records written after it. Runs once all beans exist and before the web server accepts requests;
+ * {@code DataInitializer} then finds the customers in place and seeds nothing.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = {"brokerage.journal.enabled", "brokerage.snapshot.enabled"}, havingValue = "true")
+public class StateRecovery implements SmartInitializingSingleton {
+    private final SnapshotStore snapshotStore;
+    private final OrderJournal journal;
+    private final DataSource dataSource;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Optional<SnapshotStore.Snapshot> latest = snapshotStore.latest();
+        if (latest.isEmpty()) {
+            log.info("No snapshot found; starting with an empty state");
+            return;
+        }
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseLoader loader = new DatabaseLoader(connection);
+            JournalDelta tail = restore(latest.get(), journal, loader);
+            loader.commit();
+            log.info("Restored {} rows from snapshot at sequence {} and {} journal records up to sequence {} in {} ms",
+                    loader.rows(), latest.get().sequence(), tail.records(), tail.lastSequence(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to restore state from " + latest.get().path(), e);
+        }
+    }
+
+    /**
+     * Streams the snapshot into {@code sink} with every journal record after it applied, and returns
+     * the folded tail. Cost is one sequential read of the snapshot plus the tail, however long the
+     * journal's full history is.
+     */
+    public static JournalDelta restore(SnapshotStore.Snapshot snapshot, OrderJournal journal, SnapshotSink sink) {
+        JournalDelta tail = new JournalDelta(snapshot.sequence() + 1);
+        journal.read(snapshot.sequence() + 1, tail::apply);
+        JournalDelta.Merge merge = tail.mergeInto(sink);
+        SnapshotFile.read(snapshot.path(), merge);
+        merge.finish();
+        return tail;
+    }
+}
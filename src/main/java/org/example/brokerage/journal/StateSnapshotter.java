@@ -0,0 +1,80 @@
+package org.example.brokerage.journal;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.model.TimeInForce;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Writes snapshots. The first one is dumped from the database once the application is ready; each
+ * later one is the previous snapshot merged with the journal records since, so taking it neither
+ * touches the database nor blocks order processing. Journal segments older than the oldest retained
+ * snapshot are then deleted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = {"brokerage.journal.enabled", "brokerage.snapshot.enabled"}, havingValue = "true")
+public class StateSnapshotter {
+    private final SnapshotStore snapshotStore;
+    private final OrderJournal journal;
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void writeInitialSnapshot() {
+        if (snapshotStore.latest().isPresent()) {
+            return;
+        }
+        // Records appended while the dump runs are replayed on top of it; replay is idempotent
+        long sequence = journal.lastSequence();
+        snapshotStore.write(sequence, this::dumpDatabase);
+    }
+
+    @Scheduled(fixedDelayString = "${brokerage.snapshot.interval-millis:300000}",
+            initialDelayString = "${brokerage.snapshot.interval-millis:300000}")
+    public void snapshot() {
+        Optional<SnapshotStore.Snapshot> latest = snapshotStore.latest();
+        if (latest.isEmpty() || journal.lastSequence() == latest.get().sequence()) {
+            return;
+        }
+        JournalDelta tail = new JournalDelta(latest.get().sequence() + 1);
+        journal.read(latest.get().sequence() + 1, tail::apply);
+        if (tail.records() == 0) {
+            return;
+        }
+        snapshotStore.write(tail.lastSequence(), sink -> {
+            JournalDelta.Merge merge = tail.mergeInto(sink);
+            SnapshotFile.read(latest.get().path(), merge);
+            merge.finish();
+        });
+        snapshotStore.oldest().ifPresent(oldest -> journal.deleteSegmentsBefore(oldest.sequence() + 1));
+    }
+
+    private void dumpDatabase(SnapshotSink sink) {
+        jdbcTemplate.query("SELECT id, username, password, role FROM customers ORDER BY id",
+                rs -> {
+                    sink.customer(new CustomerRecord(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4)));
+                });
+        jdbcTemplate.query("SELECT id, version, customer_id, asset_name, size, usable_size, cost_basis FROM assets ORDER BY id",
+                rs -> {
+                    sink.balance(new BalanceRecord(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getString(4),
+                            rs.getBigDecimal(5), rs.getBigDecimal(6), rs.getBigDecimal(7)));
+                });
+        jdbcTemplate.query("SELECT id, customer_id, asset_name, order_side, size, filled_size, price, time_in_force, "
+                        + "create_date FROM orders WHERE status = 'PENDING' ORDER BY id",
+                rs -> {
+                    sink.order(new OrderRecord(rs.getLong(1), rs.getLong(2), rs.getString(3),
+                            OrderSide.valueOf(rs.getString(4)), rs.getBigDecimal(5), rs.getBigDecimal(6),
+                            rs.getBigDecimal(7), TimeInForce.valueOf(rs.getString(8)),
+                            rs.getTimestamp(9).toLocalDateTime()));
+                });
+    }
+}
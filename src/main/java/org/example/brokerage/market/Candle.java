@@ -0,0 +1,18 @@
+package org.example.brokerage.market;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Open, high, low and close price, traded quantity and trade count for one interval starting at
+ * {@code openTime}. Open and close are the prices of the earliest and latest execution in it.
+ */
+public record Candle(
+        LocalDateTime openTime,
+        BigDecimal open,
+        BigDecimal high,
+        BigDecimal low,
+        BigDecimal close,
+        BigDecimal volume,
+        int trades) {
+}
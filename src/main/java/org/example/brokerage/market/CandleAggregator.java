@@ -0,0 +1,91 @@
+package org.example.brokerage.market;
+
+import org.example.brokerage.event.TradeEvent;
+import org.example.brokerage.model.Money;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 1s/1m/1h/1d OHLCV candles per asset, folded in from settled trades as they are published, by
+ * matcher or admin match. Each interval keeps a fixed ring of its latest buckets, sized by
+ * {@code brokerage.candles.retention.*}, allocated on an asset's first trade.
+ * <p>
+ * A trade lands in the bucket of its execution time, not its arrival time, so late or replayed
+ * trades update the right candle as long as that bucket is still retained; older ones are ignored.
+ */
+@Component
+public class CandleAggregator {
+    private final Map<CandleInterval, Integer> retention = new EnumMap<>(CandleInterval.class);
+    private final Map<String, CandleSeries[]> series = new ConcurrentHashMap<>();
+
+    public CandleAggregator(@Value("${brokerage.candles.retention.1s:3600}") int seconds,
+                            @Value("${brokerage.candles.retention.1m:1440}") int minutes,
+                            @Value("${brokerage.candles.retention.1h:720}") int hours,
+                            @Value("${brokerage.candles.retention.1d:365}") int days) {
+        retention.put(CandleInterval.SECOND, Math.max(seconds, 1));
+        retention.put(CandleInterval.MINUTE, Math.max(minutes, 1));
+        retention.put(CandleInterval.HOUR, Math.max(hours, 1));
+        retention.put(CandleInterval.DAY, Math.max(days, 1));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTradeEvent(TradeEvent event) {
+        record(event.trade().assetName(), event.trade().price(), event.trade().quantity(), event.executedAt());
+    }
+
+    /**
+     * Adds an execution to every interval. Returns {@code false} if it is older than even the
+     * longest retention.
+     */
+    public boolean record(String assetName, BigDecimal price, BigDecimal quantity, LocalDateTime executedAt) {
+        long at = CandleSeries.nanos(executedAt);
+        long units = Money.of(price).units();
+        long size = Money.of(quantity).units();
+        CandleSeries[] assetSeries = series.computeIfAbsent(assetName, asset -> newSeries());
+        boolean recorded = false;
+        synchronized (assetSeries) {
+            for (CandleSeries candles : assetSeries) {
+                recorded |= candles.record(at, units, size);
+            }
+        }
+        return recorded;
+    }
+
+    /**
+     * The latest {@code limit} candles starting within {@code [from, to]}, oldest first. Intervals
+     * without trades have no candle.
+     */
+    public List<Candle> candles(String assetName, CandleInterval interval,
+                                LocalDateTime from, LocalDateTime to, int limit) {
+        CandleSeries[] assetSeries = series.get(assetName);
+        if (assetSeries == null) {
+            return List.of();
+        }
+        long lower = from != null ? CandleSeries.nanos(from) : Long.MIN_VALUE;
+        long upper = to != null ? CandleSeries.nanos(to) : Long.MAX_VALUE;
+        synchronized (assetSeries) {
+            return assetSeries[interval.ordinal()].candles(lower, upper, limit);
+        }
+    }
+
+    public int retention(CandleInterval interval) {
+        return retention.get(interval);
+    }
+
+    private CandleSeries[] newSeries() {
+        CandleInterval[] intervals = CandleInterval.values();
+        CandleSeries[] assetSeries = new CandleSeries[intervals.length];
+        for (CandleInterval interval : intervals) {
+            assetSeries[interval.ordinal()] = new CandleSeries(interval, retention.get(interval));
+        }
+        return assetSeries;
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.brokerage.market;
+
+import java.util.concurrent.TimeUnit;
+
+public enum CandleInterval {
+    SECOND("1s", TimeUnit.SECONDS.toNanos(1)),
+    MINUTE("1m", TimeUnit.MINUTES.toNanos(1)),
+    HOUR("1h", TimeUnit.HOURS.toNanos(1)),
+    DAY("1d", TimeUnit.DAYS.toNanos(1));
+
+    private final String label;
+    private final long nanos;
+
+    CandleInterval(String label, long nanos) {
+        this.label = label;
+        this.nanos = nanos;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public long nanos() {
+        return nanos;
+    }
+
+    public static CandleInterval parse(String label) {
+        for (CandleInterval interval : values()) {
+            if (interval.label.equals(label)) {
+                return interval;
+            }
+        }
+        throw new IllegalArgumentException("Unknown candle interval: " + label);
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.brokerage.market;
+
+import org.example.brokerage.model.Money;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fixed ring of the latest {@code capacity} buckets of one asset and interval, held in parallel
+ * primitive arrays. Bucket {@code b} lives in slot {@code b mod capacity}; a slot still holding an
+ * older bucket is reset when reused, so buckets without trades simply have no candle. Timestamps
+ * are wall-clock nanoseconds, so day candles start at local midnight.
+ * <p>
+ * Not thread-safe: {@link CandleAggregator} serializes access per asset.
+ */
+final class CandleSeries {
+    private final long intervalNanos;
+    private final int capacity;
+
+    private final long[] bucket;
+    private final long[] open;
+    private final long[] high;
+    private final long[] low;
+    private final long[] close;
+    private final long[] volume;
+    private final long[] firstAt;
+    private final long[] lastAt;
+    private final int[] trades;
+    private long head = Long.MIN_VALUE;
+
+    CandleSeries(CandleInterval interval, int capacity) {
+        this.intervalNanos = interval.nanos();
+        this.capacity = capacity;
+        this.bucket = new long[capacity];
+        Arrays.fill(bucket, Long.MIN_VALUE);
+        this.open = new long[capacity];
+        this.high = new long[capacity];
+        this.low = new long[capacity];
+        this.close = new long[capacity];
+        this.volume = new long[capacity];
+        this.firstAt = new long[capacity];
+        this.lastAt = new long[capacity];
+        this.trades = new int[capacity];
+    }
+
+    /**
+     * Adds an execution to the bucket it happened in, which need not be the newest one. Returns
+     * {@code false} if that bucket has already left the ring.
+     */
+    boolean record(long at, long price, long quantity) {
+        long b = Math.floorDiv(at, intervalNanos);
+        if (head != Long.MIN_VALUE && b <= head - capacity) {
+            return false;
+        }
+        int i = Math.floorMod(b, capacity);
+        if (bucket[i] != b) {
+            bucket[i] = b;
+            open[i] = high[i] = low[i] = close[i] = price;
+            volume[i] = quantity;
+            firstAt[i] = lastAt[i] = at;
+            trades[i] = 1;
+        } else {
+            high[i] = Math.max(high[i], price);
+            low[i] = Math.min(low[i], price);
+            if (at < firstAt[i]) {
+                open[i] = price;
+                firstAt[i] = at;
+            }
+            if (at >= lastAt[i]) {
+                close[i] = price;
+                lastAt[i] = at;
+            }
+            volume[i] = Math.addExact(volume[i], quantity);
+            trades[i]++;
+        }
+        head = Math.max(head, b);
+        return true;
+    }
+
+    /**
+     * Up to {@code limit} candles oldest first, the latest ones whose bucket starts within
+     * {@code [from, to]}.
+     */
+    List<Candle> candles(long from, long to, int limit) {
+        if (head == Long.MIN_VALUE) {
+            return List.of();
+        }
+        long first = Math.max(Math.floorDiv(from, intervalNanos), head - capacity + 1);
+        long last = Math.min(Math.floorDiv(to, intervalNanos), head);
+        List<Candle> candles = new ArrayList<>(Math.min(limit, capacity));
+        for (long b = last; b >= first && candles.size() < limit; b--) {
+            int i = Math.floorMod(b, capacity);
+            if (bucket[i] == b) {
+                candles.add(new Candle(time(b * intervalNanos),
+                        new Money(open[i]).toBigDecimal(), new Money(high[i]).toBigDecimal(),
+                        new Money(low[i]).toBigDecimal(), new Money(close[i]).toBigDecimal(),
+                        new Money(volume[i]).toBigDecimal(), trades[i]));
+            }
+        }
+        Collections.reverse(candles);
+        return candles;
+    }
+
+    static long nanos(LocalDateTime time) {
+        return Math.addExact(Math.multiplyExact(time.toEpochSecond(ZoneOffset.UTC), 1_000_000_000L), time.getNano());
+    }
+
+    private static LocalDateTime time(long nanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,212 @@
+package org.example.brokerage.market;
+
+import org.example.brokerage.event.ListenerOrder;
+import org.example.brokerage.event.OrderEvent;
+import org.example.brokerage.event.TradeEvent;
+import org.example.brokerage.model.Money;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-asset top-of-book, depth and last trade, maintained incrementally from committed
+ * {@link OrderEvent}s and {@link TradeEvent}s.
+ * <p>
+ * Writers update an asset's aggregate under that asset's monitor and then publish a fresh
+ * {@link MarketSnapshot} through a volatile field; readers only dereference it, so they never lock
+ * and never touch the orders table. Building a snapshot costs O({@code depth}) per change, as only
+ * the best {@code brokerage.market-data.depth} levels per side are copied into it.
+ */
+@Component
+public class MarketData {
+    private final OrderRepository orderRepository;
+    private final int depth;
+    private final Map<String, AssetMarket> markets = new ConcurrentHashMap<>();
+
+    public MarketData(OrderRepository orderRepository,
+                      @Value("${brokerage.market-data.depth:50}") int depth) {
+        this.orderRepository = orderRepository;
+        this.depth = Math.max(depth, 1);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        orderRepository.findByStatus(OrderStatus.PENDING)
+                .forEach(order -> onOrderEvent(OrderEvent.of(OrderEvent.Type.CREATED, order)));
+    }
+
+    @Order(ListenerOrder.PROJECTION)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        AssetMarket market = markets.computeIfAbsent(event.assetName(), AssetMarket::new);
+        synchronized (market) {
+            boolean changed = switch (event.type()) {
+                case CREATED -> market.add(event);
+                case FILLED -> market.reduce(event.orderId(), Money.of(event.remainingSize()));
+                case MATCHED, CANCELED -> market.remove(event.orderId());
+            };
+            if (changed) {
+                market.publish(depth);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTradeEvent(TradeEvent event) {
+        AssetMarket market = markets.computeIfAbsent(event.trade().assetName(), AssetMarket::new);
+        synchronized (market) {
+            market.trade(Money.of(event.trade().price()), Money.of(event.trade().quantity()), event.executedAt());
+            market.publish(depth);
+        }
+    }
+
+    /**
+     * The latest snapshot for the asset, with at most {@code levels} price levels per side.
+     */
+    public MarketSnapshot snapshot(String assetName, int levels) {
+        AssetMarket market = markets.get(assetName);
+        MarketSnapshot snapshot = market != null ? market.snapshot : MarketSnapshot.empty(assetName);
+        return snapshot.limit(Math.max(levels, 0));
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    private static final class AssetMarket {
+        private final String assetName;
+        private final NavigableMap<Money, Level> bids = new TreeMap<>(Comparator.reverseOrder());
+        private final NavigableMap<Money, Level> asks = new TreeMap<>();
+        private final Map<Long, Resting> orders = new HashMap<>();
+
+        private long sequence;
+        private Money lastPrice;
+        private Money lastQuantity;
+        private LocalDateTime lastTradeTime;
+        private Money volume = Money.ZERO;
+
+        private volatile MarketSnapshot snapshot;
+
+        private AssetMarket(String assetName) {
+            this.assetName = assetName;
+            this.snapshot = MarketSnapshot.empty(assetName);
+        }
+
+        private boolean add(OrderEvent event) {
+            Money remaining = Money.of(event.remainingSize());
+            if (remaining.signum() <= 0 || orders.containsKey(event.orderId())) {
+                return false;
+            }
+            Resting order = new Resting(event.orderSide(), Money.of(event.price()), remaining);
+            orders.put(event.orderId(), order);
+            Level level = side(order.side).computeIfAbsent(order.price, price -> new Level());
+            level.size = level.size.plus(remaining);
+            level.orders++;
+            return true;
+        }
+
+        private boolean reduce(Long orderId, Money remaining) {
+            Resting order = orders.get(orderId);
+            // Fills only ever grow; a late event must not put size back
+            if (order == null || remaining.compareTo(order.remaining) >= 0) {
+                return false;
+            }
+            if (remaining.signum() <= 0) {
+                return remove(orderId);
+            }
+            Level level = side(order.side).get(order.price);
+            level.size = level.size.minus(order.remaining.minus(remaining));
+            order.remaining = remaining;
+            return true;
+        }
+
+        private boolean remove(Long orderId) {
+            Resting order = orders.remove(orderId);
+            if (order == null) {
+                return false;
+            }
+            NavigableMap<Money, Level> side = side(order.side);
+            Level level = side.get(order.price);
+            level.size = level.size.minus(order.remaining);
+            if (--level.orders == 0) {
+                side.remove(order.price);
+            }
+            return true;
+        }
+
+        private void trade(Money price, Money quantity, LocalDateTime executedAt) {
+            volume = volume.plus(quantity);
+            // Trades settle on different shards, so a late event must not move the last trade back
+            if (lastTradeTime != null && executedAt.isBefore(lastTradeTime)) {
+                return;
+            }
+            lastPrice = price;
+            lastQuantity = quantity;
+            lastTradeTime = executedAt;
+        }
+
+        private void publish(int depth) {
+            snapshot = new MarketSnapshot(
+                    assetName,
+                    ++sequence,
+                    bids.isEmpty() ? null : bids.firstKey().toBigDecimal(),
+                    asks.isEmpty() ? null : asks.firstKey().toBigDecimal(),
+                    levels(bids, depth),
+                    levels(asks, depth),
+                    lastPrice != null ? lastPrice.toBigDecimal() : null,
+                    lastQuantity != null ? lastQuantity.toBigDecimal() : null,
+                    lastTradeTime,
+                    volume.toBigDecimal(),
+                    LocalDateTime.now());
+        }
+
+        private NavigableMap<Money, Level> side(OrderSide side) {
+            return side == OrderSide.BUY ? bids : asks;
+        }
+
+        private static List<PriceLevel> levels(NavigableMap<Money, Level> side, int depth) {
+            List<PriceLevel> levels = new ArrayList<>(Math.min(side.size(), depth));
+            Iterator<Map.Entry<Money, Level>> entries = side.entrySet().iterator();
+            while (entries.hasNext() && levels.size() < depth) {
+                Map.Entry<Money, Level> entry = entries.next();
+                levels.add(new PriceLevel(entry.getKey().toBigDecimal(),
+                        entry.getValue().size.toBigDecimal(), entry.getValue().orders));
+            }
+            return List.copyOf(levels);
+        }
+    }
+
+    private static final class Level {
+        private Money size = Money.ZERO;
+        private int orders;
+    }
+
+    private static final class Resting {
+        private final OrderSide side;
+        private final Money price;
+        private Money remaining;
+
+        private Resting(OrderSide side, Money price, Money remaining) {
+            this.side = side;
+            this.price = price;
+            this.remaining = remaining;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.brokerage.market;
+
+import org.example.brokerage.model.Money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable view of one asset's market: pending depth per side, best first, and the last settled
+ * trade. {@code sequence} grows with every change, so clients can tell whether anything moved.
+ */
+public record MarketSnapshot(
+        String assetName,
+        long sequence,
+        BigDecimal bestBid,
+        BigDecimal bestAsk,
+        List<PriceLevel> bids,
+        List<PriceLevel> asks,
+        BigDecimal lastPrice,
+        BigDecimal lastQuantity,
+        LocalDateTime lastTradeTime,
+        BigDecimal volume,
+        LocalDateTime updatedAt) {
+
+    public static MarketSnapshot empty(String assetName) {
+        return new MarketSnapshot(assetName, 0, null, null, List.of(), List.of(),
+                null, null, null, Money.ZERO.toBigDecimal(), null);
+    }
+
+    /**
+     * Price to mark holdings at: the last trade, else the mid of best bid and ask rounded half up to
+     * the cent, else whichever side is quoted; {@code null} if the asset has neither.
+     */
+    public BigDecimal referencePrice() {
+        if (lastPrice != null) {
+            return lastPrice;
+        }
+        if (bestBid != null && bestAsk != null) {
+            return bestBid.add(bestAsk).divide(BigDecimal.TWO, Money.SCALE, RoundingMode.HALF_UP);
+        }
+        return bestBid != null ? bestBid : bestAsk;
+    }
+
+    /**
+     * The same snapshot with at most {@code levels} price levels per side.
+     */
+    public MarketSnapshot limit(int levels) {
+        if (bids.size() <= levels && asks.size() <= levels) {
+            return this;
+        }
+        return new MarketSnapshot(assetName, sequence, bestBid, bestAsk,
+                bids.subList(0, Math.min(levels, bids.size())),
+                asks.subList(0, Math.min(levels, asks.size())),
+                lastPrice, lastQuantity, lastTradeTime, volume, updatedAt);
+    }
+}
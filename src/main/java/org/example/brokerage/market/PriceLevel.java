@@ -0,0 +1,9 @@
+package org.example.brokerage.market;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregated remaining size of the pending orders resting at one limit price.
+ */
+public record PriceLevel(BigDecimal price, BigDecimal size, int orders) {
+}
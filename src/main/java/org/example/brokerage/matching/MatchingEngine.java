@@ -0,0 +1,33 @@
+package org.example.brokerage.matching;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds one in-memory {@link OrderBook} per asset. Books are independent,
+ * so different assets match in parallel while each book is single-writer.
+ */
+@Component
+public class MatchingEngine {
+    private final Map<String, OrderBook> books = new ConcurrentHashMap<>();
+
+    public List<Trade> submit(String assetName, RestingOrder order) {
+        OrderBook book = books.computeIfAbsent(assetName, OrderBook::new);
+        synchronized (book) {
+            return book.submit(order);
+        }
+    }
+
+    public boolean cancel(String assetName, Long orderId) {
+        OrderBook book = books.get(assetName);
+        if (book == null) {
+            return false;
+        }
+        synchronized (book) {
+            return book.cancel(orderId);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.brokerage.matching;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.brokerage.event.ListenerOrder;
+import org.example.brokerage.event.OrderEvent;
+import org.example.brokerage.execution.CustomerCommandExecutor;
+import org.example.brokerage.execution.ExecutionMode;
+import org.example.brokerage.model.Order;
+import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.repository.OrderRepository;
+import org.example.brokerage.service.SettlementService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Feeds committed orders into the {@link MatchingEngine} and settles the resulting trades.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "brokerage.matching", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MatchingEventListener {
+    private final MatchingEngine matchingEngine;
+    private final SettlementService settlementService;
+    private final OrderRepository orderRepository;
+    private final CustomerCommandExecutor commandExecutor;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildBooks() {
+        orderRepository.findByStatus(OrderStatus.PENDING).stream()
+                .sorted(Comparator.comparing(Order::getCreateDate).thenComparing(Order::getId))
+                .forEach(order -> submit(order, true));
+    }
+
+    /**
+     * Submits created orders, and drops cancelled or house-matched ones from the book only once
+     * that has committed, so a rolled back cancel leaves the order live.
+     */
+    @org.springframework.core.annotation.Order(ListenerOrder.MATCHING)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        switch (event.type()) {
+            case CREATED -> settle(matchingEngine.submit(event.assetName(), RestingOrder.from(event)), true);
+            case CANCELED, MATCHED -> matchingEngine.cancel(event.assetName(), event.orderId());
+            default -> {
+            }
+        }
+    }
+
+    private void submit(Order order, boolean restoreFailed) {
+        settle(matchingEngine.submit(order.getAssetName(), RestingOrder.from(order)), restoreFailed);
+    }
+
+    private void settle(List<Trade> trades, boolean restoreFailed) {
+        for (Trade trade : trades) {
+            if (commandExecutor.getMode() == ExecutionMode.SHARDED) {
+                // Both legs settle in one transaction queued on the buyer's shard, never blocking
+                // this thread on it; a seller command racing it on another shard loses its version
+                // check and is replayed
+                try {
+                    commandExecutor.submit("settleTrade", trade.buyCustomerId(), () -> settlementService.settle(trade))
+                            .exceptionally(e -> logFailure(trade, e, restoreFailed));
+                } catch (RejectedExecutionException e) {
+                    logFailure(trade, e, restoreFailed);
+                }
+                continue;
+            }
+            try {
+                commandExecutor.run("settleTrade", trade.buyCustomerId(), () -> settlementService.settle(trade));
+            } catch (RuntimeException e) {
+                logFailure(trade, e, restoreFailed);
+            }
+        }
+    }
+
+    private Void logFailure(Trade trade, Throwable e, boolean restore) {
+        log.error("Failed to settle trade {}", trade, e);
+        if (restore) {
+            restore(trade);
+        }
+        return null;
+    }
+
+    /**
+     * The book already took the failed trade's quantity off both orders. Puts back those still
+     * PENDING as the database has them, oldest first; one cancelled or matched meanwhile stays out.
+     * Trades they cross again are settled once more without restoring, so a failure that keeps
+     * recurring cannot loop.
+     */
+    private void restore(Trade trade) {
+        try {
+            List<Order> orders = orderRepository.findAllById(List.of(trade.buyOrderId(), trade.sellOrderId()));
+            orders.forEach(order -> matchingEngine.cancel(order.getAssetName(), order.getId()));
+            orders.stream()
+                    .filter(order -> order.getStatus() == OrderStatus.PENDING)
+                    .sorted(Comparator.comparing(Order::getCreateDate).thenComparing(Order::getId))
+                    .forEach(order -> submit(order, false));
+        } catch (RuntimeException e) {
+            log.error("Failed to restore the orders of trade {} to the book", trade, e);
+        }
+    }
+}
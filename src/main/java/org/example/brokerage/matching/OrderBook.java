@@ -0,0 +1,130 @@
+package org.example.brokerage.matching;
+
+import org.example.brokerage.model.OrderSide;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Limit order book for a single asset with price-time priority. Every operation costs a lookup of
+ * the price level; a cancel unlinks its order without scanning the level.
+ * Not thread-safe: {@link MatchingEngine} serializes access per book.
+ */
+public class OrderBook {
+    private final String assetName;
+    private final NavigableMap<BigDecimal, PriceLevel> bids = new TreeMap<>(Comparator.reverseOrder());
+    private final NavigableMap<BigDecimal, PriceLevel> asks = new TreeMap<>();
+    private final Map<Long, RestingOrder> ordersById = new HashMap<>();
+
+    public OrderBook(String assetName) {
+        this.assetName = assetName;
+    }
+
+    public String getAssetName() {
+        return assetName;
+    }
+
+    /**
+     * Crosses the incoming order against the opposite side and rests any remainder.
+     */
+    public List<Trade> submit(RestingOrder incoming) {
+        if (ordersById.containsKey(incoming.getOrderId())) {
+            return List.of();
+        }
+
+        List<Trade> trades = new ArrayList<>();
+        NavigableMap<BigDecimal, PriceLevel> opposite =
+                incoming.getSide() == OrderSide.BUY ? asks : bids;
+
+        while (incoming.getRemaining().signum() > 0 && !opposite.isEmpty()) {
+            Map.Entry<BigDecimal, PriceLevel> best = opposite.firstEntry();
+            if (!crosses(incoming, best.getKey())) {
+                break;
+            }
+
+            PriceLevel level = best.getValue();
+            while (incoming.getRemaining().signum() > 0 && !level.isEmpty()) {
+                RestingOrder resting = level.first();
+                BigDecimal quantity = incoming.getRemaining().min(resting.getRemaining());
+
+                trades.add(toTrade(incoming, resting, quantity));
+                incoming.fill(quantity);
+                resting.fill(quantity);
+
+                if (resting.getRemaining().signum() == 0) {
+                    level.remove(resting);
+                    ordersById.remove(resting.getOrderId());
+                }
+            }
+
+            if (level.isEmpty()) {
+                opposite.remove(best.getKey());
+            }
+        }
+
+        if (incoming.getRemaining().signum() > 0) {
+            rest(incoming);
+        }
+        return trades;
+    }
+
+    public boolean cancel(Long orderId) {
+        RestingOrder order = ordersById.remove(orderId);
+        if (order == null) {
+            return false;
+        }
+
+        NavigableMap<BigDecimal, PriceLevel> side = sideOf(order.getSide());
+        PriceLevel level = side.get(order.getPrice());
+        level.remove(order);
+        if (level.isEmpty()) {
+            side.remove(order.getPrice());
+        }
+        return true;
+    }
+
+    public boolean contains(Long orderId) {
+        return ordersById.containsKey(orderId);
+    }
+
+    public int size() {
+        return ordersById.size();
+    }
+
+    public BigDecimal bestBid() {
+        return bids.isEmpty() ? null : bids.firstKey();
+    }
+
+    public BigDecimal bestAsk() {
+        return asks.isEmpty() ? null : asks.firstKey();
+    }
+
+    private void rest(RestingOrder order) {
+        sideOf(order.getSide())
+                .computeIfAbsent(order.getPrice(), price -> new PriceLevel())
+                .addLast(order);
+        ordersById.put(order.getOrderId(), order);
+    }
+
+    private NavigableMap<BigDecimal, PriceLevel> sideOf(OrderSide side) {
+        return side == OrderSide.BUY ? bids : asks;
+    }
+
+    private static boolean crosses(RestingOrder incoming, BigDecimal bestOppositePrice) {
+        int cmp = incoming.getPrice().compareTo(bestOppositePrice);
+        return incoming.getSide() == OrderSide.BUY ? cmp >= 0 : cmp <= 0;
+    }
+
+    private Trade toTrade(RestingOrder incoming, RestingOrder resting, BigDecimal quantity) {
+        RestingOrder buy = incoming.getSide() == OrderSide.BUY ? incoming : resting;
+        RestingOrder sell = incoming.getSide() == OrderSide.BUY ? resting : incoming;
+        return new Trade(
+                assetName,
+                buy.getOrderId(),
+                buy.getCustomerId(),
+                sell.getOrderId(),
+                sell.getCustomerId(),
+                resting.getPrice(),
+                quantity);
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.brokerage.matching;
+
+/**
+ * The resting orders at one price in time priority, as a doubly-linked list threaded through the
+ * orders themselves, so a cancel unlinks its order in constant time however deep the level is.
+ */
+final class PriceLevel {
+    private RestingOrder head;
+    private RestingOrder tail;
+
+    boolean isEmpty() {
+        return head == null;
+    }
+
+    RestingOrder first() {
+        return head;
+    }
+
+    void addLast(RestingOrder order) {
+        order.previous = tail;
+        order.next = null;
+        if (tail == null) {
+            head = order;
+        } else {
+            tail.next = order;
+        }
+        tail = order;
+    }
+
+    void remove(RestingOrder order) {
+        if (order.previous == null) {
+            head = order.next;
+        } else {
+            order.previous.next = order.next;
+        }
+        if (order.next == null) {
+            tail = order.previous;
+        } else {
+            order.next.previous = order.previous;
+        }
+        order.previous = null;
+        order.next = null;
+    }
+}
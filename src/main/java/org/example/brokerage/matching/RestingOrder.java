@@ -0,0 +1,54 @@
+package org.example.brokerage.matching;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.example.brokerage.event.OrderEvent;
+import org.example.brokerage.model.Order;
+import org.example.brokerage.model.OrderSide;
+
+import java.math.BigDecimal;
+
+@Getter
+public class RestingOrder {
+    private final Long orderId;
+    private final Long customerId;
+    private final OrderSide side;
+    private final BigDecimal price;
+    private BigDecimal remaining;
+
+    /** Neighbours in the order's {@link PriceLevel}, while it rests. */
+    @Getter(AccessLevel.NONE)
+    RestingOrder previous;
+    @Getter(AccessLevel.NONE)
+    RestingOrder next;
+
+    public RestingOrder(Long orderId, Long customerId, OrderSide side, BigDecimal price, BigDecimal remaining) {
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.side = side;
+        this.price = price;
+        this.remaining = remaining;
+    }
+
+    public static RestingOrder from(Order order) {
+        return new RestingOrder(
+                order.getId(),
+                order.getCustomerId(),
+                order.getOrderSide(),
+                order.getPrice().toBigDecimal(),
+                order.getRemainingSize().toBigDecimal());
+    }
+
+    public static RestingOrder from(OrderEvent event) {
+        return new RestingOrder(
+                event.orderId(),
+                event.customerId(),
+                event.orderSide(),
+                event.price(),
+                event.remainingSize());
+    }
+
+    void fill(BigDecimal quantity) {
+        remaining = remaining.subtract(quantity);
+    }
+}
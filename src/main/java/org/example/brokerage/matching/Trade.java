@@ -0,0 +1,37 @@
+package org.example.brokerage.matching;
+
+import org.example.brokerage.model.Money;
+import org.example.brokerage.model.Order;
+import org.example.brokerage.model.OrderSide;
+
+import java.math.BigDecimal;
+
+/**
+ * A fill between a resting order and an incoming order, executed at the resting order's price.
+ * A fill against the house (an admin match) has no order or customer on the house side.
+ */
+public record Trade(
+        String assetName,
+        Long buyOrderId,
+        Long buyCustomerId,
+        Long sellOrderId,
+        Long sellCustomerId,
+        BigDecimal price,
+        BigDecimal quantity) {
+
+    public static Trade againstHouse(Order order, Money quantity) {
+        boolean buy = order.getOrderSide() == OrderSide.BUY;
+        return new Trade(
+                order.getAssetName(),
+                buy ? order.getId() : null,
+                buy ? order.getCustomerId() : null,
+                buy ? null : order.getId(),
+                buy ? null : order.getCustomerId(),
+                order.getPrice().toBigDecimal(),
+                quantity.toBigDecimal());
+    }
+
+    public BigDecimal notional() {
+        return price.multiply(quantity);
+    }
+}
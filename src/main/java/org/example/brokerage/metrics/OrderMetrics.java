@@ -0,0 +1,134 @@
+package org.example.brokerage.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.example.brokerage.exception.InsufficientBalanceException;
+import org.example.brokerage.exception.OrderNotFoundException;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.pending.PendingOrderIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order lifecycle metrics: one {@code brokerage.order.commands} timer per operation, side, asset
+ * and outcome, plus gauges over the {@link PendingOrderIndex}.
+ * <p>
+ * Timers are registered once and kept in arrays indexed by side and outcome, so recording is a
+ * map lookup plus a histogram update with no allocation. Asset names come from requests, so only
+ * the first {@code brokerage.metrics.max-asset-tags} distinct names get their own tag; the rest
+ * share {@code asset=other}. Gauges are computed from the index at scrape time.
+ */
+@Component
+public class OrderMetrics {
+    public static final String TIMER = "brokerage.order.commands";
+    private static final String OTHER_ASSET = "other";
+    private static final String NONE = "none";
+
+    public enum Operation {
+        CREATE, CANCEL, MATCH, EXPIRE;
+
+        private final String tag = name().toLowerCase();
+    }
+
+    public enum Outcome {
+        SUCCESS, INSUFFICIENT_BALANCE, REJECTED, ERROR;
+
+        private final String tag = name().toLowerCase();
+    }
+
+    private static final int SIDES = OrderSide.values().length + 1;
+    private static final int OUTCOMES = Outcome.values().length;
+
+    private final MeterRegistry meterRegistry;
+    private final PendingOrderIndex pendingOrderIndex;
+    private final int maxAssetTags;
+    private final Map<Operation, Map<String, Timer[]>> timers = new ConcurrentHashMap<>();
+    private final MultiGauge pendingNotional;
+
+    public OrderMetrics(MeterRegistry meterRegistry, PendingOrderIndex pendingOrderIndex,
+                        @Value("${brokerage.metrics.max-asset-tags:100}") int maxAssetTags) {
+        this.meterRegistry = meterRegistry;
+        this.pendingOrderIndex = pendingOrderIndex;
+        this.maxAssetTags = maxAssetTags;
+        for (Operation operation : Operation.values()) {
+            timers.put(operation, new ConcurrentHashMap<>());
+        }
+
+        Gauge.builder("brokerage.orders.pending", pendingOrderIndex, PendingOrderIndex::size)
+                .description("PENDING orders")
+                .register(meterRegistry);
+        this.pendingNotional = MultiGauge.builder("brokerage.orders.pending.notional")
+                .description("Remaining size x limit price of PENDING orders")
+                .register(meterRegistry);
+        refreshAssetGauges();
+    }
+
+    public void record(Operation operation, OrderSide side, String assetName, Outcome outcome, long startNanos) {
+        timer(operation, side, assetName, outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static Outcome outcomeOf(RuntimeException e) {
+        if (e instanceof InsufficientBalanceException) {
+            return Outcome.INSUFFICIENT_BALANCE;
+        }
+        if (e instanceof OrderNotFoundException || e instanceof IllegalArgumentException
+                || e instanceof IllegalStateException || e instanceof ArithmeticException) {
+            return Outcome.REJECTED;
+        }
+        return Outcome.ERROR;
+    }
+
+    /**
+     * Registers one notional gauge per asset that currently has pending orders and drops the rest.
+     * The values themselves are read from the index on every scrape.
+     */
+    @Scheduled(fixedDelayString = "${brokerage.metrics.asset-gauge-refresh-millis:15000}")
+    public void refreshAssetGauges() {
+        List<MultiGauge.Row<?>> rows = pendingOrderIndex.assetNames().stream()
+                .limit(maxAssetTags)
+                .<MultiGauge.Row<?>>map(assetName -> MultiGauge.Row.of(Tags.of("asset", assetName),
+                        pendingOrderIndex, index -> index.pendingNotional(assetName)))
+                .toList();
+        pendingNotional.register(rows, true);
+    }
+
+    Timer timer(Operation operation, OrderSide side, String assetName, Outcome outcome) {
+        Map<String, Timer[]> byAsset = timers.get(operation);
+        String asset = assetName != null ? assetName : NONE;
+        Timer[] slots = byAsset.get(asset);
+        if (slots == null) {
+            if (byAsset.size() >= maxAssetTags) {
+                asset = OTHER_ASSET;
+            }
+            slots = byAsset.computeIfAbsent(asset, name -> new Timer[SIDES * OUTCOMES]);
+        }
+
+        int slot = (side != null ? side.ordinal() : SIDES - 1) * OUTCOMES + outcome.ordinal();
+        Timer timer = slots[slot];
+        if (timer == null) {
+            // Racing threads register the same meter id and get the same instance back
+            timer = Timer.builder(TIMER)
+                    .description("Order create, cancel and match commands")
+                    .tag("operation", operation.tag)
+                    .tag("side", side != null ? side.name() : NONE)
+                    .tag("asset", asset)
+                    .tag("outcome", outcome.tag)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry);
+            slots[slot] = timer;
+        }
+        return timer;
+    }
+}
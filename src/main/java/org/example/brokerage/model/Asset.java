@@ -2,10 +2,11 @@ package org.example.brokerage.model;
 
 import jakarta.persistence.*;
 import lombok.*;
-import java.math.BigDecimal;
 
 @Entity
-@Table(name = "assets")
+@Table(name = "assets", indexes = {
+        @Index(name = "idx_assets_customer_asset", columnList = "customerId, assetName")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,6 +16,9 @@ public class Asset {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    private Long version;
+
     @Column(nullable = false)
     private Long customerId;
 
@@ -22,8 +26,13 @@ public class Asset {
     private String assetName;
 
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal size;
+    private Money size;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money usableSize;
 
+    // TRY paid for the current size; a sale takes its pro rata share out (average cost)
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal usableSize;
+    @Builder.Default
+    private Money costBasis = Money.ZERO;
 }
@@ -0,0 +1,36 @@
+package org.example.brokerage.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "idempotency_keys")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyKey {
+    /** {@code operation/customerId/key}. */
+    @Id
+    @Column(length = 512)
+    private String id;
+
+    @Column(nullable = false)
+    private String operation;
+
+    private Long customerId;
+
+    @Column(nullable = false)
+    private String idempotencyKey;
+
+    /** Hex SHA-256 of the JSON of the request the key was first used with. */
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    /** The command's result as JSON. */
+    @Column(length = 4000)
+    private String response;
+
+    @Column(nullable = false)
+    private long expiresAt;
+}
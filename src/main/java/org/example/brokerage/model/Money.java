@@ -0,0 +1,98 @@
+package org.example.brokerage.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point decimal with two fraction digits, held as a long count of hundredths. Cash amounts,
+ * asset quantities and prices all use it, matching the precision 19 scale 2 columns they are
+ * stored in. Arithmetic allocates nothing beyond the result, except {@link #proportion} when its
+ * intermediate product exceeds a long, and throws {@link ArithmeticException} instead of wrapping
+ * on overflow.
+ * <p>
+ * Conversion from {@link BigDecimal} is exact: a value with more than two fraction digits, or
+ * beyond about 92 quadrillion, is rejected rather than rounded.
+ */
+public record Money(long units) implements Comparable<Money> {
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private static final long ONE = 100;
+    private static final long HALF = ONE / 2;
+
+    public static Money of(BigDecimal value) {
+        return new Money(value.movePointRight(SCALE).longValueExact());
+    }
+
+    public static Money of(String value) {
+        return of(new BigDecimal(value));
+    }
+
+    /**
+     * {@code quantity * price} in hundredths, rounded half up to the cent as the scale 2 columns
+     * always stored it. Throws {@link ArithmeticException} if the product does not fit.
+     */
+    public static long multiply(long quantity, long price) {
+        long product = Math.multiplyExact(quantity, price);
+        return Math.addExact(product, product < 0 ? -HALF : HALF) / ONE;
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(units, other.units));
+    }
+
+    public Money minus(Money other) {
+        return new Money(Math.subtractExact(units, other.units));
+    }
+
+    public Money times(Money price) {
+        return new Money(multiply(units, price.units));
+    }
+
+    /**
+     * This amount scaled by {@code part / whole}, rounded half up to the cent: the share of a
+     * holding's cost basis that goes with selling {@code part} of {@code whole}. The intermediate
+     * product may exceed a long, as for a large cost basis and a large sale; only then is it
+     * computed as a {@link BigDecimal}. Throws {@link ArithmeticException} if the result does not fit.
+     */
+    public Money proportion(Money part, Money whole) {
+        if (part.units == whole.units) {
+            return this;
+        }
+        long product = units * part.units;
+        long half = Math.abs(whole.units) / 2;
+        if (Math.multiplyHigh(units, part.units) == product >> 63
+                && product > Long.MIN_VALUE + half && product < Long.MAX_VALUE - half) {
+            return new Money((product + (product < 0 ? -half : half)) / whole.units);
+        }
+        return new Money(BigDecimal.valueOf(units).multiply(BigDecimal.valueOf(part.units))
+                .divide(BigDecimal.valueOf(whole.units), 0, RoundingMode.HALF_UP).longValueExact());
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(units));
+    }
+
+    public int signum() {
+        return Long.signum(units);
+    }
+
+    /** Whether this balance covers {@code quantity * price}, without creating the product. */
+    public boolean covers(Money quantity, Money price) {
+        return units >= multiply(quantity.units, price.units);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(units, other.units);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
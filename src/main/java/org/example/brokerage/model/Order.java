@@ -2,20 +2,28 @@ package org.example.brokerage.model;
 
 import jakarta.persistence.*;
 import lombok.*;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_customer_create_date", columnList = "customerId, createDate, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Order {
+    /** Ids handed out per sequence round trip; a sequence rather than IDENTITY keeps inserts batchable. */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
+    @Version
+    private Long version;
+
     @Column(nullable = false)
     private Long customerId;
 
@@ -27,15 +35,37 @@ public class Order {
     private OrderSide orderSide;
 
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal size;
+    private Money size;
 
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal price;
+    private Money price;
+
+    @Builder.Default
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money filledSize = Money.ZERO;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private OrderStatus status;
 
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TimeInForce timeInForce = TimeInForce.GTC;
+
     @Column(nullable = false)
     private LocalDateTime createDate;
+
+    public Money getRemainingSize() {
+        return size.minus(filledSize);
+    }
+
+    /**
+     * The TRY a BUY order still holds: the reservation for its whole size less what its fills
+     * released. Each fill releases the difference of the rounded cumulative amounts, so the fills
+     * and a final cancel together release exactly what was reserved.
+     */
+    public Money getReservedCash() {
+        return size.times(price).minus(filledSize.times(price));
+    }
 }
@@ -0,0 +1,27 @@
+package org.example.brokerage.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "refresh_tokens")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshToken {
+    @Id
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private Long customerId;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(nullable = false)
+    private String role;
+
+    @Column(nullable = false)
+    private long expiresAt;
+}
@@ -0,0 +1,11 @@
+package org.example.brokerage.model;
+
+/**
+ * How long a PENDING order stays open.
+ */
+public enum TimeInForce {
+    /** Good till cancelled. */
+    GTC,
+    /** Expired by the end-of-day run of the day it was placed. */
+    DAY
+}
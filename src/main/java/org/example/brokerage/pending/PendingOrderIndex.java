@@ -0,0 +1,164 @@
+package org.example.brokerage.pending;
+
+import lombok.RequiredArgsConstructor;
+import org.example.brokerage.dto.OrderCursor;
+import org.example.brokerage.event.ListenerOrder;
+import org.example.brokerage.event.OrderEvent;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.repository.OrderRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of PENDING orders ordered by age, maintained from committed {@link OrderEvent}s.
+ * The orders table is read once at startup and never scanned for pending-order queries afterwards.
+ */
+@Component
+@RequiredArgsConstructor
+public class PendingOrderIndex {
+    private final OrderRepository orderRepository;
+
+    private final ConcurrentSkipListMap<PendingKey, OrderEvent> byAge = new ConcurrentSkipListMap<>();
+    private final Map<String, ConcurrentSkipListMap<PendingKey, OrderEvent>> byAsset = new ConcurrentHashMap<>();
+    private final Map<Long, PendingKey> keysById = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        orderRepository.findByStatus(OrderStatus.PENDING)
+                .forEach(order -> add(OrderEvent.of(OrderEvent.Type.CREATED, order)));
+    }
+
+    @Order(ListenerOrder.PROJECTION)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        switch (event.type()) {
+            case CREATED -> add(event);
+            case FILLED -> update(event);
+            case MATCHED, CANCELED -> remove(event.orderId(), event.assetName());
+        }
+    }
+
+    /**
+     * Pending orders oldest first, lazily filtered. {@code createdAfter}/{@code createdBefore} are
+     * inclusive bounds; {@code after} resumes strictly after a previously returned order.
+     */
+    public Stream<OrderEvent> query(String assetName, OrderSide side,
+                                    LocalDateTime createdAfter, LocalDateTime createdBefore,
+                                    OrderCursor after) {
+        NavigableMap<PendingKey, OrderEvent> view = byAge;
+        if (assetName != null) {
+            NavigableMap<PendingKey, OrderEvent> assetIndex = byAsset.get(assetName);
+            view = assetIndex != null ? assetIndex : Collections.emptyNavigableMap();
+        }
+
+        PendingKey lower = createdAfter != null ? new PendingKey(createdAfter, Long.MIN_VALUE) : null;
+        if (after != null) {
+            PendingKey cursorKey = new PendingKey(after.createDate(), after.id());
+            if (lower == null || cursorKey.compareTo(lower) > 0) {
+                lower = cursorKey;
+            }
+        }
+        if (lower != null) {
+            view = view.tailMap(lower, false);
+        }
+        if (createdBefore != null) {
+            view = view.headMap(new PendingKey(createdBefore, Long.MAX_VALUE), true);
+        }
+
+        Stream<OrderEvent> orders = view.values().stream();
+        return side != null ? orders.filter(order -> order.orderSide() == side) : orders;
+    }
+
+    public int size() {
+        return keysById.size();
+    }
+
+    /**
+     * Assets that currently have at least one pending order.
+     */
+    public List<String> assetNames() {
+        return byAsset.entrySet().stream()
+                .filter(entry -> !entry.getValue().isEmpty())
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Sum of remaining size x limit price over the asset's pending orders, computed on each call.
+     */
+    public double pendingNotional(String assetName) {
+        ConcurrentSkipListMap<PendingKey, OrderEvent> assetIndex = byAsset.get(assetName);
+        if (assetIndex == null) {
+            return 0;
+        }
+        double notional = 0;
+        for (OrderEvent order : assetIndex.values()) {
+            notional += order.remainingSize().multiply(order.price()).doubleValue();
+        }
+        return notional;
+    }
+
+    private void add(OrderEvent event) {
+        PendingKey key = new PendingKey(event.createDate(), event.orderId());
+        if (keysById.putIfAbsent(event.orderId(), key) != null) {
+            return;
+        }
+        byAge.put(key, event);
+        byAsset.computeIfAbsent(event.assetName(), asset -> new ConcurrentSkipListMap<>()).put(key, event);
+    }
+
+    private void update(OrderEvent event) {
+        PendingKey key = keysById.get(event.orderId());
+        if (key == null) {
+            return;
+        }
+        // Fills only ever grow; never let a late event roll an order back
+        byAge.computeIfPresent(key, (k, current) -> newer(current, event));
+        ConcurrentSkipListMap<PendingKey, OrderEvent> assetIndex = byAsset.get(event.assetName());
+        if (assetIndex != null) {
+            assetIndex.computeIfPresent(key, (k, current) -> newer(current, event));
+        }
+    }
+
+    private void remove(Long orderId, String assetName) {
+        PendingKey key = keysById.remove(orderId);
+        if (key == null) {
+            return;
+        }
+        byAge.remove(key);
+        ConcurrentSkipListMap<PendingKey, OrderEvent> assetIndex = byAsset.get(assetName);
+        if (assetIndex != null) {
+            assetIndex.remove(key);
+        }
+    }
+
+    private static OrderEvent newer(OrderEvent current, OrderEvent candidate) {
+        return candidate.filledSize().compareTo(current.filledSize()) > 0 ? candidate : current;
+    }
+
+    record PendingKey(LocalDateTime createDate, Long orderId) implements Comparable<PendingKey> {
+        private static final Comparator<PendingKey> ORDER = Comparator
+                .comparing(PendingKey::createDate)
+                .thenComparing(PendingKey::orderId);
+
+        @Override
+        public int compareTo(PendingKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
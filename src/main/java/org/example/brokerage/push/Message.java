@@ -0,0 +1,42 @@
+package org.example.brokerage.push;
+
+import org.example.brokerage.event.BalanceEvent;
+import org.example.brokerage.event.OrderEvent;
+import org.example.brokerage.model.OrderStatus;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * One Server-Sent Event waiting for delivery; a {@code null} name sends {@code data} as a comment.
+ * Built into a fresh {@link SseEmitter.SseEventBuilder} per subscriber, since builders are not reusable.
+ */
+record Message(String name, Object data) {
+    static final Message HEARTBEAT = new Message(null, "heartbeat");
+
+    /**
+     * Whichever of this undelivered message and a newer offer for the same key describes the later
+     * state. Events of different transactions can arrive out of commit order, so an order never
+     * goes back from a final status or to a smaller fill, and a balance never to an older version.
+     */
+    Message later(Message candidate) {
+        if (data instanceof OrderEvent current && candidate.data instanceof OrderEvent next) {
+            if (current.status() != OrderStatus.PENDING) {
+                return this;
+            }
+            if (next.status() != OrderStatus.PENDING) {
+                return candidate;
+            }
+            return next.filledSize().compareTo(current.filledSize()) >= 0 ? candidate : this;
+        }
+        if (data instanceof BalanceEvent current && candidate.data instanceof BalanceEvent next) {
+            return current.version() == null || next.version() != null && next.version() >= current.version()
+                    ? candidate : this;
+        }
+        return candidate;
+    }
+
+    SseEmitter.SseEventBuilder toEvent() {
+        return name == null
+                ? SseEmitter.event().comment(data.toString())
+                : SseEmitter.event().name(name).data(data);
+    }
+}
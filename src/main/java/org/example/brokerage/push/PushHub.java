@@ -0,0 +1,143 @@
+package org.example.brokerage.push;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.example.brokerage.event.BalanceEvent;
+import org.example.brokerage.event.ListenerOrder;
+import org.example.brokerage.event.OrderEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fans committed order and balance events out to each customer's Server-Sent Events subscribers.
+ * <p>
+ * Publishing never blocks: the event is put into the subscriber's pending map, keyed by order id or
+ * asset name so a later state replaces an undelivered earlier one, and a drain is scheduled on a
+ * virtual thread only if none is running. Idle subscribers hold no thread. A subscriber whose
+ * pending map reaches {@code max-pending} distinct keys is too slow to keep up and is dropped; the
+ * client reconnects and rereads current state. Each subscriber also remembers the last state sent
+ * for up to {@code max-pending} keys and drops events older than it. Memory is bounded by twice
+ * {@code max-subscribers} times {@code max-pending}.
+ */
+@Component
+public class PushHub {
+    private final int maxSubscribers;
+    private final int maxPending;
+    private final long timeoutMillis;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger count = new AtomicInteger();
+    private final ExecutorService dispatcher = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("push-", 0).factory());
+
+    final LongAdder delivered = new LongAdder();
+    final LongAdder coalesced = new LongAdder();
+    final LongAdder dropped = new LongAdder();
+
+    public PushHub(MeterRegistry meterRegistry,
+                   @Value("${brokerage.push.max-subscribers:50000}") int maxSubscribers,
+                   @Value("${brokerage.push.max-pending:256}") int maxPending,
+                   @Value("${brokerage.push.timeout-millis:1800000}") long timeoutMillis) {
+        this.maxSubscribers = maxSubscribers;
+        this.maxPending = maxPending;
+        this.timeoutMillis = timeoutMillis;
+
+        FunctionCounter.builder("brokerage.push.delivered", delivered, LongAdder::sum)
+                .register(meterRegistry);
+        FunctionCounter.builder("brokerage.push.coalesced", coalesced, LongAdder::sum)
+                .description("Events replaced by a newer state before delivery").register(meterRegistry);
+        FunctionCounter.builder("brokerage.push.dropped", dropped, LongAdder::sum)
+                .description("Subscribers disconnected for falling behind").register(meterRegistry);
+        Gauge.builder("brokerage.push.subscribers", count, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream for the customer. Throws {@link RejectedExecutionException} when the
+     * subscriber limit is reached.
+     */
+    public SseEmitter subscribe(Long customerId) {
+        if (count.incrementAndGet() > maxSubscribers) {
+            count.decrementAndGet();
+            throw new RejectedExecutionException("Too many push subscribers");
+        }
+
+        SseEmitter emitter = newEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(this, emitter, maxPending);
+        subscribers.computeIfAbsent(customerId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        Runnable remove = () -> unsubscribe(customerId, subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        subscriber.offer("ready", new Message("ready", customerId));
+        return emitter;
+    }
+
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    @Order(ListenerOrder.PROJECTION)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        publish(event.customerId(), "order:" + event.orderId(), new Message("order", event));
+    }
+
+    @Order(ListenerOrder.PROJECTION)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBalanceEvent(BalanceEvent event) {
+        publish(event.customerId(), "balance:" + event.assetName(), new Message("balance", event));
+    }
+
+    /** Keeps idle connections alive through proxies and detects closed ones. */
+    @Scheduled(fixedDelayString = "${brokerage.push.heartbeat-millis:30000}")
+    public void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(subscriber ->
+                subscriber.offer("heartbeat", Message.HEARTBEAT)));
+    }
+
+    public int subscriberCount() {
+        return count.get();
+    }
+
+    private void publish(Long customerId, String key, Message message) {
+        Set<Subscriber> set = subscribers.get(customerId);
+        if (set != null) {
+            set.forEach(subscriber -> subscriber.offer(key, message));
+        }
+    }
+
+    void schedule(Subscriber subscriber) {
+        dispatcher.execute(subscriber::drain);
+    }
+
+    private void unsubscribe(Long customerId, Subscriber subscriber) {
+        subscriber.close();
+        subscribers.computeIfPresent(customerId, (id, set) -> {
+            if (set.remove(subscriber)) {
+                count.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter().complete()));
+        dispatcher.shutdown();
+    }
+}
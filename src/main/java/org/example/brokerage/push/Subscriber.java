@@ -0,0 +1,146 @@
+package org.example.brokerage.push;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One open stream. Offers only touch the pending map under a short lock; at most one drain per
+ * subscriber runs at a time, so a slow connection only ever blocks its own virtual thread.
+ * <p>
+ * The last state sent for each of the {@code maxPending} most recently sent keys is remembered, so
+ * an event that arrives after a later state of the same order or balance went out is dropped
+ * instead of sending the client back.
+ */
+final class Subscriber {
+    private final PushHub hub;
+    private final SseEmitter emitter;
+    private final int maxPending;
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<String, Message> pending;
+    private Map<String, Message> delivered;
+    private boolean draining;
+    private boolean closed;
+    private boolean overflowed;
+
+    Subscriber(PushHub hub, SseEmitter emitter, int maxPending) {
+        this.hub = hub;
+        this.emitter = emitter;
+        this.maxPending = maxPending;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    void offer(String key, Message message) {
+        boolean schedule;
+        boolean overflow = false;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            Message sent = delivered != null ? delivered.get(key) : null;
+            if (sent != null && sent.later(message) != message) {
+                hub.coalesced.increment();
+                return;
+            }
+            if (pending == null) {
+                pending = new LinkedHashMap<>();
+            }
+            Message current = pending.get(key);
+            if (current != null) {
+                pending.put(key, current.later(message));
+                hub.coalesced.increment();
+            } else if (pending.size() >= maxPending) {
+                // A running drain completes the stream itself once it sees the flag
+                overflow = true;
+                overflowed = true;
+                closed = true;
+                pending = null;
+            } else {
+                pending.put(key, message);
+            }
+            schedule = !draining;
+            draining = true;
+        } finally {
+            lock.unlock();
+        }
+
+        if (overflow) {
+            hub.dropped.increment();
+        }
+        if (schedule) {
+            hub.schedule(this);
+        }
+    }
+
+    void drain() {
+        while (true) {
+            List<Message> batch;
+            lock.lock();
+            try {
+                if (closed) {
+                    draining = false;
+                    if (overflowed) {
+                        break;
+                    }
+                    return;
+                }
+                if (pending == null || pending.isEmpty()) {
+                    // Idle subscribers keep no map around
+                    pending = null;
+                    draining = false;
+                    return;
+                }
+                batch = new ArrayList<>(pending.values());
+                remember(pending);
+                pending.clear();
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                for (Message message : batch) {
+                    emitter.send(message.toEvent());
+                }
+                hub.delivered.add(batch.size());
+            } catch (IOException | IllegalStateException e) {
+                close();
+                emitter.completeWithError(e);
+                return;
+            }
+        }
+        emitter.complete();
+    }
+
+    /** Records the batch about to be sent; called under {@code lock}. */
+    private void remember(Map<String, Message> batch) {
+        if (delivered == null) {
+            delivered = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Message> eldest) {
+                    return size() > maxPending;
+                }
+            };
+        }
+        delivered.putAll(batch);
+    }
+
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            pending = null;
+            delivered = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
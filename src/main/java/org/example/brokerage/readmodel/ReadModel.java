@@ -0,0 +1,515 @@
+package org.example.brokerage.readmodel;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.brokerage.archive.OrderArchive;
+import org.example.brokerage.dto.AssetResponse;
+import org.example.brokerage.dto.OrderCursor;
+import org.example.brokerage.dto.OrderPage;
+import org.example.brokerage.dto.OrderResponse;
+import org.example.brokerage.event.BalanceEvent;
+import org.example.brokerage.event.OrderEvent;
+import org.example.brokerage.event.OrdersArchivedEvent;
+import org.example.brokerage.model.Asset;
+import org.example.brokerage.model.Order;
+import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.repository.AssetRepository;
+import org.example.brokerage.repository.OrderRepository;
+import org.example.brokerage.service.OrderService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Denormalized read side of GET /api/orders and GET /api/assets: each customer's orders and
+ * holdings, kept in memory from committed {@link OrderEvent}s and {@link BalanceEvent}s, so those
+ * queries never reach the database.
+ * <p>
+ * Committing threads only number the event and append it to a queue; one applier thread folds the
+ * queue into the per-customer views, which readers walk without locking, so the write path costs
+ * the same however many reads run. Changes are merged rather than replaced: a holding keeps the
+ * highest asset version seen and an order never leaves MATCHED or CANCELED or goes back in fill, so
+ * events applied out of commit order and the startup load from the database converge.
+ * <p>
+ * A read waits while the oldest unapplied change is older than {@code max-staleness-millis} or the
+ * caller's consistency token is ahead of the applier, for at most {@code max-wait-millis}, then
+ * fails with {@link RejectedExecutionException}. Writes return the token in the
+ * {@value #TOKEN_HEADER} header and passing it back on a read returns the caller's own updates. A
+ * token carries the start time of the instance that issued it; one from before a restart is already
+ * covered by the startup load.
+ * <p>
+ * Each customer's orders are kept by (createDate, id), so pages and streams are keyset walks of a
+ * skip-list. Archived orders leave the views when the archiver announces them; date range reads
+ * merge them back from the {@link OrderArchive}, like the database path does.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "brokerage.read-model", name = "enabled", havingValue = "true")
+public class ReadModel {
+    public static final String TOKEN_HEADER = "X-Consistency-Token";
+    private static final int LOAD_BATCH_SIZE = 10_000;
+    private static final Comparator<OrderCursor> BY_CREATION =
+            Comparator.comparing(OrderCursor::createDate).thenComparing(OrderCursor::id);
+
+    private final OrderRepository orderRepository;
+    private final AssetRepository assetRepository;
+    private final OrderArchive orderArchive;
+    private final long maxStalenessNanos;
+    private final long maxWaitNanos;
+    private final long epoch = System.currentTimeMillis();
+
+    private final Map<Long, CustomerView> views = new ConcurrentHashMap<>();
+    private final Queue<Change> changes = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock enqueueLock = new ReentrantLock();
+    private volatile long published;
+    private volatile long applied;
+    private volatile boolean ready;
+
+    private final ReentrantLock progressLock = new ReentrantLock();
+    private final Condition progress = progressLock.newCondition();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final Thread applier;
+    private volatile boolean sleeping;
+    private volatile boolean running = true;
+
+    private final LongAdder rejected = new LongAdder();
+
+    public ReadModel(OrderRepository orderRepository, AssetRepository assetRepository, OrderArchive orderArchive,
+                     MeterRegistry meterRegistry,
+                     @Value("${brokerage.read-model.max-staleness-millis:1000}") long maxStalenessMillis,
+                     @Value("${brokerage.read-model.max-wait-millis:2000}") long maxWaitMillis) {
+        this.orderRepository = orderRepository;
+        this.assetRepository = assetRepository;
+        this.orderArchive = orderArchive;
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(maxStalenessMillis, 0));
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(maxWaitMillis, 0));
+
+        Gauge.builder("brokerage.readmodel.lag", this, model -> model.lagNanos() / 1_000_000.0)
+                .description("Age in milliseconds of the oldest change not yet applied").register(meterRegistry);
+        Gauge.builder("brokerage.readmodel.backlog", this, model -> model.published - model.applied)
+                .register(meterRegistry);
+        Gauge.builder("brokerage.readmodel.customers", views, Map::size)
+                .register(meterRegistry);
+        FunctionCounter.builder("brokerage.readmodel.rejected", rejected, LongAdder::sum)
+                .description("Reads that could not be served within the staleness bound").register(meterRegistry);
+
+        this.applier = Thread.ofPlatform().name("read-model-applier").daemon().unstarted(this::run);
+        applier.start();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        // Keyset batches, each read in its own transaction, so the load never holds the whole table
+        List<Asset> assets;
+        long afterAssetId = 0;
+        do {
+            assets = assetRepository.findAllAfter(afterAssetId, Limit.of(LOAD_BATCH_SIZE));
+            assets.forEach(asset -> mergeHolding(asset.getCustomerId(),
+                    new Holding(asset.getVersion() == null ? 0 : asset.getVersion(), response(asset))));
+            afterAssetId = assets.isEmpty() ? afterAssetId : assets.get(assets.size() - 1).getId();
+        } while (assets.size() == LOAD_BATCH_SIZE);
+        List<Order> orders;
+        long afterOrderId = 0;
+        do {
+            orders = orderRepository.findAllAfter(afterOrderId, Limit.of(LOAD_BATCH_SIZE));
+            orders.forEach(order -> mergeOrder(response(order)));
+            afterOrderId = orders.isEmpty() ? afterOrderId : orders.get(orders.size() - 1).getId();
+        } while (orders.size() == LOAD_BATCH_SIZE);
+        ready = true;
+        signal();
+        log.info("Read model loaded {} customers in {} ms", views.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        enqueue(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBalanceEvent(BalanceEvent event) {
+        enqueue(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdersArchived(OrdersArchivedEvent event) {
+        enqueue(event);
+    }
+
+    /** Token covering every change committed so far, for the {@value #TOKEN_HEADER} header. */
+    public String token() {
+        return epoch + "-" + published;
+    }
+
+    /**
+     * The customer's orders, or with both dates those created in the range, archived ones included,
+     * by creation time. {@code token} may be {@code null}.
+     */
+    public List<OrderResponse> orders(Long customerId, LocalDateTime startDate, LocalDateTime endDate, String token) {
+        awaitFresh(required(token));
+        CustomerView view = views.get(customerId);
+        if (startDate == null || endDate == null) {
+            return view != null ? List.copyOf(view.orders.values()) : List.of();
+        }
+
+        List<OrderResponse> inRange = view != null
+                ? List.copyOf(slice(view, startDate, endDate, null).values())
+                : List.of();
+        List<Order> archived = orderArchive.find(customerId, startDate, endDate);
+        if (archived.isEmpty()) {
+            return inRange;
+        }
+        // The view is read first, so an order archived in between is found in the archive
+        Map<Long, OrderResponse> merged = new HashMap<>();
+        archived.forEach(order -> merged.put(order.getId(), response(order)));
+        inRange.forEach(order -> merged.put(order.getId(), order));
+        return merged.values().stream()
+                .sorted(Comparator.comparing(OrderResponse::getCreateDate).thenComparing(OrderResponse::getId))
+                .toList();
+    }
+
+    /**
+     * Same contract as {@link OrderService#listOrdersPage}, walking the customer's view instead of
+     * the orders table. {@code token} may be {@code null}.
+     */
+    public OrderPage ordersPage(Long customerId, LocalDateTime startDate, LocalDateTime endDate,
+                                String cursor, int limit, String token) {
+        int pageSize = Math.min(Math.max(limit, 1), OrderService.MAX_PAGE_SIZE);
+        OrderCursor after = cursor != null ? OrderCursor.decode(cursor) : null;
+        boolean withArchive = orderArchive.neededFor(startDate, endDate);
+        awaitFresh(required(token));
+
+        // Fetch one extra order to know whether another page exists
+        List<Map.Entry<OrderCursor, OrderResponse>> orders =
+                pageAfter(customerId, startDate, endDate, after, pageSize + 1, withArchive);
+        boolean hasMore = orders.size() > pageSize;
+        List<Map.Entry<OrderCursor, OrderResponse>> page = hasMore ? orders.subList(0, pageSize) : orders;
+        return OrderPage.builder()
+                .orders(page.stream().map(Map.Entry::getValue).toList())
+                .nextCursor(hasMore ? page.get(page.size() - 1).getKey().encode() : null)
+                .build();
+    }
+
+    /**
+     * Same contract as {@link OrderService#streamOrders}. The range is checked and the first page
+     * read before this returns; later pages are read as the stream is consumed. {@code token} may
+     * be {@code null}.
+     */
+    public Stream<OrderResponse> streamOrders(Long customerId, LocalDateTime startDate, LocalDateTime endDate,
+                                              String token) {
+        boolean withArchive = orderArchive.neededFor(startDate, endDate);
+        awaitFresh(required(token));
+        int pageSize = OrderService.STREAM_PAGE_SIZE;
+        return Stream.iterate(pageAfter(customerId, startDate, endDate, null, pageSize, withArchive),
+                        page -> !page.isEmpty(),
+                        page -> page.size() < pageSize ? List.of() : pageAfter(customerId, startDate, endDate,
+                                page.get(page.size() - 1).getKey(), pageSize, withArchive))
+                .flatMap(page -> page.stream().map(Map.Entry::getValue));
+    }
+
+    /** The customer's holdings by asset name. {@code token} may be {@code null}. */
+    public List<AssetResponse> holdings(Long customerId, String token) {
+        awaitFresh(required(token));
+        CustomerView view = views.get(customerId);
+        return view != null ? view.holdings.values().stream().map(Holding::response).toList() : List.of();
+    }
+
+    /**
+     * The first {@code limit} orders after the cursor, or from the start of the range, each with the
+     * key it is kept under so the next page resumes exactly after it.
+     */
+    private List<Map.Entry<OrderCursor, OrderResponse>> pageAfter(Long customerId, LocalDateTime startDate,
+                                                                  LocalDateTime endDate, OrderCursor after,
+                                                                  int limit, boolean withArchive) {
+        CustomerView view = views.get(customerId);
+        List<Map.Entry<OrderCursor, OrderResponse>> orders = view != null
+                ? slice(view, startDate, endDate, after).entrySet().stream().limit(limit).toList()
+                : List.of();
+        if (!withArchive) {
+            return orders;
+        }
+        OrderCursor from = after != null ? after : new OrderCursor(startDate, 0L);
+        List<Order> archived = orderArchive.findAfter(customerId, startDate, endDate, from.createDate(), from.id(),
+                limit);
+        if (archived.isEmpty()) {
+            return orders;
+        }
+        // The view is read first, so an order archived in between is found in the archive
+        Map<Long, Map.Entry<OrderCursor, OrderResponse>> merged = new HashMap<>();
+        archived.forEach(order -> merged.put(order.getId(),
+                Map.entry(new OrderCursor(order.getCreateDate(), order.getId()), response(order))));
+        orders.forEach(order -> merged.put(order.getValue().getId(), order));
+        return merged.values().stream()
+                .sorted(Map.Entry.comparingByKey(BY_CREATION))
+                .limit(limit)
+                .toList();
+    }
+
+    /** Orders after the cursor and within the inclusive bounds; any of them may be {@code null}. */
+    private static NavigableMap<OrderCursor, OrderResponse> slice(CustomerView view, LocalDateTime startDate,
+                                                                  LocalDateTime endDate, OrderCursor after) {
+        NavigableMap<OrderCursor, OrderResponse> orders = view.orders;
+        OrderCursor lower = startDate != null ? new OrderCursor(startDate, Long.MIN_VALUE) : null;
+        if (after != null && (lower == null || BY_CREATION.compare(after, lower) > 0)) {
+            lower = after;
+        }
+        if (lower != null) {
+            orders = orders.tailMap(lower, false);
+        }
+        if (endDate != null) {
+            orders = orders.headMap(new OrderCursor(endDate, Long.MAX_VALUE), true);
+        }
+        return orders;
+    }
+
+    private void enqueue(Object event) {
+        enqueueLock.lock();
+        try {
+            long sequence = published + 1;
+            changes.offer(new Change(sequence, System.nanoTime(), event));
+            published = sequence;
+        } finally {
+            enqueueLock.unlock();
+        }
+        if (sleeping) {
+            LockSupport.unpark(applier);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            // Peek before poll: the head stays queued until applied, so it dates the staleness
+            Change change = changes.peek();
+            if (change == null) {
+                signal();
+                idle();
+                continue;
+            }
+            try {
+                apply(change.event());
+            } catch (RuntimeException e) {
+                log.warn("Failed to apply change {} to the read model", change.sequence(), e);
+            }
+            applied = change.sequence();
+            changes.poll();
+            if ((change.sequence() & 1023) == 0) {
+                signal();
+            }
+        }
+    }
+
+    private void apply(Object event) {
+        switch (event) {
+            case OrderEvent e -> mergeOrder(response(e));
+            case BalanceEvent e -> mergeHolding(e.customerId(),
+                    new Holding(e.version() == null ? 0 : e.version() + 1, response(e)));
+            case OrdersArchivedEvent e -> e.orders().forEach(order -> {
+                CustomerView view = views.get(order.customerId());
+                if (view != null) {
+                    OrderCursor key = view.keys.remove(order.orderId());
+                    if (key != null) {
+                        view.orders.remove(key);
+                    }
+                }
+            });
+            default -> throw new IllegalArgumentException("Unexpected change " + event.getClass().getName());
+        }
+    }
+
+    private void mergeOrder(OrderResponse order) {
+        CustomerView view = view(order.getCustomerId());
+        // The first key seen for an order stays its key, even if a later copy of the creation time
+        // comes back from the database at a coarser precision
+        OrderCursor key = view.keys.computeIfAbsent(order.getId(), id -> new OrderCursor(order.getCreateDate(), id));
+        view.orders.merge(key, order, ReadModel::later);
+    }
+
+    private void mergeHolding(Long customerId, Holding holding) {
+        view(customerId).holdings.merge(holding.response().getAssetName(), holding,
+                (current, candidate) -> candidate.version() >= current.version() ? candidate : current);
+    }
+
+    private CustomerView view(Long customerId) {
+        return views.computeIfAbsent(customerId, id -> new CustomerView());
+    }
+
+    private static OrderResponse later(OrderResponse current, OrderResponse candidate) {
+        if (current.getStatus() != OrderStatus.PENDING) {
+            return current;
+        }
+        if (candidate.getStatus() != OrderStatus.PENDING) {
+            return candidate;
+        }
+        return candidate.getFilledSize().compareTo(current.getFilledSize()) >= 0 ? candidate : current;
+    }
+
+    private void idle() {
+        sleeping = true;
+        if (running && changes.isEmpty()) {
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        sleeping = false;
+    }
+
+    private void signal() {
+        if (waiting.get() > 0) {
+            progressLock.lock();
+            try {
+                progress.signalAll();
+            } finally {
+                progressLock.unlock();
+            }
+        }
+    }
+
+    private void awaitFresh(long required) {
+        if (isFresh(required)) {
+            return;
+        }
+        long deadline = System.nanoTime() + maxWaitNanos;
+        waiting.incrementAndGet();
+        progressLock.lock();
+        try {
+            while (!isFresh(required)) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    rejected.increment();
+                    throw new RejectedExecutionException(ready ? "Read model is behind" : "Read model is loading");
+                }
+                progress.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted waiting for the read model");
+        } finally {
+            progressLock.unlock();
+            waiting.decrementAndGet();
+        }
+    }
+
+    private boolean isFresh(long required) {
+        return ready && applied >= required && lagNanos() <= maxStalenessNanos;
+    }
+
+    private long lagNanos() {
+        Change oldest = changes.peek();
+        return oldest != null ? System.nanoTime() - oldest.enqueuedNanos() : 0;
+    }
+
+    /** Sequence a token requires, capped at what has been published; 0 for no token or another instance's. */
+    private long required(String token) {
+        if (token == null) {
+            return 0;
+        }
+        int separator = token.indexOf('-');
+        try {
+            if (separator <= 0) {
+                throw new NumberFormatException();
+            }
+            long tokenEpoch = Long.parseLong(token, 0, separator, 10);
+            long sequence = Long.parseLong(token, separator + 1, token.length(), 10);
+            return tokenEpoch == epoch ? Math.min(sequence, published) : 0;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed " + TOKEN_HEADER + ": " + token);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(applier);
+        applier.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    private static OrderResponse response(Order order) {
+        return OrderResponse.builder()
+                .id(order.getId())
+                .customerId(order.getCustomerId())
+                .assetName(order.getAssetName())
+                .orderSide(order.getOrderSide())
+                .size(order.getSize().toBigDecimal())
+                .price(order.getPrice().toBigDecimal())
+                .filledSize(order.getFilledSize().toBigDecimal())
+                .status(order.getStatus())
+                .timeInForce(order.getTimeInForce())
+                .createDate(order.getCreateDate())
+                .build();
+    }
+
+    private static OrderResponse response(OrderEvent event) {
+        return OrderResponse.builder()
+                .id(event.orderId())
+                .customerId(event.customerId())
+                .assetName(event.assetName())
+                .orderSide(event.orderSide())
+                .size(event.size())
+                .price(event.price())
+                .filledSize(event.filledSize())
+                .status(event.status())
+                .timeInForce(event.timeInForce())
+                .createDate(event.createDate())
+                .build();
+    }
+
+    private static AssetResponse response(Asset asset) {
+        return AssetResponse.builder()
+                .id(asset.getId())
+                .customerId(asset.getCustomerId())
+                .assetName(asset.getAssetName())
+                .size(asset.getSize().toBigDecimal())
+                .usableSize(asset.getUsableSize().toBigDecimal())
+                .costBasis(asset.getCostBasis().toBigDecimal())
+                .build();
+    }
+
+    private static AssetResponse response(BalanceEvent event) {
+        return AssetResponse.builder()
+                .id(event.assetId())
+                .customerId(event.customerId())
+                .assetName(event.assetName())
+                .size(event.size())
+                .usableSize(event.usableSize())
+                .costBasis(event.costBasis())
+                .build();
+    }
+
+    private record Change(long sequence, long enqueuedNanos, Object event) {
+    }
+
+    /** {@code version} is the asset row version after the change, as in the database. */
+    private record Holding(long version, AssetResponse response) {
+    }
+
+    private static final class CustomerView {
+        private final Map<Long, OrderCursor> keys = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListMap<OrderCursor, OrderResponse> orders = new ConcurrentSkipListMap<>(BY_CREATION);
+        private final Map<String, Holding> holdings = new ConcurrentSkipListMap<>();
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.brokerage.repository;
+
+import org.example.brokerage.model.Money;
+
+/**
+ * The columns of an asset row that valuation needs, read without loading managed entities.
+ */
+public record AssetHolding(Long customerId, String assetName, Money size, Money usableSize, Money costBasis) {
+}
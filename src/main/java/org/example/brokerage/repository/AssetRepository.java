@@ -1,9 +1,16 @@
 package org.example.brokerage.repository;
 
 import org.example.brokerage.model.Asset;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +18,22 @@ import java.util.Optional;
 public interface AssetRepository extends JpaRepository<Asset, Long> {
     List<Asset> findByCustomerId(Long customerId);
     Optional<Asset> findByCustomerIdAndAssetName(Long customerId, String assetName);
+    List<Asset> findByCustomerIdInAndAssetNameIn(Collection<Long> customerIds, Collection<String> assetNames);
+
+    /** Every asset by id after {@code afterId}, for loading the table in keyset batches. */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select a from Asset a where a.id > :afterId order by a.id")
+    List<Asset> findAllAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("select min(a.customerId) from Asset a")
+    Long findMinCustomerId();
+
+    @Query("select max(a.customerId) from Asset a")
+    Long findMaxCustomerId();
+
+    @Query("select new org.example.brokerage.repository.AssetHolding("
+            + "a.customerId, a.assetName, a.size, a.usableSize, a.costBasis) "
+            + "from Asset a where a.customerId between :fromCustomerId and :toCustomerId order by a.customerId")
+    List<AssetHolding> findHoldingsByCustomerIdBetween(@Param("fromCustomerId") Long fromCustomerId,
+                                                       @Param("toCustomerId") Long toCustomerId);
 }
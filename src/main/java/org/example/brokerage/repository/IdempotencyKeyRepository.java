@@ -0,0 +1,17 @@
+package org.example.brokerage.repository;
+
+import org.example.brokerage.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyKey k where k.expiresAt <= :now")
+    int deleteExpired(long now);
+}
@@ -2,9 +2,14 @@ package org.example.brokerage.repository;
 
 import org.example.brokerage.model.Order;
 import org.example.brokerage.model.OrderStatus;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -14,4 +19,22 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByCustomerIdAndCreateDateBetween(
             Long customerId, LocalDateTime startDate, LocalDateTime endDate);
     List<Order> findByStatus(OrderStatus status);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select o from Order o where o.customerId = :customerId "
+            + "and (o.createDate > :afterDate or (o.createDate = :afterDate and o.id > :afterId)) "
+            + "and o.createDate <= :endDate "
+            + "order by o.createDate asc, o.id asc")
+    List<Order> findPageAfter(Long customerId, LocalDateTime afterDate, Long afterId,
+                              LocalDateTime endDate, Limit limit);
+
+    /** Every order by id after {@code afterId}, for loading the table in keyset batches. */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select o from Order o where o.id > :afterId order by o.id")
+    List<Order> findAllAfter(Long afterId, Limit limit);
+
+    /** MATCHED and CANCELED orders created before the instant, by id after {@code afterId}. */
+    @Query("select o from Order o where o.status <> org.example.brokerage.model.OrderStatus.PENDING "
+            + "and o.createDate < :createdBefore and o.id > :afterId order by o.id")
+    List<Order> findTerminalCreatedBefore(LocalDateTime createdBefore, Long afterId, Limit limit);
 }
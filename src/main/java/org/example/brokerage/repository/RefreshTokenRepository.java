@@ -0,0 +1,9 @@
+package org.example.brokerage.repository;
+
+import org.example.brokerage.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+}
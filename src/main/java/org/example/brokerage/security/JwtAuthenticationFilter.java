@@ -1,7 +1,7 @@
 package org.example.brokerage.security;
 
-import org.example.brokerage.repository.CustomerRepository;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,6 +18,7 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache tokenCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -27,19 +28,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
+            UserPrincipal userPrincipal = authenticate(token);
 
-            if (jwtUtil.validateToken(token)) {
-                Claims claims = jwtUtil.extractClaims(token);
-                String username = claims.getSubject();
-                Long customerId = claims.get("customerId", Long.class);
-                String role = claims.get("role", String.class);
-
-                UserPrincipal userPrincipal = UserPrincipal.builder()
-                        .customerId(customerId)
-                        .username(username)
-                        .role(role)
-                        .build();
-
+            if (userPrincipal != null) {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
                                 userPrincipal, null, userPrincipal.getAuthorities());
@@ -51,4 +42,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Verifies and parses the token once; repeat tokens are served from the cache.
+     */
+    private UserPrincipal authenticate(String token) {
+        UserPrincipal cached = tokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims;
+        try {
+            claims = jwtUtil.extractClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        UserPrincipal userPrincipal = UserPrincipal.builder()
+                .customerId(claims.get("customerId", Long.class))
+                .username(claims.getSubject())
+                .role(claims.get("role", String.class))
+                .build();
+
+        if (claims.getExpiration() != null) {
+            tokenCache.put(token, userPrincipal, claims.getExpiration().getTime());
+        }
+        return userPrincipal;
+    }
 }
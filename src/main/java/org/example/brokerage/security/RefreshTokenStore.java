@@ -0,0 +1,179 @@
+package org.example.brokerage.security;
+
+import org.example.brokerage.model.RefreshToken;
+import org.example.brokerage.repository.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opaque, single-use refresh tokens held in memory and keyed by their SHA-256 hash.
+ * With {@code brokerage.auth.refresh-token.persistent=true} every change is also written
+ * through to the refresh_tokens table and reloaded on startup.
+ * <p>
+ * A customer holds at most {@code max-per-customer} tokens; each login beyond that revokes the
+ * customer's oldest token, so repeated logins cannot grow the store without bound.
+ */
+@Component
+public class RefreshTokenStore {
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final long ttlMillis;
+    private final boolean persistent;
+    private final int maxPerCustomer;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, RefreshToken> tokens = new ConcurrentHashMap<>();
+    /** Each customer's token hashes, oldest first; updated under the map's per-key lock. */
+    private final Map<Long, Deque<String>> byCustomer = new ConcurrentHashMap<>();
+
+    public RefreshTokenStore(RefreshTokenRepository refreshTokenRepository,
+                             @Value("${jwt.refresh-expiration:2592000000}") long ttlMillis,
+                             @Value("${brokerage.auth.refresh-token.persistent:false}") boolean persistent,
+                             @Value("${brokerage.auth.refresh-token.max-per-customer:10}") int maxPerCustomer) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.ttlMillis = ttlMillis;
+        this.persistent = persistent;
+        this.maxPerCustomer = Math.max(maxPerCustomer, 1);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!persistent) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        refreshTokenRepository.findAll().stream()
+                .filter(token -> token.getExpiresAt() > now)
+                .sorted(Comparator.comparingLong(RefreshToken::getExpiresAt))
+                .forEach(this::add);
+    }
+
+    /**
+     * Issues a new refresh token and returns its raw value; only the hash is retained.
+     */
+    public String issue(Long customerId, String username, String role) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken token = RefreshToken.builder()
+                .tokenHash(hash(rawToken))
+                .customerId(customerId)
+                .username(username)
+                .role(role)
+                .expiresAt(System.currentTimeMillis() + ttlMillis)
+                .build();
+        if (persistent) {
+            refreshTokenRepository.save(token);
+        }
+        add(token);
+        return rawToken;
+    }
+
+    /**
+     * Removes the token and returns what it was issued for. A token can be consumed only once,
+     * so a replayed token after rotation is rejected.
+     */
+    public RefreshToken consume(String rawToken) {
+        RefreshToken token = tokens.remove(hash(rawToken));
+        if (token == null) {
+            throw new IllegalArgumentException("Invalid refresh token");
+        }
+        forget(token);
+        if (token.getExpiresAt() <= System.currentTimeMillis()) {
+            throw new IllegalArgumentException("Refresh token expired");
+        }
+        return token;
+    }
+
+    public void revoke(String rawToken) {
+        RefreshToken token = tokens.remove(hash(rawToken));
+        if (token != null) {
+            forget(token);
+        }
+    }
+
+    /** Revokes every refresh token of the customer, signing out all of its sessions. */
+    public void revokeAll(Long customerId) {
+        Deque<String> hashes = byCustomer.remove(customerId);
+        if (hashes == null) {
+            return;
+        }
+        for (String tokenHash : hashes) {
+            if (tokens.remove(tokenHash) != null && persistent) {
+                refreshTokenRepository.deleteById(tokenHash);
+            }
+        }
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+
+    @Scheduled(fixedDelayString = "${brokerage.auth.refresh-token.purge-interval-millis:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        tokens.values().removeIf(token -> {
+            if (token.getExpiresAt() > now) {
+                return false;
+            }
+            forget(token);
+            return true;
+        });
+    }
+
+    /** Stores the token and evicts the customer's oldest ones beyond {@code max-per-customer}. */
+    private void add(RefreshToken token) {
+        tokens.put(token.getTokenHash(), token);
+        List<String> evicted = new ArrayList<>();
+        byCustomer.compute(token.getCustomerId(), (id, hashes) -> {
+            Deque<String> tracked = hashes != null ? hashes : new ArrayDeque<>();
+            tracked.addLast(token.getTokenHash());
+            while (tracked.size() > maxPerCustomer) {
+                String oldest = tracked.pollFirst();
+                if (tokens.remove(oldest) != null) {
+                    evicted.add(oldest);
+                }
+            }
+            return tracked;
+        });
+        if (persistent) {
+            evicted.forEach(refreshTokenRepository::deleteById);
+        }
+    }
+
+    /** Drops a token already removed from {@code tokens}. */
+    private void forget(RefreshToken token) {
+        byCustomer.computeIfPresent(token.getCustomerId(), (id, hashes) -> {
+            hashes.remove(token.getTokenHash());
+            return hashes.isEmpty() ? null : hashes;
+        });
+        if (persistent) {
+            refreshTokenRepository.deleteById(token.getTokenHash());
+        }
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(rawToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
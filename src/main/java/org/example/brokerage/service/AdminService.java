@@ -1,52 +1,104 @@
 package org.example.brokerage.service;
 
 import lombok.RequiredArgsConstructor;
+import org.example.brokerage.dto.OrderCursor;
+import org.example.brokerage.dto.OrderPage;
+import org.example.brokerage.dto.OrderResponse;
+import org.example.brokerage.event.BalanceEvent;
+import org.example.brokerage.event.OrderEvent;
+import org.example.brokerage.event.TradeEvent;
+import org.example.brokerage.matching.Trade;
+import org.example.brokerage.metrics.OrderMetrics;
 import org.example.brokerage.model.Asset;
+import org.example.brokerage.model.Money;
 import org.example.brokerage.model.Order;
 import org.example.brokerage.model.OrderSide;
 import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.pending.PendingOrderIndex;
 import org.example.brokerage.repository.AssetRepository;
 import org.example.brokerage.repository.OrderRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class AdminService {
     private final OrderRepository orderRepository;
     private final AssetRepository assetRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PendingOrderIndex pendingOrderIndex;
+    private final OrderMetrics orderMetrics;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
+    /** Metrics are recorded once the transaction has committed or rolled back. */
     public void matchOrder(Long orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Order not found"));
+        long start = System.nanoTime();
+        AtomicReference<Order> found = new AtomicReference<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Order order = orderRepository.findById(orderId)
+                        .orElseThrow(() -> new IllegalArgumentException("Order not found"));
+                found.set(order);
+                match(order);
+            });
+            Order order = found.get();
+            orderMetrics.record(OrderMetrics.Operation.MATCH, order.getOrderSide(), order.getAssetName(),
+                    OrderMetrics.Outcome.SUCCESS, start);
+        } catch (RuntimeException e) {
+            Order order = found.get();
+            orderMetrics.record(OrderMetrics.Operation.MATCH,
+                    order != null ? order.getOrderSide() : null,
+                    order != null ? order.getAssetName() : null,
+                    OrderMetrics.outcomeOf(e), start);
+            throw e;
+        }
+    }
 
+    private void match(Order order) {
         if (order.getStatus() != OrderStatus.PENDING) {
             throw new IllegalStateException("Only PENDING orders can be matched");
         }
 
+        // Fill whatever the book has not matched yet against the house; the matching engine drops
+        // the order from its book once the MATCHED event commits
+        Money quantity = order.getRemainingSize();
+
         if (order.getOrderSide() == OrderSide.BUY) {
             matchBuyOrder(order);
         } else {
             matchSellOrder(order);
         }
 
+        order.setFilledSize(order.getSize());
         order.setStatus(OrderStatus.MATCHED);
         orderRepository.save(order);
+        eventPublisher.publishEvent(OrderEvent.of(OrderEvent.Type.MATCHED, order));
+        eventPublisher.publishEvent(new TradeEvent(Trade.againstHouse(order, quantity), LocalDateTime.now()));
     }
 
     private void matchBuyOrder(Order order) {
-        BigDecimal totalCost = order.getSize().multiply(order.getPrice());
+        Money quantity = order.getRemainingSize();
+        Money totalCost = quantity.times(order.getPrice());
+        Money rounding = order.getReservedCash().minus(totalCost);
 
-        // Deduct from TRY size
+        // Deduct from TRY size, returning any cent the reservation rounded differently
         Asset tryAsset = assetRepository
                 .findByCustomerIdAndAssetName(order.getCustomerId(), "TRY")
                 .orElseThrow();
-        tryAsset.setSize(tryAsset.getSize().subtract(totalCost));
+        tryAsset.setSize(tryAsset.getSize().minus(totalCost));
+        tryAsset.setUsableSize(tryAsset.getUsableSize().plus(rounding));
         assetRepository.save(tryAsset);
+        eventPublisher.publishEvent(BalanceEvent.of(tryAsset, BalanceEvent.Reason.SETTLED,
+                totalCost.negate(), rounding));
 
         // Add to asset
         Asset asset = assetRepository
@@ -54,35 +106,101 @@ public class AdminService {
                 .orElse(Asset.builder()
                         .customerId(order.getCustomerId())
                         .assetName(order.getAssetName())
-                        .size(BigDecimal.ZERO)
-                        .usableSize(BigDecimal.ZERO)
+                        .size(Money.ZERO)
+                        .usableSize(Money.ZERO)
                         .build());
 
-        asset.setSize(asset.getSize().add(order.getSize()));
-        asset.setUsableSize(asset.getUsableSize().add(order.getSize()));
+        asset.setSize(asset.getSize().plus(quantity));
+        asset.setUsableSize(asset.getUsableSize().plus(quantity));
+        asset.setCostBasis(asset.getCostBasis().plus(totalCost));
         assetRepository.save(asset);
+        eventPublisher.publishEvent(BalanceEvent.of(asset, BalanceEvent.Reason.SETTLED, quantity, quantity));
     }
 
     private void matchSellOrder(Order order) {
-        BigDecimal totalRevenue = order.getSize().multiply(order.getPrice());
+        Money quantity = order.getRemainingSize();
+        Money totalRevenue = quantity.times(order.getPrice());
 
         // Deduct from asset size
         Asset asset = assetRepository
                 .findByCustomerIdAndAssetName(order.getCustomerId(), order.getAssetName())
                 .orElseThrow();
-        asset.setSize(asset.getSize().subtract(order.getSize()));
+        asset.setCostBasis(asset.getCostBasis().minus(asset.getCostBasis().proportion(quantity, asset.getSize())));
+        asset.setSize(asset.getSize().minus(quantity));
         assetRepository.save(asset);
+        eventPublisher.publishEvent(BalanceEvent.of(asset, BalanceEvent.Reason.SETTLED,
+                quantity.negate(), Money.ZERO));
 
         // Add to TRY
         Asset tryAsset = assetRepository
                 .findByCustomerIdAndAssetName(order.getCustomerId(), "TRY")
                 .orElseThrow();
-        tryAsset.setSize(tryAsset.getSize().add(totalRevenue));
-        tryAsset.setUsableSize(tryAsset.getUsableSize().add(totalRevenue));
+        tryAsset.setSize(tryAsset.getSize().plus(totalRevenue));
+        tryAsset.setUsableSize(tryAsset.getUsableSize().plus(totalRevenue));
         assetRepository.save(tryAsset);
+        eventPublisher.publishEvent(BalanceEvent.of(tryAsset, BalanceEvent.Reason.SETTLED,
+                totalRevenue, totalRevenue));
+    }
+
+    public Long getOrderCustomerId(Long orderId) {
+        return orderRepository.findById(orderId)
+                .map(Order::getCustomerId)
+                .orElseThrow(() -> new IllegalArgumentException("Order not found"));
+    }
+
+    /**
+     * Pending orders oldest first from the in-memory index. {@code minAge}/{@code maxAge} keep
+     * only orders at least/at most that old.
+     */
+    public OrderPage getPendingOrders(String assetName, OrderSide side, Duration minAge, Duration maxAge,
+                                      String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), 1000);
+        OrderCursor after = cursor != null ? OrderCursor.decode(cursor) : null;
+
+        List<OrderResponse> orders = queryPending(assetName, side, minAge, maxAge, after)
+                .limit(pageSize + 1L)
+                .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (orders.size() > pageSize) {
+            orders = orders.subList(0, pageSize);
+            OrderResponse last = orders.get(pageSize - 1);
+            nextCursor = new OrderCursor(last.getCreateDate(), last.getId()).encode();
+        }
+
+        return OrderPage.builder()
+                .orders(orders)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    public void streamPendingOrders(String assetName, OrderSide side, Duration minAge, Duration maxAge,
+                                    Consumer<OrderResponse> consumer) {
+        queryPending(assetName, side, minAge, maxAge, null).forEach(consumer);
+    }
+
+    private Stream<OrderResponse> queryPending(String assetName, OrderSide side, Duration minAge,
+                                               Duration maxAge, OrderCursor after) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime createdBefore = minAge != null ? now.minus(minAge) : null;
+        LocalDateTime createdAfter = maxAge != null ? now.minus(maxAge) : null;
+
+        return pendingOrderIndex.query(assetName, side, createdAfter, createdBefore, after)
+                .map(this::mapToResponse);
     }
 
-    public List<Order> getPendingOrders() {
-        return orderRepository.findByStatus(OrderStatus.PENDING);
+    private OrderResponse mapToResponse(OrderEvent order) {
+        return OrderResponse.builder()
+                .id(order.orderId())
+                .customerId(order.customerId())
+                .assetName(order.assetName())
+                .orderSide(order.orderSide())
+                .size(order.size())
+                .price(order.price())
+                .filledSize(order.filledSize())
+                .status(order.status())
+                .timeInForce(order.timeInForce())
+                .createDate(order.createDate())
+                .build();
     }
 }
@@ -1,5 +1,6 @@
 package org.example.brokerage.service;
 
+import org.example.brokerage.cache.HoldingsCache;
 import org.example.brokerage.dto.AssetResponse;
 import org.example.brokerage.model.Asset;
 import org.example.brokerage.repository.AssetRepository;
@@ -12,8 +13,13 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AssetService {
     private final AssetRepository assetRepository;
+    private final HoldingsCache holdingsCache;
 
     public List<AssetResponse> listAssets(Long customerId) {
+        return holdingsCache.get(customerId, () -> loadAssets(customerId));
+    }
+
+    private List<AssetResponse> loadAssets(Long customerId) {
         return assetRepository.findByCustomerId(customerId).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
@@ -24,8 +30,9 @@ public class AssetService {
                 .id(asset.getId())
                 .customerId(asset.getCustomerId())
                 .assetName(asset.getAssetName())
-                .size(asset.getSize())
-                .usableSize(asset.getUsableSize())
+                .size(asset.getSize().toBigDecimal())
+                .usableSize(asset.getUsableSize().toBigDecimal())
+                .costBasis(asset.getCostBasis().toBigDecimal())
                 .build();
     }
 }
@@ -2,9 +2,12 @@ package org.example.brokerage.service;
 
 import org.example.brokerage.dto.LoginRequest;
 import org.example.brokerage.dto.LoginResponse;
+import org.example.brokerage.dto.RefreshTokenRequest;
+import org.example.brokerage.model.RefreshToken;
 import org.example.brokerage.model.Customer;
 import org.example.brokerage.repository.CustomerRepository;
 import org.example.brokerage.security.JwtUtil;
+import org.example.brokerage.security.RefreshTokenStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -15,6 +18,7 @@ public class AuthService {
     private final CustomerRepository customerRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final RefreshTokenStore refreshTokenStore;
 
     public LoginResponse login(LoginRequest request) {
         Customer customer = customerRepository.findByUsername(request.getUsername())
@@ -24,17 +28,29 @@ public class AuthService {
             throw new IllegalArgumentException("Invalid credentials");
         }
 
-        String token = jwtUtil.generateToken(
-                customer.getUsername(),
-                customer.getId(),
-                customer.getRole()
-        );
+        return issueTokens(customer.getId(), customer.getUsername(), customer.getRole());
+    }
+
+    public LoginResponse refresh(RefreshTokenRequest request) {
+        RefreshToken refreshToken = refreshTokenStore.consume(request.getRefreshToken());
+        return issueTokens(refreshToken.getCustomerId(), refreshToken.getUsername(), refreshToken.getRole());
+    }
+
+    public void logout(RefreshTokenRequest request) {
+        refreshTokenStore.revoke(request.getRefreshToken());
+    }
+
+    public void logoutAll(Long customerId) {
+        refreshTokenStore.revokeAll(customerId);
+    }
 
+    private LoginResponse issueTokens(Long customerId, String username, String role) {
         return LoginResponse.builder()
-                .token(token)
-                .username(customer.getUsername())
-                .role(customer.getRole())
-                .customerId(customer.getId())
+                .token(jwtUtil.generateToken(username, customerId, role))
+                .refreshToken(refreshTokenStore.issue(customerId, username, role))
+                .username(username)
+                .role(role)
+                .customerId(customerId)
                 .build();
     }
 }
@@ -1,91 +1,410 @@
 package org.example.brokerage.service;
 
+import org.example.brokerage.archive.OrderArchive;
+import org.example.brokerage.dto.BatchOrderResult;
 import org.example.brokerage.dto.CreateOrderRequest;
+import org.example.brokerage.dto.OrderCursor;
+import org.example.brokerage.dto.OrderPage;
 import org.example.brokerage.dto.OrderResponse;
+import org.example.brokerage.event.BalanceEvent;
+import org.example.brokerage.event.OrderEvent;
 import org.example.brokerage.exception.InsufficientBalanceException;
 import org.example.brokerage.exception.OrderNotFoundException;
+import org.example.brokerage.metrics.OrderMetrics;
 import org.example.brokerage.model.*;
 import org.example.brokerage.repository.AssetRepository;
 import org.example.brokerage.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import java.math.BigDecimal;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int STREAM_PAGE_SIZE = 500;
+
     private final OrderRepository orderRepository;
     private final AssetRepository assetRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderMetrics orderMetrics;
+    private final OrderArchive orderArchive;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
+    /**
+     * Places one order in its own transaction. Like every command here, its metrics are recorded
+     * once the transaction has committed or rolled back, so an attempt that loses a version race at
+     * commit counts as an error, not a success.
+     */
     public OrderResponse createOrder(CreateOrderRequest request) {
+        long start = System.nanoTime();
+        try {
+            OrderResponse response = transactionTemplate.execute(status -> placeOrder(request));
+            orderMetrics.record(OrderMetrics.Operation.CREATE, request.getOrderSide(), request.getAssetName(),
+                    OrderMetrics.Outcome.SUCCESS, start);
+            return response;
+        } catch (RuntimeException e) {
+            orderMetrics.record(OrderMetrics.Operation.CREATE, request.getOrderSide(), request.getAssetName(),
+                    OrderMetrics.outcomeOf(e), start);
+            throw e;
+        }
+    }
+
+    /**
+     * Places a basket of orders, possibly for several customers, in a single transaction. Every
+     * asset the basket reserves against is read with one query, reservations apply in list order
+     * against the running usable balance, and an order that does not fit is rejected on its own
+     * without failing the rest. Accepted orders are inserted with JDBC batching at commit.
+     *
+     * @return one result per request, in request order, indexed by position in {@code requests}
+     */
+    public List<BatchOrderResult> createOrders(List<CreateOrderRequest> requests) {
+        long start = System.nanoTime();
+        OrderMetrics.Outcome[] outcomes = new OrderMetrics.Outcome[requests.size()];
+        try {
+            List<BatchOrderResult> results = transactionTemplate.execute(status -> placeOrders(requests, outcomes));
+            recordCreates(requests, outcomes, start);
+            return results;
+        } catch (RuntimeException e) {
+            // Nothing in a rolled back basket was placed or rejected on its own
+            Arrays.fill(outcomes, OrderMetrics.outcomeOf(e));
+            recordCreates(requests, outcomes, start);
+            throw e;
+        }
+    }
+
+    private void recordCreates(List<CreateOrderRequest> requests, OrderMetrics.Outcome[] outcomes, long start) {
+        for (int i = 0; i < requests.size(); i++) {
+            orderMetrics.record(OrderMetrics.Operation.CREATE, requests.get(i).getOrderSide(),
+                    requests.get(i).getAssetName(), outcomes[i], start);
+        }
+    }
+
+    private List<BatchOrderResult> placeOrders(List<CreateOrderRequest> requests, OrderMetrics.Outcome[] outcomes) {
+        Set<Long> customerIds = new HashSet<>();
+        Set<String> assetNames = new HashSet<>();
+        for (CreateOrderRequest request : requests) {
+            customerIds.add(request.getCustomerId());
+            assetNames.add(reservedAssetName(request));
+        }
+        Map<AssetKey, Asset> assets = new HashMap<>();
+        for (Asset asset : assetRepository.findByCustomerIdInAndAssetNameIn(customerIds, assetNames)) {
+            assets.put(new AssetKey(asset.getCustomerId(), asset.getAssetName()), asset);
+        }
+
+        Map<AssetKey, Money> reserved = new LinkedHashMap<>();
+        List<BatchOrderResult> results = new ArrayList<>(requests.size());
+        List<Order> orders = new ArrayList<>(requests.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateOrderRequest request = requests.get(i);
+            try {
+                Money size = Money.of(request.getSize());
+                Money price = Money.of(request.getPrice());
+                AssetKey key = new AssetKey(request.getCustomerId(), reservedAssetName(request));
+                Asset asset = reserve(assets.get(key), request, size, price);
+                Money amount = request.getOrderSide() == OrderSide.BUY ? size.times(price) : size;
+                asset.setUsableSize(asset.getUsableSize().minus(amount));
+                reserved.merge(key, amount, Money::plus);
+
+                orders.add(Order.builder()
+                        .customerId(request.getCustomerId())
+                        .assetName(request.getAssetName())
+                        .orderSide(request.getOrderSide())
+                        .size(size)
+                        .price(price)
+                        .status(OrderStatus.PENDING)
+                        .timeInForce(timeInForce(request))
+                        .createDate(now)
+                        .build());
+                results.add(null);
+                outcomes[i] = OrderMetrics.Outcome.SUCCESS;
+            } catch (InsufficientBalanceException | ArithmeticException e) {
+                outcomes[i] = OrderMetrics.outcomeOf(e);
+                results.add(BatchOrderResult.rejected(i, e.getMessage()));
+            }
+        }
+
+        reserved.forEach((key, amount) -> {
+            Asset asset = assets.get(key);
+            assetRepository.save(asset);
+            eventPublisher.publishEvent(BalanceEvent.of(asset, BalanceEvent.Reason.RESERVED,
+                    Money.ZERO, amount.negate()));
+        });
+
+        orders = orderRepository.saveAll(orders);
+        int next = 0;
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                Order order = orders.get(next++);
+                eventPublisher.publishEvent(OrderEvent.of(OrderEvent.Type.CREATED, order));
+                results.set(i, BatchOrderResult.accepted(i, mapToResponse(order)));
+            }
+        }
+        return results;
+    }
+
+    private static String reservedAssetName(CreateOrderRequest request) {
+        return request.getOrderSide() == OrderSide.BUY ? "TRY" : request.getAssetName();
+    }
+
+    private static TimeInForce timeInForce(CreateOrderRequest request) {
+        return request.getTimeInForce() != null ? request.getTimeInForce() : TimeInForce.GTC;
+    }
+
+    private static Asset reserve(Asset asset, CreateOrderRequest request, Money size, Money price) {
         if (request.getOrderSide() == OrderSide.BUY) {
-            handleBuyOrder(request);
+            if (asset == null) {
+                throw new InsufficientBalanceException("TRY asset not found");
+            }
+            if (!asset.getUsableSize().covers(size, price)) {
+                throw new InsufficientBalanceException("Insufficient TRY balance");
+            }
+            return asset;
+        }
+
+        if (asset == null) {
+            throw new InsufficientBalanceException("Asset not found");
+        }
+        if (asset.getUsableSize().compareTo(size) < 0) {
+            throw new InsufficientBalanceException("Insufficient asset balance");
+        }
+        return asset;
+    }
+
+    private OrderResponse placeOrder(CreateOrderRequest request) {
+        Money size = Money.of(request.getSize());
+        Money price = Money.of(request.getPrice());
+        if (request.getOrderSide() == OrderSide.BUY) {
+            handleBuyOrder(request, size, price);
         } else {
-            handleSellOrder(request);
+            handleSellOrder(request, size);
         }
 
         Order order = Order.builder()
                 .customerId(request.getCustomerId())
                 .assetName(request.getAssetName())
                 .orderSide(request.getOrderSide())
-                .size(request.getSize())
-                .price(request.getPrice())
+                .size(size)
+                .price(price)
                 .status(OrderStatus.PENDING)
+                .timeInForce(timeInForce(request))
                 .createDate(LocalDateTime.now())
                 .build();
 
         order = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderEvent.of(OrderEvent.Type.CREATED, order));
         return mapToResponse(order);
     }
 
-    private void handleBuyOrder(CreateOrderRequest request) {
-        BigDecimal totalCost = request.getSize().multiply(request.getPrice());
-
+    private void handleBuyOrder(CreateOrderRequest request, Money size, Money price) {
         Asset tryAsset = assetRepository
                 .findByCustomerIdAndAssetName(request.getCustomerId(), "TRY")
                 .orElseThrow(() -> new InsufficientBalanceException("TRY asset not found"));
 
-        if (tryAsset.getUsableSize().compareTo(totalCost) < 0) {
+        if (!tryAsset.getUsableSize().covers(size, price)) {
             throw new InsufficientBalanceException("Insufficient TRY balance");
         }
 
-        tryAsset.setUsableSize(tryAsset.getUsableSize().subtract(totalCost));
+        Money totalCost = size.times(price);
+        tryAsset.setUsableSize(tryAsset.getUsableSize().minus(totalCost));
         assetRepository.save(tryAsset);
+        eventPublisher.publishEvent(BalanceEvent.of(tryAsset, BalanceEvent.Reason.RESERVED,
+                Money.ZERO, totalCost.negate()));
     }
 
-    private void handleSellOrder(CreateOrderRequest request) {
+    private void handleSellOrder(CreateOrderRequest request, Money size) {
         Asset asset = assetRepository
                 .findByCustomerIdAndAssetName(request.getCustomerId(), request.getAssetName())
                 .orElseThrow(() -> new InsufficientBalanceException("Asset not found"));
 
-        if (asset.getUsableSize().compareTo(request.getSize()) < 0) {
+        if (asset.getUsableSize().compareTo(size) < 0) {
             throw new InsufficientBalanceException("Insufficient asset balance");
         }
 
-        asset.setUsableSize(asset.getUsableSize().subtract(request.getSize()));
+        asset.setUsableSize(asset.getUsableSize().minus(size));
         assetRepository.save(asset);
+        eventPublisher.publishEvent(BalanceEvent.of(asset, BalanceEvent.Reason.RESERVED,
+                Money.ZERO, size.negate()));
     }
 
+    /**
+     * Lists the customer's orders. With a date range, archived orders created in the range are
+     * merged in; without one only the orders table is read.
+     */
     public List<OrderResponse> listOrders(Long customerId, LocalDateTime startDate, LocalDateTime endDate) {
         List<Order> orders;
         if (startDate != null && endDate != null) {
+            // Orders only ever move from the table to the archive, so reading the table first
+            // cannot miss one moved in between; one seen in both places is kept once
             orders = orderRepository.findByCustomerIdAndCreateDateBetween(customerId, startDate, endDate);
+            List<Order> archived = orderArchive.find(customerId, startDate, endDate);
+            if (!archived.isEmpty()) {
+                Map<Long, Order> merged = new HashMap<>();
+                archived.forEach(order -> merged.put(order.getId(), order));
+                orders.forEach(order -> merged.put(order.getId(), order));
+                orders = merged.values().stream()
+                        .sorted(Comparator.comparing(Order::getCreateDate).thenComparing(Order::getId))
+                        .toList();
+            }
         } else {
             orders = orderRepository.findByCustomerId(customerId);
         }
         return orders.stream().map(this::mapToResponse).collect(Collectors.toList());
     }
 
-    @Transactional
+    /**
+     * Returns at most {@code limit} orders after the cursor, ordered by (createDate, id). With a date
+     * range, archived orders in the range are merged into the walk; without one the request is
+     * rejected if it would reach into archived days.
+     */
+    public OrderPage listOrdersPage(Long customerId, LocalDateTime startDate, LocalDateTime endDate,
+                                    String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        OrderCursor after = cursor != null
+                ? OrderCursor.decode(cursor)
+                : new OrderCursor(startDate != null ? startDate : EARLIEST, 0L);
+        boolean withArchive = orderArchive.neededFor(startDate, endDate);
+
+        // Fetch one extra row to know whether another page exists
+        List<Order> orders = pageAfter(customerId, startDate, endDate, after, pageSize + 1, withArchive);
+
+        boolean hasMore = orders.size() > pageSize;
+        List<Order> page = hasMore ? orders.subList(0, pageSize) : orders;
+        String nextCursor = null;
+        if (hasMore) {
+            Order last = page.get(page.size() - 1);
+            nextCursor = new OrderCursor(last.getCreateDate(), last.getId()).encode();
+        }
+
+        return OrderPage.builder()
+                .orders(page.stream().map(this::mapToResponse).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Streams the customer's orders a keyset page at a time. Each page is read in its own short
+     * transaction and handed to the consumer after it ends, so a slow reader holds no connection
+     * and memory stays flat regardless of history size. Archived orders are handled as in
+     * {@link #listOrdersPage}.
+     */
+    public void streamOrders(Long customerId, LocalDateTime startDate, LocalDateTime endDate,
+                             Consumer<OrderResponse> consumer) {
+        OrderCursor after = new OrderCursor(startDate != null ? startDate : EARLIEST, 0L);
+        boolean withArchive = orderArchive.neededFor(startDate, endDate);
+        List<Order> page;
+        do {
+            page = pageAfter(customerId, startDate, endDate, after, STREAM_PAGE_SIZE, withArchive);
+            page.forEach(order -> consumer.accept(mapToResponse(order)));
+            if (!page.isEmpty()) {
+                Order last = page.get(page.size() - 1);
+                after = new OrderCursor(last.getCreateDate(), last.getId());
+            }
+        } while (page.size() == STREAM_PAGE_SIZE);
+    }
+
+    /**
+     * Throws {@link IllegalArgumentException} if {@link #streamOrders} would reject the range, so the
+     * caller can answer 400 before the stream starts.
+     */
+    public void checkStreamRange(LocalDateTime startDate, LocalDateTime endDate) {
+        orderArchive.neededFor(startDate, endDate);
+    }
+
+    /**
+     * The first {@code limit} orders after the cursor, from the table and, if asked, the archive.
+     */
+    private List<Order> pageAfter(Long customerId, LocalDateTime startDate, LocalDateTime endDate,
+                                  OrderCursor after, int limit, boolean withArchive) {
+        List<Order> orders = orderRepository.findPageAfter(customerId, after.createDate(), after.id(),
+                endDate != null ? endDate : LATEST, Limit.of(limit));
+        if (!withArchive) {
+            return orders;
+        }
+        // Table first, as in listOrders, so an order moved in between is found in the archive
+        List<Order> archived = orderArchive.findAfter(customerId, startDate, endDate,
+                after.createDate(), after.id(), limit);
+        if (archived.isEmpty()) {
+            return orders;
+        }
+        Map<Long, Order> merged = new HashMap<>();
+        archived.forEach(order -> merged.put(order.getId(), order));
+        orders.forEach(order -> merged.put(order.getId(), order));
+        return merged.values().stream()
+                .sorted(Comparator.comparing(Order::getCreateDate).thenComparing(Order::getId))
+                .limit(limit)
+                .toList();
+    }
+
     public void deleteOrder(Long orderId, Long customerId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderNotFoundException("Order not found"));
+        long start = System.nanoTime();
+        AtomicReference<Order> found = new AtomicReference<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Order order = orderRepository.findById(orderId)
+                        .orElseThrow(() -> new OrderNotFoundException("Order not found"));
+                found.set(order);
+                cancel(order, customerId);
+            });
+            Order order = found.get();
+            orderMetrics.record(OrderMetrics.Operation.CANCEL, order.getOrderSide(), order.getAssetName(),
+                    OrderMetrics.Outcome.SUCCESS, start);
+        } catch (RuntimeException e) {
+            Order order = found.get();
+            orderMetrics.record(OrderMetrics.Operation.CANCEL,
+                    order != null ? order.getOrderSide() : null,
+                    order != null ? order.getAssetName() : null,
+                    OrderMetrics.outcomeOf(e), start);
+            throw e;
+        }
+    }
+
+    /**
+     * Expires a PENDING {@link TimeInForce#DAY} order for the end-of-day run. The reservation is
+     * released and the order is cancelled exactly as a customer cancel would, so every listener
+     * sees an ordinary CANCELED event. An order that was filled or cancelled since it was selected
+     * is left alone.
+     *
+     * @return whether the order was expired
+     */
+    public boolean expireOrder(Long orderId) {
+        long start = System.nanoTime();
+        Order order = transactionTemplate.execute(status -> {
+            Order pending = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new OrderNotFoundException("Order not found"));
+            if (pending.getStatus() != OrderStatus.PENDING || pending.getTimeInForce() != TimeInForce.DAY) {
+                return null;
+            }
+            release(pending);
+            return pending;
+        });
+        if (order == null) {
+            return false;
+        }
+        orderMetrics.record(OrderMetrics.Operation.EXPIRE, order.getOrderSide(), order.getAssetName(),
+                OrderMetrics.Outcome.SUCCESS, start);
+        return true;
+    }
 
+    private void cancel(Order order, Long customerId) {
         if (!order.getCustomerId().equals(customerId)) {
             throw new IllegalArgumentException("Order does not belong to customer");
         }
@@ -93,24 +412,34 @@ public class OrderService {
         if (order.getStatus() != OrderStatus.PENDING) {
             throw new IllegalStateException("Only PENDING orders can be cancelled");
         }
+        release(order);
+    }
 
+    private void release(Order order) {
+        // The matching engine drops the order from its book once the CANCELED event commits
+        Long customerId = order.getCustomerId();
         if (order.getOrderSide() == OrderSide.BUY) {
-            BigDecimal totalCost = order.getSize().multiply(order.getPrice());
+            Money totalCost = order.getReservedCash();
             Asset tryAsset = assetRepository
                     .findByCustomerIdAndAssetName(customerId, "TRY")
                     .orElseThrow();
-            tryAsset.setUsableSize(tryAsset.getUsableSize().add(totalCost));
+            tryAsset.setUsableSize(tryAsset.getUsableSize().plus(totalCost));
             assetRepository.save(tryAsset);
+            eventPublisher.publishEvent(BalanceEvent.of(tryAsset, BalanceEvent.Reason.RELEASED,
+                    Money.ZERO, totalCost));
         } else {
             Asset asset = assetRepository
                     .findByCustomerIdAndAssetName(customerId, order.getAssetName())
                     .orElseThrow();
-            asset.setUsableSize(asset.getUsableSize().add(order.getSize()));
+            asset.setUsableSize(asset.getUsableSize().plus(order.getRemainingSize()));
             assetRepository.save(asset);
+            eventPublisher.publishEvent(BalanceEvent.of(asset, BalanceEvent.Reason.RELEASED,
+                    Money.ZERO, order.getRemainingSize()));
         }
 
         order.setStatus(OrderStatus.CANCELED);
         orderRepository.save(order);
+        eventPublisher.publishEvent(OrderEvent.of(OrderEvent.Type.CANCELED, order));
     }
 
     private OrderResponse mapToResponse(Order order) {
@@ -119,10 +448,15 @@ public class OrderService {
                 .customerId(order.getCustomerId())
                 .assetName(order.getAssetName())
                 .orderSide(order.getOrderSide())
-                .size(order.getSize())
-                .price(order.getPrice())
+                .size(order.getSize().toBigDecimal())
+                .price(order.getPrice().toBigDecimal())
+                .filledSize(order.getFilledSize().toBigDecimal())
                 .status(order.getStatus())
+                .timeInForce(order.getTimeInForce())
                 .createDate(order.getCreateDate())
                 .build();
     }
+
+    private record AssetKey(Long customerId, String assetName) {
+    }
 }
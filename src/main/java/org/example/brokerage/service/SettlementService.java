@@ -0,0 +1,124 @@
+package org.example.brokerage.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.brokerage.event.BalanceEvent;
+import org.example.brokerage.event.OrderEvent;
+import org.example.brokerage.event.TradeEvent;
+import org.example.brokerage.matching.Trade;
+import org.example.brokerage.model.Asset;
+import org.example.brokerage.model.Money;
+import org.example.brokerage.model.Order;
+import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.repository.AssetRepository;
+import org.example.brokerage.repository.OrderRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+public class SettlementService {
+    private final OrderRepository orderRepository;
+    private final AssetRepository assetRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void settle(Trade trade) {
+        Money quantity = Money.of(trade.quantity());
+        Order buyOrder = findFillableOrder(trade.buyOrderId(), quantity);
+        Order sellOrder = findFillableOrder(trade.sellOrderId(), quantity);
+
+        settleBuyer(trade, buyOrder);
+        settleSeller(trade, sellOrder);
+
+        fill(buyOrder, quantity);
+        fill(sellOrder, quantity);
+
+        eventPublisher.publishEvent(new TradeEvent(trade, LocalDateTime.now()));
+    }
+
+    private Order findFillableOrder(Long orderId, Money quantity) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("Order not found"));
+
+        if (order.getStatus() != OrderStatus.PENDING) {
+            throw new IllegalStateException("Only PENDING orders can be settled");
+        }
+        if (order.getRemainingSize().compareTo(quantity) < 0) {
+            throw new IllegalStateException("Trade quantity exceeds remaining order size");
+        }
+        return order;
+    }
+
+    private void settleBuyer(Trade trade, Order buyOrder) {
+        // The buyer reserved size * limit price; release this fill's share less the notional paid
+        Asset tryAsset = assetRepository
+                .findByCustomerIdAndAssetName(trade.buyCustomerId(), "TRY")
+                .orElseThrow();
+        Money quantity = Money.of(trade.quantity());
+        Money notional = quantity.times(Money.of(trade.price()));
+        Money filled = buyOrder.getFilledSize();
+        Money released = filled.plus(quantity).times(buyOrder.getPrice()).minus(filled.times(buyOrder.getPrice()));
+        Money priceImprovement = released.minus(notional);
+        tryAsset.setSize(tryAsset.getSize().minus(notional));
+        tryAsset.setUsableSize(tryAsset.getUsableSize().plus(priceImprovement));
+        assetRepository.save(tryAsset);
+        eventPublisher.publishEvent(BalanceEvent.of(tryAsset, BalanceEvent.Reason.SETTLED,
+                notional.negate(), priceImprovement));
+
+        Asset asset = findOrCreateAsset(trade.buyCustomerId(), trade.assetName());
+        asset.setSize(asset.getSize().plus(quantity));
+        asset.setUsableSize(asset.getUsableSize().plus(quantity));
+        asset.setCostBasis(asset.getCostBasis().plus(notional));
+        assetRepository.save(asset);
+        eventPublisher.publishEvent(BalanceEvent.of(asset, BalanceEvent.Reason.SETTLED,
+                quantity, quantity));
+    }
+
+    private void settleSeller(Trade trade, Order sellOrder) {
+        Asset asset = assetRepository
+                .findByCustomerIdAndAssetName(trade.sellCustomerId(), sellOrder.getAssetName())
+                .orElseThrow();
+        Money quantity = Money.of(trade.quantity());
+        Money notional = quantity.times(Money.of(trade.price()));
+        asset.setCostBasis(asset.getCostBasis().minus(asset.getCostBasis().proportion(quantity, asset.getSize())));
+        asset.setSize(asset.getSize().minus(quantity));
+        assetRepository.save(asset);
+        eventPublisher.publishEvent(BalanceEvent.of(asset, BalanceEvent.Reason.SETTLED,
+                quantity.negate(), Money.ZERO));
+
+        Asset tryAsset = findOrCreateAsset(trade.sellCustomerId(), "TRY");
+        tryAsset.setSize(tryAsset.getSize().plus(notional));
+        tryAsset.setUsableSize(tryAsset.getUsableSize().plus(notional));
+        assetRepository.save(tryAsset);
+        eventPublisher.publishEvent(BalanceEvent.of(tryAsset, BalanceEvent.Reason.SETTLED,
+                notional, notional));
+    }
+
+    private Asset findOrCreateAsset(Long customerId, String assetName) {
+        return assetRepository
+                .findByCustomerIdAndAssetName(customerId, assetName)
+                .orElseGet(() -> Asset.builder()
+                        .customerId(customerId)
+                        .assetName(assetName)
+                        .size(Money.ZERO)
+                        .usableSize(Money.ZERO)
+                        .build());
+    }
+
+    private void fill(Order order, Money quantity) {
+        order.setFilledSize(order.getFilledSize().plus(quantity));
+        if (order.getRemainingSize().signum() == 0) {
+            order.setStatus(OrderStatus.MATCHED);
+        }
+        orderRepository.save(order);
+
+        OrderEvent.Type type = order.getStatus() == OrderStatus.MATCHED
+                ? OrderEvent.Type.MATCHED
+                : OrderEvent.Type.FILLED;
+        eventPublisher.publishEvent(OrderEvent.of(type, order));
+    }
+}
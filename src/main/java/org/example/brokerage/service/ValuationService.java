@@ -0,0 +1,212 @@
+package org.example.brokerage.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.brokerage.dto.FirmValuation;
+import org.example.brokerage.dto.HoldingValuation;
+import org.example.brokerage.dto.PortfolioValuation;
+import org.example.brokerage.market.MarketData;
+import org.example.brokerage.model.Asset;
+import org.example.brokerage.model.Money;
+import org.example.brokerage.repository.AssetHolding;
+import org.example.brokerage.repository.AssetRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+
+/**
+ * Marks holdings to market in TRY. Each asset is priced at its {@link MarketData} reference price
+ * and TRY at one; holdings of an asset without a price are listed as unpriced and left out of the
+ * totals. Unrealized P&L is market value minus cost basis, and zero for TRY.
+ * <p>
+ * The firm-wide valuation splits the customer id range into partitions of
+ * {@code brokerage.valuation.chunk-size} customers and scans them in parallel on a dedicated
+ * fork/join pool, each partition in its own query and read transaction; partial per-asset sums
+ * are merged and priced once at the end. Partitions are read at slightly different moments, so
+ * the result is not a point-in-time snapshot across customers.
+ */
+@Slf4j
+@Service
+public class ValuationService {
+    private static final String CASH = "TRY";
+    private static final Money CASH_PRICE = Money.of("1");
+
+    private final AssetRepository assetRepository;
+    private final MarketData marketData;
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+
+    public ValuationService(AssetRepository assetRepository, MarketData marketData,
+                            @Value("${brokerage.valuation.parallelism:0}") int parallelism,
+                            @Value("${brokerage.valuation.chunk-size:10000}") int chunkSize) {
+        this.assetRepository = assetRepository;
+        this.marketData = marketData;
+        this.chunkSize = Math.max(chunkSize, 1);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    public PortfolioValuation valueCustomer(Long customerId) {
+        Prices prices = new Prices();
+        List<HoldingValuation> holdings = new ArrayList<>();
+        Totals totals = new Totals();
+        for (Asset asset : assetRepository.findByCustomerId(customerId)) {
+            Exposure exposure = new Exposure();
+            exposure.add(asset.getSize(), asset.getUsableSize(), asset.getCostBasis());
+            holdings.add(totals.add(asset.getAssetName(), exposure, prices.of(asset.getAssetName())));
+        }
+        return PortfolioValuation.builder()
+                .customerId(customerId)
+                .equity(totals.equity.toBigDecimal())
+                .reservedValue(totals.reservedValue.toBigDecimal())
+                .unrealizedPnl(totals.unrealizedPnl.toBigDecimal())
+                .holdings(holdings)
+                .unpricedAssets(totals.unpriced)
+                .valuedAt(LocalDateTime.now())
+                .build();
+    }
+
+    public FirmValuation valueFirm() {
+        long start = System.nanoTime();
+        Long first = assetRepository.findMinCustomerId();
+        Partition all = new Partition();
+        long partitions = 0;
+        if (first != null) {
+            long last = assetRepository.findMaxCustomerId();
+            partitions = (last - first) / chunkSize + 1;
+            long count = partitions;
+            all = pool.submit(() -> LongStream.range(0, count).parallel()
+                    .mapToObj(i -> scan(first + i * chunkSize, Math.min(last, first + (i + 1) * chunkSize - 1)))
+                    .reduce(Partition::merge)).join().orElseGet(Partition::new);
+        }
+
+        Prices prices = new Prices();
+        List<HoldingValuation> assets = new ArrayList<>();
+        Totals totals = new Totals();
+        new TreeMap<>(all.byAsset).forEach((assetName, exposure) ->
+                assets.add(totals.add(assetName, exposure, prices.of(assetName))));
+        log.info("Valued {} holdings of {} customers in {} partitions in {} ms", all.holdings, all.customers,
+                partitions, (System.nanoTime() - start) / 1_000_000);
+
+        return FirmValuation.builder()
+                .customers(all.customers)
+                .holdings(all.holdings)
+                .equity(totals.equity.toBigDecimal())
+                .reservedValue(totals.reservedValue.toBigDecimal())
+                .unrealizedPnl(totals.unrealizedPnl.toBigDecimal())
+                .assets(assets)
+                .unpricedAssets(totals.unpriced)
+                .valuedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private Partition scan(long fromCustomerId, long toCustomerId) {
+        Partition partition = new Partition();
+        Long previous = null;
+        for (AssetHolding holding : assetRepository.findHoldingsByCustomerIdBetween(fromCustomerId, toCustomerId)) {
+            partition.byAsset.computeIfAbsent(holding.assetName(), name -> new Exposure())
+                    .add(holding.size(), holding.usableSize(), holding.costBasis());
+            partition.holdings++;
+            if (!holding.customerId().equals(previous)) {
+                partition.customers++;
+                previous = holding.customerId();
+            }
+        }
+        return partition;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /** Reference prices looked up once per valuation, so every holding of an asset gets the same one. */
+    private final class Prices {
+        private final Map<String, Optional<Money>> prices = new ConcurrentHashMap<>();
+
+        Money of(String assetName) {
+            return prices.computeIfAbsent(assetName, name -> {
+                if (CASH.equals(name)) {
+                    return Optional.of(CASH_PRICE);
+                }
+                BigDecimal price = marketData.snapshot(name, 0).referencePrice();
+                return Optional.ofNullable(price).map(Money::of);
+            }).orElse(null);
+        }
+    }
+
+    /** Holdings of one asset, summed in hundredths. */
+    private static final class Exposure {
+        private Money size = Money.ZERO;
+        private Money reserved = Money.ZERO;
+        private Money costBasis = Money.ZERO;
+
+        void add(Money size, Money usableSize, Money costBasis) {
+            this.size = this.size.plus(size);
+            this.reserved = this.reserved.plus(size.minus(usableSize));
+            this.costBasis = this.costBasis.plus(costBasis);
+        }
+
+        Exposure merge(Exposure other) {
+            size = size.plus(other.size);
+            reserved = reserved.plus(other.reserved);
+            costBasis = costBasis.plus(other.costBasis);
+            return this;
+        }
+    }
+
+    /** Per-asset sums of one or more customer partitions. */
+    private static final class Partition {
+        private final Map<String, Exposure> byAsset = new HashMap<>();
+        private long customers;
+        private long holdings;
+
+        Partition merge(Partition other) {
+            other.byAsset.forEach((assetName, exposure) -> byAsset.merge(assetName, exposure, Exposure::merge));
+            customers += other.customers;
+            holdings += other.holdings;
+            return this;
+        }
+    }
+
+    private static final class Totals {
+        private Money equity = Money.ZERO;
+        private Money reservedValue = Money.ZERO;
+        private Money unrealizedPnl = Money.ZERO;
+        private final List<String> unpriced = new ArrayList<>();
+
+        HoldingValuation add(String assetName, Exposure exposure, Money price) {
+            HoldingValuation.HoldingValuationBuilder line = HoldingValuation.builder()
+                    .assetName(assetName)
+                    .size(exposure.size.toBigDecimal())
+                    .reserved(exposure.reserved.toBigDecimal())
+                    .costBasis(exposure.costBasis.toBigDecimal());
+            if (price == null) {
+                unpriced.add(assetName);
+                return line.build();
+            }
+            Money marketValue = exposure.size.times(price);
+            Money reserved = exposure.reserved.times(price);
+            Money pnl = CASH.equals(assetName) ? Money.ZERO : marketValue.minus(exposure.costBasis);
+            equity = equity.plus(marketValue);
+            reservedValue = reservedValue.plus(reserved);
+            unrealizedPnl = unrealizedPnl.plus(pnl);
+            return line
+                    .price(price.toBigDecimal())
+                    .marketValue(marketValue.toBigDecimal())
+                    .reservedValue(reserved.toBigDecimal())
+                    .unrealizedPnl(pnl.toBigDecimal())
+                    .build();
+        }
+    }
+}
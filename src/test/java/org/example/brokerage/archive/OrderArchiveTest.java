@@ -0,0 +1,140 @@
+package org.example.brokerage.archive;
+
+import org.example.brokerage.model.Money;
+import org.example.brokerage.model.Order;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.model.TimeInForce;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderArchiveTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 3, 14, 10, 30, 15, 123_456_789);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void append_PartitionsByCreationDayAndFindRoundTrips() throws IOException {
+        OrderArchive archive = archive(4);
+        Order partlyFilled = order(1L, 2L, DAY, OrderStatus.CANCELED);
+        partlyFilled.setFilledSize(Money.of("3.25"));
+        partlyFilled.setTimeInForce(TimeInForce.DAY);
+        archive.append(List.of(partlyFilled, order(2L, 3L, DAY, OrderStatus.MATCHED),
+                order(3L, 2L, DAY.plusDays(1), OrderStatus.MATCHED)));
+
+        try (Stream<Path> days = Files.list(directory)) {
+            assertEquals(List.of("2025-03-14", "2025-03-15"),
+                    days.map(path -> path.getFileName().toString()).sorted().toList());
+        }
+        List<Order> found = archive.find(2L, DAY.minusDays(1), DAY.plusDays(2));
+        assertEquals(List.of(1L, 3L), found.stream().map(Order::getId).toList());
+        assertEquals(partlyFilled, found.get(0));
+    }
+
+    @Test
+    void find_FiltersByInstantAndReturnsOrdersArchivedTwiceOnce() {
+        OrderArchive archive = archive(4);
+        Order early = order(1L, 2L, DAY.withHour(8), OrderStatus.MATCHED);
+        Order late = order(2L, 2L, DAY.withHour(18), OrderStatus.MATCHED);
+        archive.append(List.of(early));
+        archive.append(List.of(early, late));
+
+        assertEquals(List.of(early, late), archive.find(2L, DAY.withHour(0), DAY.withHour(23)));
+        assertEquals(List.of(late), archive.find(2L, DAY.withHour(12), DAY.withHour(23)));
+        assertEquals(List.of(), archive.find(2L, DAY.plusDays(1), DAY.plusDays(3)));
+    }
+
+    @Test
+    void find_ReadsOnlyTheCustomersBucketAndSurvivesABucketCountChange() throws IOException {
+        archive(4).append(List.of(order(1L, 2L, DAY, OrderStatus.MATCHED), order(2L, 3L, DAY, OrderStatus.MATCHED)));
+        archive(16).append(List.of(order(3L, 2L, DAY, OrderStatus.MATCHED)));
+        // Damage every other bucket of the day; the lookup must never open them
+        try (Stream<Path> buckets = Files.list(directory.resolve("2025-03-14"))) {
+            for (Path bucket : buckets.toList()) {
+                if (!bucket.getFileName().toString().equals(OrderArchive.bucketOf(2L, 4) + "-of-4")
+                        && !bucket.getFileName().toString().equals(OrderArchive.bucketOf(2L, 16) + "-of-16")) {
+                    try (Stream<Path> parts = Files.list(bucket)) {
+                        for (Path part : parts.toList()) {
+                            Files.write(part, new byte[]{1, 2, 3});
+                        }
+                    }
+                }
+            }
+        }
+
+        assertEquals(List.of(1L, 3L), archive(16).find(2L, DAY.minusDays(1), DAY.plusDays(1)).stream()
+                .map(Order::getId).toList());
+    }
+
+    @Test
+    void findAfter_StartsAfterTheKeyAndStopsAtTheDayThatFillsTheLimit() throws IOException {
+        OrderArchive archive = archive(4);
+        archive.append(List.of(order(1L, 2L, DAY, OrderStatus.MATCHED), order(2L, 2L, DAY, OrderStatus.MATCHED),
+                order(3L, 2L, DAY.plusDays(1), OrderStatus.MATCHED),
+                order(4L, 2L, DAY.plusDays(2), OrderStatus.MATCHED)));
+        // A day past the one that fills the page must never be opened
+        try (Stream<Path> parts = Files.walk(directory.resolve("2025-03-16"))) {
+            for (Path part : parts.filter(Files::isRegularFile).toList()) {
+                Files.write(part, new byte[]{1, 2, 3});
+            }
+        }
+
+        List<Order> found = archive.findAfter(2L, DAY.minusDays(1), DAY.plusDays(3), DAY, 1L, 2);
+
+        assertEquals(List.of(2L, 3L), found.stream().map(Order::getId).toList());
+    }
+
+    @Test
+    void neededFor_BoundedRangesMergeAndOpenOnesReachingTheArchiveAreRejected() {
+        OrderArchive archive = archive(4);
+        assertFalse(archive.neededFor(null, null));
+        archive.append(List.of(order(1L, 3L, DAY, OrderStatus.MATCHED)));
+
+        assertTrue(archive.neededFor(DAY.minusDays(1), DAY.plusDays(1)));
+        assertFalse(archive.neededFor(DAY.plusDays(1), null));
+        assertThrows(IllegalArgumentException.class, () -> archive.neededFor(null, DAY.plusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> archive.neededFor(DAY.minusDays(100), DAY));
+    }
+
+    @Test
+    void find_RangeBeyondMaximum_Rejected() {
+        OrderArchive archive = archive(4);
+        archive.append(List.of(order(1L, 2L, DAY, OrderStatus.MATCHED)));
+
+        assertEquals(1, archive.find(2L, DAY.minusDays(91), DAY).size());
+        assertThrows(IllegalArgumentException.class, () -> archive.find(2L, DAY.minusDays(92), DAY));
+    }
+
+    @Test
+    void find_NoArchiveDirectory_Empty() {
+        assertEquals(List.of(), new OrderArchive(directory.resolve("missing"), 4, 92).find(2L, DAY, DAY));
+    }
+
+    private OrderArchive archive(int buckets) {
+        return new OrderArchive(directory, buckets, 92);
+    }
+
+    private static Order order(Long id, Long customerId, LocalDateTime createDate, OrderStatus status) {
+        return Order.builder()
+                .id(id)
+                .customerId(customerId)
+                .assetName("AAPL")
+                .orderSide(OrderSide.SELL)
+                .size(Money.of("10"))
+                .price(Money.of("150.05"))
+                .filledSize(status == OrderStatus.MATCHED ? Money.of("10") : Money.ZERO)
+                .status(status)
+                .createDate(createDate)
+                .build();
+    }
+}
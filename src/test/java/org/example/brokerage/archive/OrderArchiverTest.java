@@ -0,0 +1,84 @@
+package org.example.brokerage.archive;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.brokerage.event.OrdersArchivedEvent;
+import org.example.brokerage.model.Money;
+import org.example.brokerage.model.Order;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderArchiverTest {
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderArchive orderArchive;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void archiveCreatedBefore_WritesEachBatchBeforeDeletingIt() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OrderArchiver archiver = new OrderArchiver(orderRepository, orderArchive, eventPublisher, meterRegistry,
+                Duration.ofDays(30), 2);
+        List<Order> first = List.of(order(1L), order(4L));
+        List<Order> second = List.of(order(9L));
+        when(orderRepository.findTerminalCreatedBefore(CUTOFF, 0L, Limit.of(2))).thenReturn(first);
+        when(orderRepository.findTerminalCreatedBefore(CUTOFF, 4L, Limit.of(2))).thenReturn(second);
+
+        assertEquals(3, archiver.archiveCreatedBefore(CUTOFF));
+
+        InOrder inOrder = inOrder(orderArchive, orderRepository, eventPublisher);
+        inOrder.verify(orderArchive).append(first);
+        inOrder.verify(orderRepository).deleteAllByIdInBatch(List.of(1L, 4L));
+        inOrder.verify(eventPublisher).publishEvent(any(OrdersArchivedEvent.class));
+        inOrder.verify(orderArchive).append(second);
+        inOrder.verify(orderRepository).deleteAllByIdInBatch(List.of(9L));
+        assertEquals(3.0, meterRegistry.get("brokerage.archive.orders").functionCounter().count());
+    }
+
+    @Test
+    void archiveCreatedBefore_ArchiveWriteFails_KeepsRows() {
+        OrderArchiver archiver = new OrderArchiver(orderRepository, orderArchive, eventPublisher,
+                new SimpleMeterRegistry(), Duration.ofDays(30), 2);
+        List<Order> batch = List.of(order(1L));
+        when(orderRepository.findTerminalCreatedBefore(CUTOFF, 0L, Limit.of(2))).thenReturn(batch);
+        doThrow(new IllegalStateException("disk full")).when(orderArchive).append(batch);
+
+        assertThrows(IllegalStateException.class, () -> archiver.archiveCreatedBefore(CUTOFF));
+
+        verify(orderRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    private static Order order(Long id) {
+        return Order.builder()
+                .id(id)
+                .customerId(2L)
+                .assetName("AAPL")
+                .orderSide(OrderSide.BUY)
+                .size(Money.of("1"))
+                .price(Money.of("100"))
+                .status(OrderStatus.MATCHED)
+                .createDate(CUTOFF.minusDays(40))
+                .build();
+    }
+}
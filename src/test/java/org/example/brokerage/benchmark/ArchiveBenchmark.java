@@ -0,0 +1,94 @@
+package org.example.brokerage.benchmark;
+
+import org.example.brokerage.BrokerageApplication;
+import org.example.brokerage.archive.OrderArchiver;
+import org.example.brokerage.dto.OrderResponse;
+import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.repository.OrderRepository;
+import org.example.brokerage.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code orders} orders of {@code customers} customers in an in-memory H2 database, 95% of them
+ * MATCHED and created 60 to 90 days ago, with and without those moved to the archive: the PENDING
+ * scan every restart and end-of-day run pays, a customer's orders of the last week, and of the last
+ * 90 days, which then reads the archive.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class ArchiveBenchmark {
+    @Param({"1000000"})
+    public int orders;
+
+    @Param({"10000"})
+    public int customers;
+
+    @Param({"false", "true"})
+    public boolean archived;
+
+    private ConfigurableApplicationContext context;
+    private OrderRepository orderRepository;
+    private OrderService orderService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = new SpringApplicationBuilder(BrokerageApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID(),
+                "--spring.jpa.show-sql=false",
+                "--brokerage.archive.enabled=true",
+                "--brokerage.archive.interval-millis=" + Long.MAX_VALUE / 2,
+                "--brokerage.archive.directory=" + Files.createTempDirectory("archive-bench"),
+                "--logging.level.root=WARN");
+        orderRepository = context.getBean(OrderRepository.class);
+        orderService = context.getBean(OrderService.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO orders (id, version, customer_id, asset_name, order_side, size, price, "
+                + "filled_size, status, time_in_force, create_date) SELECT X, 0, MOD(X, ?) + 100, 'AAPL', "
+                + "CASEWHEN(MOD(X, 2) = 0, 'BUY', 'SELL'), 10.00, 150.00, "
+                + "CASEWHEN(MOD(X, 20) = 0, 0, 10.00), CASEWHEN(MOD(X, 20) = 0, 'PENDING', 'MATCHED'), 'GTC', "
+                + "CASEWHEN(MOD(X, 20) = 0, DATEADD('MINUTE', -MOD(X, 10000), CURRENT_TIMESTAMP), "
+                + "DATEADD('MINUTE', -(86400 + MOD(X, 43200)), CURRENT_TIMESTAMP)) "
+                + "FROM SYSTEM_RANGE(1, ?)", customers, orders);
+        if (archived) {
+            context.getBean(OrderArchiver.class).archiveCreatedBefore(LocalDateTime.now().minusDays(30));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int pendingScan() {
+        return orderRepository.findByStatus(OrderStatus.PENDING).size();
+    }
+
+    @Benchmark
+    public List<OrderResponse> listLastWeek() {
+        LocalDateTime now = LocalDateTime.now();
+        return orderService.listOrders(100L, now.minusDays(7), now);
+    }
+
+    @Benchmark
+    public List<OrderResponse> listLast90Days() {
+        LocalDateTime now = LocalDateTime.now();
+        return orderService.listOrders(100L, now.minusDays(90), now);
+    }
+}
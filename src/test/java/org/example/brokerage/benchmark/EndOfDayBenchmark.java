@@ -0,0 +1,109 @@
+package org.example.brokerage.benchmark;
+
+import org.example.brokerage.BrokerageApplication;
+import org.example.brokerage.eod.EndOfDayJob;
+import org.example.brokerage.eod.EndOfDayReport;
+import org.example.brokerage.model.Asset;
+import org.example.brokerage.model.Money;
+import org.example.brokerage.model.Order;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.repository.AssetRepository;
+import org.example.brokerage.repository.OrderRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-of-day reconciliation of {@code customers} customers, each holding TRY and AAPL with one
+ * PENDING BUY order, in an in-memory H2 database: the chunked {@link EndOfDayJob} run against
+ * loading every asset and pending order entity in one transaction and comparing on one thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class EndOfDayBenchmark {
+    @Param({"1000000"})
+    public int customers;
+
+    @Param({"10000"})
+    public int chunkSize;
+
+    private ConfigurableApplicationContext context;
+    private EndOfDayJob endOfDayJob;
+    private AssetRepository assetRepository;
+    private OrderRepository orderRepository;
+    private TransactionTemplate transactionTemplate;
+    private LocalDate businessDate = LocalDate.of(2000, 1, 1);
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path directory = Files.createTempDirectory("eod-bench");
+        context = new SpringApplicationBuilder(BrokerageApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID(),
+                "--spring.jpa.show-sql=false",
+                "--brokerage.eod.directory=" + directory,
+                "--brokerage.eod.chunk-size=" + chunkSize,
+                "--logging.level.root=WARN");
+        endOfDayJob = context.getBean(EndOfDayJob.class);
+        assetRepository = context.getBean(AssetRepository.class);
+        orderRepository = context.getBean(OrderRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO assets (version, customer_id, asset_name, size, usable_size, cost_basis) "
+                + "SELECT 0, X + 100, 'TRY', 100000.00, 98500.00, 0 FROM SYSTEM_RANGE(1, ?)", customers);
+        jdbcTemplate.update("INSERT INTO assets (version, customer_id, asset_name, size, usable_size, cost_basis) "
+                + "SELECT 0, X + 100, 'AAPL', 10.00, 10.00, 1500.00 FROM SYSTEM_RANGE(1, ?)", customers);
+        jdbcTemplate.update("INSERT INTO orders (id, version, customer_id, asset_name, order_side, size, price, "
+                + "filled_size, status, time_in_force, create_date) SELECT X, 0, X + 100, 'AAPL', 'BUY', 10.00, "
+                + "150.00, 0, 'PENDING', 'GTC', CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, ?)", customers);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public EndOfDayReport chunkedRun() {
+        // Every invocation is a new business date; an existing one would just return its report
+        businessDate = businessDate.plusDays(1);
+        return endOfDayJob.run(businessDate);
+    }
+
+    @Benchmark
+    public int entityScan() {
+        return transactionTemplate.execute(status -> {
+            Map<String, Money> expected = new HashMap<>();
+            for (Order order : orderRepository.findByStatus(OrderStatus.PENDING)) {
+                boolean buy = order.getOrderSide() == OrderSide.BUY;
+                expected.merge(order.getCustomerId() + (buy ? "/TRY" : "/" + order.getAssetName()),
+                        buy ? order.getRemainingSize().times(order.getPrice()) : order.getRemainingSize(), Money::plus);
+            }
+            int breaks = 0;
+            for (Asset asset : assetRepository.findAll()) {
+                Money want = expected.getOrDefault(asset.getCustomerId() + "/" + asset.getAssetName(), Money.ZERO);
+                if (!asset.getSize().minus(asset.getUsableSize()).equals(want)) {
+                    breaks++;
+                }
+            }
+            return breaks;
+        });
+    }
+}
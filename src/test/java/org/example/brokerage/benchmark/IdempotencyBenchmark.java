@@ -0,0 +1,66 @@
+package org.example.brokerage.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.brokerage.dto.CreateOrderRequest;
+import org.example.brokerage.dto.OrderResponse;
+import org.example.brokerage.idempotency.IdempotencyStore;
+import org.example.brokerage.model.OrderSide;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link IdempotencyStore} on the order placement path, holding {@code keys} keys over
+ * {@code stripes} stripes: a retry answered from a stored key, and a first use that records a new
+ * key around a command that does nothing, so only the store's own cost is measured. Run with
+ * {@code -t 4} to see the stripes under contention.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class IdempotencyBenchmark {
+    @Param({"100000"})
+    public int keys;
+
+    @Param({"1", "64"})
+    public int stripes;
+
+    private IdempotencyStore store;
+    private CreateOrderRequest request;
+    private OrderResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new IdempotencyStore(null, new ObjectMapper(), new SimpleMeterRegistry(), Duration.ofHours(1),
+                10 * keys, stripes, false);
+        request = new CreateOrderRequest();
+        request.setCustomerId(2L);
+        request.setAssetName("AAPL");
+        request.setOrderSide(OrderSide.BUY);
+        request.setSize(BigDecimal.ONE);
+        request.setPrice(BigDecimal.TEN);
+        response = OrderResponse.builder().id(1L).build();
+        for (int i = 0; i < keys; i++) {
+            store.execute("createOrder", 2L, "key-" + i, request, OrderResponse.class, () -> response);
+        }
+    }
+
+    @Benchmark
+    public OrderResponse replay() {
+        String key = "key-" + ThreadLocalRandom.current().nextInt(keys);
+        return store.execute("createOrder", 2L, key, request, OrderResponse.class, () -> response);
+    }
+
+    @Benchmark
+    public OrderResponse firstUse() {
+        String key = "new-" + ThreadLocalRandom.current().nextLong();
+        return store.execute("createOrder", 2L, key, request, OrderResponse.class, () -> response);
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.brokerage.benchmark;
+
+import org.example.brokerage.BrokerageApplication;
+import org.example.brokerage.dto.CreateOrderRequest;
+import org.example.brokerage.intake.OrderIntake;
+import org.example.brokerage.model.Asset;
+import org.example.brokerage.model.Customer;
+import org.example.brokerage.model.Money;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.repository.AssetRepository;
+import org.example.brokerage.repository.CustomerRepository;
+import org.example.brokerage.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sustained order intake: {@value #ORDERS} BUY orders spread over {@code customers} customers,
+ * either placed one transaction each through {@link OrderService#createOrder} or published to the
+ * asynchronous {@link OrderIntake} and waited for until the sequencer has applied the last one.
+ * Scores are orders per second. Nothing crosses, so every order does the same work.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class IntakeBenchmark {
+    private static final int ORDERS = 1000;
+
+    @Param({"1000"})
+    public int customers;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private OrderIntake orderIntake;
+    private final List<Long> customerIds = new ArrayList<>();
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BrokerageApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID(),
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--brokerage.intake.enabled=true");
+        orderService = context.getBean(OrderService.class);
+        orderIntake = context.getBean(OrderIntake.class);
+
+        CustomerRepository customerRepository = context.getBean(CustomerRepository.class);
+        AssetRepository assetRepository = context.getBean(AssetRepository.class);
+        Money balance = Money.of("1000000000");
+        for (int i = 0; i < customers; i++) {
+            Long customerId = customerRepository.save(Customer.builder()
+                    .username("intake" + i)
+                    .password("unused")
+                    .role("CUSTOMER")
+                    .build()).getId();
+            customerIds.add(customerId);
+            assetRepository.save(Asset.builder()
+                    .customerId(customerId)
+                    .assetName("TRY")
+                    .size(balance)
+                    .usableSize(balance)
+                    .build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public void perRequestTransaction() {
+        for (int i = 0; i < ORDERS; i++) {
+            orderService.createOrder(request(nextCustomer()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public long asyncIntake() {
+        long last = -1;
+        for (int i = 0; i < ORDERS; i++) {
+            last = orderIntake.publish(request(nextCustomer()));
+        }
+        while (orderIntake.appliedSequence() < last) {
+            LockSupport.parkNanos(50_000);
+        }
+        return last;
+    }
+
+    private Long nextCustomer() {
+        Long customerId = customerIds.get(next);
+        next = (next + 1) % customerIds.size();
+        return customerId;
+    }
+
+    private static CreateOrderRequest request(Long customerId) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(customerId);
+        request.setAssetName("AAPL");
+        request.setOrderSide(OrderSide.BUY);
+        request.setSize(BigDecimal.ONE);
+        request.setPrice(BigDecimal.ONE);
+        return request;
+    }
+}
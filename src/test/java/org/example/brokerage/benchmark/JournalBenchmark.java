@@ -0,0 +1,103 @@
+package org.example.brokerage.benchmark;
+
+import org.example.brokerage.event.BalanceEvent;
+import org.example.brokerage.event.OrderEvent;
+import org.example.brokerage.journal.FsyncPolicy;
+import org.example.brokerage.journal.OrderJournal;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.model.TimeInForce;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording one order command (a reservation plus the order) as a journal append under
+ * each fsync policy, against the row-level alternative: UPDATE of the asset and INSERT of the
+ * order committed as one transaction in a file-backed H2 database ({@code rowUpdate} does not
+ * depend on the policy parameter). Run with {@code -t 8} to see group commit
+ * sharing one fsync between concurrent appenders.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JournalBenchmark {
+
+    @Param({"NONE", "GROUP", "ALWAYS"})
+    public FsyncPolicy fsync;
+
+    private Path directory;
+    private OrderJournal journal;
+    private Connection connection;
+    private final List<Object> command = List.of(
+            new BalanceEvent(7L, 2L, "TRY", 3L, BalanceEvent.Reason.RESERVED, BigDecimal.ZERO, new BigDecimal("-1500.50"),
+                    new BigDecimal("100000.00"), new BigDecimal("98499.50"), BigDecimal.ZERO, LocalDateTime.now()),
+            new OrderEvent(OrderEvent.Type.CREATED, 1L, 2L, "AAPL", OrderSide.BUY, new BigDecimal("10"),
+                    BigDecimal.ZERO, new BigDecimal("150.05"), OrderStatus.PENDING, TimeInForce.GTC,
+                    LocalDateTime.now(), LocalDateTime.now()));
+
+    @Setup
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("journal-benchmark");
+        journal = new OrderJournal(directory.resolve("journal"), DataSize.ofMegabytes(64), fsync, 0);
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("db"), "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE asset (id BIGINT PRIMARY KEY, usable_size DECIMAL(19,2))");
+            statement.execute("CREATE TABLE orders (id BIGINT AUTO_INCREMENT PRIMARY KEY, customer_id BIGINT, "
+                    + "asset_name VARCHAR(32), size DECIMAL(19,2), price DECIMAL(19,2), status VARCHAR(16))");
+            statement.execute("INSERT INTO asset VALUES (1, 1000000000)");
+        }
+        connection.setAutoCommit(false);
+        connection.commit();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, SQLException {
+        journal.close();
+        connection.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public long journalAppend() {
+        long sequence = journal.append(command);
+        journal.awaitDurable(sequence);
+        return sequence;
+    }
+
+    @Benchmark
+    public int rowUpdate() throws SQLException {
+        // Each command opens its own statements, as a request would through JPA
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE asset SET usable_size = usable_size - ? WHERE id = ?");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO orders (customer_id, asset_name, size, price, status) VALUES (?, ?, ?, ?, ?)")) {
+            update.setBigDecimal(1, new BigDecimal("1500.50"));
+            update.setLong(2, 1L);
+            insert.setLong(1, 2L);
+            insert.setString(2, "AAPL");
+            insert.setBigDecimal(3, new BigDecimal("10"));
+            insert.setBigDecimal(4, new BigDecimal("150.05"));
+            insert.setString(5, "PENDING");
+            int rows = update.executeUpdate() + insert.executeUpdate();
+            connection.commit();
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.brokerage.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.ServletException;
+import org.example.brokerage.security.JwtAuthenticationFilter;
+import org.example.brokerage.security.JwtUtil;
+import org.example.brokerage.security.UserPrincipal;
+import org.example.brokerage.security.VerifiedTokenCache;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authentication cost: the original validate-then-extract path with a fresh parser
+ * for each call, a single parse with the shared parser (cache miss) and a cache hit, plus the
+ * whole filter with the cache warm.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationBenchmark {
+    private static final String SECRET = "YourSuperSecretKeyForJWTTokenGenerationMustBeLongEnough123456";
+
+    private SecretKey secretKey;
+    private JwtUtil jwtUtil;
+    private VerifiedTokenCache tokenCache;
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        secretKey = Keys.hmacShaKeyFor(SECRET.getBytes());
+        jwtUtil = new JwtUtil(SECRET, 86_400_000L);
+        tokenCache = new VerifiedTokenCache(100_000);
+        filter = new JwtAuthenticationFilter(jwtUtil, tokenCache);
+        token = jwtUtil.generateToken("customer1", 2L, "CUSTOMER");
+        tokenCache.put(token, principal(jwtUtil.extractClaims(token)), Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public UserPrincipal legacyValidateThenExtract() {
+        Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token);
+        Claims claims = Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload();
+        return principal(claims);
+    }
+
+    @Benchmark
+    public UserPrincipal sharedParserSingleParse() {
+        return principal(jwtUtil.extractClaims(token));
+    }
+
+    @Benchmark
+    public UserPrincipal cacheHit() {
+        return tokenCache.get(token);
+    }
+
+    @Benchmark
+    public Object filterWithWarmCache() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/assets");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+
+    private static UserPrincipal principal(Claims claims) {
+        return UserPrincipal.builder()
+                .customerId(claims.get("customerId", Long.class))
+                .username(claims.getSubject())
+                .role(claims.get("role", String.class))
+                .build();
+    }
+}
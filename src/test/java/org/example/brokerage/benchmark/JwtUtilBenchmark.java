@@ -0,0 +1,36 @@
+package org.example.brokerage.benchmark;
+
+import io.jsonwebtoken.Claims;
+import org.example.brokerage.security.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+    private static final String SECRET = "YourSuperSecretKeyForJWTTokenGenerationMustBeLongEnough123456";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 900_000L);
+        token = jwtUtil.generateToken("customer1", 2L, "CUSTOMER");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("customer1", 2L, "CUSTOMER");
+    }
+
+    @Benchmark
+    public Claims extractClaims() {
+        return jwtUtil.extractClaims(token);
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.brokerage.benchmark;
+
+import org.example.brokerage.event.OrderEvent;
+import org.example.brokerage.market.CandleAggregator;
+import org.example.brokerage.market.MarketData;
+import org.example.brokerage.market.MarketSnapshot;
+import org.example.brokerage.market.PriceLevel;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.model.TimeInForce;
+import org.example.brokerage.pending.PendingOrderIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the top {@code levels} of one asset's book from the {@link MarketData} snapshot against
+ * aggregating the same depth from the asset's pending orders on every read, the cost of one book
+ * change (a cancel plus a new order, each publishing a snapshot), and of folding one trade into
+ * the asset's 1s/1m/1h/1d candles.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MarketDataBenchmark {
+    @Param("10000")
+    public int orders;
+
+    @Param("10")
+    public int levels;
+
+    private MarketData marketData;
+    private CandleAggregator candleAggregator;
+    private LocalDateTime tradeTime;
+    private PendingOrderIndex pendingOrderIndex;
+    private OrderEvent created;
+    private OrderEvent canceled;
+
+    @Setup
+    public void setUp() {
+        marketData = new MarketData(null, 50);
+        candleAggregator = new CandleAggregator(3600, 1440, 720, 365);
+        tradeTime = LocalDateTime.of(2025, 1, 1, 9, 0);
+        pendingOrderIndex = new PendingOrderIndex(null);
+        LocalDateTime createDate = LocalDateTime.of(2025, 1, 1, 9, 0);
+        for (int i = 0; i < orders; i++) {
+            OrderSide side = i % 2 == 0 ? OrderSide.BUY : OrderSide.SELL;
+            // 200 price levels per side around 100.00
+            BigDecimal price = BigDecimal.valueOf(side == OrderSide.BUY ? 9999 - i % 200 : 10001 + i % 200, 2);
+            OrderEvent event = new OrderEvent(OrderEvent.Type.CREATED, (long) i, 1L, "AAPL", side,
+                    BigDecimal.TEN, BigDecimal.ZERO, price, OrderStatus.PENDING,
+                    TimeInForce.GTC, createDate.plusNanos(i), createDate);
+            marketData.onOrderEvent(event);
+            pendingOrderIndex.onOrderEvent(event);
+        }
+        created = new OrderEvent(OrderEvent.Type.CREATED, (long) orders, 1L, "AAPL", OrderSide.BUY,
+                BigDecimal.TEN, BigDecimal.ZERO, new BigDecimal("99.99"), OrderStatus.PENDING,
+                TimeInForce.GTC, createDate, createDate);
+        canceled = new OrderEvent(OrderEvent.Type.CANCELED, (long) orders, 1L, "AAPL", OrderSide.BUY,
+                BigDecimal.TEN, BigDecimal.ZERO, new BigDecimal("99.99"), OrderStatus.CANCELED,
+                TimeInForce.GTC, createDate, createDate);
+    }
+
+    @Benchmark
+    public MarketSnapshot snapshot() {
+        return marketData.snapshot("AAPL", levels);
+    }
+
+    @Benchmark
+    public List<List<PriceLevel>> aggregatePendingOrders() {
+        NavigableMap<BigDecimal, BigDecimal[]> bids = new TreeMap<>(Comparator.reverseOrder());
+        NavigableMap<BigDecimal, BigDecimal[]> asks = new TreeMap<>();
+        pendingOrderIndex.query("AAPL", null, null, null, null).forEach(order -> {
+            BigDecimal[] level = (order.orderSide() == OrderSide.BUY ? bids : asks)
+                    .computeIfAbsent(order.price(), price -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+            level[0] = level[0].add(order.remainingSize());
+            level[1] = level[1].add(BigDecimal.ONE);
+        });
+        return List.of(top(bids), top(asks));
+    }
+
+    @Benchmark
+    public MarketSnapshot change() {
+        marketData.onOrderEvent(created);
+        marketData.onOrderEvent(canceled);
+        return marketData.snapshot("AAPL", levels);
+    }
+
+    @Benchmark
+    public boolean recordCandle() {
+        // 10 trades per second of simulated time, so buckets keep rolling over
+        tradeTime = tradeTime.plusNanos(100_000_000);
+        return candleAggregator.record("AAPL", new BigDecimal("100.25"), BigDecimal.ONE, tradeTime);
+    }
+
+    private List<PriceLevel> top(NavigableMap<BigDecimal, BigDecimal[]> side) {
+        List<PriceLevel> top = new ArrayList<>(levels);
+        for (Map.Entry<BigDecimal, BigDecimal[]> entry : side.entrySet()) {
+            if (top.size() == levels) {
+                break;
+            }
+            top.add(new PriceLevel(entry.getKey(), entry.getValue()[0], entry.getValue()[1].intValue()));
+        }
+        return top;
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.brokerage.benchmark;
+
+import org.example.brokerage.model.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The buy-side pre-trade check and reservation ({@code size * price}, compare against the usable
+ * balance, subtract) in {@link BigDecimal} and in {@link Money}. Run with {@code -prof gc}: the
+ * {@code Money} reservation should allocate only the resulting balance.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneyBenchmark {
+    private BigDecimal decimalBalance;
+    private BigDecimal decimalSize;
+    private BigDecimal decimalPrice;
+
+    private Money balance;
+    private Money size;
+    private Money price;
+
+    @Setup
+    public void setUp() {
+        decimalBalance = new BigDecimal("100000.00");
+        decimalSize = new BigDecimal("12.50");
+        decimalPrice = new BigDecimal("187.35");
+        balance = Money.of(decimalBalance);
+        size = Money.of(decimalSize);
+        price = Money.of(decimalPrice);
+    }
+
+    @Benchmark
+    public boolean bigDecimalCheck() {
+        return decimalBalance.compareTo(decimalSize.multiply(decimalPrice)) >= 0;
+    }
+
+    @Benchmark
+    public boolean moneyCheck() {
+        return balance.covers(size, price);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalReserve() {
+        BigDecimal totalCost = decimalSize.multiply(decimalPrice);
+        return decimalBalance.compareTo(totalCost) >= 0 ? decimalBalance.subtract(totalCost) : decimalBalance;
+    }
+
+    @Benchmark
+    public Money moneyReserve() {
+        return balance.covers(size, price) ? balance.minus(size.times(price)) : balance;
+    }
+}
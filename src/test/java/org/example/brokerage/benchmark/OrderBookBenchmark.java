@@ -0,0 +1,76 @@
+package org.example.brokerage.benchmark;
+
+import org.example.brokerage.matching.OrderBook;
+import org.example.brokerage.matching.RestingOrder;
+import org.example.brokerage.matching.Trade;
+import org.example.brokerage.model.OrderSide;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@link OrderBook} with {@code depth} BUY orders resting on a single price level, the worst
+ * case for a cancel. Each operation leaves the book as it found it: a new order that rests and is
+ * canceled, a cancel of a random resting order that is then placed again at the back of the level,
+ * and a SELL that crosses the oldest BUY followed by a BUY replacing it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderBookBenchmark {
+    private static final BigDecimal BID = new BigDecimal("100.00");
+    private static final BigDecimal ASK = new BigDecimal("101.00");
+    private static final BigDecimal ONE = new BigDecimal("1.00");
+
+    @Param({"1000", "100000"})
+    public int depth;
+
+    private OrderBook book;
+    private long[] resting;
+    private int oldest;
+    private long nextId;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        book = new OrderBook("AAPL");
+        resting = new long[depth];
+        oldest = 0;
+        nextId = 1;
+        for (int i = 0; i < depth; i++) {
+            resting[i] = nextId;
+            book.submit(order(nextId++, OrderSide.BUY, BID));
+        }
+    }
+
+    @Benchmark
+    public boolean submitAndCancel() {
+        long id = nextId++;
+        book.submit(order(id, OrderSide.SELL, ASK));
+        return book.cancel(id);
+    }
+
+    @Benchmark
+    public List<Trade> cancelAndResubmit() {
+        int index = ThreadLocalRandom.current().nextInt(depth);
+        book.cancel(resting[index]);
+        resting[index] = nextId;
+        return book.submit(order(nextId++, OrderSide.BUY, BID));
+    }
+
+    @Benchmark
+    public List<Trade> cross() {
+        List<Trade> trades = book.submit(order(nextId++, OrderSide.SELL, BID));
+        book.submit(order(nextId++, OrderSide.BUY, BID));
+        return trades;
+    }
+
+    private static RestingOrder order(long id, OrderSide side, BigDecimal price) {
+        return new RestingOrder(id, id, side, price, ONE);
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.brokerage.benchmark;
+
+import org.example.brokerage.BrokerageApplication;
+import org.example.brokerage.dto.AssetResponse;
+import org.example.brokerage.dto.CreateOrderRequest;
+import org.example.brokerage.dto.OrderResponse;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.readmodel.ReadModel;
+import org.example.brokerage.service.AssetService;
+import org.example.brokerage.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/orders and GET /api/assets of {@code customers} customers with {@code ordersPerCustomer}
+ * orders each in an in-memory H2 database, answered by the services or by the {@link ReadModel}.
+ * The {@code mixed} group places BUY orders on one thread while three threads list orders, showing
+ * what read traffic costs the write path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgs = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class ReadModelBenchmark {
+    @Param({"10000"})
+    public int customers;
+
+    @Param({"20"})
+    public int ordersPerCustomer;
+
+    @Param({"false", "true"})
+    public boolean readModel;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private AssetService assetService;
+    private ReadModel model;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BrokerageApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID(),
+                "--spring.jpa.show-sql=false",
+                "--brokerage.read-model.enabled=" + readModel,
+                "--logging.level.root=WARN");
+        orderService = context.getBean(OrderService.class);
+        assetService = context.getBean(AssetService.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO assets (version, customer_id, asset_name, size, usable_size, cost_basis) "
+                + "SELECT 0, X + 99, 'TRY', 1000000000.00, 1000000000.00, 0 FROM SYSTEM_RANGE(1, ?)", customers);
+        jdbcTemplate.update("INSERT INTO assets (version, customer_id, asset_name, size, usable_size, cost_basis) "
+                + "SELECT 0, X + 99, 'AAPL', 10.00, 10.00, 1500.00 FROM SYSTEM_RANGE(1, ?)", customers);
+        jdbcTemplate.update("INSERT INTO orders (id, version, customer_id, asset_name, order_side, size, price, "
+                + "filled_size, status, time_in_force, create_date) SELECT X + 1000000, 0, MOD(X, ?) + 100, 'AAPL', "
+                + "'BUY', 10.00, 150.00, 10.00, 'MATCHED', 'GTC', CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, ?)",
+                customers, customers * ordersPerCustomer);
+        if (readModel) {
+            // Rows inserted behind the application's back; load again as at startup
+            model = context.getBean(ReadModel.class);
+            model.load();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<OrderResponse> listOrders() {
+        Long customerId = randomCustomer();
+        return readModel ? model.orders(customerId, null, null, null) : orderService.listOrders(customerId, null, null);
+    }
+
+    @Benchmark
+    public List<AssetResponse> listAssets() {
+        Long customerId = randomCustomer();
+        return readModel ? model.holdings(customerId, null) : assetService.listAssets(customerId);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public OrderResponse write() {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(randomCustomer());
+        request.setAssetName("AAPL");
+        request.setOrderSide(OrderSide.BUY);
+        request.setSize(BigDecimal.ONE);
+        request.setPrice(BigDecimal.ONE);
+        return orderService.createOrder(request);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public List<OrderResponse> read() {
+        return listOrders();
+    }
+
+    private Long randomCustomer() {
+        return 100L + ThreadLocalRandom.current().nextInt(customers);
+    }
+}
@@ -0,0 +1,184 @@
+package org.example.brokerage.benchmark;
+
+import org.example.brokerage.BrokerageApplication;
+import org.example.brokerage.event.BalanceEvent;
+import org.example.brokerage.event.OrderEvent;
+import org.example.brokerage.journal.BalanceRecord;
+import org.example.brokerage.journal.CustomerRecord;
+import org.example.brokerage.journal.FsyncPolicy;
+import org.example.brokerage.journal.JournalDelta;
+import org.example.brokerage.journal.OrderJournal;
+import org.example.brokerage.journal.OrderRecord;
+import org.example.brokerage.journal.SnapshotSink;
+import org.example.brokerage.journal.SnapshotStore;
+import org.example.brokerage.journal.StateRecovery;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.model.TimeInForce;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to ready after a restart, from a snapshot of {@code customers} customers (a TRY and an AAPL
+ * balance each) and {@code orders} open orders, plus a journal tail of {@code tail} records
+ * (balance changes, fills and new orders) written after it.
+ * <ul>
+ *   <li>{@code replay}: reading the snapshot and folding the tail into it, without a database</li>
+ *   <li>{@code boot}: starting the application until it is ready to serve, which adds loading the
+ *   rows into H2 and rebuilding the order books and the pending-order index</li>
+ * </ul>
+ * The defaults are the target sizes; {@code boot} holds everything in an in-memory database, so
+ * pass smaller {@code -p orders=...} when the heap cannot.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class RecoveryBenchmark {
+    private static final String PASSWORD = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3ZpQ8E8G0P5ZkM5JtZtFBLa";
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 1, 2, 10, 0);
+
+    @Param({"1000000"})
+    public int customers;
+
+    @Param({"10000000"})
+    public int orders;
+
+    @Param({"100000"})
+    public int tail;
+
+    private Path directory;
+    private OrderJournal journal;
+    private SnapshotStore.Snapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("recovery-benchmark");
+        SnapshotStore store = new SnapshotStore(directory.resolve("snapshots"), 1);
+        snapshot = store.write(0, this::populate);
+        try (OrderJournal writer = new OrderJournal(directory.resolve("journal"), DataSize.ofMegabytes(64),
+                FsyncPolicy.NONE, 0)) {
+            List<Object> batch = new ArrayList<>();
+            for (int i = 0; i < tail; i++) {
+                batch.add(tailEvent(i));
+                if (batch.size() == 1000) {
+                    writer.append(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                writer.append(batch);
+            }
+        }
+        journal = new OrderJournal(directory.resolve("journal"), DataSize.ofMegabytes(64), FsyncPolicy.NONE, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public long replay() {
+        Counting counting = new Counting();
+        JournalDelta delta = StateRecovery.restore(snapshot, journal, counting);
+        return counting.records + delta.lastSequence();
+    }
+
+    @Benchmark
+    public int boot() {
+        journal.close();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BrokerageApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:recovery-" + UUID.randomUUID(),
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.example.brokerage.journal=INFO",
+                "--brokerage.journal.enabled=true",
+                "--brokerage.journal.directory=" + directory.resolve("journal"),
+                "--brokerage.journal.fsync=NONE",
+                "--brokerage.snapshot.enabled=true",
+                "--brokerage.snapshot.directory=" + directory.resolve("snapshots"),
+                "--brokerage.snapshot.interval-millis=3600000")) {
+            return context.getBeanDefinitionCount();
+        } finally {
+            journal = new OrderJournal(directory.resolve("journal"), DataSize.ofMegabytes(64), FsyncPolicy.NONE, 0);
+        }
+    }
+
+    private void populate(SnapshotSink sink) {
+        for (long id = 1; id <= customers; id++) {
+            sink.customer(new CustomerRecord(id, "customer" + id, PASSWORD, "CUSTOMER"));
+        }
+        BigDecimal cash = new BigDecimal("1000000.00");
+        BigDecimal shares = new BigDecimal("1000.00");
+        BigDecimal cost = new BigDecimal("150000.00");
+        for (long id = 1; id <= customers; id++) {
+            sink.balance(new BalanceRecord(id, 1, id, "TRY", cash, cash, BigDecimal.ZERO));
+            sink.balance(new BalanceRecord(customers + id, 1, id, "AAPL", shares, shares, cost));
+        }
+        for (long id = 1; id <= orders; id++) {
+            sink.order(openOrder(id));
+        }
+    }
+
+    private Object tailEvent(int i) {
+        long customerId = i % customers + 1;
+        return switch (i % 3) {
+            case 0 -> new BalanceEvent(customerId, customerId, "TRY", 1L + i / customers, BalanceEvent.Reason.RESERVED,
+                    BigDecimal.ZERO, new BigDecimal("-100.00"), new BigDecimal("1000000.00"),
+                    new BigDecimal("999900.00"), BigDecimal.ZERO, CREATED);
+            case 1 -> orderEvent(OrderEvent.Type.FILLED, i % orders + 1, new BigDecimal("1.00"));
+            default -> orderEvent(OrderEvent.Type.CREATED, orders + i, BigDecimal.ZERO);
+        };
+    }
+
+    private OrderEvent orderEvent(OrderEvent.Type type, long id, BigDecimal filledSize) {
+        OrderRecord order = openOrder(id);
+        return new OrderEvent(type, id, order.customerId(), order.assetName(), order.orderSide(), order.size(),
+                filledSize, order.price(), OrderStatus.PENDING, order.timeInForce(), CREATED, CREATED);
+    }
+
+    private OrderRecord openOrder(long id) {
+        // BUY orders all bid below every SELL offer, so the rebuilt books hold them without crossing
+        boolean buy = id % 2 == 0;
+        return new OrderRecord(id, id % customers + 1, "AAPL", buy ? OrderSide.BUY : OrderSide.SELL,
+                new BigDecimal("10.00"), BigDecimal.ZERO.setScale(2), new BigDecimal(buy ? "100.00" : "200.00"),
+                TimeInForce.GTC, CREATED.plusNanos(id * 1000));
+    }
+
+    private static final class Counting implements SnapshotSink {
+        private long records;
+
+        @Override
+        public void customer(CustomerRecord customer) {
+            records++;
+        }
+
+        @Override
+        public void balance(BalanceRecord balance) {
+            records++;
+        }
+
+        @Override
+        public void order(OrderRecord order) {
+            records++;
+        }
+    }
+}
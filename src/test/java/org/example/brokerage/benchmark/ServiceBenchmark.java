@@ -0,0 +1,224 @@
+package org.example.brokerage.benchmark;
+
+import org.example.brokerage.BrokerageApplication;
+import org.example.brokerage.dto.AssetResponse;
+import org.example.brokerage.dto.BatchOrderResult;
+import org.example.brokerage.dto.CreateOrderRequest;
+import org.example.brokerage.dto.OrderResponse;
+import org.example.brokerage.model.*;
+import org.example.brokerage.repository.AssetRepository;
+import org.example.brokerage.repository.CustomerRepository;
+import org.example.brokerage.repository.OrderRepository;
+import org.example.brokerage.service.AdminService;
+import org.example.brokerage.service.AssetService;
+import org.example.brokerage.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-layer hot paths against an in-memory H2 database pre-populated with {@code customers}
+ * customers, each holding TRY and AAPL and {@code ordersPerCustomer} historical (matched or
+ * canceled) orders. Calls go through the Spring proxies, so transactions and the order event
+ * listeners (matching, pending index) are included. Each call targets the next customer in turn.
+ * BUY orders are priced below every SELL order so nothing crosses and each call does the same work.
+ * The orders an iteration creates are canceled and deleted after it, so every iteration starts
+ * from the same orders table, order book and pending index.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ServiceBenchmark {
+    private static final Money BALANCE = Money.of("1000000000");
+
+    @Param({"1000"})
+    public int customers;
+
+    @Param({"20"})
+    public int ordersPerCustomer;
+
+    @Param({"100"})
+    public int basketSize;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private AdminService adminService;
+    private AssetService assetService;
+    private OrderRepository orderRepository;
+    private final List<Long> customerIds = new ArrayList<>();
+    private final Queue<OrderResponse> created = new ConcurrentLinkedQueue<>();
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BrokerageApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID(),
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN");
+        orderService = context.getBean(OrderService.class);
+        adminService = context.getBean(AdminService.class);
+        assetService = context.getBean(AssetService.class);
+        orderRepository = context.getBean(OrderRepository.class);
+        populate(context.getBean(CustomerRepository.class), context.getBean(AssetRepository.class), orderRepository);
+    }
+
+    /** Cancels what is still pending, which also takes it out of the book, then drops the rows. */
+    @TearDown(Level.Iteration)
+    public void removeCreatedOrders() {
+        List<Long> ids = new ArrayList<>(created.size());
+        for (OrderResponse order; (order = created.poll()) != null; ) {
+            ids.add(order.getId());
+            if (orderRepository.findById(order.getId()).map(Order::getStatus).orElse(null) == OrderStatus.PENDING) {
+                orderService.deleteOrder(order.getId(), order.getCustomerId());
+            }
+        }
+        orderRepository.deleteAllByIdInBatch(ids);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderResponse createOrderBuy() {
+        return track(orderService.createOrder(request(nextCustomer(), OrderSide.BUY, "1.00")));
+    }
+
+    @Benchmark
+    public OrderResponse createOrderSell() {
+        return track(orderService.createOrder(request(nextCustomer(), OrderSide.SELL, "1000.00")));
+    }
+
+    /**
+     * One basket of {@code basketSize} BUY orders per call; compare against {@code basketSize}
+     * calls of {@link #createOrderBuy()}.
+     */
+    @Benchmark
+    public List<BatchOrderResult> createOrdersBatch() {
+        Long customerId = nextCustomer();
+        List<CreateOrderRequest> basket = new ArrayList<>(basketSize);
+        for (int i = 0; i < basketSize; i++) {
+            basket.add(request(customerId, OrderSide.BUY, "1.00"));
+        }
+        List<BatchOrderResult> results = orderService.createOrders(basket);
+        for (BatchOrderResult result : results) {
+            if (result.getOrder() != null) {
+                track(result.getOrder());
+            }
+        }
+        return results;
+    }
+
+    @Benchmark
+    public void deleteOrder(PendingOrder pending) {
+        orderService.deleteOrder(pending.orderId, pending.customerId);
+    }
+
+    @Benchmark
+    public void matchOrder(PendingOrder pending) {
+        adminService.matchOrder(pending.orderId);
+    }
+
+    @Benchmark
+    public List<AssetResponse> listAssets() {
+        return assetService.listAssets(nextCustomer());
+    }
+
+    /**
+     * A fresh pending BUY order for every invocation of the cancel and match benchmarks.
+     */
+    @State(Scope.Thread)
+    public static class PendingOrder {
+        private Long orderId;
+        private Long customerId;
+
+        @Setup(Level.Invocation)
+        public void create(ServiceBenchmark benchmark) {
+            customerId = benchmark.nextCustomer();
+            orderId = benchmark.track(benchmark.orderService
+                    .createOrder(request(customerId, OrderSide.BUY, "1.00")))
+                    .getId();
+        }
+    }
+
+    private OrderResponse track(OrderResponse order) {
+        created.add(order);
+        return order;
+    }
+
+    private Long nextCustomer() {
+        Long customerId = customerIds.get(next);
+        next = (next + 1) % customerIds.size();
+        return customerId;
+    }
+
+    private static CreateOrderRequest request(Long customerId, OrderSide side, String price) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(customerId);
+        request.setAssetName("AAPL");
+        request.setOrderSide(side);
+        request.setSize(BigDecimal.ONE);
+        request.setPrice(new BigDecimal(price));
+        return request;
+    }
+
+    private void populate(CustomerRepository customerRepository, AssetRepository assetRepository,
+                          OrderRepository orderRepository) {
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        List<Order> history = new ArrayList<>();
+        for (int i = 0; i < customers; i++) {
+            Customer customer = customerRepository.save(Customer.builder()
+                    .username("bench" + i)
+                    .password("unused")
+                    .role("CUSTOMER")
+                    .build());
+            Long customerId = customer.getId();
+            customerIds.add(customerId);
+            assetRepository.saveAll(List.of(
+                    asset(customerId, "TRY"),
+                    asset(customerId, "AAPL")));
+
+            for (int j = 0; j < ordersPerCustomer; j++) {
+                boolean matched = j % 2 == 0;
+                history.add(Order.builder()
+                        .customerId(customerId)
+                        .assetName("AAPL")
+                        .orderSide(j % 3 == 0 ? OrderSide.SELL : OrderSide.BUY)
+                        .size(Money.of("10"))
+                        .filledSize(matched ? Money.of("10") : Money.ZERO)
+                        .price(Money.of("100.00"))
+                        .status(matched ? OrderStatus.MATCHED : OrderStatus.CANCELED)
+                        .createDate(start.plusSeconds((long) i * ordersPerCustomer + j))
+                        .build());
+            }
+            if (history.size() >= 5_000) {
+                orderRepository.saveAll(history);
+                history.clear();
+            }
+        }
+        orderRepository.saveAll(history);
+    }
+
+    private static Asset asset(Long customerId, String assetName) {
+        return Asset.builder()
+                .customerId(customerId)
+                .assetName(assetName)
+                .size(BALANCE)
+                .usableSize(BALANCE)
+                .build();
+    }
+}
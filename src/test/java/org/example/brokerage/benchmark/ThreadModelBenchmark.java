@@ -0,0 +1,146 @@
+package org.example.brokerage.benchmark;
+
+import org.example.brokerage.BrokerageApplication;
+import org.example.brokerage.model.Asset;
+import org.example.brokerage.model.Customer;
+import org.example.brokerage.model.Money;
+import org.example.brokerage.repository.AssetRepository;
+import org.example.brokerage.repository.CustomerRepository;
+import org.example.brokerage.security.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One round of {@code clients} concurrent customers, each creating an order and then listing its
+ * orders over HTTP, against the app running on platform threads and on virtual threads. Every
+ * client is a separate customer with its own connection, so the server sees {@code clients}
+ * simultaneous requests. Each connection needs a file descriptor on both ends, so lower
+ * {@code -p clients=...} where the open-file limit is below roughly 2.5 x clients.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+@State(Scope.Benchmark)
+public class ThreadModelBenchmark {
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"10000"})
+    public int clients;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private final List<Long> customerIds = new ArrayList<>();
+    private final List<String> tokens = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BrokerageApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--server.tomcat.max-connections=" + (clients + 100),
+                "--server.tomcat.accept-count=" + clients);
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        CustomerRepository customerRepository = context.getBean(CustomerRepository.class);
+        AssetRepository assetRepository = context.getBean(AssetRepository.class);
+        JwtUtil jwtUtil = context.getBean(JwtUtil.class);
+        for (int i = 0; i < clients; i++) {
+            Customer customer = customerRepository.save(Customer.builder()
+                    .username("load" + i)
+                    .password("unused")
+                    .role("CUSTOMER")
+                    .build());
+            assetRepository.save(Asset.builder()
+                    .customerId(customer.getId())
+                    .assetName("TRY")
+                    .size(Money.of("1000000000"))
+                    .usableSize(Money.of("1000000000"))
+                    .build());
+            customerIds.add(customer.getId());
+            tokens.add(jwtUtil.generateToken(customer.getUsername(), customer.getId(), customer.getRole()));
+        }
+
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        httpClient.close();
+        clientExecutor.close();
+        context.close();
+    }
+
+    @Benchmark
+    public void createThenListOrders(Failures failures) {
+        AtomicInteger failed = new AtomicInteger();
+        CompletableFuture<?>[] rounds = new CompletableFuture<?>[clients];
+        for (int i = 0; i < clients; i++) {
+            Long customerId = customerIds.get(i);
+            String token = tokens.get(i);
+            rounds[i] = send(createOrder(customerId, token), 201, failed)
+                    .thenCompose(ignored -> send(listOrders(customerId, token), 200, failed));
+        }
+        CompletableFuture.allOf(rounds).join();
+        failures.failedRequests += failed.get();
+    }
+
+    private CompletableFuture<Void> send(HttpRequest request, int expectedStatus, AtomicInteger failed) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    if (error != null || response.statusCode() != expectedStatus) {
+                        failed.incrementAndGet();
+                    }
+                    return null;
+                });
+    }
+
+    private HttpRequest createOrder(Long customerId, String token) {
+        String body = "{\"customerId\":" + customerId
+                + ",\"assetName\":\"AAPL\",\"orderSide\":\"BUY\",\"size\":1,\"price\":1}";
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/orders"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest listOrders(Long customerId, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/orders?customerId=" + customerId))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    /** Requests that failed or answered an unexpected status, reported next to the timing. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Failures {
+        public int failedRequests;
+    }
+}
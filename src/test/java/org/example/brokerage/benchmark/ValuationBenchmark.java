@@ -0,0 +1,89 @@
+package org.example.brokerage.benchmark;
+
+import org.example.brokerage.BrokerageApplication;
+import org.example.brokerage.dto.FirmValuation;
+import org.example.brokerage.event.TradeEvent;
+import org.example.brokerage.market.MarketData;
+import org.example.brokerage.matching.Trade;
+import org.example.brokerage.model.Asset;
+import org.example.brokerage.model.Money;
+import org.example.brokerage.repository.AssetRepository;
+import org.example.brokerage.service.ValuationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Firm-wide valuation of {@code customers} customers, each holding TRY and AAPL, in an in-memory
+ * H2 database: the partitioned parallel scan of {@link ValuationService#valueFirm()} against
+ * loading every asset entity in one transaction and summing on one thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class ValuationBenchmark {
+    @Param({"1000000"})
+    public int customers;
+
+    @Param({"10000"})
+    public int chunkSize;
+
+    private ConfigurableApplicationContext context;
+    private ValuationService valuationService;
+    private AssetRepository assetRepository;
+    private TransactionTemplate transactionTemplate;
+    private Money price;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BrokerageApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID(),
+                "--spring.jpa.show-sql=false",
+                "--brokerage.valuation.chunk-size=" + chunkSize,
+                "--logging.level.root=WARN");
+        valuationService = context.getBean(ValuationService.class);
+        assetRepository = context.getBean(AssetRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO assets (version, customer_id, asset_name, size, usable_size, cost_basis) "
+                + "SELECT 0, X + 100, 'TRY', 100000.00, 98500.00, 0 FROM SYSTEM_RANGE(1, ?)", customers);
+        jdbcTemplate.update("INSERT INTO assets (version, customer_id, asset_name, size, usable_size, cost_basis) "
+                + "SELECT 0, X + 100, 'AAPL', 10.00, 8.00, 1500.00 FROM SYSTEM_RANGE(1, ?)", customers);
+        context.getBean(MarketData.class).onTradeEvent(new TradeEvent(new Trade("AAPL", 1L, 1L, 2L, 2L,
+                new BigDecimal("160.25"), BigDecimal.ONE), LocalDateTime.now()));
+        price = Money.of("160.25");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public FirmValuation partitionedScan() {
+        return valuationService.valueFirm();
+    }
+
+    @Benchmark
+    public Money entityScan() {
+        return transactionTemplate.execute(status -> {
+            Money equity = Money.ZERO;
+            for (Asset asset : assetRepository.findAll()) {
+                equity = equity.plus("TRY".equals(asset.getAssetName()) ? asset.getSize() : asset.getSize().times(price));
+            }
+            return equity;
+        });
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.brokerage.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.brokerage.dto.AssetResponse;
+import org.example.brokerage.event.OrderEvent;
+import org.example.brokerage.model.Money;
+import org.example.brokerage.model.Order;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HoldingsCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void get_LoadsOnceThenHits() {
+        HoldingsCache cache = new HoldingsCache(registry, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, () -> holdings(loads.incrementAndGet()));
+        List<AssetResponse> cached = cache.get(1L, () -> holdings(loads.incrementAndGet()));
+
+        assertEquals(1, loads.get());
+        assertEquals(new BigDecimal("1"), cached.get(0).getSize());
+        assertEquals(1.0, registry.get("brokerage.cache.holdings.requests").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void onOrderEvent_InvalidatesThatCustomerOnly() {
+        HoldingsCache cache = new HoldingsCache(registry, 10);
+        cache.get(1L, () -> holdings(1));
+        cache.get(2L, () -> holdings(1));
+
+        cache.onOrderEvent(OrderEvent.of(OrderEvent.Type.CREATED, order(1L)));
+
+        assertEquals(new BigDecimal("2"), cache.get(1L, () -> holdings(2)).get(0).getSize());
+        assertEquals(new BigDecimal("1"), cache.get(2L, () -> holdings(2)).get(0).getSize());
+    }
+
+    @Test
+    void get_ConcurrentMissesShareOneLoad() throws Exception {
+        HoldingsCache cache = new HoldingsCache(registry, 10);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        CompletableFuture<List<AssetResponse>> first = CompletableFuture.supplyAsync(() -> cache.get(1L, () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return holdings(1);
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<List<AssetResponse>> second = CompletableFuture.supplyAsync(
+                () -> cache.get(1L, () -> holdings(loads.incrementAndGet())));
+        while (registry.get("brokerage.cache.holdings.coalesced").functionCounter().count() < 1) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_LoadOverlappingInvalidationIsNotCached() {
+        HoldingsCache cache = new HoldingsCache(registry, 10);
+
+        List<AssetResponse> stale = cache.get(1L, () -> {
+            cache.invalidate(1L);
+            return holdings(1);
+        });
+
+        assertEquals(new BigDecimal("1"), stale.get(0).getSize());
+        assertEquals(0, cache.size());
+        assertEquals(new BigDecimal("2"), cache.get(1L, () -> holdings(2)).get(0).getSize());
+    }
+
+    @Test
+    void get_EvictsLeastRecentlyUsed() {
+        HoldingsCache cache = new HoldingsCache(registry, 10);
+        for (long customerId = 1; customerId <= 10; customerId++) {
+            cache.get(customerId, () -> holdings(1));
+        }
+        cache.get(1L, () -> holdings(1));
+
+        cache.get(11L, () -> holdings(1));
+
+        assertTrue(cache.size() <= 10);
+        assertEquals(new BigDecimal("1"), cache.get(1L, () -> holdings(2)).get(0).getSize());
+        assertEquals(new BigDecimal("2"), cache.get(2L, () -> holdings(2)).get(0).getSize());
+        assertTrue(registry.get("brokerage.cache.holdings.evictions").functionCounter().count() >= 1);
+    }
+
+    @Test
+    void get_FailedLoadIsNotCached() {
+        HoldingsCache cache = new HoldingsCache(registry, 10);
+
+        assertThrows(IllegalStateException.class, () -> cache.get(1L, () -> {
+            throw new IllegalStateException("database down");
+        }));
+
+        assertEquals(new BigDecimal("1"), cache.get(1L, () -> holdings(1)).get(0).getSize());
+    }
+
+    private static List<AssetResponse> holdings(int size) {
+        return List.of(AssetResponse.builder()
+                .customerId(1L)
+                .assetName("TRY")
+                .size(new BigDecimal(size))
+                .usableSize(new BigDecimal(size))
+                .build());
+    }
+
+    private static Order order(Long customerId) {
+        return Order.builder()
+                .id(1L)
+                .customerId(customerId)
+                .assetName("AAPL")
+                .orderSide(OrderSide.BUY)
+                .size(Money.of("1"))
+                .price(Money.of("10"))
+                .status(OrderStatus.PENDING)
+                .createDate(LocalDateTime.now())
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.brokerage.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GuardedDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @Test
+    void close_ReleasesPermitOnce() throws Exception {
+        when(target.getConnection()).thenReturn(connection);
+        GuardedDataSource dataSource = new GuardedDataSource(target, 1, 10, 1_000);
+
+        Connection guarded = dataSource.getConnection();
+        assertEquals(0, dataSource.availablePermits());
+
+        guarded.close();
+        guarded.close();
+
+        assertEquals(1, dataSource.availablePermits());
+        assertTrue(guarded.isClosed());
+        verify(connection, times(1)).close();
+    }
+
+    @Test
+    void getConnection_NestedOnSameThreadDoesNotWait() throws Exception {
+        when(target.getConnection()).thenReturn(connection);
+        GuardedDataSource dataSource = new GuardedDataSource(target, 1, 10, 1);
+
+        Connection outer = dataSource.getConnection();
+        Connection inner = dataSource.getConnection();
+        inner.close();
+        assertEquals(0, dataSource.availablePermits());
+
+        outer.close();
+        assertEquals(1, dataSource.availablePermits());
+    }
+
+    @Test
+    void getConnection_TimesOutWhenNoPermit() throws Exception {
+        when(target.getConnection()).thenReturn(connection);
+        GuardedDataSource dataSource = new GuardedDataSource(target, 1, 10, 10);
+        Connection held = dataSource.getConnection();
+
+        ExecutionException thrown = assertThrows(ExecutionException.class, () ->
+                CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return dataSource.getConnection();
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                }).get());
+
+        assertInstanceOf(SQLTransientConnectionException.class, thrown.getCause().getCause());
+        assertEquals(0, dataSource.waiting());
+        held.close();
+    }
+
+    @Test
+    void getConnection_RejectsWhenTooManyWaiting() throws Exception {
+        when(target.getConnection()).thenReturn(connection);
+        GuardedDataSource dataSource = new GuardedDataSource(target, 1, 0, 1_000);
+        Connection held = dataSource.getConnection();
+
+        ExecutionException thrown = assertThrows(ExecutionException.class, () ->
+                CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return dataSource.getConnection();
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                }).get());
+
+        assertInstanceOf(SQLTransientConnectionException.class, thrown.getCause().getCause());
+        verify(target, times(1)).getConnection();
+        held.close();
+        assertEquals(1, dataSource.availablePermits());
+    }
+
+    @Test
+    void getConnection_ReleasesPermitWhenTargetFails() throws Exception {
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"));
+        GuardedDataSource dataSource = new GuardedDataSource(target, 1, 10, 1_000);
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.availablePermits());
+    }
+}
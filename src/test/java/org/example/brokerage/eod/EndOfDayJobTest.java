@@ -0,0 +1,128 @@
+package org.example.brokerage.eod;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.example.brokerage.execution.CustomerCommandExecutor;
+import org.example.brokerage.model.Money;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.repository.AssetHolding;
+import org.example.brokerage.repository.AssetRepository;
+import org.example.brokerage.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EndOfDayJobTest {
+    private static final LocalDate DATE = LocalDate.of(2025, 3, 14);
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private LedgerReader ledgerReader;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private CustomerCommandExecutor commandExecutor;
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private EndOfDayJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new EndOfDayJob(assetRepository, ledgerReader, orderService, commandExecutor, objectMapper,
+                directory, 2, 2, 1);
+        when(assetRepository.findMinCustomerId()).thenReturn(1L);
+        when(assetRepository.findMaxCustomerId()).thenReturn(5L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.shutdown();
+    }
+
+    @Test
+    void run_ExpiresDayOrdersReconcilesEveryChunkAndWritesReport() {
+        when(ledgerReader.expirableOrders(anyLong(), anyLong(), any())).thenReturn(List.of());
+        when(ledgerReader.expirableOrders(eq(3L), eq(4L), any())).thenReturn(List.of(
+                new OpenOrder(7L, 4L, "AAPL", OrderSide.BUY, Money.of("1"), Money.ZERO, Money.of("10"))));
+        when(commandExecutor.execute(eq("expireOrder"), eq(4L), any())).thenAnswer(invocation ->
+                invocation.<Supplier<Boolean>>getArgument(2).get());
+        when(orderService.expireOrder(7L)).thenReturn(true);
+        when(ledgerReader.reconcile(1L, 2L)).thenReturn(reconciled(1L, "100", "100"));
+        when(ledgerReader.reconcile(3L, 4L)).thenReturn(reconciled(4L, "100", "100"));
+        when(ledgerReader.reconcile(5L, 5L)).thenReturn(reconciled(5L, "100", "90"));
+
+        EndOfDayReport report = job.run(DATE);
+
+        assertEquals(3, report.chunks());
+        assertEquals(0, report.resumedChunks());
+        assertEquals(3, report.customers());
+        assertEquals(1, report.expiredOrders());
+        assertEquals(1, report.breakCount());
+        assertEquals(5L, report.breaks().get(0).customerId());
+        assertTrue(Files.exists(directory.resolve("2025-03-14/report.json")));
+        assertTrue(Files.exists(directory.resolve("2025-03-14/chunk-000002.json")));
+    }
+
+    @Test
+    void run_AfterFailedChunk_ResumesOnlyUnfinishedChunks() {
+        when(ledgerReader.expirableOrders(anyLong(), anyLong(), any())).thenReturn(List.of());
+        when(ledgerReader.reconcile(1L, 2L)).thenReturn(reconciled(1L, "100", "100"));
+        when(ledgerReader.reconcile(3L, 4L))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(reconciled(3L, "100", "100"));
+        when(ledgerReader.reconcile(5L, 5L)).thenReturn(reconciled(5L, "100", "100"));
+
+        assertThrows(IllegalStateException.class, () -> job.run(DATE));
+        EndOfDayReport report = job.run(DATE);
+
+        assertEquals(3, report.customers());
+        assertEquals(0, report.breakCount());
+        verify(ledgerReader).reconcile(1L, 2L);
+        verify(ledgerReader, times(2)).reconcile(3L, 4L);
+        verify(ledgerReader).reconcile(5L, 5L);
+        verify(assetRepository).findMinCustomerId();
+    }
+
+    @Test
+    void run_CompletedDate_ReturnsStoredReport() {
+        when(ledgerReader.expirableOrders(anyLong(), anyLong(), any())).thenReturn(List.of());
+        when(ledgerReader.reconcile(anyLong(), anyLong())).thenAnswer(invocation ->
+                reconciled(invocation.getArgument(0), "100", "100"));
+
+        EndOfDayReport first = job.run(DATE);
+        EndOfDayReport again = job.run(DATE);
+
+        assertEquals(first, again);
+        verify(ledgerReader, times(3)).reconcile(anyLong(), anyLong());
+    }
+
+    private static Reconciliation reconciled(Long customerId, String size, String usableSize) {
+        Reconciliation reconciliation = new Reconciliation();
+        reconciliation.holding(new AssetHolding(customerId, "TRY", Money.of(size), Money.of(usableSize), Money.ZERO));
+        return reconciliation;
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.brokerage.eod;
+
+import org.example.brokerage.model.Money;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.repository.AssetHolding;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReconciliationTest {
+
+    @Test
+    void reservationsMatchingPendingOrders_NoBreaks() {
+        Reconciliation reconciliation = new Reconciliation();
+        reconciliation.order(order(1L, 1L, OrderSide.BUY, "10", "2", "100.05"));
+        reconciliation.order(order(2L, 1L, OrderSide.SELL, "4", "0", "200"));
+        reconciliation.holding(holding(1L, "AAPL", "10", "6"));
+        reconciliation.holding(holding(1L, "TRY", "10000", "9199.60"));
+        reconciliation.holding(holding(2L, "TRY", "500", "500"));
+
+        ChunkResult result = reconciliation.finish(0, 1, 2, 0);
+
+        assertEquals(List.of(), result.breaks());
+        assertEquals(2, result.customers());
+        assertEquals(3, result.holdings());
+        assertEquals(2, result.pendingOrders());
+    }
+
+    @Test
+    void reservationDiffersFromPendingOrders_ReportsDifference() {
+        Reconciliation reconciliation = new Reconciliation();
+        reconciliation.order(order(1L, 1L, OrderSide.BUY, "5", "0", "100"));
+        reconciliation.holding(holding(1L, "TRY", "10000", "9400"));
+        reconciliation.holding(holding(1L, "AAPL", "10", "9"));
+
+        List<ReconciliationBreak> breaks = reconciliation.finish(0, 1, 1, 0).breaks();
+
+        assertEquals(2, breaks.size());
+        assertEquals(new ReconciliationBreak(1L, "AAPL", new BigDecimal("10.00"), new BigDecimal("9.00"),
+                new BigDecimal("1.00"), new BigDecimal("0.00"), new BigDecimal("1.00")), breaks.get(0));
+        assertEquals(new ReconciliationBreak(1L, "TRY", new BigDecimal("10000.00"), new BigDecimal("9400.00"),
+                new BigDecimal("600.00"), new BigDecimal("500.00"), new BigDecimal("100.00")), breaks.get(1));
+    }
+
+    @Test
+    void pendingOrderWithoutBalance_ReportedAgainstZero() {
+        Reconciliation reconciliation = new Reconciliation();
+        reconciliation.order(order(1L, 3L, OrderSide.SELL, "2", "0", "50"));
+
+        List<ReconciliationBreak> breaks = reconciliation.finish(0, 1, 3, 0).breaks();
+
+        assertEquals(1, breaks.size());
+        assertEquals(3L, breaks.get(0).customerId());
+        assertEquals(new BigDecimal("-2.00"), breaks.get(0).difference());
+    }
+
+    private static OpenOrder order(Long id, Long customerId, OrderSide side, String size, String filledSize,
+                                   String price) {
+        return new OpenOrder(id, customerId, "AAPL", side, Money.of(size), Money.of(filledSize), Money.of(price));
+    }
+
+    private static AssetHolding holding(Long customerId, String assetName, String size, String usableSize) {
+        return new AssetHolding(customerId, assetName, Money.of(size), Money.of(usableSize), Money.ZERO);
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.brokerage.execution;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.brokerage.journal.JournalEventListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CustomerCommandExecutorTest {
+
+    private CustomerCommandExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void execute_DirectMode_RunsOnCallerThread() {
+        executor = new CustomerCommandExecutor(retry(), noJournal(), ExecutionMode.DIRECT, 4, 100);
+        Thread caller = Thread.currentThread();
+
+        Thread executed = executor.execute("test", 1L, Thread::currentThread);
+
+        assertSame(caller, executed);
+    }
+
+    @Test
+    void execute_ShardedMode_SameCustomerSameThread() {
+        executor = new CustomerCommandExecutor(retry(), noJournal(), ExecutionMode.SHARDED, 4, 100);
+
+        String first = executor.execute("test", 7L, () -> Thread.currentThread().getName());
+        String second = executor.execute("test", 7L, () -> Thread.currentThread().getName());
+
+        assertTrue(first.startsWith("customer-shard-"));
+        assertEquals(first, second);
+    }
+
+    @Test
+    void execute_ShardedMode_AppliesCommandsSeriallyWithoutLocks() throws Exception {
+        executor = new CustomerCommandExecutor(retry(), noJournal(), ExecutionMode.SHARDED, 4, 10000);
+        int[] balance = {0};
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            futures.add(CompletableFuture.runAsync(() -> executor.run("test", 3L, () -> balance[0]++)));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        assertEquals(1000, executor.execute("test", 3L, () -> balance[0]));
+    }
+
+    @Test
+    void execute_ShardedMode_ReentrantCallDoesNotDeadlock() {
+        executor = new CustomerCommandExecutor(retry(), noJournal(), ExecutionMode.SHARDED, 2, 100);
+
+        Integer result = executor.execute("test", 1L, () -> executor.execute("test", 1L, () -> 42));
+
+        assertEquals(42, result);
+    }
+
+    @Test
+    void execute_ShardedMode_PropagatesRuntimeException() {
+        executor = new CustomerCommandExecutor(retry(), noJournal(), ExecutionMode.SHARDED, 2, 100);
+
+        assertThrows(IllegalStateException.class, () -> {
+            executor.run("test", 1L, () -> {
+                throw new IllegalStateException("boom");
+            });
+        });
+    }
+
+    @Test
+    void submit_ShardedMode_RunsAsynchronously() throws Exception {
+        executor = new CustomerCommandExecutor(retry(), noJournal(), ExecutionMode.SHARDED, 2, 100);
+        AtomicInteger counter = new AtomicInteger();
+
+        executor.submit("test", 5L, counter::incrementAndGet).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, counter.get());
+    }
+
+    @Test
+    void execute_JournalEnabled_AwaitsDurabilityAfterTheCommand() {
+        JournalEventListener journal = mock(JournalEventListener.class);
+        ObjectProvider<JournalEventListener> provider = noJournal();
+        when(provider.getIfAvailable()).thenReturn(journal);
+        executor = new CustomerCommandExecutor(retry(), provider, ExecutionMode.SHARDED, 2, 100);
+
+        executor.run("test", 1L, () -> verifyNoInteractions(journal));
+
+        verify(journal).awaitDurable();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<JournalEventListener> noJournal() {
+        return mock(ObjectProvider.class);
+    }
+
+    private OptimisticRetry retry() {
+        return new OptimisticRetry(new SimpleMeterRegistry(), 3, 0);
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.brokerage.execution;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticRetryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OptimisticRetry optimisticRetry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        optimisticRetry = new OptimisticRetry(meterRegistry, 3, 0);
+    }
+
+    @Test
+    void execute_NoConflict_RunsOnce() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = optimisticRetry.execute("createOrder", 1L, () -> {
+            calls.incrementAndGet();
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(1, calls.get());
+        assertEquals(1.0, meterRegistry.counter("brokerage.optimistic.executions", "operation", "createOrder").count());
+        assertTrue(optimisticRetry.hotAccounts(10).isEmpty());
+    }
+
+    @Test
+    void execute_Conflict_ReplaysUntilSuccess() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = optimisticRetry.execute("createOrder", 1L, () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw conflict();
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        assertEquals(2.0, meterRegistry.counter("brokerage.optimistic.conflicts", "operation", "createOrder").count());
+        assertEquals(2.0, meterRegistry.counter("brokerage.optimistic.retries", "operation", "createOrder").count());
+        assertEquals(Map.of(1L, 2L), optimisticRetry.hotAccounts(10));
+    }
+
+    @Test
+    void execute_ConflictExhaustsAttempts() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> {
+            optimisticRetry.execute("matchOrder", 2L, () -> {
+                calls.incrementAndGet();
+                throw conflict();
+            });
+        });
+        assertEquals(3, calls.get());
+        assertEquals(1.0, meterRegistry.counter("brokerage.optimistic.exhausted", "operation", "matchOrder").count());
+    }
+
+    @Test
+    void execute_OtherExceptionNotRetried() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> {
+            optimisticRetry.execute("deleteOrder", 1L, () -> {
+                calls.incrementAndGet();
+                throw new IllegalStateException("Only PENDING orders can be cancelled");
+            });
+        });
+        assertEquals(1, calls.get());
+    }
+
+    private ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException("Asset", 1L);
+    }
+}
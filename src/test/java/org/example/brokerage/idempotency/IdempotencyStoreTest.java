@@ -0,0 +1,228 @@
+package org.example.brokerage.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.brokerage.dto.CreateOrderRequest;
+import org.example.brokerage.dto.OrderResponse;
+import org.example.brokerage.model.IdempotencyKey;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+
+    @Mock
+    private IdempotencyKeyRepository repository;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void execute_SameKey_RunsOnceAndReplaysResult() {
+        IdempotencyStore store = newStore(Duration.ofHours(1), 100, false);
+        AtomicInteger runs = new AtomicInteger();
+
+        OrderResponse first = store.execute("createOrder", 2L, "k1", request("10"), OrderResponse.class,
+                () -> response(runs.incrementAndGet()));
+        OrderResponse again = store.execute("createOrder", 2L, "k1", request("10"), OrderResponse.class,
+                () -> response(runs.incrementAndGet()));
+
+        assertEquals(1, runs.get());
+        assertSame(first, again);
+        assertEquals(1.0, registry.get("brokerage.idempotency.requests").tag("result", "replayed").functionCounter().count());
+    }
+
+    @Test
+    void execute_KeysAreScopedByOperationAndCustomer() {
+        IdempotencyStore store = newStore(Duration.ofHours(1), 100, false);
+        AtomicInteger runs = new AtomicInteger();
+
+        store.execute("createOrder", 2L, "k1", request("10"), OrderResponse.class, () -> response(runs.incrementAndGet()));
+        store.execute("createOrder", 3L, "k1", request("10"), OrderResponse.class, () -> response(runs.incrementAndGet()));
+        store.execute("deleteOrder", 2L, "k1", request("10"), OrderResponse.class, () -> response(runs.incrementAndGet()));
+
+        assertEquals(3, runs.get());
+    }
+
+    @Test
+    void execute_SameKeyDifferentRequest_IsRejected() {
+        IdempotencyStore store = newStore(Duration.ofHours(1), 100, false);
+        store.execute("createOrder", 2L, "k1", request("10"), OrderResponse.class, () -> response(1));
+
+        assertThrows(IllegalArgumentException.class, () ->
+                store.execute("createOrder", 2L, "k1", request("11"), OrderResponse.class, () -> response(2)));
+    }
+
+    @Test
+    void execute_SameKeyRequestWithCollidingHashCode_IsRejected() {
+        IdempotencyStore store = newStore(Duration.ofHours(1), 100, false);
+        store.execute("createOrder", 2L, "k1", request("1", "60"), OrderResponse.class, () -> response(1));
+
+        assertThrows(IllegalArgumentException.class, () ->
+                store.execute("createOrder", 2L, "k1", request("2", "1"), OrderResponse.class, () -> response(2)));
+    }
+
+    @Test
+    void execute_FailedCommand_ReleasesKey() {
+        IdempotencyStore store = newStore(Duration.ofHours(1), 100, false);
+
+        assertThrows(IllegalStateException.class, () -> store.execute("createOrder", 2L, "k1", request("10"),
+                OrderResponse.class, () -> {
+                    throw new IllegalStateException("database down");
+                }));
+        OrderResponse retried = store.execute("createOrder", 2L, "k1", request("10"), OrderResponse.class,
+                () -> response(2));
+
+        assertEquals(2L, retried.getId());
+    }
+
+    @Test
+    void execute_ConcurrentDuplicate_WaitsForFirstResult() throws Exception {
+        IdempotencyStore store = newStore(Duration.ofHours(1), 100, false);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        CompletableFuture<OrderResponse> first = CompletableFuture.supplyAsync(() ->
+                store.execute("createOrder", 2L, "k1", request("10"), OrderResponse.class, () -> {
+                    running.countDown();
+                    awaitLatch(release);
+                    return response(runs.incrementAndGet());
+                }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<OrderResponse> duplicate = CompletableFuture.supplyAsync(() ->
+                store.execute("createOrder", 2L, "k1", request("10"), OrderResponse.class,
+                        () -> response(runs.incrementAndGet())));
+        release.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), duplicate.get(5, TimeUnit.SECONDS));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void execute_ExpiredOrEvictedKey_RunsAgain() throws InterruptedException {
+        IdempotencyStore expiring = newStore(Duration.ofMillis(1), 100, false);
+        expiring.execute("createOrder", 2L, "k1", request("10"), OrderResponse.class, () -> response(1));
+        Thread.sleep(5);
+        assertEquals(2L, expiring.execute("createOrder", 2L, "k1", request("10"), OrderResponse.class,
+                () -> response(2)).getId());
+
+        // Two stripes of one key each
+        SimpleMeterRegistry smallRegistry = new SimpleMeterRegistry();
+        IdempotencyStore small = new IdempotencyStore(repository, objectMapper, smallRegistry, Duration.ofHours(1),
+                2, 2, false);
+        for (int i = 0; i < 10; i++) {
+            small.execute("createOrder", 2L, "k" + i, request("10"), OrderResponse.class, () -> response(1));
+        }
+        assertEquals(2, small.size());
+        assertEquals(8.0, smallRegistry.get("brokerage.idempotency.evictions").functionCounter().count());
+    }
+
+    @Test
+    void execute_FullStripe_NeverEvictsAKeyInFlight() throws Exception {
+        // Two stripes of one key each
+        IdempotencyStore store = new IdempotencyStore(repository, objectMapper, registry, Duration.ofHours(1),
+                2, 2, false);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        CompletableFuture<OrderResponse> first = CompletableFuture.supplyAsync(() ->
+                store.execute("createOrder", 2L, "k1", request("10"), OrderResponse.class, () -> {
+                    running.countDown();
+                    awaitLatch(release);
+                    return response(runs.incrementAndGet());
+                }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        int rejected = 0;
+        for (int i = 2; i < 12; i++) {
+            try {
+                store.execute("createOrder", 2L, "k" + i, request("10"), OrderResponse.class, () -> response(1));
+            } catch (RejectedExecutionException e) {
+                rejected++;
+            }
+        }
+        release.countDown();
+
+        assertTrue(rejected > 0);
+        assertSame(first.get(5, TimeUnit.SECONDS), store.execute("createOrder", 2L, "k1", request("10"),
+                OrderResponse.class, () -> response(runs.incrementAndGet())));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void persistent_WritesThroughAndReplaysAfterReload() {
+        IdempotencyStore store = newStore(Duration.ofHours(1), 100, true);
+        store.execute("createOrder", 2L, "k1", request("10"), OrderResponse.class, () -> response(1));
+        ArgumentCaptor<IdempotencyKey> saved = ArgumentCaptor.forClass(IdempotencyKey.class);
+        verify(repository).save(saved.capture());
+        when(repository.findAll()).thenReturn(List.of(saved.getValue()));
+
+        IdempotencyStore restarted = newStore(Duration.ofHours(1), 100, true);
+        restarted.load();
+        OrderResponse replayed = restarted.execute("createOrder", 2L, "k1", request("10"), OrderResponse.class,
+                () -> response(2));
+
+        assertEquals(response(1), replayed);
+    }
+
+    private IdempotencyStore newStore(Duration ttl, int maxSize, boolean persistent) {
+        return new IdempotencyStore(repository, objectMapper, registry, ttl, maxSize, 2, persistent);
+    }
+
+    private static CreateOrderRequest request(String size) {
+        return request(size, "100");
+    }
+
+    private static CreateOrderRequest request(String size, String price) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(2L);
+        request.setAssetName("AAPL");
+        request.setOrderSide(OrderSide.BUY);
+        request.setSize(new BigDecimal(size));
+        request.setPrice(new BigDecimal(price));
+        return request;
+    }
+
+    private static OrderResponse response(long id) {
+        return OrderResponse.builder()
+                .id(id)
+                .customerId(2L)
+                .assetName("AAPL")
+                .orderSide(OrderSide.BUY)
+                .size(new BigDecimal("10.00"))
+                .price(new BigDecimal("100.00"))
+                .filledSize(new BigDecimal("0.00"))
+                .status(OrderStatus.PENDING)
+                .createDate(LocalDateTime.of(2025, 3, 14, 10, 0))
+                .build();
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package org.example.brokerage.intake;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.brokerage.dto.BatchOrderResult;
+import org.example.brokerage.dto.CreateOrderRequest;
+import org.example.brokerage.dto.IntakeTicket;
+import org.example.brokerage.dto.OrderResponse;
+import org.example.brokerage.execution.CustomerCommandExecutor;
+import org.example.brokerage.execution.ExecutionMode;
+import org.example.brokerage.execution.OptimisticRetry;
+import org.example.brokerage.journal.JournalEventListener;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class OrderIntakeTest {
+
+    private OrderService orderService;
+    private CustomerCommandExecutor executor;
+    private OrderIntake intake;
+
+    @BeforeEach
+    void setUp() {
+        orderService = mock(OrderService.class);
+        executor = executor(ExecutionMode.DIRECT);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        intake.close();
+        executor.shutdown();
+    }
+
+    @Test
+    void publish_AppliesInSequenceOrderAndRecordsTickets() throws Exception {
+        List<Long> appliedCustomers = new ArrayList<>();
+        when(orderService.createOrders(anyList())).thenAnswer(invocation -> {
+            List<CreateOrderRequest> basket = invocation.getArgument(0);
+            List<BatchOrderResult> results = new ArrayList<>();
+            for (int i = 0; i < basket.size(); i++) {
+                appliedCustomers.add(basket.get(i).getCustomerId());
+                results.add(basket.get(i).getSize().signum() > 0
+                        ? BatchOrderResult.accepted(i, OrderResponse.builder().id(100L + i).build())
+                        : BatchOrderResult.rejected(i, "Insufficient TRY balance"));
+            }
+            return results;
+        });
+        intake = new OrderIntake(orderService, executor, 8, 4, 16);
+
+        long first = intake.publish(request(1L, "1"));
+        long second = intake.publish(request(2L, "0"));
+        awaitApplied(second);
+
+        assertEquals(0, first);
+        assertEquals(1, second);
+        assertEquals(List.of(1L, 2L), appliedCustomers);
+        assertEquals(IntakeTicket.Status.PLACED, intake.ticket(first).getStatus());
+        assertEquals(100L, intake.ticket(first).getOrder().getId());
+        assertEquals(IntakeTicket.Status.REJECTED, intake.ticket(second).getStatus());
+        assertEquals("Insufficient TRY balance", intake.ticket(second).getError());
+        assertNull(intake.ticket(2));
+        assertEquals(IntakeTicket.Status.PLACED, intake.ticket(intake.epoch(), first).getStatus());
+        // The same sequence issued by an earlier instance is another order
+        assertNull(intake.ticket(intake.epoch() - 1, first));
+    }
+
+    @Test
+    void publish_FullRing_Rejects() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderService.createOrders(anyList())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return List.of(BatchOrderResult.accepted(0, OrderResponse.builder().build()));
+        });
+        intake = new OrderIntake(orderService, executor, 4, 1, 8);
+
+        intake.publish(request(1L, "1"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 4; i++) {
+            intake.publish(request(1L, "1"));
+        }
+
+        assertThrows(RejectedExecutionException.class, () -> intake.publish(request(1L, "1")));
+        assertEquals(IntakeTicket.Status.QUEUED, intake.ticket(4).getStatus());
+        release.countDown();
+        awaitApplied(4);
+        assertEquals(IntakeTicket.Status.PLACED, intake.ticket(4).getStatus());
+    }
+
+    @Test
+    void publish_OptimisticConflict_ReplaysDrain() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        when(orderService.createOrders(anyList())).thenAnswer(invocation -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new OptimisticLockingFailureException("stale asset");
+            }
+            return List.of(BatchOrderResult.accepted(0, OrderResponse.builder().id(7L).build()));
+        });
+        intake = new OrderIntake(orderService, executor, 8, 4, 16);
+
+        long sequence = intake.publish(request(1L, "1"));
+        awaitApplied(sequence);
+
+        assertEquals(2, attempts.get());
+        assertEquals(IntakeTicket.Status.PLACED, intake.ticket(sequence).getStatus());
+    }
+
+    @Test
+    void publish_FailedDrain_RejectsEveryTicket() throws Exception {
+        when(orderService.createOrders(anyList())).thenThrow(new IllegalStateException("database down"));
+        intake = new OrderIntake(orderService, executor, 8, 4, 16);
+
+        long sequence = intake.publish(request(1L, "1"));
+        awaitApplied(sequence);
+
+        assertEquals(IntakeTicket.Status.REJECTED, intake.ticket(sequence).getStatus());
+        assertEquals("database down", intake.ticket(sequence).getError());
+    }
+
+    @Test
+    void publish_FailedDrain_RejectsOnlyTheFailingCustomer() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderService.createOrders(anyList())).thenAnswer(invocation -> {
+            List<CreateOrderRequest> basket = invocation.getArgument(0);
+            if (basket.get(0).getCustomerId() == 9L) {
+                started.countDown();
+                release.await(10, TimeUnit.SECONDS);
+            }
+            if (basket.stream().anyMatch(request -> request.getCustomerId() == 1L)) {
+                throw new IllegalStateException("asset row locked");
+            }
+            List<BatchOrderResult> results = new ArrayList<>();
+            for (int i = 0; i < basket.size(); i++) {
+                results.add(BatchOrderResult.accepted(i, OrderResponse.builder().id(100L + i).build()));
+            }
+            return results;
+        });
+        intake = new OrderIntake(orderService, executor, 8, 4, 16);
+
+        // Hold the sequencer so the next three requests are drained together
+        intake.publish(request(9L, "1"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        long failing = intake.publish(request(1L, "1"));
+        long placed = intake.publish(request(2L, "1"));
+        long alsoFailing = intake.publish(request(1L, "2"));
+        release.countDown();
+        awaitApplied(alsoFailing);
+
+        assertEquals(IntakeTicket.Status.REJECTED, intake.ticket(failing).getStatus());
+        assertEquals("asset row locked", intake.ticket(alsoFailing).getError());
+        assertEquals(IntakeTicket.Status.PLACED, intake.ticket(placed).getStatus());
+        assertEquals(100L, intake.ticket(placed).getOrder().getId());
+    }
+
+    @Test
+    void publish_ShardedMode_PlacesEachCustomerOnItsShard() throws Exception {
+        executor.shutdown();
+        executor = executor(ExecutionMode.SHARDED);
+        List<String> threads = new ArrayList<>();
+        when(orderService.createOrders(anyList())).thenAnswer(invocation -> {
+            List<CreateOrderRequest> basket = invocation.getArgument(0);
+            String thread = Thread.currentThread().getName();
+            synchronized (threads) {
+                basket.forEach(request -> threads.add(request.getCustomerId() + "@" + thread));
+            }
+            return basket.stream().map(request -> BatchOrderResult.accepted(0, OrderResponse.builder().build()))
+                    .toList();
+        });
+        intake = new OrderIntake(orderService, executor, 8, 4, 16);
+
+        long last = -1;
+        for (long customerId = 1; customerId <= 4; customerId++) {
+            last = intake.publish(request(customerId, "1"));
+        }
+        awaitApplied(last);
+
+        assertEquals(4, threads.size());
+        for (String placed : threads) {
+            long customerId = Long.parseLong(placed.substring(0, placed.indexOf('@')));
+            assertEquals("customer-shard-" + executor.shardOf(customerId), placed.substring(placed.indexOf('@') + 1));
+        }
+    }
+
+    private void awaitApplied(long sequence) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (intake.appliedSequence() < sequence) {
+            assertTrue(System.nanoTime() < deadline, "sequence " + sequence + " not applied");
+            Thread.sleep(1);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<JournalEventListener> noJournal() {
+        return mock(ObjectProvider.class);
+    }
+
+    private static CustomerCommandExecutor executor(ExecutionMode mode) {
+        return new CustomerCommandExecutor(retry(), noJournal(), mode, 2, 100);
+    }
+
+    private static OptimisticRetry retry() {
+        return new OptimisticRetry(new SimpleMeterRegistry(), 3, 0);
+    }
+
+    private static CreateOrderRequest request(Long customerId, String size) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(customerId);
+        request.setAssetName("AAPL");
+        request.setOrderSide(OrderSide.BUY);
+        request.setSize(new BigDecimal(size));
+        request.setPrice(new BigDecimal("100"));
+        return request;
+    }
+}
@@ -0,0 +1,148 @@
+package org.example.brokerage.journal;
+
+import org.example.brokerage.event.BalanceEvent;
+import org.example.brokerage.event.OrderEvent;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.model.TimeInForce;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void append_ReadsBackEventsInOrder() {
+        OrderEvent created = orderEvent(1L);
+        BalanceEvent reserved = balanceEvent("TRY", "-1500.50");
+
+        try (OrderJournal journal = open(FsyncPolicy.NONE, DataSize.ofKilobytes(64))) {
+            assertEquals(2, journal.append(List.of(reserved, created)));
+
+            List<JournalEntry> entries = readAll(journal, 1);
+            assertEquals(List.of(new JournalEntry(1, reserved), new JournalEntry(2, created)), entries);
+        }
+    }
+
+    @Test
+    void open_ContinuesSequenceAfterRestart() {
+        try (OrderJournal journal = open(FsyncPolicy.ALWAYS, DataSize.ofKilobytes(64))) {
+            journal.append(orderEvent(1L));
+            journal.append(orderEvent(2L));
+        }
+
+        try (OrderJournal journal = open(FsyncPolicy.ALWAYS, DataSize.ofKilobytes(64))) {
+            assertEquals(2, journal.lastSequence());
+            assertEquals(3, journal.append(orderEvent(3L)));
+            assertEquals(List.of(2L, 3L), readAll(journal, 2).stream().map(JournalEntry::sequence).toList());
+        }
+    }
+
+    @Test
+    void open_DiscardsTornTail() throws IOException {
+        try (OrderJournal journal = open(FsyncPolicy.ALWAYS, DataSize.ofKilobytes(64))) {
+            journal.append(orderEvent(1L));
+            journal.append(orderEvent(2L));
+        }
+        corruptLastByteOfSecondRecord();
+
+        try (OrderJournal journal = open(FsyncPolicy.ALWAYS, DataSize.ofKilobytes(64))) {
+            assertEquals(1, journal.lastSequence());
+            journal.append(orderEvent(3L));
+
+            List<JournalEntry> entries = readAll(journal, 1);
+            assertEquals(List.of(1L, 2L), entries.stream().map(JournalEntry::sequence).toList());
+            assertEquals(3L, ((OrderEvent) entries.get(1).event()).orderId());
+        }
+    }
+
+    @Test
+    void append_RollsToNewSegmentWhenFull() throws IOException {
+        try (OrderJournal journal = open(FsyncPolicy.NONE, DataSize.ofBytes(512))) {
+            for (long id = 1; id <= 20; id++) {
+                journal.append(orderEvent(id));
+            }
+
+            try (Stream<Path> files = Files.list(directory)) {
+                assertTrue(files.count() > 1);
+            }
+            assertEquals(sequences(20), readAll(journal, 1).stream().map(JournalEntry::sequence).toList());
+            assertEquals(List.of(20L), readAll(journal, 20).stream().map(JournalEntry::sequence).toList());
+        }
+    }
+
+    @Test
+    void awaitDurable_GroupCommitReleasesConcurrentAppenders() {
+        try (OrderJournal journal = open(FsyncPolicy.GROUP, DataSize.ofKilobytes(64))) {
+            List<CompletableFuture<Void>> appends = IntStream.rangeClosed(1, 8)
+                    .mapToObj(id -> CompletableFuture.runAsync(
+                            () -> journal.awaitDurable(journal.append(orderEvent((long) id)))))
+                    .toList();
+
+            appends.forEach(CompletableFuture::join);
+            assertEquals(8, readAll(journal, 1).size());
+        }
+    }
+
+    private OrderJournal open(FsyncPolicy policy, DataSize segmentSize) {
+        return new OrderJournal(directory, segmentSize, policy, 1);
+    }
+
+    private static List<JournalEntry> readAll(OrderJournal journal, long fromSequence) {
+        List<JournalEntry> entries = new ArrayList<>();
+        journal.read(fromSequence, entries::add);
+        return entries;
+    }
+
+    private static List<Long> sequences(int count) {
+        return IntStream.rangeClosed(1, count).mapToObj(Long::valueOf).toList();
+    }
+
+    private void corruptLastByteOfSecondRecord() throws IOException {
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(header, 0);
+            int second = OrderJournal.HEADER_BYTES + header.flip().getInt();
+            header.clear();
+            channel.read(header, second);
+            int end = second + OrderJournal.HEADER_BYTES + header.flip().getInt();
+            channel.write(ByteBuffer.wrap(new byte[]{0x7f}), end - 1);
+        }
+    }
+
+    private static OrderEvent orderEvent(Long orderId) {
+        LocalDateTime now = LocalDateTime.of(2026, 1, 2, 10, 15, 30, 123_456_789);
+        return new OrderEvent(OrderEvent.Type.CREATED, orderId, 2L, "AAPL", OrderSide.BUY,
+                new BigDecimal("10"), BigDecimal.ZERO, new BigDecimal("150.05"), OrderStatus.PENDING,
+                TimeInForce.DAY, now, now);
+    }
+
+    private static BalanceEvent balanceEvent(String assetName, String usableDelta) {
+        return new BalanceEvent(7L, 2L, assetName, 3L, BalanceEvent.Reason.RESERVED, BigDecimal.ZERO,
+                new BigDecimal(usableDelta), new BigDecimal("100000.00"), new BigDecimal("98499.50"), BigDecimal.ZERO,
+                LocalDateTime.of(2026, 1, 2, 10, 15, 30));
+    }
+}
@@ -0,0 +1,153 @@
+package org.example.brokerage.journal;
+
+import org.example.brokerage.event.BalanceEvent;
+import org.example.brokerage.event.OrderEvent;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.model.TimeInForce;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StateRecoveryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 2, 10, 0);
+
+    @TempDir
+    Path directory;
+
+    private OrderJournal journal;
+    private SnapshotStore snapshotStore;
+
+    @BeforeEach
+    void setUp() {
+        journal = new OrderJournal(directory.resolve("journal"), DataSize.ofKilobytes(64), FsyncPolicy.NONE, 0);
+        snapshotStore = new SnapshotStore(directory.resolve("snapshots"), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.close();
+    }
+
+    @Test
+    void restore_AppliesOnlyTheJournalTailAfterTheSnapshot() {
+        journal.append(balance(1L, "TRY", 0L, "999"));
+        SnapshotStore.Snapshot snapshot = snapshotStore.write(journal.lastSequence(), sink -> {
+            sink.customer(new CustomerRecord(2L, "customer1", "hash", "CUSTOMER"));
+            sink.balance(new BalanceRecord(1L, 1, 2L, "TRY", new BigDecimal("100000.00"), new BigDecimal("98500.00"), BigDecimal.ZERO));
+            sink.order(openOrder(10L, "0"));
+            sink.order(openOrder(11L, "0"));
+        });
+        journal.append(List.of(
+                balance(1L, "TRY", 1L, "97000.00"),
+                order(OrderEvent.Type.FILLED, 10L, "4"),
+                order(OrderEvent.Type.CANCELED, 11L, "0"),
+                order(OrderEvent.Type.CREATED, 12L, "0"),
+                balance(2L, "AAPL", null, "4.00"),
+                order(OrderEvent.Type.FILLED, 99L, "1")));
+
+        Collected restored = new Collected();
+        JournalDelta tail = StateRecovery.restore(snapshot, journal, restored);
+
+        assertEquals(6, tail.records());
+        assertEquals(7, tail.lastSequence());
+        assertEquals(List.of("customer1"), restored.customers.stream().map(CustomerRecord::username).toList());
+        assertEquals(List.of("TRY", "AAPL"), restored.balances.stream().map(BalanceRecord::assetName).toList());
+        assertEquals(new BigDecimal("97000.00"), restored.balances.get(0).usableSize());
+        assertEquals(2, restored.balances.get(0).version());
+        assertEquals(List.of(10L, 12L), restored.orders.stream().map(OrderRecord::id).toList());
+        assertEquals(new BigDecimal("4"), restored.orders.get(0).filledSize());
+    }
+
+    @Test
+    void restore_KeepsTheLaterVersionWhenAppendsRaced() {
+        SnapshotStore.Snapshot snapshot = snapshotStore.write(0, sink ->
+                sink.balance(new BalanceRecord(1L, 3, 2L, "TRY", new BigDecimal("100.00"), new BigDecimal("100.00"), BigDecimal.ZERO)));
+        journal.append(balance(1L, "TRY", 4L, "80.00"));
+        journal.append(balance(1L, "TRY", 3L, "90.00"));
+        journal.append(balance(1L, "TRY", 2L, "95.00"));
+
+        Collected restored = new Collected();
+        StateRecovery.restore(snapshot, journal, restored);
+
+        assertEquals(new BigDecimal("80.00"), restored.balances.getFirst().usableSize());
+        assertEquals(5, restored.balances.getFirst().version());
+    }
+
+    @Test
+    void snapshotFile_RejectsCorruptContent() throws IOException {
+        SnapshotStore.Snapshot snapshot = snapshotStore.write(0, sink ->
+                sink.customer(new CustomerRecord(2L, "customer1", "hash", "CUSTOMER")));
+        try (RandomAccessFile file = new RandomAccessFile(snapshot.path().toFile(), "rw")) {
+            file.seek(file.length() - 6);
+            file.write('X');
+        }
+
+        assertThrows(IllegalStateException.class, () -> SnapshotFile.read(snapshot.path(), new Collected()));
+    }
+
+    @Test
+    void snapshotStore_KeepsOnlyTheNewestSnapshots() {
+        for (long sequence = 1; sequence <= 4; sequence++) {
+            snapshotStore.write(sequence, sink -> { });
+        }
+
+        assertEquals(4, snapshotStore.latest().orElseThrow().sequence());
+        assertEquals(3, snapshotStore.oldest().orElseThrow().sequence());
+    }
+
+    private static BalanceEvent balance(Long assetId, String assetName, Long version, String total) {
+        BigDecimal value = new BigDecimal(total);
+        return new BalanceEvent(assetId, 2L, assetName, version, BalanceEvent.Reason.SETTLED,
+                BigDecimal.ZERO, BigDecimal.ZERO, value, value, BigDecimal.ZERO, NOW);
+    }
+
+    private static OrderEvent order(OrderEvent.Type type, Long id, String filledSize) {
+        OrderStatus status = switch (type) {
+            case MATCHED -> OrderStatus.MATCHED;
+            case CANCELED -> OrderStatus.CANCELED;
+            default -> OrderStatus.PENDING;
+        };
+        return new OrderEvent(type, id, 2L, "AAPL", OrderSide.BUY, new BigDecimal("10"),
+                new BigDecimal(filledSize), new BigDecimal("150.00"), status, TimeInForce.GTC, NOW, NOW);
+    }
+
+    private static OrderRecord openOrder(Long id, String filledSize) {
+        return new OrderRecord(id, 2L, "AAPL", OrderSide.BUY, new BigDecimal("10"), new BigDecimal(filledSize),
+                new BigDecimal("150.00"), TimeInForce.GTC, NOW);
+    }
+
+    private static final class Collected implements SnapshotSink {
+        private final List<CustomerRecord> customers = new ArrayList<>();
+        private final List<BalanceRecord> balances = new ArrayList<>();
+        private final List<OrderRecord> orders = new ArrayList<>();
+
+        @Override
+        public void customer(CustomerRecord customer) {
+            customers.add(customer);
+        }
+
+        @Override
+        public void balance(BalanceRecord balance) {
+            balances.add(balance);
+        }
+
+        @Override
+        public void order(OrderRecord order) {
+            orders.add(order);
+        }
+    }
+}
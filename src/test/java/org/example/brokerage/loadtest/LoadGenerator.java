@@ -0,0 +1,349 @@
+package org.example.brokerage.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.example.brokerage.BrokerageApplication;
+import org.example.brokerage.model.Asset;
+import org.example.brokerage.model.Customer;
+import org.example.brokerage.model.Money;
+import org.example.brokerage.repository.AssetRepository;
+import org.example.brokerage.repository.CustomerRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Boots the application on a random local port, logs in synthetic customers through
+ * {@code /api/auth/login} and drives a weighted mix of order, asset and admin requests at a fixed
+ * target rate. Latency is measured from the moment each request was scheduled to be sent, so a
+ * server that falls behind shows up in the percentiles instead of silently lowering the rate.
+ * <p>
+ * Options ({@code name=value}, optionally prefixed with {@code --}): {@code customers} (50), {@code rate} requests per second (500),
+ * {@code warmup} seconds (10), {@code duration} seconds (30),
+ * {@code mix} (create=50,cancel=20,assets=25,match=5), {@code max-in-flight} (5000) and
+ * {@code report-dir} (target/loadtest) where one .hgrm percentile file per endpoint is written.
+ * Any other {@code --} argument is handed to Spring, e.g. {@code --spring.threads.virtual.enabled=true}.
+ */
+public class LoadGenerator {
+    private static final String PASSWORD = "loadtest123";
+    private static final Money BALANCE = Money.of("1000000000");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    enum Endpoint {
+        CREATE_ORDER("POST /api/orders"),
+        CANCEL_ORDER("DELETE /api/orders/{id}"),
+        LIST_ASSETS("GET /api/assets"),
+        MATCH_ORDER("POST /api/admin/orders/{id}/match");
+
+        private final String label;
+
+        Endpoint(String label) {
+            this.label = label;
+        }
+    }
+
+    record Session(Long customerId, String token) {
+    }
+
+    record PendingOrder(Long orderId, Session owner) {
+    }
+
+    private final Map<String, String> options;
+    private final List<String> springArgs;
+    private final Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, AtomicLong> errors = new EnumMap<>(Endpoint.class);
+    private final Queue<PendingOrder> pendingOrders = new ConcurrentLinkedQueue<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private final List<Session> sessions = new ArrayList<>();
+
+    private HttpClient httpClient;
+    private String baseUrl;
+    private Session admin;
+
+    LoadGenerator(Map<String, String> options, List<String> springArgs) {
+        this.options = options;
+        this.springArgs = springArgs;
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.put(endpoint, new Recorder(3));
+            errors.put(endpoint, new AtomicLong());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> springArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN"));
+        Set<String> known = Set.of("customers", "rate", "warmup", "duration", "mix", "max-in-flight", "report-dir");
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            if (known.contains(pair[0]) && pair.length == 2) {
+                options.put(pair[0], pair[1]);
+            } else {
+                springArgs.add(arg);
+            }
+        }
+        new LoadGenerator(options, springArgs).run();
+        System.exit(0);
+    }
+
+    void run() throws Exception {
+        int customers = Integer.parseInt(options.getOrDefault("customers", "50"));
+        int rate = Integer.parseInt(options.getOrDefault("rate", "500"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "5000"));
+        Map<Endpoint, Integer> mix = parseMix(options.getOrDefault("mix", "create=50,cancel=20,assets=25,match=5"));
+        Path reportDir = Path.of(options.getOrDefault("report-dir", "target/loadtest"));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BrokerageApplication.class)
+                .run(springArgs.toArray(String[]::new));
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(executor)
+                    .build();
+
+            createCustomers(context, customers);
+            login(executor, customers);
+            System.out.printf("%d customers logged in against %s%n", sessions.size(), baseUrl);
+
+            Semaphore inFlight = new Semaphore(maxInFlight);
+            System.out.printf("warming up for %ds at %d req/s%n", warmupSeconds, rate);
+            drive(executor, inFlight, mix, rate, warmupSeconds);
+            awaitIdle(inFlight, maxInFlight);
+            recorders.values().forEach(Recorder::reset);
+            errors.values().forEach(count -> count.set(0));
+            dropped.set(0);
+
+            System.out.printf("measuring for %ds at %d req/s%n", durationSeconds, rate);
+            long started = System.nanoTime();
+            drive(executor, inFlight, mix, rate, durationSeconds);
+            awaitIdle(inFlight, maxInFlight);
+            double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+            report(System.out, elapsedSeconds, rate, reportDir);
+        }
+    }
+
+    private void createCustomers(ConfigurableApplicationContext context, int customers) {
+        CustomerRepository customerRepository = context.getBean(CustomerRepository.class);
+        AssetRepository assetRepository = context.getBean(AssetRepository.class);
+        String encoded = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        for (int i = 0; i < customers; i++) {
+            Customer customer = customerRepository.save(Customer.builder()
+                    .username("load" + i)
+                    .password(encoded)
+                    .role("CUSTOMER")
+                    .build());
+            for (String assetName : List.of("TRY", "AAPL")) {
+                assetRepository.save(Asset.builder()
+                        .customerId(customer.getId())
+                        .assetName(assetName)
+                        .size(BALANCE)
+                        .usableSize(BALANCE)
+                        .build());
+            }
+        }
+    }
+
+    private void login(ExecutorService executor, int customers) throws Exception {
+        admin = login("admin", "admin123");
+        // stay within the password-hashing queue so no login is turned away
+        Semaphore logins = new Semaphore(16);
+        List<Future<Session>> futures = new ArrayList<>();
+        for (int i = 0; i < customers; i++) {
+            String username = "load" + i;
+            futures.add(executor.submit(() -> {
+                logins.acquire();
+                try {
+                    return login(username, PASSWORD);
+                } finally {
+                    logins.release();
+                }
+            }));
+        }
+        for (Future<Session> future : futures) {
+            sessions.add(future.get());
+        }
+    }
+
+    private Session login(String username, String password) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + username + ": " + response.body());
+        }
+        JsonNode body = MAPPER.readTree(response.body());
+        return new Session(body.get("customerId").asLong(), body.get("token").asText());
+    }
+
+    /**
+     * Open-loop schedule: request {@code i} is due at {@code start + i / rate} regardless of how
+     * earlier requests are doing.
+     */
+    private void drive(ExecutorService executor, Semaphore inFlight, Map<Endpoint, Integer> mix,
+                       int rate, int seconds) {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = (long) rate * seconds;
+        int weightSum = mix.values().stream().mapToInt(Integer::intValue).sum();
+        long start = System.nanoTime();
+        Random random = new Random(42);
+
+        for (long i = 0; i < total; i++) {
+            long due = start + i * intervalNanos;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Endpoint endpoint = pick(mix, random.nextInt(weightSum));
+            Session session = sessions.get(random.nextInt(sessions.size()));
+            if (!inFlight.tryAcquire()) {
+                dropped.incrementAndGet();
+                continue;
+            }
+            executor.execute(() -> {
+                try {
+                    execute(endpoint, session, due);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+    }
+
+    private void execute(Endpoint endpoint, Session session, long dueNanos) {
+        PendingOrder pending = null;
+        if (endpoint == Endpoint.CANCEL_ORDER || endpoint == Endpoint.MATCH_ORDER) {
+            pending = pendingOrders.poll();
+            if (pending == null) {
+                endpoint = Endpoint.CREATE_ORDER;
+            }
+        }
+
+        HttpRequest request = switch (endpoint) {
+            case CREATE_ORDER -> createOrder(session);
+            case CANCEL_ORDER -> authorized(baseUrl + "/api/orders/" + pending.orderId(), pending.owner())
+                    .DELETE().build();
+            case LIST_ASSETS -> authorized(baseUrl + "/api/assets", session).GET().build();
+            case MATCH_ORDER -> authorized(baseUrl + "/api/admin/orders/" + pending.orderId() + "/match", admin)
+                    .POST(HttpRequest.BodyPublishers.noBody()).build();
+        };
+
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            recorders.get(endpoint).recordValue(System.nanoTime() - dueNanos);
+            if (response.statusCode() / 100 != 2) {
+                errors.get(endpoint).incrementAndGet();
+            } else if (endpoint == Endpoint.CREATE_ORDER) {
+                pendingOrders.add(new PendingOrder(MAPPER.readTree(response.body()).get("id").asLong(), session));
+            }
+        } catch (IOException e) {
+            errors.get(endpoint).incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private HttpRequest createOrder(Session session) {
+        // BUY below every SELL, so orders rest until canceled or matched by the admin
+        boolean buy = ThreadLocalRandom.current().nextBoolean();
+        String body = "{\"customerId\":" + session.customerId()
+                + ",\"assetName\":\"AAPL\",\"orderSide\":\"" + (buy ? "BUY" : "SELL")
+                + "\",\"size\":1,\"price\":" + (buy ? "1" : "1000") + "}";
+        return authorized(baseUrl + "/api/orders", session)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static HttpRequest.Builder authorized(String url, Session session) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", "Bearer " + session.token());
+    }
+
+    private static void awaitIdle(Semaphore inFlight, int maxInFlight) throws InterruptedException {
+        inFlight.acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+    }
+
+    private void report(PrintStream out, double elapsedSeconds, int rate, Path reportDir) throws IOException {
+        Files.createDirectories(reportDir);
+        out.printf("%n%-34s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        long completed = 0;
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram histogram = recorders.get(endpoint).getIntervalHistogram();
+            long count = histogram.getTotalCount();
+            completed += count;
+            out.printf("%-34s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.label, count, errors.get(endpoint).get(), count / elapsedSeconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+            try (PrintStream file = new PrintStream(
+                    Files.newOutputStream(reportDir.resolve(endpoint.name().toLowerCase() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(file, 1_000_000.0);
+            }
+        }
+        out.printf("%ntotal %.1f req/s over %.1fs (target %d req/s), %d dropped at the in-flight limit%n",
+                completed / elapsedSeconds, elapsedSeconds, rate, dropped.get());
+        out.printf("percentile distributions written to %s%n", reportDir.toAbsolutePath());
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static Endpoint pick(Map<Endpoint, Integer> mix, int roll) {
+        for (Map.Entry<Endpoint, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty request mix");
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<String, Endpoint> names = Map.of(
+                "create", Endpoint.CREATE_ORDER,
+                "cancel", Endpoint.CANCEL_ORDER,
+                "assets", Endpoint.LIST_ASSETS,
+                "match", Endpoint.MATCH_ORDER);
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            Endpoint endpoint = names.get(pair[0]);
+            if (endpoint == null || pair.length != 2) {
+                throw new IllegalArgumentException("Unknown mix entry: " + part);
+            }
+            weights.put(endpoint, Integer.parseInt(pair[1]));
+        }
+        return weights;
+    }
+}
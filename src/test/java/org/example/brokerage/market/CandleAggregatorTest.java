@@ -0,0 +1,113 @@
+package org.example.brokerage.market;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CandleAggregatorTest {
+
+    private final LocalDateTime base = LocalDateTime.of(2025, 1, 1, 10, 0);
+    private CandleAggregator candles;
+
+    @BeforeEach
+    void setUp() {
+        candles = new CandleAggregator(3, 60, 24, 7);
+    }
+
+    @Test
+    void record_AggregatesOhlcvPerInterval() {
+        trade("100", "1", base.plusSeconds(1));
+        trade("105", "2", base.plusSeconds(20));
+        trade("95", "1", base.plusSeconds(40));
+        trade("101", "3", base.plusSeconds(59));
+        trade("102", "1", base.plusMinutes(1));
+
+        List<Candle> minutes = candles.candles("AAPL", CandleInterval.MINUTE, null, null, 10);
+        assertEquals(2, minutes.size());
+        assertCandle(minutes.get(0), base, "100", "105", "95", "101", "7", 4);
+        assertCandle(minutes.get(1), base.plusMinutes(1), "102", "102", "102", "102", "1", 1);
+
+        List<Candle> days = candles.candles("AAPL", CandleInterval.DAY, null, null, 10);
+        assertCandle(days.get(0), base.toLocalDate().atStartOfDay(), "100", "105", "95", "102", "8", 5);
+    }
+
+    @Test
+    void record_LateTrade_OrderedByExecutionTime() {
+        trade("101", "1", base.plusSeconds(30));
+        trade("105", "1", base.plusMinutes(2));
+        // Arrives after the next minutes have started, but executed first and last in minute 0
+        trade("99", "1", base.plusSeconds(5));
+        trade("103", "1", base.plusSeconds(50));
+
+        Candle first = candles.candles("AAPL", CandleInterval.MINUTE, null, null, 10).get(0);
+        assertCandle(first, base, "99", "103", "99", "103", "3", 3);
+    }
+
+    @Test
+    void record_OlderThanRetention_Ignored() {
+        trade("100", "1", base.plusSeconds(10));
+
+        assertTrue(trade("90", "1", base.plusSeconds(7)));
+        List<Candle> seconds = candles.candles("AAPL", CandleInterval.SECOND, null, null, 10);
+        assertEquals(1, seconds.size());
+        assertEquals(base.plusSeconds(10), seconds.get(0).openTime());
+
+        assertFalse(trade("90", "1", base.minusDays(30)));
+    }
+
+    @Test
+    void record_ReusedSlot_StartsFreshCandle() {
+        trade("100", "5", base);
+        trade("110", "1", base.plusSeconds(3));
+
+        List<Candle> seconds = candles.candles("AAPL", CandleInterval.SECOND, null, null, 10);
+        assertEquals(1, seconds.size());
+        assertCandle(seconds.get(0), base.plusSeconds(3), "110", "110", "110", "110", "1", 1);
+    }
+
+    @Test
+    void candles_LatestWithinRangeUpToLimit() {
+        for (int minute = 0; minute < 5; minute++) {
+            trade(String.valueOf(100 + minute), "1", base.plusMinutes(minute));
+        }
+
+        List<Candle> latest = candles.candles("AAPL", CandleInterval.MINUTE, null, null, 2);
+        assertEquals(List.of(base.plusMinutes(3), base.plusMinutes(4)), openTimes(latest));
+
+        List<Candle> range = candles.candles("AAPL", CandleInterval.MINUTE,
+                base.plusMinutes(1), base.plusMinutes(2).plusSeconds(30), 10);
+        assertEquals(List.of(base.plusMinutes(1), base.plusMinutes(2)), openTimes(range));
+
+        assertTrue(candles.candles("MSFT", CandleInterval.MINUTE, null, null, 10).isEmpty());
+    }
+
+    @Test
+    void parse_UnknownInterval_Throws() {
+        assertEquals(CandleInterval.HOUR, CandleInterval.parse("1h"));
+        assertThrows(IllegalArgumentException.class, () -> CandleInterval.parse("5m"));
+    }
+
+    private boolean trade(String price, String quantity, LocalDateTime executedAt) {
+        return candles.record("AAPL", new BigDecimal(price), new BigDecimal(quantity), executedAt);
+    }
+
+    private static List<LocalDateTime> openTimes(List<Candle> candles) {
+        return candles.stream().map(Candle::openTime).toList();
+    }
+
+    private static void assertCandle(Candle candle, LocalDateTime openTime, String open, String high,
+                                     String low, String close, String volume, int trades) {
+        assertEquals(openTime, candle.openTime());
+        assertEquals(new BigDecimal(open).setScale(2), candle.open());
+        assertEquals(new BigDecimal(high).setScale(2), candle.high());
+        assertEquals(new BigDecimal(low).setScale(2), candle.low());
+        assertEquals(new BigDecimal(close).setScale(2), candle.close());
+        assertEquals(new BigDecimal(volume).setScale(2), candle.volume());
+        assertEquals(trades, candle.trades());
+    }
+}
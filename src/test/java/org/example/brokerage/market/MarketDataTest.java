@@ -0,0 +1,161 @@
+package org.example.brokerage.market;
+
+import org.example.brokerage.event.OrderEvent;
+import org.example.brokerage.event.TradeEvent;
+import org.example.brokerage.matching.Trade;
+import org.example.brokerage.model.Money;
+import org.example.brokerage.model.Order;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class MarketDataTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    private MarketData marketData;
+
+    @BeforeEach
+    void setUp() {
+        marketData = new MarketData(orderRepository, 2);
+        marketData.onOrderEvent(event(OrderEvent.Type.CREATED, 1L, OrderSide.BUY, "99", "5", "0"));
+        marketData.onOrderEvent(event(OrderEvent.Type.CREATED, 2L, OrderSide.BUY, "100", "3", "0"));
+        marketData.onOrderEvent(event(OrderEvent.Type.CREATED, 3L, OrderSide.BUY, "100", "2", "0"));
+        marketData.onOrderEvent(event(OrderEvent.Type.CREATED, 4L, OrderSide.SELL, "101", "4", "0"));
+        marketData.onOrderEvent(event(OrderEvent.Type.CREATED, 5L, OrderSide.BUY, "98", "1", "0"));
+    }
+
+    @Test
+    void snapshot_AggregatesDepthBestFirst() {
+        MarketSnapshot snapshot = marketData.snapshot("AAPL", 10);
+
+        assertEquals(new BigDecimal("100.00"), snapshot.bestBid());
+        assertEquals(new BigDecimal("101.00"), snapshot.bestAsk());
+        assertEquals(List.of(level("100", "5", 2), level("99", "5", 1)), snapshot.bids());
+        assertEquals(List.of(level("101", "4", 1)), snapshot.asks());
+        assertEquals(5, snapshot.sequence());
+    }
+
+    @Test
+    void snapshot_LimitsLevels() {
+        assertEquals(List.of(level("100", "5", 2)), marketData.snapshot("AAPL", 1).bids());
+        assertTrue(marketData.snapshot("AAPL", 0).asks().isEmpty());
+    }
+
+    @Test
+    void snapshot_UnknownAsset_IsEmpty() {
+        MarketSnapshot snapshot = marketData.snapshot("MSFT", 10);
+
+        assertNull(snapshot.bestBid());
+        assertTrue(snapshot.bids().isEmpty());
+        assertEquals(0, snapshot.sequence());
+    }
+
+    @Test
+    void onOrderEvent_FillsShrinkLevelAndNeverGoBackwards() {
+        marketData.onOrderEvent(event(OrderEvent.Type.FILLED, 2L, OrderSide.BUY, "100", "3", "2"));
+        marketData.onOrderEvent(event(OrderEvent.Type.FILLED, 2L, OrderSide.BUY, "100", "3", "1"));
+
+        assertEquals(level("100", "3", 2), marketData.snapshot("AAPL", 10).bids().get(0));
+    }
+
+    @Test
+    void onOrderEvent_TerminalRemovesEmptyLevel() {
+        marketData.onOrderEvent(event(OrderEvent.Type.MATCHED, 2L, OrderSide.BUY, "100", "3", "3"));
+        marketData.onOrderEvent(event(OrderEvent.Type.CANCELED, 3L, OrderSide.BUY, "100", "2", "0"));
+        marketData.onOrderEvent(event(OrderEvent.Type.CANCELED, 4L, OrderSide.SELL, "101", "4", "0"));
+
+        MarketSnapshot snapshot = marketData.snapshot("AAPL", 10);
+        assertEquals(new BigDecimal("99.00"), snapshot.bestBid());
+        assertNull(snapshot.bestAsk());
+        assertEquals(List.of(level("99", "5", 1), level("98", "1", 1)), snapshot.bids());
+    }
+
+    @Test
+    void onTradeEvent_RecordsLastTradeAndVolume() {
+        LocalDateTime executedAt = LocalDateTime.of(2025, 1, 1, 10, 0);
+        marketData.onTradeEvent(trade("101", "1", executedAt));
+        marketData.onTradeEvent(trade("100.50", "2", executedAt.plusSeconds(1)));
+
+        MarketSnapshot snapshot = marketData.snapshot("AAPL", 10);
+        assertEquals(new BigDecimal("100.50"), snapshot.lastPrice());
+        assertEquals(new BigDecimal("2.00"), snapshot.lastQuantity());
+        assertEquals(executedAt.plusSeconds(1), snapshot.lastTradeTime());
+        assertEquals(new BigDecimal("3.00"), snapshot.volume());
+    }
+
+    @Test
+    void onTradeEvent_LateTradeAddsVolumeButKeepsLastTrade() {
+        LocalDateTime executedAt = LocalDateTime.of(2025, 1, 1, 10, 0);
+        marketData.onTradeEvent(trade("100.50", "2", executedAt.plusSeconds(1)));
+        marketData.onTradeEvent(trade("101", "1", executedAt));
+
+        MarketSnapshot snapshot = marketData.snapshot("AAPL", 10);
+        assertEquals(new BigDecimal("100.50"), snapshot.lastPrice());
+        assertEquals(new BigDecimal("2.00"), snapshot.lastQuantity());
+        assertEquals(executedAt.plusSeconds(1), snapshot.lastTradeTime());
+        assertEquals(new BigDecimal("3.00"), snapshot.volume());
+    }
+
+    @Test
+    void referencePrice_LastTradeElseMidElseOneSide() {
+        assertEquals(new BigDecimal("100.50"), marketData.snapshot("AAPL", 0).referencePrice());
+
+        marketData.onOrderEvent(event(OrderEvent.Type.CREATED, 6L, OrderSide.SELL, "100.05", "1", "0"));
+        assertEquals(new BigDecimal("100.03"), marketData.snapshot("AAPL", 0).referencePrice());
+
+        marketData.onTradeEvent(trade("99.10", "1", LocalDateTime.now()));
+        assertEquals(new BigDecimal("99.10"), marketData.snapshot("AAPL", 0).referencePrice());
+        assertNull(marketData.snapshot("MSFT", 0).referencePrice());
+    }
+
+    @Test
+    void snapshot_IsNotChangedByLaterEvents() {
+        MarketSnapshot before = marketData.snapshot("AAPL", 10);
+
+        marketData.onOrderEvent(event(OrderEvent.Type.CANCELED, 4L, OrderSide.SELL, "101", "4", "0"));
+
+        assertEquals(new BigDecimal("101.00"), before.bestAsk());
+        assertEquals(1, before.asks().size());
+        assertNull(marketData.snapshot("AAPL", 10).bestAsk());
+        assertThrows(UnsupportedOperationException.class, () -> before.bids().clear());
+    }
+
+    private static PriceLevel level(String price, String size, int orders) {
+        return new PriceLevel(Money.of(price).toBigDecimal(), Money.of(size).toBigDecimal(), orders);
+    }
+
+    private static TradeEvent trade(String price, String quantity, LocalDateTime executedAt) {
+        return new TradeEvent(new Trade("AAPL", 2L, 1L, 4L, 2L, new BigDecimal(price), new BigDecimal(quantity)),
+                executedAt);
+    }
+
+    private static OrderEvent event(OrderEvent.Type type, Long id, OrderSide side,
+                                    String price, String size, String filledSize) {
+        Order order = Order.builder()
+                .id(id)
+                .customerId(1L)
+                .assetName("AAPL")
+                .orderSide(side)
+                .size(Money.of(size))
+                .price(Money.of(price))
+                .filledSize(Money.of(filledSize))
+                .status(type == OrderEvent.Type.MATCHED ? OrderStatus.MATCHED : OrderStatus.PENDING)
+                .createDate(LocalDateTime.of(2025, 1, 1, 9, 0))
+                .build();
+        return OrderEvent.of(type, order);
+    }
+}
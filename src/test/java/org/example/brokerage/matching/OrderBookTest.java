@@ -0,0 +1,112 @@
+package org.example.brokerage.matching;
+
+import org.example.brokerage.model.OrderSide;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderBookTest {
+
+    private OrderBook book;
+
+    @BeforeEach
+    void setUp() {
+        book = new OrderBook("AAPL");
+    }
+
+    @Test
+    void submit_NoCross_RestsOrder() {
+        book.submit(order(1L, OrderSide.BUY, "100", "5"));
+        List<Trade> trades = book.submit(order(2L, OrderSide.SELL, "101", "5"));
+
+        assertTrue(trades.isEmpty());
+        assertEquals(new BigDecimal("100"), book.bestBid());
+        assertEquals(new BigDecimal("101"), book.bestAsk());
+        assertEquals(2, book.size());
+    }
+
+    @Test
+    void submit_Cross_ExecutesAtRestingPrice() {
+        book.submit(order(1L, OrderSide.SELL, "99", "5"));
+        List<Trade> trades = book.submit(order(2L, OrderSide.BUY, "100", "5"));
+
+        assertEquals(1, trades.size());
+        Trade trade = trades.get(0);
+        assertEquals(2L, trade.buyOrderId());
+        assertEquals(1L, trade.sellOrderId());
+        assertEquals(new BigDecimal("99"), trade.price());
+        assertEquals(new BigDecimal("5"), trade.quantity());
+        assertEquals(0, book.size());
+    }
+
+    @Test
+    void submit_PricePriority_BestPriceFirst() {
+        book.submit(order(1L, OrderSide.SELL, "101", "5"));
+        book.submit(order(2L, OrderSide.SELL, "100", "5"));
+        List<Trade> trades = book.submit(order(3L, OrderSide.BUY, "101", "7"));
+
+        assertEquals(2, trades.size());
+        assertEquals(2L, trades.get(0).sellOrderId());
+        assertEquals(new BigDecimal("5"), trades.get(0).quantity());
+        assertEquals(1L, trades.get(1).sellOrderId());
+        assertEquals(new BigDecimal("2"), trades.get(1).quantity());
+        assertEquals(new BigDecimal("101"), book.bestAsk());
+    }
+
+    @Test
+    void submit_TimePriority_EarlierOrderFirstAtSamePrice() {
+        book.submit(order(1L, OrderSide.BUY, "100", "5"));
+        book.submit(order(2L, OrderSide.BUY, "100", "5"));
+        List<Trade> trades = book.submit(order(3L, OrderSide.SELL, "100", "5"));
+
+        assertEquals(1, trades.size());
+        assertEquals(1L, trades.get(0).buyOrderId());
+        assertTrue(book.contains(2L));
+        assertFalse(book.contains(1L));
+    }
+
+    @Test
+    void submit_PartialFill_RestsRemainder() {
+        book.submit(order(1L, OrderSide.SELL, "100", "3"));
+        List<Trade> trades = book.submit(order(2L, OrderSide.BUY, "100", "5"));
+
+        assertEquals(1, trades.size());
+        assertEquals(new BigDecimal("3"), trades.get(0).quantity());
+        assertTrue(book.contains(2L));
+        assertEquals(new BigDecimal("100"), book.bestBid());
+        assertNull(book.bestAsk());
+    }
+
+    @Test
+    void cancel_RemovesOrder() {
+        book.submit(order(1L, OrderSide.BUY, "100", "5"));
+
+        assertTrue(book.cancel(1L));
+        assertFalse(book.cancel(1L));
+        assertNull(book.bestBid());
+        assertTrue(book.submit(order(2L, OrderSide.SELL, "100", "5")).isEmpty());
+    }
+
+    @Test
+    void cancel_WithinLevel_KeepsTimePriorityOfTheRest() {
+        for (long id = 1; id <= 4; id++) {
+            book.submit(order(id, OrderSide.BUY, "100", "1"));
+        }
+
+        assertTrue(book.cancel(2L));
+        assertTrue(book.cancel(4L));
+        List<Trade> trades = book.submit(order(5L, OrderSide.SELL, "100", "3"));
+
+        assertEquals(List.of(1L, 3L), trades.stream().map(Trade::buyOrderId).toList());
+        assertEquals(new BigDecimal("100"), book.bestAsk());
+        assertEquals(1, book.size());
+    }
+
+    private RestingOrder order(Long id, OrderSide side, String price, String size) {
+        return new RestingOrder(id, id * 10, side, new BigDecimal(price), new BigDecimal(size));
+    }
+}
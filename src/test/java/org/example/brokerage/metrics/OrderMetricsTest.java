@@ -0,0 +1,94 @@
+package org.example.brokerage.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.brokerage.exception.InsufficientBalanceException;
+import org.example.brokerage.exception.OrderNotFoundException;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.pending.PendingOrderIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderMetricsTest {
+
+    @Mock
+    private PendingOrderIndex pendingOrderIndex;
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void record_TagsBySideAssetAndOutcome() {
+        when(pendingOrderIndex.assetNames()).thenReturn(List.of());
+        OrderMetrics metrics = new OrderMetrics(registry, pendingOrderIndex, 10);
+
+        metrics.record(OrderMetrics.Operation.CREATE, OrderSide.BUY, "AAPL",
+                OrderMetrics.Outcome.INSUFFICIENT_BALANCE, System.nanoTime());
+        metrics.record(OrderMetrics.Operation.CREATE, OrderSide.BUY, "AAPL",
+                OrderMetrics.Outcome.INSUFFICIENT_BALANCE, System.nanoTime());
+
+        Timer timer = registry.get(OrderMetrics.TIMER)
+                .tags("operation", "create", "side", "BUY", "asset", "AAPL", "outcome", "insufficient_balance")
+                .timer();
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    void timer_ReusesRegisteredInstance() {
+        when(pendingOrderIndex.assetNames()).thenReturn(List.of());
+        OrderMetrics metrics = new OrderMetrics(registry, pendingOrderIndex, 10);
+
+        Timer first = metrics.timer(OrderMetrics.Operation.MATCH, OrderSide.SELL, "AAPL", OrderMetrics.Outcome.SUCCESS);
+        Timer second = metrics.timer(OrderMetrics.Operation.MATCH, OrderSide.SELL, "AAPL", OrderMetrics.Outcome.SUCCESS);
+
+        assertSame(first, second);
+        assertNotSame(first, metrics.timer(OrderMetrics.Operation.MATCH, null, null, OrderMetrics.Outcome.REJECTED));
+    }
+
+    @Test
+    void timer_CapsDistinctAssetTags() {
+        when(pendingOrderIndex.assetNames()).thenReturn(List.of());
+        OrderMetrics metrics = new OrderMetrics(registry, pendingOrderIndex, 2);
+
+        metrics.timer(OrderMetrics.Operation.CREATE, OrderSide.BUY, "AAPL", OrderMetrics.Outcome.SUCCESS);
+        metrics.timer(OrderMetrics.Operation.CREATE, OrderSide.BUY, "TSLA", OrderMetrics.Outcome.SUCCESS);
+        metrics.timer(OrderMetrics.Operation.CREATE, OrderSide.BUY, "MSFT", OrderMetrics.Outcome.SUCCESS);
+
+        assertNotNull(registry.find(OrderMetrics.TIMER).tag("asset", "other").timer());
+        assertNull(registry.find(OrderMetrics.TIMER).tag("asset", "MSFT").timer());
+    }
+
+    @Test
+    void outcomeOf_ClassifiesRejections() {
+        assertEquals(OrderMetrics.Outcome.INSUFFICIENT_BALANCE,
+                OrderMetrics.outcomeOf(new InsufficientBalanceException("Insufficient TRY balance")));
+        assertEquals(OrderMetrics.Outcome.REJECTED, OrderMetrics.outcomeOf(new OrderNotFoundException("Order not found")));
+        assertEquals(OrderMetrics.Outcome.REJECTED, OrderMetrics.outcomeOf(new IllegalStateException("not pending")));
+        assertEquals(OrderMetrics.Outcome.ERROR, OrderMetrics.outcomeOf(new RuntimeException("boom")));
+    }
+
+    @Test
+    void gauges_ReadFromPendingIndex() {
+        when(pendingOrderIndex.size()).thenReturn(3);
+        when(pendingOrderIndex.assetNames()).thenReturn(List.of("AAPL"));
+        when(pendingOrderIndex.pendingNotional("AAPL")).thenReturn(1500.0);
+
+        new OrderMetrics(registry, pendingOrderIndex, 10);
+
+        assertEquals(3.0, registry.get("brokerage.orders.pending").gauge().value());
+        assertEquals(1500.0, registry.get("brokerage.orders.pending.notional").tag("asset", "AAPL").gauge().value());
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.brokerage.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void of_ExactValue_RoundTrips() {
+        Money money = Money.of("1234.5");
+
+        assertEquals(123450L, money.units());
+        assertEquals(new BigDecimal("1234.50"), money.toBigDecimal());
+        assertEquals("1234.50", money.toString());
+    }
+
+    @Test
+    void of_TooManyFractionDigits_Throws() {
+        assertThrows(ArithmeticException.class, () -> Money.of("0.001"));
+    }
+
+    @Test
+    void of_TooLarge_Throws() {
+        assertThrows(ArithmeticException.class, () -> Money.of("100000000000000000"));
+    }
+
+    @Test
+    void times_RoundsHalfUpToTheCent() {
+        assertEquals(Money.of("500"), Money.of("5").times(Money.of("100")));
+        assertEquals(Money.of("4.16"), Money.of("1.25").times(Money.of("3.33")));
+        assertEquals(Money.of("0.01"), Money.of("0.05").times(Money.of("0.10")));
+        assertEquals(Money.of("-0.01"), Money.of("-0.05").times(Money.of("0.10")));
+    }
+
+    @Test
+    void proportion_RoundsHalfUpAndKeepsWholeExact() {
+        assertEquals(Money.of("400"), Money.of("800").proportion(Money.of("5"), Money.of("10")));
+        assertEquals(Money.of("33.34"), Money.of("100.01").proportion(Money.of("1"), Money.of("3")));
+        assertEquals(Money.of("100.01"), Money.of("100.01").proportion(Money.of("3"), Money.of("3")));
+    }
+
+    @Test
+    void proportion_ProductBeyondLong_StillExact() {
+        // 100M TRY cost basis of 20M shares, 10M of them sold
+        assertEquals(Money.of("50000000"),
+                Money.of("100000000").proportion(Money.of("10000000"), Money.of("20000000")));
+        assertEquals(Money.of("33333333.34"),
+                Money.of("100000000.01").proportion(Money.of("10000000"), Money.of("30000000")));
+        assertThrows(ArithmeticException.class, () -> Money.of("90000000000000000")
+                .proportion(Money.of("90000000000000000"), Money.of("1")));
+    }
+
+    @Test
+    void times_Overflow_Throws() {
+        Money large = Money.of("10000000000");
+
+        assertThrows(ArithmeticException.class, () -> large.times(large));
+    }
+
+    @Test
+    void plusAndMinus_Overflow_Throws() {
+        Money max = new Money(Long.MAX_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.of("0.01")));
+        assertThrows(ArithmeticException.class, () -> max.negate().minus(Money.of("0.02")));
+    }
+
+    @Test
+    void covers_MatchesProductComparison() {
+        Money balance = Money.of("500");
+
+        assertTrue(balance.covers(Money.of("5"), Money.of("100")));
+        assertFalse(balance.covers(Money.of("5"), Money.of("100.01")));
+        assertEquals(balance.compareTo(Money.of("5").times(Money.of("100"))) >= 0,
+                balance.covers(Money.of("5"), Money.of("100")));
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.brokerage.pending;
+
+import org.example.brokerage.dto.OrderCursor;
+import org.example.brokerage.event.OrderEvent;
+import org.example.brokerage.model.Money;
+import org.example.brokerage.model.Order;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class PendingOrderIndexTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @InjectMocks
+    private PendingOrderIndex index;
+
+    private final LocalDateTime base = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    @BeforeEach
+    void setUp() {
+        index.onOrderEvent(event(OrderEvent.Type.CREATED, 1L, "AAPL", OrderSide.BUY, 0, "0"));
+        index.onOrderEvent(event(OrderEvent.Type.CREATED, 2L, "TSLA", OrderSide.SELL, 10, "0"));
+        index.onOrderEvent(event(OrderEvent.Type.CREATED, 3L, "AAPL", OrderSide.SELL, 20, "0"));
+    }
+
+    @Test
+    void query_OldestFirst() {
+        assertEquals(List.of(1L, 2L, 3L), ids(index.query(null, null, null, null, null)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void query_FilterByAssetAndSide() {
+        assertEquals(List.of(1L, 3L), ids(index.query("AAPL", null, null, null, null)));
+        assertEquals(List.of(3L), ids(index.query("AAPL", OrderSide.SELL, null, null, null)));
+        assertTrue(ids(index.query("MSFT", null, null, null, null)).isEmpty());
+    }
+
+    @Test
+    void query_FilterByCreateDate() {
+        assertEquals(List.of(1L, 2L), ids(index.query(null, null, null, base.plusMinutes(10), null)));
+        assertEquals(List.of(2L, 3L), ids(index.query(null, null, base.plusMinutes(10), null, null)));
+    }
+
+    @Test
+    void query_ResumesAfterCursor() {
+        OrderCursor cursor = new OrderCursor(base.plusMinutes(10), 2L);
+
+        assertEquals(List.of(3L), ids(index.query(null, null, null, null, cursor)));
+    }
+
+    @Test
+    void onOrderEvent_TerminalRemoves() {
+        index.onOrderEvent(event(OrderEvent.Type.MATCHED, 1L, "AAPL", OrderSide.BUY, 0, "5"));
+        index.onOrderEvent(event(OrderEvent.Type.CANCELED, 2L, "TSLA", OrderSide.SELL, 10, "0"));
+
+        assertEquals(List.of(3L), ids(index.query(null, null, null, null, null)));
+        assertEquals(List.of(3L), ids(index.query("AAPL", null, null, null, null)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void onOrderEvent_FillNeverGoesBackwards() {
+        index.onOrderEvent(event(OrderEvent.Type.FILLED, 1L, "AAPL", OrderSide.BUY, 0, "3"));
+        index.onOrderEvent(event(OrderEvent.Type.FILLED, 1L, "AAPL", OrderSide.BUY, 0, "2"));
+
+        OrderEvent order = index.query("AAPL", OrderSide.BUY, null, null, null).findFirst().orElseThrow();
+        assertEquals(new BigDecimal("3.00"), order.filledSize());
+    }
+
+    private List<Long> ids(Stream<OrderEvent> orders) {
+        return orders.map(OrderEvent::orderId).collect(Collectors.toList());
+    }
+
+    private OrderEvent event(OrderEvent.Type type, Long id, String assetName, OrderSide side,
+                             int ageMinutes, String filledSize) {
+        Order order = Order.builder()
+                .id(id)
+                .customerId(1L)
+                .assetName(assetName)
+                .orderSide(side)
+                .size(Money.of("5"))
+                .price(Money.of("100"))
+                .filledSize(Money.of(filledSize))
+                .status(OrderStatus.PENDING)
+                .createDate(base.plusMinutes(ageMinutes))
+                .build();
+        return OrderEvent.of(type, order);
+    }
+}
@@ -0,0 +1,186 @@
+package org.example.brokerage.push;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.brokerage.event.OrderEvent;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.model.TimeInForce;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PushHubTest {
+
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PushHub hub;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hub.shutdown();
+    }
+
+    @Test
+    void publish_DeliversOnlyToTheCustomersStreams() throws Exception {
+        hub = hub(10, 16, false);
+        hub.subscribe(1L);
+        hub.subscribe(2L);
+
+        hub.onOrderEvent(event(10L, 1L, OrderStatus.PENDING));
+
+        await(() -> emitters.get(0).sent.size() == 2);
+        assertEquals(List.of("ready", "order:10:PENDING"), emitters.get(0).sent);
+        Thread.sleep(50);
+        assertEquals(List.of("ready"), emitters.get(1).sent);
+    }
+
+    @Test
+    void publish_SlowStream_CoalescesToLatestStatePerOrder() throws Exception {
+        hub = hub(10, 16, true);
+        hub.subscribe(1L);
+        await(() -> emitters.get(0).blocked);
+
+        hub.onOrderEvent(event(10L, 1L, OrderStatus.PENDING));
+        hub.onOrderEvent(event(11L, 1L, OrderStatus.PENDING));
+        hub.onOrderEvent(event(10L, 1L, OrderStatus.MATCHED));
+        release.countDown();
+
+        await(() -> emitters.get(0).sent.size() == 3);
+        assertEquals(List.of("ready", "order:10:MATCHED", "order:11:PENDING"), emitters.get(0).sent);
+        assertEquals(1, hub.coalesced.sum());
+    }
+
+    @Test
+    void publish_SlowStream_LateEarlierStateDoesNotReplaceLaterOne() throws Exception {
+        hub = hub(10, 16, true);
+        hub.subscribe(1L);
+        await(() -> emitters.get(0).blocked);
+
+        hub.onOrderEvent(event(10L, 1L, OrderStatus.MATCHED));
+        hub.onOrderEvent(event(10L, 1L, OrderStatus.PENDING));
+        release.countDown();
+
+        await(() -> emitters.get(0).sent.size() == 2);
+        Thread.sleep(50);
+        assertEquals(List.of("ready", "order:10:MATCHED"), emitters.get(0).sent);
+    }
+
+    @Test
+    void publish_EarlierStateAfterLaterOneWasSent_IsDropped() throws Exception {
+        hub = hub(10, 16, false);
+        hub.subscribe(1L);
+        hub.onOrderEvent(event(10L, 1L, OrderStatus.MATCHED));
+        await(() -> emitters.get(0).sent.size() == 2);
+
+        hub.onOrderEvent(event(10L, 1L, OrderStatus.PENDING));
+        hub.onOrderEvent(event(11L, 1L, OrderStatus.PENDING));
+
+        await(() -> emitters.get(0).sent.size() == 3);
+        Thread.sleep(50);
+        assertEquals(List.of("ready", "order:10:MATCHED", "order:11:PENDING"), emitters.get(0).sent);
+    }
+
+    @Test
+    void publish_StreamFallsTooFarBehind_IsDropped() throws Exception {
+        hub = hub(10, 2, true);
+        hub.subscribe(1L);
+        await(() -> emitters.get(0).blocked);
+
+        hub.onOrderEvent(event(10L, 1L, OrderStatus.PENDING));
+        hub.onOrderEvent(event(11L, 1L, OrderStatus.PENDING));
+        hub.onOrderEvent(event(12L, 1L, OrderStatus.PENDING));
+        release.countDown();
+
+        await(() -> emitters.get(0).completed);
+        assertEquals(List.of("ready"), emitters.get(0).sent);
+        assertEquals(1, hub.dropped.sum());
+    }
+
+    @Test
+    void subscribe_LimitReached_Rejects() {
+        hub = hub(1, 16, false);
+        hub.subscribe(1L);
+
+        assertThrows(RejectedExecutionException.class, () -> hub.subscribe(2L));
+        assertEquals(1, hub.subscriberCount());
+    }
+
+    private PushHub hub(int maxSubscribers, int maxPending, boolean blockFirstSend) {
+        return new PushHub(new SimpleMeterRegistry(), maxSubscribers, maxPending, 0) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = new RecordingEmitter(blockFirstSend ? release : null);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met");
+            Thread.sleep(1);
+        }
+    }
+
+    private static OrderEvent event(Long orderId, Long customerId, OrderStatus status) {
+        return new OrderEvent(OrderEvent.Type.CREATED, orderId, customerId, "AAPL", OrderSide.BUY,
+                BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.TEN, status, TimeInForce.GTC,
+                LocalDateTime.now(), LocalDateTime.now());
+    }
+
+    /** Records each event as name, or name:orderId:status for order events. */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch firstSend;
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        private volatile boolean blocked;
+        private volatile boolean completed;
+
+        private RecordingEmitter(CountDownLatch firstSend) {
+            this.firstSend = firstSend;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (firstSend != null && sent.isEmpty()) {
+                blocked = true;
+                try {
+                    firstSend.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            StringBuilder text = new StringBuilder();
+            Object data = null;
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String string) {
+                    text.append(string);
+                } else {
+                    data = part.getData();
+                }
+            }
+            String name = text.toString().replaceAll("(?s).*event:(\\w+).*", "$1");
+            sent.add(data instanceof OrderEvent order ? name + ":" + order.orderId() + ":" + order.status() : name);
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package org.example.brokerage.readmodel;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.brokerage.archive.OrderArchive;
+import org.example.brokerage.dto.AssetResponse;
+import org.example.brokerage.dto.OrderCursor;
+import org.example.brokerage.dto.OrderPage;
+import org.example.brokerage.dto.OrderResponse;
+import org.example.brokerage.event.BalanceEvent;
+import org.example.brokerage.event.OrderEvent;
+import org.example.brokerage.event.OrdersArchivedEvent;
+import org.example.brokerage.model.Asset;
+import org.example.brokerage.model.Money;
+import org.example.brokerage.model.Order;
+import org.example.brokerage.model.OrderSide;
+import org.example.brokerage.model.OrderStatus;
+import org.example.brokerage.repository.AssetRepository;
+import org.example.brokerage.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReadModelTest {
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 3, 14, 10, 0);
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private OrderArchive orderArchive;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ReadModel readModel;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        readModel.close();
+    }
+
+    @Test
+    void load_MergesDatabaseStateWithEventsAppliedBeforeIt() {
+        readModel = newReadModel(1000);
+        readModel.onOrderEvent(OrderEvent.of(OrderEvent.Type.MATCHED, order(1L, OrderStatus.MATCHED, "10")));
+        readModel.onBalanceEvent(BalanceEvent.of(asset("TRY", "900", 4L), BalanceEvent.Reason.SETTLED,
+                Money.of("-100"), Money.of("-100")));
+        when(orderRepository.findAllAfter(0L, Limit.of(10_000))).thenReturn(List.of(order(1L, OrderStatus.PENDING, "0"),
+                order(2L, OrderStatus.PENDING, "0")));
+        when(assetRepository.findAllAfter(0L, Limit.of(10_000)))
+                .thenReturn(List.of(asset("TRY", "1000", 4L), asset("AAPL", "5", 1L)));
+
+        readModel.load();
+
+        List<OrderResponse> orders = readModel.orders(2L, null, null, readModel.token());
+        assertEquals(List.of(1L, 2L), orders.stream().map(OrderResponse::getId).toList());
+        assertEquals(OrderStatus.MATCHED, orders.get(0).getStatus());
+        List<AssetResponse> holdings = readModel.holdings(2L, readModel.token());
+        assertEquals(List.of("AAPL", "TRY"), holdings.stream().map(AssetResponse::getAssetName).toList());
+        // The event left version 5 behind, newer than the row version 4 the load read
+        assertEquals(new BigDecimal("900.00"), holdings.get(1).getSize());
+    }
+
+    @Test
+    void onEvents_LateOrStaleChangesDoNotRegress() {
+        readModel = loadedReadModel();
+        readModel.onOrderEvent(OrderEvent.of(OrderEvent.Type.CANCELED, order(1L, OrderStatus.CANCELED, "4")));
+        readModel.onOrderEvent(OrderEvent.of(OrderEvent.Type.FILLED, order(1L, OrderStatus.PENDING, "4")));
+        readModel.onBalanceEvent(BalanceEvent.of(asset("TRY", "700", 3L), BalanceEvent.Reason.RESERVED,
+                Money.ZERO, Money.of("-300")));
+        readModel.onBalanceEvent(BalanceEvent.of(asset("TRY", "800", 2L), BalanceEvent.Reason.RESERVED,
+                Money.ZERO, Money.of("-200")));
+
+        assertEquals(OrderStatus.CANCELED, readModel.orders(2L, null, null, readModel.token()).get(0).getStatus());
+        assertEquals(new BigDecimal("700.00"), readModel.holdings(2L, readModel.token()).get(0).getSize());
+    }
+
+    @Test
+    void orders_DateRange_MergesArchivedOrdersOnceByCreationTime() {
+        readModel = loadedReadModel();
+        Order archived = order(1L, OrderStatus.MATCHED, "10");
+        archived.setCreateDate(CREATED.minusDays(40));
+        readModel.onOrderEvent(OrderEvent.of(OrderEvent.Type.MATCHED, archived));
+        readModel.onOrderEvent(OrderEvent.of(OrderEvent.Type.CREATED, order(2L, OrderStatus.PENDING, "0")));
+        readModel.onOrdersArchived(OrdersArchivedEvent.of(List.of(archived)));
+        String token = readModel.token();
+        LocalDateTime start = CREATED.minusDays(90);
+        when(orderArchive.find(2L, start, CREATED)).thenReturn(List.of(archived));
+
+        assertEquals(List.of(2L), readModel.orders(2L, null, null, token).stream().map(OrderResponse::getId).toList());
+        assertEquals(List.of(1L, 2L), readModel.orders(2L, start, CREATED, token).stream()
+                .map(OrderResponse::getId).toList());
+    }
+
+    @Test
+    void load_ReadsTheTablesInKeysetBatches() {
+        readModel = newReadModel(1000);
+        List<Order> firstBatch = LongStream.rangeClosed(1, 10_000)
+                .mapToObj(id -> order(id, OrderStatus.PENDING, "0")).toList();
+        when(orderRepository.findAllAfter(0L, Limit.of(10_000))).thenReturn(firstBatch);
+        when(orderRepository.findAllAfter(10_000L, Limit.of(10_000)))
+                .thenReturn(List.of(order(10_001L, OrderStatus.PENDING, "0")));
+        when(assetRepository.findAllAfter(0L, Limit.of(10_000))).thenReturn(List.of());
+
+        readModel.load();
+
+        assertEquals(10_001, readModel.orders(2L, null, null, null).size());
+        verify(orderRepository, never()).findAll();
+    }
+
+    @Test
+    void ordersPage_WalksTheViewByCreationTimeAndMergesTheArchive() {
+        readModel = loadedReadModel();
+        Order archived = order(1L, OrderStatus.MATCHED, "10");
+        archived.setCreateDate(CREATED.minusDays(40));
+        Order later = order(2L, OrderStatus.PENDING, "0");
+        later.setCreateDate(CREATED.plusHours(1));
+        readModel.onOrderEvent(OrderEvent.of(OrderEvent.Type.CREATED, later));
+        readModel.onOrderEvent(OrderEvent.of(OrderEvent.Type.CREATED, order(3L, OrderStatus.PENDING, "0")));
+        String token = readModel.token();
+        LocalDateTime start = CREATED.minusDays(90);
+        LocalDateTime end = CREATED.plusDays(1);
+        when(orderArchive.neededFor(start, end)).thenReturn(true);
+        when(orderArchive.findAfter(2L, start, end, start, 0L, 3)).thenReturn(List.of(archived));
+
+        OrderPage first = readModel.ordersPage(2L, start, end, null, 2, token);
+        assertEquals(List.of(1L, 3L), first.getOrders().stream().map(OrderResponse::getId).toList());
+        assertEquals(new OrderCursor(CREATED, 3L), OrderCursor.decode(first.getNextCursor()));
+
+        OrderPage second = readModel.ordersPage(2L, start, end, first.getNextCursor(), 2, token);
+        assertEquals(List.of(2L), second.getOrders().stream().map(OrderResponse::getId).toList());
+        assertNull(second.getNextCursor());
+        verify(orderRepository, never()).findPageAfter(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void streamOrders_WalksEveryPageOfTheView() {
+        readModel = loadedReadModel();
+        for (long id = 1; id <= 501; id++) {
+            readModel.onOrderEvent(OrderEvent.of(OrderEvent.Type.CREATED, order(id, OrderStatus.PENDING, "0")));
+        }
+
+        List<OrderResponse> streamed = readModel.streamOrders(2L, null, null, readModel.token()).toList();
+
+        assertEquals(501, streamed.size());
+        assertEquals(501L, streamed.get(500).getId());
+    }
+
+    @Test
+    void reads_BeforeLoad_AreRejectedAfterMaxWait() {
+        readModel = newReadModel(10);
+
+        assertThrows(RejectedExecutionException.class, () -> readModel.holdings(2L, null));
+        assertEquals(1.0, registry.get("brokerage.readmodel.rejected").functionCounter().count());
+    }
+
+    @Test
+    void tokens_FromAnotherInstanceAreIgnoredAndMalformedOnesRejected() {
+        readModel = loadedReadModel();
+
+        assertEquals(List.of(), readModel.holdings(2L, "1-999"));
+        assertThrows(IllegalArgumentException.class, () -> readModel.holdings(2L, "not-a-token"));
+    }
+
+    private ReadModel loadedReadModel() {
+        ReadModel model = newReadModel(1000);
+        when(orderRepository.findAllAfter(0L, Limit.of(10_000))).thenReturn(List.of());
+        when(assetRepository.findAllAfter(0L, Limit.of(10_000))).thenReturn(List.of());
+        model.load();
+        return model;
+    }
+
+    private ReadModel newReadModel(long maxWaitMillis) {
+        return new ReadModel(orderRepository, assetRepository, orderArchive, registry, 1000, maxWaitMillis);
+    }
+
+    private static Order order(Long id, OrderStatus status, String filledSize) {
+        return Order.builder()
+                .id(id)
+                .customerId(2L)
+                .assetName("AAPL")
+                .orderSide(OrderSide.BUY)
+                .size(Money.of("10"))
+                .price(Money.of("100"))
+                .filledSize(Money.of(filledSize))
+                .status(status)
+                .createDate(CREATED)
+                .build();
+    }
+
+    private static Asset asset(String assetName, String size, Long version) {
+        return Asset.builder()
+                .id(assetName.equals("TRY") ? 10L : 11L)
+                .version(version)
+                .customerId(2L)
+                .assetName(assetName)
+                .size(Money.of(size))
+                .usableSize(Money.of(size))
+                .costBasis(Money.ZERO)
+                .build();
+    }
+}
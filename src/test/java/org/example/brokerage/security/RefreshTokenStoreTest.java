@@ -0,0 +1,82 @@
+package org.example.brokerage.security;
+
+import org.example.brokerage.model.RefreshToken;
+import org.example.brokerage.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenStoreTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Test
+    void consume_IsSingleUse() {
+        RefreshTokenStore store = new RefreshTokenStore(refreshTokenRepository, 60_000, false, 10);
+        String token = store.issue(1L, "customer1", "CUSTOMER");
+
+        RefreshToken consumed = store.consume(token);
+
+        assertEquals(1L, consumed.getCustomerId());
+        assertEquals("customer1", consumed.getUsername());
+        assertThrows(IllegalArgumentException.class, () -> store.consume(token));
+        verifyNoInteractions(refreshTokenRepository);
+    }
+
+    @Test
+    void consume_ExpiredToken() {
+        RefreshTokenStore store = new RefreshTokenStore(refreshTokenRepository, -1, false, 10);
+        String token = store.issue(1L, "customer1", "CUSTOMER");
+
+        assertThrows(IllegalArgumentException.class, () -> store.consume(token));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void revokeAll_RemovesOnlyThatCustomer() {
+        RefreshTokenStore store = new RefreshTokenStore(refreshTokenRepository, 60_000, false, 10);
+        String first = store.issue(1L, "customer1", "CUSTOMER");
+        store.issue(1L, "customer1", "CUSTOMER");
+        String other = store.issue(2L, "customer2", "CUSTOMER");
+
+        store.revokeAll(1L);
+
+        assertEquals(1, store.size());
+        assertThrows(IllegalArgumentException.class, () -> store.consume(first));
+        assertEquals(2L, store.consume(other).getCustomerId());
+    }
+
+    @Test
+    void issue_BeyondMaxPerCustomer_RevokesTheOldest() {
+        RefreshTokenStore store = new RefreshTokenStore(refreshTokenRepository, 60_000, true, 2);
+        String oldest = store.issue(1L, "customer1", "CUSTOMER");
+        String second = store.issue(1L, "customer1", "CUSTOMER");
+        store.issue(2L, "customer2", "CUSTOMER");
+        String newest = store.issue(1L, "customer1", "CUSTOMER");
+
+        assertEquals(3, store.size());
+        assertThrows(IllegalArgumentException.class, () -> store.consume(oldest));
+        assertEquals(1L, store.consume(second).getCustomerId());
+        assertEquals(1L, store.consume(newest).getCustomerId());
+        verify(refreshTokenRepository, times(3)).deleteById(any());
+    }
+
+    @Test
+    void persistent_WritesThrough() {
+        RefreshTokenStore store = new RefreshTokenStore(refreshTokenRepository, 60_000, true, 10);
+        String token = store.issue(1L, "customer1", "CUSTOMER");
+
+        RefreshToken consumed = store.consume(token);
+
+        verify(refreshTokenRepository).save(any(RefreshToken.class));
+        verify(refreshTokenRepository).deleteById(consumed.getTokenHash());
+        assertNotEquals(token, consumed.getTokenHash());
+    }
+}
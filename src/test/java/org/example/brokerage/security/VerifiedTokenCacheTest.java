@@ -0,0 +1,53 @@
+package org.example.brokerage.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private final UserPrincipal principal = UserPrincipal.builder()
+            .customerId(1L)
+            .username("customer1")
+            .role("CUSTOMER")
+            .build();
+
+    @Test
+    void get_Hit() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("token-1", principal, System.currentTimeMillis() + 60_000);
+
+        assertSame(principal, cache.get("token-1"));
+        assertNull(cache.get("token-2"));
+    }
+
+    @Test
+    void get_ExpiredEntryIsDropped() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("token-1", principal, System.currentTimeMillis() - 1);
+
+        assertNull(cache.get("token-1"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_StaysWithinBound() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        long expiresAt = System.currentTimeMillis() + 60_000;
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put("token-" + i, principal, expiresAt);
+        }
+
+        assertTrue(cache.size() <= 100);
+        assertSame(principal, cache.get("token-999"));
+    }
+
+    @Test
+    void put_Disabled() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(0);
+        cache.put("token-1", principal, System.currentTimeMillis() + 60_000);
+
+        assertNull(cache.get("token-1"));
+    }
+}
@@ -1,6 +1,12 @@
 package org.example.brokerage.service;
 
+import org.example.brokerage.dto.OrderCursor;
+import org.example.brokerage.dto.OrderPage;
+import org.example.brokerage.event.OrderEvent;
+import org.example.brokerage.event.TradeEvent;
+import org.example.brokerage.metrics.OrderMetrics;
 import org.example.brokerage.model.*;
+import org.example.brokerage.pending.PendingOrderIndex;
 import org.example.brokerage.repository.AssetRepository;
 import org.example.brokerage.repository.OrderRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,15 +14,22 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
-import java.util.Arrays;
-import java.util.List;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +41,18 @@ class AdminServiceTest {
     @Mock
     private AssetRepository assetRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PendingOrderIndex pendingOrderIndex;
+
+    @Mock
+    private OrderMetrics orderMetrics;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private AdminService adminService;
 
@@ -43,9 +68,10 @@ class AdminServiceTest {
                 .customerId(1L)
                 .assetName("AAPL")
                 .orderSide(OrderSide.BUY)
-                .size(new BigDecimal("5"))
-                .price(new BigDecimal("100"))
+                .size(Money.of("5"))
+                .price(Money.of("100"))
                 .status(OrderStatus.PENDING)
+                .createDate(LocalDateTime.now())
                 .build();
 
         pendingSellOrder = Order.builder()
@@ -53,25 +79,26 @@ class AdminServiceTest {
                 .customerId(1L)
                 .assetName("AAPL")
                 .orderSide(OrderSide.SELL)
-                .size(new BigDecimal("5"))
-                .price(new BigDecimal("100"))
+                .size(Money.of("5"))
+                .price(Money.of("100"))
                 .status(OrderStatus.PENDING)
+                .createDate(LocalDateTime.now())
                 .build();
 
         tryAsset = Asset.builder()
                 .id(1L)
                 .customerId(1L)
                 .assetName("TRY")
-                .size(new BigDecimal("10000"))
-                .usableSize(new BigDecimal("10000"))
+                .size(Money.of("10000"))
+                .usableSize(Money.of("10000"))
                 .build();
 
         stockAsset = Asset.builder()
                 .id(2L)
                 .customerId(1L)
                 .assetName("AAPL")
-                .size(new BigDecimal("10"))
-                .usableSize(new BigDecimal("10"))
+                .size(Money.of("10"))
+                .usableSize(Money.of("10"))
                 .build();
     }
 
@@ -88,7 +115,7 @@ class AdminServiceTest {
         adminService.matchOrder(1L);
 
         assertEquals(OrderStatus.MATCHED, pendingBuyOrder.getStatus());
-        assertEquals(new BigDecimal("9500"), tryAsset.getSize());
+        assertEquals(Money.of("9500"), tryAsset.getSize());
         verify(assetRepository, times(2)).save(any(Asset.class));
         verify(orderRepository).save(pendingBuyOrder);
     }
@@ -104,9 +131,9 @@ class AdminServiceTest {
         adminService.matchOrder(1L);
 
         assertEquals(OrderStatus.MATCHED, pendingBuyOrder.getStatus());
-        assertEquals(new BigDecimal("9500"), tryAsset.getSize());
-        assertEquals(new BigDecimal("15"), stockAsset.getSize());
-        assertEquals(new BigDecimal("15"), stockAsset.getUsableSize());
+        assertEquals(Money.of("9500"), tryAsset.getSize());
+        assertEquals(Money.of("15"), stockAsset.getSize());
+        assertEquals(Money.of("15"), stockAsset.getUsableSize());
         verify(assetRepository, times(2)).save(any(Asset.class));
     }
 
@@ -121,10 +148,15 @@ class AdminServiceTest {
         adminService.matchOrder(2L);
 
         assertEquals(OrderStatus.MATCHED, pendingSellOrder.getStatus());
-        assertEquals(new BigDecimal("5"), stockAsset.getSize());
-        assertEquals(new BigDecimal("10500"), tryAsset.getSize());
-        assertEquals(new BigDecimal("10500"), tryAsset.getUsableSize());
+        assertEquals(Money.of("5"), stockAsset.getSize());
+        assertEquals(Money.of("10500"), tryAsset.getSize());
+        assertEquals(Money.of("10500"), tryAsset.getUsableSize());
         verify(assetRepository, times(2)).save(any(Asset.class));
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof TradeEvent trade
+                && trade.trade().sellOrderId().equals(2L) && trade.trade().buyOrderId() == null
+                && trade.trade().quantity().equals(Money.of("5").toBigDecimal())));
+        verify(orderMetrics).record(eq(OrderMetrics.Operation.MATCH), eq(OrderSide.SELL), eq("AAPL"),
+                eq(OrderMetrics.Outcome.SUCCESS), anyLong());
     }
 
     @Test
@@ -160,26 +192,41 @@ class AdminServiceTest {
 
     @Test
     void getPendingOrders_Success() {
-        List<Order> pendingOrders = Arrays.asList(pendingBuyOrder, pendingSellOrder);
-        when(orderRepository.findByStatus(OrderStatus.PENDING))
-                .thenReturn(pendingOrders);
+        when(pendingOrderIndex.query(null, null, null, null, null))
+                .thenReturn(Stream.of(pendingEvent(pendingBuyOrder), pendingEvent(pendingSellOrder)));
 
-        List<Order> result = adminService.getPendingOrders();
+        OrderPage result = adminService.getPendingOrders(null, null, null, null, null, 100);
 
-        assertEquals(2, result.size());
-        assertEquals(OrderStatus.PENDING, result.get(0).getStatus());
-        assertEquals(OrderStatus.PENDING, result.get(1).getStatus());
-        verify(orderRepository).findByStatus(OrderStatus.PENDING);
+        assertEquals(2, result.getOrders().size());
+        assertEquals(OrderStatus.PENDING, result.getOrders().get(0).getStatus());
+        assertEquals(OrderStatus.PENDING, result.getOrders().get(1).getStatus());
+        assertNull(result.getNextCursor());
+        verify(orderRepository, never()).findByStatus(any());
     }
 
     @Test
     void getPendingOrders_EmptyList() {
-        when(orderRepository.findByStatus(OrderStatus.PENDING))
-                .thenReturn(Arrays.asList());
+        when(pendingOrderIndex.query(null, null, null, null, null))
+                .thenReturn(Stream.empty());
 
-        List<Order> result = adminService.getPendingOrders();
+        OrderPage result = adminService.getPendingOrders(null, null, null, null, null, 100);
+
+        assertTrue(result.getOrders().isEmpty());
+        verify(orderRepository, never()).findByStatus(any());
+    }
+
+    @Test
+    void getPendingOrders_MorePending_ReturnsCursor() {
+        when(pendingOrderIndex.query(eq("AAPL"), eq(OrderSide.BUY), isNull(), any(LocalDateTime.class), isNull()))
+                .thenReturn(Stream.of(pendingEvent(pendingBuyOrder), pendingEvent(pendingSellOrder)));
+
+        OrderPage result = adminService.getPendingOrders("AAPL", OrderSide.BUY, Duration.ofMinutes(5), null, null, 1);
+
+        assertEquals(1, result.getOrders().size());
+        assertEquals(new OrderCursor(pendingBuyOrder.getCreateDate(), 1L), OrderCursor.decode(result.getNextCursor()));
+    }
 
-        assertTrue(result.isEmpty());
-        verify(orderRepository).findByStatus(OrderStatus.PENDING);
+    private OrderEvent pendingEvent(Order order) {
+        return OrderEvent.of(OrderEvent.Type.CREATED, order);
     }
 }
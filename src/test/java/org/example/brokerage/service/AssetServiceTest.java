@@ -1,19 +1,22 @@
 package org.example.brokerage.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.brokerage.cache.HoldingsCache;
 import org.example.brokerage.dto.AssetResponse;
 import org.example.brokerage.model.Asset;
+import org.example.brokerage.model.Money;
 import org.example.brokerage.repository.AssetRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class AssetServiceTest {
@@ -21,6 +24,9 @@ class AssetServiceTest {
     @Mock
     private AssetRepository assetRepository;
 
+    @Spy
+    private HoldingsCache holdingsCache = new HoldingsCache(new SimpleMeterRegistry(), 100);
+
     @InjectMocks
     private AssetService assetService;
 
@@ -30,16 +36,16 @@ class AssetServiceTest {
                 .id(1L)
                 .customerId(1L)
                 .assetName("TRY")
-                .size(new BigDecimal("10000"))
-                .usableSize(new BigDecimal("10000"))
+                .size(Money.of("10000"))
+                .usableSize(Money.of("10000"))
                 .build();
 
         Asset asset2 = Asset.builder()
                 .id(2L)
                 .customerId(1L)
                 .assetName("AAPL")
-                .size(new BigDecimal("10"))
-                .usableSize(new BigDecimal("10"))
+                .size(Money.of("10"))
+                .usableSize(Money.of("10"))
                 .build();
 
         when(assetRepository.findByCustomerId(1L))
@@ -51,4 +57,22 @@ class AssetServiceTest {
         assertEquals("TRY", responses.get(0).getAssetName());
         assertEquals("AAPL", responses.get(1).getAssetName());
     }
+
+    @Test
+    void listAssets_SecondCallServedFromCache() {
+        Asset asset = Asset.builder()
+                .id(1L)
+                .customerId(1L)
+                .assetName("TRY")
+                .size(Money.of("10000"))
+                .usableSize(Money.of("10000"))
+                .build();
+        when(assetRepository.findByCustomerId(1L)).thenReturn(List.of(asset));
+
+        assetService.listAssets(1L);
+        List<AssetResponse> responses = assetService.listAssets(1L);
+
+        assertEquals(1, responses.size());
+        verify(assetRepository, times(1)).findByCustomerId(1L);
+    }
 }
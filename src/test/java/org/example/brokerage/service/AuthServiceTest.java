@@ -2,9 +2,12 @@ package org.example.brokerage.service;
 
 import org.example.brokerage.dto.LoginRequest;
 import org.example.brokerage.dto.LoginResponse;
+import org.example.brokerage.dto.RefreshTokenRequest;
 import org.example.brokerage.model.Customer;
+import org.example.brokerage.model.RefreshToken;
 import org.example.brokerage.repository.CustomerRepository;
 import org.example.brokerage.security.JwtUtil;
+import org.example.brokerage.security.RefreshTokenStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -31,6 +34,9 @@ class AuthServiceTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private RefreshTokenStore refreshTokenStore;
+
     @InjectMocks
     private AuthService authService;
 
@@ -66,11 +72,14 @@ class AuthServiceTest {
                 .thenReturn(true);
         when(jwtUtil.generateToken("customer1", 1L, "CUSTOMER"))
                 .thenReturn("jwt-token-123");
+        when(refreshTokenStore.issue(1L, "customer1", "CUSTOMER"))
+                .thenReturn("refresh-token-123");
 
         LoginResponse response = authService.login(request);
 
         assertNotNull(response);
         assertEquals("jwt-token-123", response.getToken());
+        assertEquals("refresh-token-123", response.getRefreshToken());
         assertEquals(1L, response.getCustomerId());
         assertEquals("customer1", response.getUsername());
         assertEquals("CUSTOMER", response.getRole());
@@ -166,4 +175,59 @@ class AuthServiceTest {
             authService.login(request);
         });
     }
+
+    @Test
+    void refresh_RotatesToken() {
+        RefreshTokenRequest request = new RefreshTokenRequest();
+        request.setRefreshToken("old-refresh-token");
+
+        when(refreshTokenStore.consume("old-refresh-token"))
+                .thenReturn(RefreshToken.builder()
+                        .customerId(1L)
+                        .username("customer1")
+                        .role("CUSTOMER")
+                        .build());
+        when(jwtUtil.generateToken("customer1", 1L, "CUSTOMER"))
+                .thenReturn("new-jwt-token");
+        when(refreshTokenStore.issue(1L, "customer1", "CUSTOMER"))
+                .thenReturn("new-refresh-token");
+
+        LoginResponse response = authService.refresh(request);
+
+        assertEquals("new-jwt-token", response.getToken());
+        assertEquals("new-refresh-token", response.getRefreshToken());
+        assertEquals(1L, response.getCustomerId());
+        verify(customerRepository, never()).findByUsername(anyString());
+        verify(passwordEncoder, never()).matches(anyString(), anyString());
+    }
+
+    @Test
+    void refresh_InvalidToken() {
+        RefreshTokenRequest request = new RefreshTokenRequest();
+        request.setRefreshToken("unknown");
+
+        when(refreshTokenStore.consume("unknown"))
+                .thenThrow(new IllegalArgumentException("Invalid refresh token"));
+
+        assertThrows(IllegalArgumentException.class, () -> authService.refresh(request));
+        verify(jwtUtil, never()).generateToken(anyString(), anyLong(), anyString());
+        verify(refreshTokenStore, never()).issue(anyLong(), anyString(), anyString());
+    }
+
+    @Test
+    void logout_RevokesRefreshToken() {
+        RefreshTokenRequest request = new RefreshTokenRequest();
+        request.setRefreshToken("refresh-token-123");
+
+        authService.logout(request);
+
+        verify(refreshTokenStore).revoke("refresh-token-123");
+    }
+
+    @Test
+    void logoutAll_RevokesEveryRefreshTokenOfTheCustomer() {
+        authService.logoutAll(2L);
+
+        verify(refreshTokenStore).revokeAll(2L);
+    }
 }
@@ -1,9 +1,14 @@
 package org.example.brokerage.service;
 
+import org.example.brokerage.archive.OrderArchive;
+import org.example.brokerage.dto.BatchOrderResult;
 import org.example.brokerage.dto.CreateOrderRequest;
+import org.example.brokerage.dto.OrderCursor;
+import org.example.brokerage.dto.OrderPage;
 import org.example.brokerage.dto.OrderResponse;
 import org.example.brokerage.exception.InsufficientBalanceException;
 import org.example.brokerage.exception.OrderNotFoundException;
+import org.example.brokerage.metrics.OrderMetrics;
 import org.example.brokerage.model.*;
 import org.example.brokerage.repository.AssetRepository;
 import org.example.brokerage.repository.OrderRepository;
@@ -12,15 +17,25 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +47,20 @@ class OrderServiceTest {
     @Mock
     private AssetRepository assetRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OrderMetrics orderMetrics;
+
+    @Mock
+    private OrderArchive orderArchive;
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
     @InjectMocks
     private OrderService orderService;
 
@@ -44,16 +73,16 @@ class OrderServiceTest {
                 .id(1L)
                 .customerId(1L)
                 .assetName("TRY")
-                .size(new BigDecimal("10000"))
-                .usableSize(new BigDecimal("10000"))
+                .size(Money.of("10000"))
+                .usableSize(Money.of("10000"))
                 .build();
 
         stockAsset = Asset.builder()
                 .id(2L)
                 .customerId(1L)
                 .assetName("AAPL")
-                .size(new BigDecimal("10"))
-                .usableSize(new BigDecimal("10"))
+                .size(Money.of("10"))
+                .usableSize(Money.of("10"))
                 .build();
     }
 
@@ -79,9 +108,90 @@ class OrderServiceTest {
 
         assertNotNull(response);
         assertEquals(OrderStatus.PENDING, response.getStatus());
-        assertEquals(new BigDecimal("9500"), tryAsset.getUsableSize());
+        assertEquals(Money.of("9500"), tryAsset.getUsableSize());
         verify(assetRepository).save(tryAsset);
         verify(orderRepository).save(any(Order.class));
+        verify(orderMetrics).record(eq(OrderMetrics.Operation.CREATE), eq(OrderSide.BUY), eq("AAPL"),
+                eq(OrderMetrics.Outcome.SUCCESS), anyLong());
+    }
+
+    @Test
+    void createOrder_CommitFails_CountsErrorNotSuccess() {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(1L);
+        request.setAssetName("AAPL");
+        request.setOrderSide(OrderSide.BUY);
+        request.setSize(new BigDecimal("5"));
+        request.setPrice(new BigDecimal("100"));
+
+        when(assetRepository.findByCustomerIdAndAssetName(1L, "TRY"))
+                .thenReturn(Optional.of(tryAsset));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new ObjectOptimisticLockingFailureException(Asset.class, 1L)).when(transactionManager).commit(any());
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> orderService.createOrder(request));
+        verify(orderMetrics).record(eq(OrderMetrics.Operation.CREATE), eq(OrderSide.BUY), eq("AAPL"),
+                eq(OrderMetrics.Outcome.ERROR), anyLong());
+        verify(orderMetrics, never()).record(any(), any(), any(), eq(OrderMetrics.Outcome.SUCCESS), anyLong());
+    }
+
+    @Test
+    void createOrders_ReservesOncePerAssetAndRejectsWhatDoesNotFit() {
+        List<CreateOrderRequest> requests = List.of(
+                request(OrderSide.BUY, "AAPL", "40", "100"),
+                request(OrderSide.SELL, "AAPL", "4", "150"),
+                request(OrderSide.BUY, "AAPL", "70", "100"),
+                request(OrderSide.BUY, "MSFT", "50", "100"),
+                request(OrderSide.SELL, "AAPL", "7", "150"));
+
+        when(assetRepository.findByCustomerIdInAndAssetNameIn(any(), any()))
+                .thenReturn(List.of(tryAsset, stockAsset));
+        when(orderRepository.saveAll(anyList()))
+                .thenAnswer(invocation -> {
+                    List<Order> orders = invocation.getArgument(0);
+                    for (int i = 0; i < orders.size(); i++) {
+                        orders.get(i).setId(i + 1L);
+                    }
+                    return orders;
+                });
+
+        List<BatchOrderResult> results = orderService.createOrders(requests);
+
+        assertEquals(List.of(BatchOrderResult.Status.ACCEPTED, BatchOrderResult.Status.ACCEPTED,
+                        BatchOrderResult.Status.REJECTED, BatchOrderResult.Status.ACCEPTED,
+                        BatchOrderResult.Status.REJECTED),
+                results.stream().map(BatchOrderResult::getStatus).toList());
+        assertEquals("Insufficient TRY balance", results.get(2).getError());
+        assertEquals("Insufficient asset balance", results.get(4).getError());
+        assertEquals(3L, results.get(3).getOrder().getId());
+        assertEquals(Money.of("1000"), tryAsset.getUsableSize());
+        assertEquals(Money.of("6"), stockAsset.getUsableSize());
+        verify(assetRepository).save(tryAsset);
+        verify(assetRepository).save(stockAsset);
+        verify(assetRepository, never()).findByCustomerIdAndAssetName(any(), any());
+        verify(orderRepository).saveAll(argThat(orders -> ((List<Order>) orders).size() == 3));
+        verify(eventPublisher, times(5)).publishEvent(any(Object.class));
+        verify(orderMetrics, times(3)).record(eq(OrderMetrics.Operation.CREATE), any(), any(),
+                eq(OrderMetrics.Outcome.SUCCESS), anyLong());
+        verify(orderMetrics, times(2)).record(eq(OrderMetrics.Operation.CREATE), any(), eq("AAPL"),
+                eq(OrderMetrics.Outcome.INSUFFICIENT_BALANCE), anyLong());
+    }
+
+    @Test
+    void createOrders_RolledBack_CountsEachRequestOnce() {
+        CreateOrderRequest buy = new CreateOrderRequest();
+        buy.setCustomerId(1L);
+        buy.setAssetName("AAPL");
+        buy.setOrderSide(OrderSide.BUY);
+        buy.setSize(new BigDecimal("1000"));
+        buy.setPrice(new BigDecimal("100"));
+        when(assetRepository.findByCustomerIdInAndAssetNameIn(any(), any())).thenReturn(List.of(tryAsset));
+        doThrow(new ObjectOptimisticLockingFailureException(Asset.class, 1L)).when(transactionManager).commit(any());
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> orderService.createOrders(List.of(buy)));
+        verify(orderMetrics).record(eq(OrderMetrics.Operation.CREATE), eq(OrderSide.BUY), eq("AAPL"),
+                eq(OrderMetrics.Outcome.ERROR), anyLong());
+        verifyNoMoreInteractions(orderMetrics);
     }
 
     @Test
@@ -99,6 +209,8 @@ class OrderServiceTest {
         assertThrows(InsufficientBalanceException.class, () -> {
             orderService.createOrder(request);
         });
+        verify(orderMetrics).record(eq(OrderMetrics.Operation.CREATE), eq(OrderSide.BUY), eq("AAPL"),
+                eq(OrderMetrics.Outcome.INSUFFICIENT_BALANCE), anyLong());
     }
 
     @Test
@@ -140,7 +252,7 @@ class OrderServiceTest {
 
         assertNotNull(response);
         assertEquals(OrderStatus.PENDING, response.getStatus());
-        assertEquals(new BigDecimal("5"), stockAsset.getUsableSize());
+        assertEquals(Money.of("5"), stockAsset.getUsableSize());
         verify(assetRepository).save(stockAsset);
     }
 
@@ -188,8 +300,8 @@ class OrderServiceTest {
                 .customerId(1L)
                 .assetName("AAPL")
                 .orderSide(OrderSide.BUY)
-                .size(new BigDecimal("5"))
-                .price(new BigDecimal("100"))
+                .size(Money.of("5"))
+                .price(Money.of("100"))
                 .status(OrderStatus.PENDING)
                 .createDate(LocalDateTime.now())
                 .build();
@@ -203,6 +315,26 @@ class OrderServiceTest {
         assertEquals(1L, orders.get(0).getId());
     }
 
+    @Test
+    void listOrders_WithDateRange_MergesArchivedOrders() {
+        LocalDateTime endDate = LocalDateTime.now();
+        LocalDateTime startDate = endDate.minusDays(90);
+        Order hot = order(3L, endDate.minusDays(1));
+        Order archived = order(1L, endDate.minusDays(60));
+        archived.setStatus(OrderStatus.MATCHED);
+        Order archivedAndNotYetDeleted = order(2L, endDate.minusDays(45));
+        archivedAndNotYetDeleted.setStatus(OrderStatus.CANCELED);
+
+        when(orderRepository.findByCustomerIdAndCreateDateBetween(1L, startDate, endDate))
+                .thenReturn(List.of(archivedAndNotYetDeleted, hot));
+        when(orderArchive.find(1L, startDate, endDate)).thenReturn(List.of(archived, archivedAndNotYetDeleted));
+
+        List<OrderResponse> orders = orderService.listOrders(1L, startDate, endDate);
+
+        assertEquals(List.of(1L, 2L, 3L), orders.stream().map(OrderResponse::getId).toList());
+        assertEquals(OrderStatus.MATCHED, orders.get(0).getStatus());
+    }
+
     @Test
     void listOrders_WithoutDateRange() {
         Order order1 = Order.builder()
@@ -210,8 +342,8 @@ class OrderServiceTest {
                 .customerId(1L)
                 .assetName("AAPL")
                 .orderSide(OrderSide.BUY)
-                .size(new BigDecimal("5"))
-                .price(new BigDecimal("100"))
+                .size(Money.of("5"))
+                .price(Money.of("100"))
                 .status(OrderStatus.PENDING)
                 .createDate(LocalDateTime.now())
                 .build();
@@ -225,6 +357,92 @@ class OrderServiceTest {
         assertEquals(1L, orders.get(0).getId());
     }
 
+    @Test
+    void listOrdersPage_HasMore_ReturnsCursorOfLastRow() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Order> rows = Arrays.asList(order(1L, now), order(2L, now), order(3L, now.plusSeconds(1)));
+
+        when(orderRepository.findPageAfter(eq(1L), any(LocalDateTime.class), eq(0L),
+                any(LocalDateTime.class), eq(Limit.of(3))))
+                .thenReturn(rows);
+
+        OrderPage page = orderService.listOrdersPage(1L, null, null, null, 2);
+
+        assertEquals(2, page.getOrders().size());
+        assertEquals(2L, page.getOrders().get(1).getId());
+        assertEquals(new OrderCursor(now, 2L), OrderCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void listOrdersPage_LastPage_NoCursor() {
+        LocalDateTime now = LocalDateTime.now();
+        String cursor = new OrderCursor(now, 2L).encode();
+
+        when(orderRepository.findPageAfter(eq(1L), eq(now), eq(2L), any(LocalDateTime.class), eq(Limit.of(3))))
+                .thenReturn(List.of(order(3L, now.plusSeconds(1))));
+
+        OrderPage page = orderService.listOrdersPage(1L, null, null, cursor, 2);
+
+        assertEquals(1, page.getOrders().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void listOrdersPage_WithDateRange_MergesArchivedOrdersIntoTheWalk() {
+        LocalDateTime endDate = LocalDateTime.of(2025, 6, 1, 0, 0);
+        LocalDateTime startDate = endDate.minusDays(90);
+        Order archived = order(1L, endDate.minusDays(60));
+        Order archivedAndNotYetDeleted = order(2L, endDate.minusDays(45));
+        Order hot = order(3L, endDate.minusDays(1));
+
+        when(orderArchive.neededFor(startDate, endDate)).thenReturn(true);
+        when(orderRepository.findPageAfter(1L, startDate, 0L, endDate, Limit.of(3)))
+                .thenReturn(List.of(archivedAndNotYetDeleted, hot));
+        when(orderArchive.findAfter(1L, startDate, endDate, startDate, 0L, 3))
+                .thenReturn(List.of(archived, archivedAndNotYetDeleted));
+
+        OrderPage page = orderService.listOrdersPage(1L, startDate, endDate, null, 2);
+
+        assertEquals(List.of(1L, 2L), page.getOrders().stream().map(OrderResponse::getId).toList());
+        assertEquals(new OrderCursor(archivedAndNotYetDeleted.getCreateDate(), 2L),
+                OrderCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void listOrdersPage_OpenRangeReachingIntoTheArchive_Rejected() {
+        LocalDateTime startDate = LocalDateTime.of(2025, 1, 1, 0, 0);
+        when(orderArchive.neededFor(startDate, null)).thenThrow(new IllegalArgumentException("archived"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.listOrdersPage(1L, startDate, null, null, 10));
+        verify(orderRepository, never()).findPageAfter(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void listOrdersPage_InvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            orderService.listOrdersPage(1L, null, null, "not-a-cursor", 10);
+        });
+        verify(orderRepository, never()).findPageAfter(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void streamOrders_ReadsKeysetPagesUntilOneIsShort() {
+        LocalDateTime created = LocalDateTime.of(2025, 3, 14, 10, 0);
+        List<Order> fullPage = LongStream.rangeClosed(1, 500).mapToObj(id -> order(id, created)).toList();
+        when(orderRepository.findPageAfter(eq(1L), any(LocalDateTime.class), eq(0L), any(LocalDateTime.class),
+                any(Limit.class))).thenReturn(fullPage);
+        when(orderRepository.findPageAfter(eq(1L), eq(created), eq(500L), any(LocalDateTime.class),
+                any(Limit.class))).thenReturn(List.of(order(501L, created)));
+
+        List<OrderResponse> streamed = new ArrayList<>();
+        orderService.streamOrders(1L, null, null, streamed::add);
+
+        assertEquals(501, streamed.size());
+        assertEquals(501L, streamed.get(500).getId());
+        verify(orderRepository, times(2)).findPageAfter(any(), any(), any(), any(), any());
+    }
+
     @Test
     void deleteOrder_Success() {
         Order order = Order.builder()
@@ -232,8 +450,8 @@ class OrderServiceTest {
                 .customerId(1L)
                 .assetName("AAPL")
                 .orderSide(OrderSide.BUY)
-                .size(new BigDecimal("5"))
-                .price(new BigDecimal("100"))
+                .size(Money.of("5"))
+                .price(Money.of("100"))
                 .status(OrderStatus.PENDING)
                 .createDate(LocalDateTime.now())
                 .build();
@@ -256,8 +474,8 @@ class OrderServiceTest {
                 .customerId(1L)
                 .assetName("AAPL")
                 .orderSide(OrderSide.SELL)
-                .size(new BigDecimal("5"))
-                .price(new BigDecimal("100"))
+                .size(Money.of("5"))
+                .price(Money.of("100"))
                 .status(OrderStatus.PENDING)
                 .createDate(LocalDateTime.now())
                 .build();
@@ -269,7 +487,7 @@ class OrderServiceTest {
         orderService.deleteOrder(1L, 1L);
 
         assertEquals(OrderStatus.CANCELED, order.getStatus());
-        assertEquals(new BigDecimal("15"), stockAsset.getUsableSize());
+        assertEquals(Money.of("15"), stockAsset.getUsableSize());
         verify(orderRepository).save(order);
         verify(assetRepository).save(stockAsset);
     }
@@ -281,6 +499,8 @@ class OrderServiceTest {
         assertThrows(OrderNotFoundException.class, () -> {
             orderService.deleteOrder(1L, 1L);
         });
+        verify(orderMetrics).record(eq(OrderMetrics.Operation.CANCEL), isNull(), isNull(),
+                eq(OrderMetrics.Outcome.REJECTED), anyLong());
     }
 
     @Test
@@ -290,8 +510,8 @@ class OrderServiceTest {
                 .customerId(1L)
                 .assetName("AAPL")
                 .orderSide(OrderSide.BUY)
-                .size(new BigDecimal("5"))
-                .price(new BigDecimal("100"))
+                .size(Money.of("5"))
+                .price(Money.of("100"))
                 .status(OrderStatus.PENDING)
                 .createDate(LocalDateTime.now())
                 .build();
@@ -310,8 +530,8 @@ class OrderServiceTest {
                 .customerId(1L)
                 .assetName("AAPL")
                 .orderSide(OrderSide.BUY)
-                .size(new BigDecimal("5"))
-                .price(new BigDecimal("100"))
+                .size(Money.of("5"))
+                .price(Money.of("100"))
                 .status(OrderStatus.MATCHED)
                 .createDate(LocalDateTime.now())
                 .build();
@@ -322,4 +542,63 @@ class OrderServiceTest {
             orderService.deleteOrder(1L, 1L);
         });
     }
+
+    @Test
+    void expireOrder_DayOrder_ReleasesRemainingReservation() {
+        Order order = order(1L, LocalDateTime.now());
+        order.setTimeInForce(TimeInForce.DAY);
+        order.setFilledSize(Money.of("2"));
+        tryAsset.setUsableSize(Money.of("9700"));
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(assetRepository.findByCustomerIdAndAssetName(1L, "TRY"))
+                .thenReturn(Optional.of(tryAsset));
+
+        assertTrue(orderService.expireOrder(1L));
+
+        assertEquals(OrderStatus.CANCELED, order.getStatus());
+        assertEquals(Money.of("10000"), tryAsset.getUsableSize());
+        verify(orderRepository).save(order);
+    }
+
+    @Test
+    void expireOrder_GoodTillCancelledOrNoLongerPending_LeftAlone() {
+        Order gtc = order(1L, LocalDateTime.now());
+        Order matched = order(2L, LocalDateTime.now());
+        matched.setTimeInForce(TimeInForce.DAY);
+        matched.setStatus(OrderStatus.MATCHED);
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(gtc));
+        when(orderRepository.findById(2L)).thenReturn(Optional.of(matched));
+
+        assertFalse(orderService.expireOrder(1L));
+        assertFalse(orderService.expireOrder(2L));
+
+        assertEquals(OrderStatus.PENDING, gtc.getStatus());
+        verify(orderRepository, never()).save(any());
+        verifyNoInteractions(assetRepository);
+    }
+
+    private Order order(Long id, LocalDateTime createDate) {
+        return Order.builder()
+                .id(id)
+                .customerId(1L)
+                .assetName("AAPL")
+                .orderSide(OrderSide.BUY)
+                .size(Money.of("5"))
+                .price(Money.of("100"))
+                .status(OrderStatus.PENDING)
+                .createDate(createDate)
+                .build();
+    }
+
+    private static CreateOrderRequest request(OrderSide side, String assetName, String size, String price) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setCustomerId(1L);
+        request.setAssetName(assetName);
+        request.setOrderSide(side);
+        request.setSize(new BigDecimal(size));
+        request.setPrice(new BigDecimal(price));
+        return request;
+    }
 }
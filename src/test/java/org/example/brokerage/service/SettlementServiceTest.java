@@ -0,0 +1,176 @@
+package org.example.brokerage.service;
+
+import org.example.brokerage.event.OrderEvent;
+import org.example.brokerage.event.TradeEvent;
+import org.example.brokerage.matching.Trade;
+import org.example.brokerage.model.*;
+import org.example.brokerage.repository.AssetRepository;
+import org.example.brokerage.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SettlementServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private SettlementService settlementService;
+
+    private Order buyOrder;
+    private Order sellOrder;
+    private Asset buyerTry;
+    private Asset buyerStock;
+    private Asset sellerTry;
+    private Asset sellerStock;
+
+    @BeforeEach
+    void setUp() {
+        buyOrder = Order.builder()
+                .id(1L)
+                .customerId(1L)
+                .assetName("AAPL")
+                .orderSide(OrderSide.BUY)
+                .size(Money.of("5"))
+                .price(Money.of("100"))
+                .status(OrderStatus.PENDING)
+                .build();
+
+        sellOrder = Order.builder()
+                .id(2L)
+                .customerId(2L)
+                .assetName("AAPL")
+                .orderSide(OrderSide.SELL)
+                .size(Money.of("10"))
+                .price(Money.of("90"))
+                .status(OrderStatus.PENDING)
+                .build();
+
+        // Buyer already reserved 5 * 100 TRY, seller already reserved 10 AAPL
+        buyerTry = asset(1L, "TRY", "10000", "9500");
+        buyerStock = asset(1L, "AAPL", "0", "0");
+        sellerTry = asset(2L, "TRY", "1000", "1000");
+        sellerStock = asset(2L, "AAPL", "10", "0");
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(buyOrder));
+        when(orderRepository.findById(2L)).thenReturn(Optional.of(sellOrder));
+    }
+
+    @Test
+    void settle_FullBuyPartialSell() {
+        stubAssets();
+        sellerStock.setCostBasis(Money.of("800"));
+
+        settlementService.settle(trade("90", "5"));
+
+        assertEquals(Money.of("9550"), buyerTry.getSize());
+        assertEquals(Money.of("9550"), buyerTry.getUsableSize());
+        assertEquals(Money.of("5"), buyerStock.getSize());
+        assertEquals(Money.of("5"), buyerStock.getUsableSize());
+        assertEquals(Money.of("5"), sellerStock.getSize());
+        assertEquals(Money.of("0"), sellerStock.getUsableSize());
+        assertEquals(Money.of("1450"), sellerTry.getSize());
+        assertEquals(Money.of("1450"), sellerTry.getUsableSize());
+        assertEquals(Money.of("450"), buyerStock.getCostBasis());
+        assertEquals(Money.of("400"), sellerStock.getCostBasis());
+
+        assertEquals(OrderStatus.MATCHED, buyOrder.getStatus());
+        assertEquals(OrderStatus.PENDING, sellOrder.getStatus());
+        assertEquals(Money.of("5"), sellOrder.getFilledSize());
+        verify(orderRepository).save(buyOrder);
+        verify(orderRepository).save(sellOrder);
+        verify(eventPublisher, times(2)).publishEvent(any(OrderEvent.class));
+        verify(eventPublisher).publishEvent(any(TradeEvent.class));
+    }
+
+    @Test
+    void settle_FractionalFills_ReleaseExactlyTheReservation() {
+        stubAssets();
+        buyOrder.setSize(Money.of("1.01"));
+        buyOrder.setPrice(Money.of("1.05"));
+        // 1.01 * 1.05 = 1.0605 reserved as 1.06
+        buyerTry.setSize(Money.of("50000"));
+        buyerTry.setUsableSize(Money.of("49998.94"));
+
+        settlementService.settle(trade("1.03", "0.50"));
+        settlementService.settle(trade("1.03", "0.51"));
+
+        assertEquals(OrderStatus.MATCHED, buyOrder.getStatus());
+        assertEquals(Money.of("49998.95"), buyerTry.getSize());
+        assertEquals(Money.of("49998.95"), buyerTry.getUsableSize());
+    }
+
+    @Test
+    void settle_BuyerAssetMissing_CreatesAsset() {
+        when(assetRepository.findByCustomerIdAndAssetName(1L, "TRY")).thenReturn(Optional.of(buyerTry));
+        when(assetRepository.findByCustomerIdAndAssetName(1L, "AAPL")).thenReturn(Optional.empty());
+        when(assetRepository.findByCustomerIdAndAssetName(2L, "AAPL")).thenReturn(Optional.of(sellerStock));
+        when(assetRepository.findByCustomerIdAndAssetName(2L, "TRY")).thenReturn(Optional.of(sellerTry));
+
+        settlementService.settle(trade("90", "5"));
+
+        verify(assetRepository).save(argThat(asset ->
+                asset.getCustomerId().equals(1L)
+                        && asset.getAssetName().equals("AAPL")
+                        && asset.getSize().equals(Money.of("5"))));
+    }
+
+    @Test
+    void settle_OrderNotPending() {
+        sellOrder.setStatus(OrderStatus.CANCELED);
+
+        assertThrows(IllegalStateException.class, () -> {
+            settlementService.settle(trade("90", "5"));
+        });
+        verify(assetRepository, never()).save(any());
+    }
+
+    @Test
+    void settle_QuantityExceedsRemaining() {
+        buyOrder.setSize(Money.of("20"));
+
+        assertThrows(IllegalStateException.class, () -> {
+            settlementService.settle(trade("90", "11"));
+        });
+        verify(assetRepository, never()).save(any());
+    }
+
+    private void stubAssets() {
+        when(assetRepository.findByCustomerIdAndAssetName(1L, "TRY")).thenReturn(Optional.of(buyerTry));
+        when(assetRepository.findByCustomerIdAndAssetName(1L, "AAPL")).thenReturn(Optional.of(buyerStock));
+        when(assetRepository.findByCustomerIdAndAssetName(2L, "AAPL")).thenReturn(Optional.of(sellerStock));
+        when(assetRepository.findByCustomerIdAndAssetName(2L, "TRY")).thenReturn(Optional.of(sellerTry));
+    }
+
+    private Trade trade(String price, String quantity) {
+        return new Trade("AAPL", 1L, 1L, 2L, 2L, new BigDecimal(price), new BigDecimal(quantity));
+    }
+
+    private Asset asset(Long customerId, String assetName, String size, String usableSize) {
+        return Asset.builder()
+                .customerId(customerId)
+                .assetName(assetName)
+                .size(Money.of(size))
+                .usableSize(Money.of(usableSize))
+                .build();
+    }
+}
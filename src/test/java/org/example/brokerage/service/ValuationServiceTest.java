@@ -0,0 +1,124 @@
+package org.example.brokerage.service;
+
+import org.example.brokerage.dto.FirmValuation;
+import org.example.brokerage.dto.HoldingValuation;
+import org.example.brokerage.dto.PortfolioValuation;
+import org.example.brokerage.event.TradeEvent;
+import org.example.brokerage.market.MarketData;
+import org.example.brokerage.matching.Trade;
+import org.example.brokerage.model.Asset;
+import org.example.brokerage.model.Money;
+import org.example.brokerage.repository.AssetHolding;
+import org.example.brokerage.repository.AssetRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ValuationServiceTest {
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    private ValuationService valuationService;
+
+    @BeforeEach
+    void setUp() {
+        MarketData marketData = new MarketData(null, 10);
+        marketData.onTradeEvent(new TradeEvent(new Trade("AAPL", 1L, 1L, 2L, 2L,
+                new BigDecimal("160.00"), BigDecimal.ONE), LocalDateTime.now()));
+        valuationService = new ValuationService(assetRepository, marketData, 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        valuationService.shutdown();
+    }
+
+    @Test
+    void valueCustomer_MarksToReferencePrice() {
+        when(assetRepository.findByCustomerId(1L)).thenReturn(List.of(
+                asset("TRY", "10000", "9000", "0"),
+                asset("AAPL", "10", "4", "1500"),
+                asset("MSFT", "3", "3", "900")));
+
+        PortfolioValuation valuation = valuationService.valueCustomer(1L);
+
+        assertEquals(new BigDecimal("11600.00"), valuation.getEquity());
+        assertEquals(new BigDecimal("1960.00"), valuation.getReservedValue());
+        assertEquals(new BigDecimal("100.00"), valuation.getUnrealizedPnl());
+        assertEquals(List.of("MSFT"), valuation.getUnpricedAssets());
+
+        HoldingValuation aapl = valuation.getHoldings().get(1);
+        assertEquals(new BigDecimal("160.00"), aapl.getPrice());
+        assertEquals(new BigDecimal("1600.00"), aapl.getMarketValue());
+        assertEquals(new BigDecimal("6.00"), aapl.getReserved());
+        assertEquals(new BigDecimal("960.00"), aapl.getReservedValue());
+        assertEquals(new BigDecimal("100.00"), aapl.getUnrealizedPnl());
+        assertEquals(BigDecimal.ZERO.setScale(2), valuation.getHoldings().get(0).getUnrealizedPnl());
+        assertNull(valuation.getHoldings().get(2).getMarketValue());
+    }
+
+    @Test
+    void valueFirm_ScansCustomerPartitionsAndSumsPerAsset() {
+        when(assetRepository.findMinCustomerId()).thenReturn(1L);
+        when(assetRepository.findMaxCustomerId()).thenReturn(5L);
+        when(assetRepository.findHoldingsByCustomerIdBetween(1L, 2L)).thenReturn(List.of(
+                holding(1L, "TRY", "1000", "900", "0"),
+                holding(1L, "AAPL", "2", "2", "300"),
+                holding(2L, "TRY", "500", "500", "0")));
+        when(assetRepository.findHoldingsByCustomerIdBetween(3L, 4L)).thenReturn(List.of());
+        when(assetRepository.findHoldingsByCustomerIdBetween(5L, 5L)).thenReturn(List.of(
+                holding(5L, "AAPL", "3", "1", "510")));
+
+        FirmValuation valuation = valuationService.valueFirm();
+
+        assertEquals(3, valuation.getCustomers());
+        assertEquals(4, valuation.getHoldings());
+        assertEquals(List.of("AAPL", "TRY"), valuation.getAssets().stream().map(HoldingValuation::getAssetName).toList());
+        HoldingValuation aapl = valuation.getAssets().get(0);
+        assertEquals(new BigDecimal("5.00"), aapl.getSize());
+        assertEquals(new BigDecimal("800.00"), aapl.getMarketValue());
+        assertEquals(new BigDecimal("-10.00"), aapl.getUnrealizedPnl());
+        assertEquals(new BigDecimal("2300.00"), valuation.getEquity());
+        assertEquals(new BigDecimal("420.00"), valuation.getReservedValue());
+        assertEquals(new BigDecimal("-10.00"), valuation.getUnrealizedPnl());
+    }
+
+    @Test
+    void valueFirm_NoAssets_ReturnsZeroTotals() {
+        when(assetRepository.findMinCustomerId()).thenReturn(null);
+
+        FirmValuation valuation = valuationService.valueFirm();
+
+        assertEquals(0, valuation.getCustomers());
+        assertEquals(BigDecimal.ZERO.setScale(2), valuation.getEquity());
+        assertTrue(valuation.getAssets().isEmpty());
+        verify(assetRepository, never()).findHoldingsByCustomerIdBetween(anyLong(), anyLong());
+    }
+
+    private static Asset asset(String assetName, String size, String usableSize, String costBasis) {
+        return Asset.builder()
+                .customerId(1L)
+                .assetName(assetName)
+                .size(Money.of(size))
+                .usableSize(Money.of(usableSize))
+                .costBasis(Money.of(costBasis))
+                .build();
+    }
+
+    private static AssetHolding holding(Long customerId, String assetName, String size, String usableSize,
+                                        String costBasis) {
+        return new AssetHolding(customerId, assetName, Money.of(size), Money.of(usableSize), Money.of(costBasis));
+    }
+}